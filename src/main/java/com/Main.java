@@ -199,12 +199,12 @@ public class Main {
     // });
     // Set callback for when value changes
     uiSystem.setSliderCallback(gravitySliderX, (value) -> {
-      game.getPhysicsWorld().setGravity(
+      game.getPhysicsRegions().setGravity(
           new org.jbox2d.common.Vec2(value, ((Slider) gravitySliderY.get(UIComponent.class).getUi()).getValue()));
     });
 
     uiSystem.setSliderCallback(gravitySliderY, (value) -> {
-      game.getPhysicsWorld().setGravity(
+      game.getPhysicsRegions().setGravity(
           new org.jbox2d.common.Vec2(((Slider) gravitySliderX.get(UIComponent.class).getUi()).getValue(), value));
     });
 
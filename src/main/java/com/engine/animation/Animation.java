@@ -2,12 +2,15 @@ package com.engine.animation;
 
 import java.awt.image.BufferedImage;
 
+import com.engine.assets.AtlasRegion;
+
 /**
  * Represents an animation sequence of frames
  */
 public class Animation {
   private String name;
   private BufferedImage[] frames;
+  private AtlasRegion[] regions; // Frames as regions of a shared image, may be null
   private float frameRate; // frames per second
   private boolean looping = true;
 
@@ -37,6 +40,21 @@ public class Animation {
     this(name, frames, frameRate, true);
   }
 
+  /**
+   * Create a new animation whose frames are regions of a shared image
+   *
+   * @param name      Unique name for this animation
+   * @param regions   Array of frame regions
+   * @param frameRate Frame rate in frames per second
+   * @param looping   Whether the animation should loop
+   */
+  public Animation(String name, AtlasRegion[] regions, float frameRate, boolean looping) {
+    this.name = name;
+    this.regions = regions;
+    this.frameRate = frameRate;
+    this.looping = looping;
+  }
+
   /**
    * Create an animation from a sprite sheet
    *
@@ -57,8 +75,34 @@ public class Animation {
       int frameWidth, int frameHeight, int frameCount,
       int startX, int startY, int columns,
       float frameRate, boolean looping) {
+    return fromSpriteSheet(name, new AtlasRegion(null, spriteSheet), frameWidth, frameHeight,
+        frameCount, startX, startY, columns, frameRate, looping);
+  }
 
-    BufferedImage[] frames = new BufferedImage[frameCount];
+  /**
+   * Create an animation from a sprite sheet region, such as a sheet packed
+   * into a texture atlas. Frames are regions of the sheet, so no pixels are
+   * copied and all frames draw from the same image.
+   *
+   * @param name        Animation name
+   * @param spriteSheet The sprite sheet region
+   * @param frameWidth  Width of each frame
+   * @param frameHeight Height of each frame
+   * @param frameCount  Number of frames
+   * @param startX      Starting X position in the sprite sheet
+   * @param startY      Starting Y position in the sprite sheet
+   * @param columns     Number of columns in the sprite sheet
+   * @param frameRate   Frame rate in frames per second
+   * @param looping     Whether the animation should loop
+   * @return The created animation
+   */
+  public static Animation fromSpriteSheet(
+      String name, AtlasRegion spriteSheet,
+      int frameWidth, int frameHeight, int frameCount,
+      int startX, int startY, int columns,
+      float frameRate, boolean looping) {
+
+    AtlasRegion[] frames = new AtlasRegion[frameCount];
 
     for (int i = 0; i < frameCount; i++) {
       int col = i % columns;
@@ -72,7 +116,7 @@ public class Animation {
         throw new IllegalArgumentException("Frame exceeds sprite sheet bounds");
       }
 
-      frames[i] = spriteSheet.getSubimage(x, y, frameWidth, frameHeight);
+      frames[i] = spriteSheet.subRegion(name + "_" + i, x, y, frameWidth, frameHeight);
     }
 
     return new Animation(name, frames, frameRate, looping);
@@ -84,9 +128,24 @@ public class Animation {
   }
 
   public BufferedImage[] getFrames() {
+    if (frames == null) {
+      frames = new BufferedImage[regions.length];
+      for (int i = 0; i < regions.length; i++) {
+        frames[i] = regions[i].toImage();
+      }
+    }
     return frames;
   }
 
+  /**
+   * Get the frame regions
+   *
+   * @return The regions, or null if the frames are standalone images
+   */
+  public AtlasRegion[] getRegions() {
+    return regions;
+  }
+
   public float getFrameRate() {
     return frameRate;
   }
@@ -104,17 +163,30 @@ public class Animation {
   }
 
   public int getFrameCount() {
-    return frames.length;
+    return regions != null ? regions.length : frames.length;
   }
 
   public BufferedImage getFrame(int index) {
-    if (index < 0 || index >= frames.length) {
+    if (index < 0 || index >= getFrameCount()) {
+      return null;
+    }
+    return regions != null ? regions[index].toImage() : frames[index];
+  }
+
+  /**
+   * Get a frame as a region
+   *
+   * @return The region, or null if out of range or the frames are standalone
+   *         images
+   */
+  public AtlasRegion getRegion(int index) {
+    if (regions == null || index < 0 || index >= regions.length) {
       return null;
     }
-    return frames[index];
+    return regions[index];
   }
 
   public float getDuration() {
-    return frames.length / frameRate;
+    return getFrameCount() / frameRate;
   }
 }
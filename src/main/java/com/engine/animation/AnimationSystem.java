@@ -70,7 +70,15 @@ public class AnimationSystem {
         }
       }
 
-      // Apply current animation frame to sprite
+      // Apply current animation frame to sprite, drawing sheet and atlas
+      // frames straight from their shared image
+      var region = animation.getCurrentRegion();
+      if (region != null) {
+        sprite.setRegion(region);
+        count++;
+        continue;
+      }
+
       var frame = animation.getCurrentFrame();
       sprite.setImage(frame);
 
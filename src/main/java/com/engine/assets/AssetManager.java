@@ -50,6 +50,8 @@ public class AssetManager {
   private final Map<String, Object> assets = new HashMap<>();
   private final Map<String, AssetInfo> assetInfo = new HashMap<>();
   private final ExecutorService asyncLoader = Executors.newSingleThreadExecutor();
+  private final TextureAtlas atlas = new TextureAtlas();
+  private final ImageOptimizer imageOptimizer = new ImageOptimizer();
   private Path basePath = Paths.get("assets");
 
   // Audio system reference
@@ -92,6 +94,11 @@ public class AssetManager {
     try {
       Path fullPath = basePath.resolve(path);
       BufferedImage image = ImageIO.read(fullPath.toFile());
+      if (image == null) {
+        LOGGER.warning("Unsupported image format: " + path);
+        return null;
+      }
+      image = imageOptimizer.optimize(id, image);
       assets.put(id, image);
       assetInfo.put(id, new AssetInfo(id, AssetType.IMAGE, path));
       LOGGER.fine("Loaded image: " + id + " from " + path);
@@ -113,6 +120,75 @@ public class AssetManager {
     return CompletableFuture.supplyAsync(() -> loadImage(id, path), asyncLoader);
   }
 
+  /**
+   * Load an image and pack it into the texture atlas
+   *
+   * @param id   The identifier for the asset and its atlas region
+   * @param path The path to the image file (relative to base path)
+   * @return The atlas region holding the image or null if loading failed
+   */
+  public AtlasRegion loadRegion(String id, String path) {
+    AtlasRegion region = atlas.getRegion(id);
+    if (region != null) {
+      return region;
+    }
+
+    BufferedImage image = loadImage(id, path);
+    return image != null ? atlas.add(id, image) : null;
+  }
+
+  /**
+   * Get the atlas region of a loaded image, packing it on first use
+   *
+   * @param id The image asset identifier
+   * @return The region or null if no such image is loaded
+   */
+  public AtlasRegion getRegion(String id) {
+    AtlasRegion region = atlas.getRegion(id);
+    if (region != null) {
+      return region;
+    }
+
+    Object asset = assets.get(id);
+    return asset instanceof BufferedImage ? atlas.add(id, (BufferedImage) asset) : null;
+  }
+
+  /**
+   * Pack every loaded image that is not yet in the texture atlas. Packing
+   * images together, largest first, fills pages tighter than packing them one
+   * at a time as they are first drawn.
+   *
+   * @return Regions of the newly packed images by asset identifier
+   */
+  public Map<String, AtlasRegion> packLoadedImages() {
+    Map<String, BufferedImage> unpacked = new HashMap<>();
+    for (Map.Entry<String, Object> entry : assets.entrySet()) {
+      if (entry.getValue() instanceof BufferedImage && atlas.getRegion(entry.getKey()) == null) {
+        unpacked.put(entry.getKey(), (BufferedImage) entry.getValue());
+      }
+    }
+
+    Map<String, AtlasRegion> packed = atlas.addAll(unpacked);
+    LOGGER.info("Packed " + packed.size() + " images into " + atlas.getPageCount() + " atlas pages ("
+        + Math.round(atlas.getFillRatio() * 100) + "% filled)");
+    return packed;
+  }
+
+  /**
+   * Get the texture atlas shared by all packed images
+   */
+  public TextureAtlas getAtlas() {
+    return atlas;
+  }
+
+  /**
+   * Get the optimizer that converts loaded images to the display's format,
+   * along with its per-asset conversion stats
+   */
+  public ImageOptimizer getImageOptimizer() {
+    return imageOptimizer;
+  }
+
   /**
    * Load a font asset
    *
@@ -421,6 +497,7 @@ public class AssetManager {
   public void unloadAsset(String id) {
     assets.remove(id);
     assetInfo.remove(id);
+    imageOptimizer.remove(id);
     LOGGER.fine("Unloaded asset: " + id);
   }
 
@@ -430,6 +507,8 @@ public class AssetManager {
   public void clearAssets() {
     assets.clear();
     assetInfo.clear();
+    atlas.clear();
+    imageOptimizer.clear();
     LOGGER.info("Cleared all assets");
   }
 
@@ -466,7 +545,9 @@ public class AssetManager {
       int frameWidth, int frameHeight,
       Map<String, int[]> animationData,
       int columns) {
-    BufferedImage sheet = loadImage(id + "_sheet", path);
+    // Frames are cut as regions of the packed sheet, so every animation
+    // draws from the shared atlas page
+    AtlasRegion sheet = loadRegion(id + "_sheet", path);
     if (sheet == null) {
       return new HashMap<>();
     }
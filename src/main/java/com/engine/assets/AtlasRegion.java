@@ -0,0 +1,134 @@
+package com.engine.assets;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+/**
+ * A rectangular area of a larger image, such as an atlas page or a sprite
+ * sheet. Drawing a region uses a source rectangle on the shared image instead
+ * of a separate sub-image, so the image stays a single managed surface.
+ */
+public class AtlasRegion {
+  private final String name;
+  private final BufferedImage page;
+  private final int x;
+  private final int y;
+  private final int width;
+  private final int height;
+  private BufferedImage standalone;
+
+  /**
+   * Create a region
+   *
+   * @param name   Identifier of the region, may be null
+   * @param page   Image holding the region
+   * @param x      Left edge in the image
+   * @param y      Top edge in the image
+   * @param width  Width of the region
+   * @param height Height of the region
+   */
+  public AtlasRegion(String name, BufferedImage page, int x, int y, int width, int height) {
+    if (page == null) {
+      throw new IllegalArgumentException("Region image cannot be null");
+    }
+    if (x < 0 || y < 0 || width <= 0 || height <= 0 ||
+        x + width > page.getWidth() || y + height > page.getHeight()) {
+      throw new IllegalArgumentException("Region exceeds image bounds");
+    }
+    this.name = name;
+    this.page = page;
+    this.x = x;
+    this.y = y;
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Create a region covering a whole image
+   */
+  public AtlasRegion(String name, BufferedImage image) {
+    this(name, image, 0, 0, image.getWidth(), image.getHeight());
+  }
+
+  /**
+   * Create a region relative to this one
+   *
+   * @param name   Identifier of the new region
+   * @param x      Left edge relative to this region
+   * @param y      Top edge relative to this region
+   * @param width  Width of the new region
+   * @param height Height of the new region
+   * @return The sub-region, sharing this region's image
+   */
+  public AtlasRegion subRegion(String name, int x, int y, int width, int height) {
+    if (x < 0 || y < 0 || x + width > this.width || y + height > this.height) {
+      throw new IllegalArgumentException("Sub-region exceeds region bounds");
+    }
+    return new AtlasRegion(name, page, this.x + x, this.y + y, width, height);
+  }
+
+  /**
+   * Draw the region scaled into a destination rectangle
+   *
+   * @param g  Graphics context
+   * @param dx Left edge of the destination
+   * @param dy Top edge of the destination
+   * @param dw Width of the destination
+   * @param dh Height of the destination
+   */
+  public void draw(Graphics2D g, int dx, int dy, int dw, int dh) {
+    draw(g, page, dx, dy, dw, dh);
+  }
+
+  /**
+   * Draw the region from a copy of its image, such as an accelerated one
+   *
+   * @param g       Graphics context
+   * @param surface Image with the same pixels as the page
+   * @param dx      Left edge of the destination
+   * @param dy      Top edge of the destination
+   * @param dw      Width of the destination
+   * @param dh      Height of the destination
+   */
+  public void draw(Graphics2D g, Image surface, int dx, int dy, int dw, int dh) {
+    g.drawImage(surface, dx, dy, dx + dw, dy + dh, x, y, x + width, y + height, null);
+  }
+
+  /**
+   * Get the region as an image of its own, for code that needs a plain
+   * BufferedImage. The result shares pixels with the page.
+   */
+  public BufferedImage toImage() {
+    if (standalone == null) {
+      standalone = (x == 0 && y == 0 && width == page.getWidth() && height == page.getHeight())
+          ? page
+          : page.getSubimage(x, y, width, height);
+    }
+    return standalone;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public BufferedImage getPage() {
+    return page;
+  }
+
+  public int getX() {
+    return x;
+  }
+
+  public int getY() {
+    return y;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+}
@@ -0,0 +1,264 @@
+package com.engine.assets;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Converts images into the pixel layout of the display.
+ * <p>
+ * Images decoded by ImageIO often come back as TYPE_3BYTE_BGR, TYPE_CUSTOM or
+ * an indexed type. Java2D has no accelerated loop for drawing those onto the
+ * screen, so every draw falls back to a software conversion. Copying them once
+ * into an image created by the screen's {@link GraphicsConfiguration} lets the
+ * pipeline cache them as managed images and blit them directly.
+ */
+public class ImageOptimizer {
+  private static final Logger LOGGER = Logger.getLogger(ImageOptimizer.class.getName());
+
+  private final Map<String, ConversionStats> stats = new LinkedHashMap<>();
+  private boolean enabled = true;
+  private long totalConversionNanos = 0;
+  private int convertedCount = 0;
+
+  /**
+   * Conversion record of one asset
+   */
+  public static class ConversionStats {
+    private final String id;
+    private final int sourceType;
+    private final int targetType;
+    private final int width;
+    private final int height;
+    private final boolean converted;
+    private final long conversionNanos;
+
+    ConversionStats(String id, int sourceType, int targetType, int width, int height,
+        boolean converted, long conversionNanos) {
+      this.id = id;
+      this.sourceType = sourceType;
+      this.targetType = targetType;
+      this.width = width;
+      this.height = height;
+      this.converted = converted;
+      this.conversionNanos = conversionNanos;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    /**
+     * Get the BufferedImage type the image was loaded as
+     */
+    public int getSourceType() {
+      return sourceType;
+    }
+
+    /**
+     * Get the BufferedImage type the image is drawn as
+     */
+    public int getTargetType() {
+      return targetType;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    /**
+     * Check whether the pixels had to be copied into a new image
+     */
+    public boolean isConverted() {
+      return converted;
+    }
+
+    public long getConversionNanos() {
+      return conversionNanos;
+    }
+
+    @Override
+    public String toString() {
+      return id + ": " + typeName(sourceType) + " -> " + typeName(targetType)
+          + " (" + width + "x" + height + ", " + (conversionNanos / 1000) + "us)";
+    }
+  }
+
+  /**
+   * Convert an image to the display's format if it is not already in it
+   *
+   * @param id    Asset identifier the conversion is recorded under
+   * @param image Image to convert
+   * @return The converted image, or the image itself when it is already
+   *         compatible or optimization is disabled
+   */
+  public BufferedImage optimize(String id, BufferedImage image) {
+    if (image == null || !enabled) {
+      return image;
+    }
+
+    long start = System.nanoTime();
+    BufferedImage result = image;
+    boolean converted = false;
+    if (!isCompatible(image)) {
+      result = createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+      Graphics2D g = result.createGraphics();
+      try {
+        g.drawImage(image, 0, 0, null);
+      } finally {
+        g.dispose();
+      }
+      converted = true;
+    }
+    long elapsed = System.nanoTime() - start;
+
+    ConversionStats record = new ConversionStats(id, image.getType(), result.getType(),
+        image.getWidth(), image.getHeight(), converted, elapsed);
+    synchronized (this) {
+      stats.put(id, record);
+      if (converted) {
+        convertedCount++;
+        totalConversionNanos += elapsed;
+      }
+    }
+    if (converted) {
+      LOGGER.fine("Converted image " + record);
+    }
+    return result;
+  }
+
+  /**
+   * Check whether an image already matches the display's pixel layout
+   */
+  public static boolean isCompatible(BufferedImage image) {
+    GraphicsConfiguration config = getConfiguration();
+    if (config == null) {
+      // No display to match; integer ARGB/RGB are the fastest software formats
+      int type = image.getType();
+      return type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE
+          || type == BufferedImage.TYPE_INT_RGB;
+    }
+
+    ColorModel target = config.getColorModel(image.getTransparency());
+    return image.getColorModel().equals(target)
+        && image.getSampleModel().getClass() == target.createCompatibleSampleModel(1, 1).getClass();
+  }
+
+  /**
+   * Create an image in the screen's native pixel layout, falling back to
+   * integer ARGB or RGB when running headless
+   *
+   * @param width        Image width
+   * @param height       Image height
+   * @param transparency One of the {@link Transparency} constants
+   */
+  public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+    GraphicsConfiguration config = getConfiguration();
+    if (config != null) {
+      return config.createCompatibleImage(width, height, transparency);
+    }
+    return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+        ? BufferedImage.TYPE_INT_RGB
+        : BufferedImage.TYPE_INT_ARGB);
+  }
+
+  private static GraphicsConfiguration getConfiguration() {
+    if (GraphicsEnvironment.isHeadless()) {
+      return null;
+    }
+    return GraphicsEnvironment.getLocalGraphicsEnvironment()
+        .getDefaultScreenDevice().getDefaultConfiguration();
+  }
+
+  /**
+   * Get the conversion record of an asset
+   *
+   * @return The record or null if the asset was never optimized
+   */
+  public synchronized ConversionStats getStats(String id) {
+    return stats.get(id);
+  }
+
+  /**
+   * Get the conversion records of all optimized assets, in load order
+   */
+  public synchronized Map<String, ConversionStats> getAllStats() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(stats));
+  }
+
+  /**
+   * Get the number of images that had to be converted
+   */
+  public synchronized int getConvertedCount() {
+    return convertedCount;
+  }
+
+  /**
+   * Get the total time spent converting images, in nanoseconds
+   */
+  public synchronized long getTotalConversionNanos() {
+    return totalConversionNanos;
+  }
+
+  /**
+   * Forget the conversion record of an asset
+   */
+  public synchronized void remove(String id) {
+    stats.remove(id);
+  }
+
+  public synchronized void clear() {
+    stats.clear();
+    convertedCount = 0;
+    totalConversionNanos = 0;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enable or disable conversion; disabled, images are used as loaded
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  private static String typeName(int type) {
+    switch (type) {
+      case BufferedImage.TYPE_INT_RGB:
+        return "INT_RGB";
+      case BufferedImage.TYPE_INT_ARGB:
+        return "INT_ARGB";
+      case BufferedImage.TYPE_INT_ARGB_PRE:
+        return "INT_ARGB_PRE";
+      case BufferedImage.TYPE_INT_BGR:
+        return "INT_BGR";
+      case BufferedImage.TYPE_3BYTE_BGR:
+        return "3BYTE_BGR";
+      case BufferedImage.TYPE_4BYTE_ABGR:
+        return "4BYTE_ABGR";
+      case BufferedImage.TYPE_4BYTE_ABGR_PRE:
+        return "4BYTE_ABGR_PRE";
+      case BufferedImage.TYPE_BYTE_GRAY:
+        return "BYTE_GRAY";
+      case BufferedImage.TYPE_BYTE_INDEXED:
+        return "BYTE_INDEXED";
+      case BufferedImage.TYPE_CUSTOM:
+        return "CUSTOM";
+      default:
+        return "TYPE_" + type;
+    }
+  }
+}
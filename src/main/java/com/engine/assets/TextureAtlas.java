@@ -0,0 +1,256 @@
+package com.engine.assets;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Packs many small images into a few large display-compatible pages.
+ * <p>
+ * Images are placed with a shelf packer: each page is split into horizontal
+ * shelves, and an image goes on the shelf whose height wastes the least space,
+ * or on a new shelf when none fits. Images larger than a page get a page of
+ * their own. Packed pixels are copied, so the source images can be dropped
+ * once added. Packing into an existing page changes its pixels; anything that
+ * keeps a copy of a page can register a {@link PageListener} to drop it.
+ */
+public class TextureAtlas {
+  private static final Logger LOGGER = Logger.getLogger(TextureAtlas.class.getName());
+  public static final int DEFAULT_PAGE_SIZE = 2048;
+  private static final int PADDING = 1;
+
+  private final int pageSize;
+  private final List<Page> pages = new ArrayList<>();
+  private final Map<String, AtlasRegion> regions = new HashMap<>();
+  private final List<PageListener> pageListeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Notified when an image is packed into a page that already existed
+   */
+  @FunctionalInterface
+  public interface PageListener {
+    /**
+     * Called after new pixels were drawn into a page, on the thread that
+     * packed them
+     *
+     * @param page The modified page image
+     */
+    void pageModified(BufferedImage page);
+  }
+
+  /**
+   * One atlas image and its shelves
+   */
+  private static class Page {
+    final BufferedImage image;
+    final List<int[]> shelves = new ArrayList<>(); // {y, height, nextX}
+    int usedHeight = 0;
+    long usedArea = 0;
+
+    Page(BufferedImage image) {
+      this.image = image;
+    }
+
+    /**
+     * Find room for a w x h box
+     *
+     * @return {x, y}, or null if the page is full
+     */
+    int[] allocate(int w, int h) {
+      int pageWidth = image.getWidth();
+      int[] best = null;
+      for (int[] shelf : shelves) {
+        if (shelf[1] >= h && shelf[2] + w <= pageWidth
+            && (best == null || shelf[1] < best[1])) {
+          best = shelf;
+        }
+      }
+
+      // Open a new shelf instead of wasting most of a tall one
+      if ((best == null || best[1] > h * 2) && usedHeight + h <= image.getHeight()) {
+        best = new int[] { usedHeight, h, 0 };
+        shelves.add(best);
+        usedHeight += h;
+      }
+      if (best == null) {
+        return null;
+      }
+
+      int[] position = { best[2], best[0] };
+      best[2] += w;
+      usedArea += (long) w * h;
+      return position;
+    }
+  }
+
+  public TextureAtlas() {
+    this(DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Create an atlas
+   *
+   * @param pageSize Width and height of each page in pixels
+   */
+  public TextureAtlas(int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be positive");
+    }
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Copy an image into the atlas
+   *
+   * @param name  Identifier of the region
+   * @param image Image to pack
+   * @return The region holding the image; the existing region if the name was
+   *         already packed
+   */
+  public synchronized AtlasRegion add(String name, BufferedImage image) {
+    AtlasRegion existing = regions.get(name);
+    if (existing != null) {
+      return existing;
+    }
+
+    int w = image.getWidth();
+    int h = image.getHeight();
+    int paddedW = w + PADDING * 2;
+    int paddedH = h + PADDING * 2;
+
+    Page page = null;
+    int[] position = null;
+    boolean newPage = false;
+    if (paddedW <= pageSize && paddedH <= pageSize) {
+      for (Page candidate : pages) {
+        position = candidate.allocate(paddedW, paddedH);
+        if (position != null) {
+          page = candidate;
+          break;
+        }
+      }
+      if (page == null) {
+        page = new Page(ImageOptimizer.createCompatibleImage(pageSize, pageSize, Transparency.TRANSLUCENT));
+        pages.add(page);
+        newPage = true;
+        position = page.allocate(paddedW, paddedH);
+        LOGGER.fine("Created atlas page " + pages.size() + " (" + pageSize + "x" + pageSize + ")");
+      }
+    } else {
+      // Oversized images get a dedicated page
+      page = new Page(ImageOptimizer.createCompatibleImage(paddedW, paddedH, Transparency.TRANSLUCENT));
+      pages.add(page);
+      newPage = true;
+      position = page.allocate(paddedW, paddedH);
+    }
+
+    int x = position[0] + PADDING;
+    int y = position[1] + PADDING;
+    Graphics2D g = page.image.createGraphics();
+    try {
+      g.drawImage(image, x, y, null);
+    } finally {
+      g.dispose();
+    }
+    if (!newPage) {
+      for (PageListener listener : pageListeners) {
+        listener.pageModified(page.image);
+      }
+    }
+
+    AtlasRegion region = new AtlasRegion(name, page.image, x, y, w, h);
+    regions.put(name, region);
+    return region;
+  }
+
+  /**
+   * Pack several images at once, tallest first, which packs shelves tighter
+   * than adding them one by one in arbitrary order
+   *
+   * @param images Images by region name
+   * @return Regions by name
+   */
+  public synchronized Map<String, AtlasRegion> addAll(Map<String, BufferedImage> images) {
+    List<Map.Entry<String, BufferedImage>> sorted = new ArrayList<>(images.entrySet());
+    sorted.sort((a, b) -> Integer.compare(b.getValue().getHeight(), a.getValue().getHeight()));
+
+    Map<String, AtlasRegion> packed = new HashMap<>();
+    for (Map.Entry<String, BufferedImage> entry : sorted) {
+      packed.put(entry.getKey(), add(entry.getKey(), entry.getValue()));
+    }
+    return packed;
+  }
+
+  /**
+   * Register a listener for pages modified by later packing
+   *
+   * @param listener The listener
+   */
+  public void addPageListener(PageListener listener) {
+    pageListeners.add(listener);
+  }
+
+  public void removePageListener(PageListener listener) {
+    pageListeners.remove(listener);
+  }
+
+  /**
+   * Get a packed region by name
+   *
+   * @return The region or null if not packed
+   */
+  public synchronized AtlasRegion getRegion(String name) {
+    return regions.get(name);
+  }
+
+  /**
+   * Drop all pages and regions
+   */
+  public synchronized void clear() {
+    pages.clear();
+    regions.clear();
+  }
+
+  /**
+   * Get the atlas page images
+   */
+  public synchronized List<BufferedImage> getPages() {
+    List<BufferedImage> images = new ArrayList<>(pages.size());
+    for (Page page : pages) {
+      images.add(page.image);
+    }
+    return Collections.unmodifiableList(images);
+  }
+
+  public synchronized int getPageCount() {
+    return pages.size();
+  }
+
+  public synchronized int getRegionCount() {
+    return regions.size();
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Get the fraction of page area covered by packed images
+   */
+  public synchronized float getFillRatio() {
+    long total = 0;
+    long used = 0;
+    for (Page page : pages) {
+      total += (long) page.image.getWidth() * page.image.getHeight();
+      used += page.usedArea;
+    }
+    return total > 0 ? (float) used / total : 0;
+  }
+}
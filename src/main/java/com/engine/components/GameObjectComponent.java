@@ -10,6 +10,7 @@ public class GameObjectComponent {
   private final GameObject gameObject;
   private boolean initialized = false;
   private boolean destroyed = false;
+  private int layer = 0;
 
   public GameObjectComponent(GameObject gameObject) {
     this.gameObject = gameObject;
@@ -19,6 +20,17 @@ public class GameObjectComponent {
     return gameObject;
   }
 
+  public int getLayer() {
+    return layer;
+  }
+
+  /**
+   * Set the render layer; GameObjects are drawn by layer, then by Z
+   */
+  public void setLayer(int layer) {
+    this.layer = layer;
+  }
+
   /**
    * Initialize the GameObject if not already initialized
    *
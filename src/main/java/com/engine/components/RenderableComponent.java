@@ -7,6 +7,8 @@ import com.engine.graph.Renderable;
 public class RenderableComponent {
   private Renderable r;
   private boolean visible = true;
+  private int layer = 0;
+  private boolean staticGeometry = false;
 
   public Renderable getR() {
     return r;
@@ -28,6 +30,29 @@ public class RenderableComponent {
     this.visible = visible;
   }
 
+  public int getLayer() {
+    return layer;
+  }
+
+  public void setLayer(int layer) {
+    this.layer = layer;
+  }
+
+  public boolean isStatic() {
+    return staticGeometry;
+  }
+
+  /**
+   * Mark the renderable as static world geometry. Static renderables are drawn
+   * once into cached tiles beneath the rest of the world and only redrawn
+   * when they move or change color.
+   *
+   * @param staticGeometry True if the renderable rarely changes
+   */
+  public void setStatic(boolean staticGeometry) {
+    this.staticGeometry = staticGeometry;
+  }
+
   public void render(Graphics2D g) {
     if (visible && r != null) {
       r.render(g);
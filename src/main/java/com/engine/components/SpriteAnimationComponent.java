@@ -143,6 +143,25 @@ public class SpriteAnimationComponent {
     return currentAnimation.getFrame(currentFrameIndex);
   }
 
+  /**
+   * Get the current frame as a region of a shared image
+   *
+   * @return The current frame region, or null if no animation is active or its
+   *         frames are standalone images
+   */
+  public com.engine.assets.AtlasRegion getCurrentRegion() {
+    if (currentAnimationName == null) {
+      return null;
+    }
+
+    Animation currentAnimation = animations.get(currentAnimationName);
+    if (currentAnimation == null) {
+      return null;
+    }
+
+    return currentAnimation.getRegion(currentFrameIndex);
+  }
+
   // Getters and setters
   public boolean isPlaying() {
     return playing;
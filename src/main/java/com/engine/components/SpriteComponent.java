@@ -4,11 +4,14 @@ import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
+import com.engine.assets.AtlasRegion;
+
 /**
  * Component that handles rendering of sprite images
  */
 public class SpriteComponent {
   private BufferedImage image;
+  private AtlasRegion region; // When set, drawn from a source rectangle of a shared image
   private float width;
   private float height;
   private boolean visible = true;
@@ -17,6 +20,7 @@ public class SpriteComponent {
   private float pivotX = 0.5f; // Default pivot at center (0-1 range)
   private float pivotY = 0.5f; // Default pivot at center (0-1 range)
   private float opacity = 1.0f; // 0 = transparent, 1 = opaque
+  private int layer = 0; // Lower layers are drawn first
 
   /**
    * Create a sprite with default size based on image dimensions
@@ -44,13 +48,27 @@ public class SpriteComponent {
     this.height = height;
   }
 
+  /**
+   * Create a sprite drawn from a region of an atlas or sprite sheet, sized to
+   * the region
+   *
+   * @param region The region to render
+   */
+  public SpriteComponent(AtlasRegion region) {
+    this.region = region;
+    if (region != null) {
+      this.width = region.getWidth();
+      this.height = region.getHeight();
+    }
+  }
+
   /**
    * Render the sprite using the provided graphics context
    *
    * @param g Graphics context for rendering
    */
   public void render(Graphics2D g) {
-    if (!visible || image == null) {
+    if (!visible || (image == null && region == null)) {
       return;
     }
 
@@ -73,13 +91,17 @@ public class SpriteComponent {
       g.translate(-pivotPointX, -pivotPointY);
     }
 
-    // Draw the image
-    g.drawImage(image,
-        -(int) (width * pivotX),
-        -(int) (height * pivotY),
-        (int) width,
-        (int) height,
-        null);
+    // Draw the image, or the region's source rectangle of its shared image
+    if (region != null) {
+      region.draw(g, -(int) (width * pivotX), -(int) (height * pivotY), (int) width, (int) height);
+    } else {
+      g.drawImage(image,
+          -(int) (width * pivotX),
+          -(int) (height * pivotY),
+          (int) width,
+          (int) height,
+          null);
+    }
 
     // Restore original transform
     g.setTransform(originalTransform);
@@ -94,31 +116,67 @@ public class SpriteComponent {
    * @param height Height of the region
    */
   public void setSourceRect(int x, int y, int width, int height) {
-    if (image == null) {
+    if (image == null && region == null) {
       return;
     }
 
+    AtlasRegion source = region != null ? region : new AtlasRegion(null, image);
     if (x < 0 || y < 0 || width <= 0 || height <= 0 ||
-        x + width > image.getWidth() || y + height > image.getHeight()) {
+        x + width > source.getWidth() || y + height > source.getHeight()) {
       throw new IllegalArgumentException("Invalid source rectangle");
     }
 
-    this.image = image.getSubimage(x, y, width, height);
+    // Keep drawing from the full image instead of copying out a sub-image
+    this.region = source.subRegion(null, x, y, width, height);
+    this.image = null;
   }
 
-  // Getters and setters
+  /**
+   * Get the image drawn by this sprite. For region sprites this is a view of
+   * the region; prefer {@link #getTexture()} when only identity matters.
+   */
   public BufferedImage getImage() {
-    return image;
+    return region != null ? region.toImage() : image;
+  }
+
+  /**
+   * Get the image the sprite's pixels are read from: the atlas page for region
+   * sprites, the sprite image otherwise. Sprites sharing a texture can be
+   * batched together.
+   */
+  public BufferedImage getTexture() {
+    return region != null ? region.getPage() : image;
   }
 
   public void setImage(BufferedImage image) {
     this.image = image;
+    this.region = null;
     if (image != null && width <= 0 && height <= 0) {
       this.width = image.getWidth();
       this.height = image.getHeight();
     }
   }
 
+  public AtlasRegion getRegion() {
+    return region;
+  }
+
+  /**
+   * Draw the sprite from a region of an atlas or sprite sheet
+   *
+   * @param region The region, or null to clear it
+   */
+  public void setRegion(AtlasRegion region) {
+    this.region = region;
+    if (region != null) {
+      this.image = null;
+      if (width <= 0 && height <= 0) {
+        this.width = region.getWidth();
+        this.height = region.getHeight();
+      }
+    }
+  }
+
   public float getWidth() {
     return width;
   }
@@ -182,4 +240,17 @@ public class SpriteComponent {
   public void setOpacity(float opacity) {
     this.opacity = Math.max(0, Math.min(1, opacity));
   }
+
+  public int getLayer() {
+    return layer;
+  }
+
+  /**
+   * Set the render layer; sprites are drawn by layer, then by Z
+   *
+   * @param layer Layer in the range [-128, 127]
+   */
+  public void setLayer(int layer) {
+    this.layer = layer;
+  }
 }
@@ -5,6 +5,16 @@ package com.engine.components;
  * Encapsulates position, rotation (in radians) and scale.
  */
 public class Transform {
+  /**
+   * Told when the space a transform can be drawn in changes, i.e. its
+   * position, its previous position or its scale. Notified once per change
+   * until {@link #clearChanged()} is called.
+   */
+  @FunctionalInterface
+  public interface ChangeListener {
+    void transformChanged(Transform transform);
+  }
+
   private double x;
   private double y;
   private double z;
@@ -12,6 +22,15 @@ public class Transform {
   private double scaleX;
   private double scaleY;
 
+  // State at the previous simulation tick, used for render interpolation
+  private double prevX;
+  private double prevY;
+  private double prevRotation;
+
+  // Observer of position and scale changes, e.g. the render system's culling
+  private ChangeListener changeListener;
+  private volatile boolean changed = false;
+
   public Transform(double x, double y) {
     this(x, y, Math.toRadians(0), 1, 1);
     this.z = 1;
@@ -29,6 +48,52 @@ public class Transform {
     this.rotation = rotation;
     this.scaleX = scaleX;
     this.scaleY = scaleY;
+    storePreviousState();
+  }
+
+  /**
+   * Record the current position and rotation as the previous simulation state.
+   * Called by the game loop before each fixed simulation tick.
+   */
+  public void storePreviousState() {
+    if (prevX != x || prevY != y) {
+      markChanged();
+    }
+    this.prevX = x;
+    this.prevY = y;
+    this.prevRotation = rotation;
+  }
+
+  /**
+   * Get the X position interpolated between the previous and current tick
+   *
+   * @param alpha Interpolation factor (0 = previous tick, 1 = current tick)
+   * @return Interpolated X position
+   */
+  public double getInterpolatedX(double alpha) {
+    return prevX + (x - prevX) * alpha;
+  }
+
+  /**
+   * Get the Y position interpolated between the previous and current tick
+   *
+   * @param alpha Interpolation factor (0 = previous tick, 1 = current tick)
+   * @return Interpolated Y position
+   */
+  public double getInterpolatedY(double alpha) {
+    return prevY + (y - prevY) * alpha;
+  }
+
+  /**
+   * Get the rotation interpolated along the shortest arc between the previous
+   * and current tick
+   *
+   * @param alpha Interpolation factor (0 = previous tick, 1 = current tick)
+   * @return Interpolated rotation in radians
+   */
+  public double getInterpolatedRotation(double alpha) {
+    double delta = Math.IEEEremainder(rotation - prevRotation, Math.PI * 2);
+    return prevRotation + delta * alpha;
   }
 
   // Getters and setters
@@ -38,6 +103,7 @@ public class Transform {
 
   public void setX(double x) {
     this.x = x;
+    markChanged();
   }
 
   public double getY() {
@@ -46,6 +112,7 @@ public class Transform {
 
   public void setY(double y) {
     this.y = y;
+    markChanged();
   }
 
   public double getZ() {
@@ -70,6 +137,7 @@ public class Transform {
 
   public void setScaleX(double scaleX) {
     this.scaleX = scaleX;
+    markChanged();
   }
 
   public double getScaleY() {
@@ -78,5 +146,36 @@ public class Transform {
 
   public void setScaleY(double scaleY) {
     this.scaleY = scaleY;
+    markChanged();
+  }
+
+  private void markChanged() {
+    if (!changed && changeListener != null) {
+      changed = true;
+      changeListener.transformChanged(this);
+    }
+  }
+
+  /**
+   * Set the observer of position and scale changes. A transform has at most
+   * one; the render system uses it to update culling bounds only for
+   * transforms that changed.
+   *
+   * @param listener The listener, or null to remove it
+   */
+  public void setChangeListener(ChangeListener listener) {
+    this.changeListener = listener;
+    this.changed = false;
+  }
+
+  public ChangeListener getChangeListener() {
+    return changeListener;
+  }
+
+  /**
+   * Re-arm change notification after the listener has handled a change
+   */
+  public void clearChanged() {
+    this.changed = false;
   }
 }
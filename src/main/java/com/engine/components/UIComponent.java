@@ -1,9 +1,11 @@
 package com.engine.components;
 
 import java.awt.Graphics2D;
+
+import com.engine.graph.Renderable;
 import com.engine.ui.UIElement;
 
-public class UIComponent {
+public class UIComponent implements Renderable {
   private UIElement ui;
   private boolean visible;
 
@@ -28,6 +30,7 @@ public class UIComponent {
     this.visible = visible;
   }
 
+  @Override
   public void render(Graphics2D g) {
     if (visible && ui != null) {
       ui.render(g);
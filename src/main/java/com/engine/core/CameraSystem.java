@@ -7,11 +7,13 @@ import dev.dominion.ecs.api.Dominion;
 import dev.dominion.ecs.api.Entity;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.util.logging.Logger;
 
 public class CameraSystem {
   private final Dominion ecs;
   private Entity activeCamera;
+  private float interpolationAlpha = 1.0f;
   private static final Logger LOGGER = Logger.getLogger(GameEngine.class.getName());
 
   public CameraSystem(Dominion ecs) {
@@ -77,33 +79,60 @@ public class CameraSystem {
     return activeCamera;
   }
 
+  /**
+   * Set the factor used to blend the camera position between the previous and
+   * current simulation tick when rendering
+   *
+   * @param alpha Interpolation factor in the range [0, 1]
+   */
+  public void setInterpolationAlpha(float alpha) {
+    this.interpolationAlpha = Math.max(0.0f, Math.min(1.0f, alpha));
+  }
+
   /**
    * Applies the active camera's viewport transform to the graphics context
    * This converts from world coordinates to screen coordinates
    */
   public Graphics2D applyActiveCamera(Graphics2D g) {
-    if (activeCamera == null)
+    AffineTransform view = new AffineTransform();
+    if (!getViewTransform(view))
       return g;
 
+    Graphics2D g2d = (Graphics2D) g.create();
+    g2d.transform(view);
+    return g2d;
+  }
+
+  /**
+   * Compute the active camera's world-to-screen transform
+   *
+   * @param out Transform to overwrite with the camera view transform
+   * @return False if there is no usable active camera, in which case
+   *         {@code out} is left as identity
+   */
+  public boolean getViewTransform(AffineTransform out) {
+    out.setToIdentity();
+    if (activeCamera == null)
+      return false;
+
     CameraComponent cam = activeCamera.get(CameraComponent.class);
     Transform transform = activeCamera.get(Transform.class);
 
     if (cam == null || transform == null)
-      return g;
-
-    Graphics2D g2d = (Graphics2D) g.create();
+      return false;
 
     // Translate to the viewport center
-    g2d.translate(cam.getViewportX() + cam.getViewportWidth() / 2.0,
+    out.translate(cam.getViewportX() + cam.getViewportWidth() / 2.0,
         cam.getViewportY() + cam.getViewportHeight() / 2.0);
 
     // Scale with Y flipped to make positive Y point up
-    g2d.scale(cam.getZoom(), -cam.getZoom());
+    out.scale(cam.getZoom(), -cam.getZoom());
 
     // Translate to camera position
-    g2d.translate(-transform.getX(), -transform.getY());
+    out.translate(-transform.getInterpolatedX(interpolationAlpha),
+        -transform.getInterpolatedY(interpolationAlpha));
 
-    return g2d;
+    return true;
   }
 
   /**
@@ -9,9 +9,17 @@ public class EngineConfig {
   private int velocityIterations = 10; // Default value
   private int positionIterations = 8; // Default value
   private float physicsTimeStep = 1.0f / 60.0f; // Default value
+  private int physicsMaxSubSteps = 12; // 0.2s of catch-up at the default step
   private boolean enableBodySleeping = true; // Default value
   private boolean optimizeBroadphase = false; // Default value
   private int targetFps = 60;
+  private int maxCatchUpTicks = 5;
+  private int systemThreads = 0;
+  private boolean threadedRendering = true;
+  private boolean volatileImages = false;
+  private boolean spriteTransformCache = false;
+  private boolean staticLayerCaching = true;
+  private boolean rasterParticles = false;
   private boolean showPerformanceStats = false;
   private boolean debugPhysics = false;
   private boolean debugColliders = false;
@@ -63,6 +71,21 @@ public class EngineConfig {
     return this;
   }
 
+  /**
+   * Set how many physics steps one update may run. Time that would need more
+   * steps is dropped and reported as a physics overload. This applies when a
+   * game calls the physics update with variable frame time; under the
+   * engine's game loop every update is one step and the budget is
+   * {@link #maxCatchUpTicks}.
+   *
+   * @param maxSubSteps Maximum physics steps per update
+   * @return This config instance for method chaining
+   */
+  public EngineConfig physicsMaxSubSteps(int maxSubSteps) {
+    this.physicsMaxSubSteps = maxSubSteps;
+    return this;
+  }
+
   /**
    * Enable or disable automatic sleeping of inactive bodies
    * Sleeping bodies are temporarily removed from simulation calculations
@@ -113,6 +136,15 @@ public class EngineConfig {
     return physicsTimeStep;
   }
 
+  /**
+   * Get the maximum number of physics steps per update
+   *
+   * @return Physics step budget
+   */
+  public int getPhysicsMaxSubSteps() {
+    return physicsMaxSubSteps;
+  }
+
   /**
    * Check if automatic body sleeping is enabled
    *
@@ -136,6 +168,97 @@ public class EngineConfig {
     return this;
   }
 
+  /**
+   * Set how many fixed simulation ticks may run in a single frame before the
+   * game loop drops the remaining backlog. Dropped ticks are reported as a
+   * physics overload.
+   *
+   * @param maxTicks Maximum simulation ticks per rendered frame
+   * @return This config instance for method chaining
+   */
+  public EngineConfig maxCatchUpTicks(int maxTicks) {
+    this.maxCatchUpTicks = maxTicks;
+    return this;
+  }
+
+  /**
+   * Set how many worker threads the system scheduler may use to run
+   * non-conflicting systems in parallel
+   *
+   * @param threads Worker thread count, 0 to use all available processors
+   * @return This config instance for method chaining
+   */
+  public EngineConfig systemThreads(int threads) {
+    this.systemThreads = threads;
+    return this;
+  }
+
+  /**
+   * Enable or disable drawing on a dedicated render thread. When enabled the
+   * simulation records render commands and the next ticks run while the
+   * previous frame is being drawn.
+   *
+   * @param enable True to draw on a separate thread, false to draw inline
+   * @return This config instance for method chaining
+   */
+  public EngineConfig threadedRendering(boolean enable) {
+    this.threadedRendering = enable;
+    return this;
+  }
+
+  /**
+   * Enable or disable drawing sprites from copies kept in video memory. Copies
+   * are restored automatically when the display loses them.
+   *
+   * @param enable True to draw from VolatileImage copies, false to draw the
+   *               loaded images
+   * @return This config instance for method chaining
+   */
+  public EngineConfig volatileImages(boolean enable) {
+    this.volatileImages = enable;
+    return this;
+  }
+
+  /**
+   * Enable or disable drawing rotated and scaled sprites from cached,
+   * pre-transformed variants. Variants are rendered at their on-screen pixel
+   * size, but angles and opacity are quantized, so very large slowly rotating
+   * sprites may look slightly stepped. Off by default.
+   *
+   * @param enable True to blit cached variants, false to transform every draw
+   * @return This config instance for method chaining
+   */
+  public EngineConfig spriteTransformCache(boolean enable) {
+    this.spriteTransformCache = enable;
+    return this;
+  }
+
+  /**
+   * Enable or disable drawing static geometry and the world grid from cached
+   * tiles that are only redrawn when something static changes
+   *
+   * @param enable True to cache static geometry, false to draw it every frame
+   * @return This config instance for method chaining
+   */
+  public EngineConfig staticLayerCaching(boolean enable) {
+    this.staticLayerCaching = enable;
+    return this;
+  }
+
+  /**
+   * Enable or disable drawing solid particles by writing them into an integer
+   * raster composited with one image draw. Much faster for large particle
+   * counts; small particles are drawn axis-aligned.
+   *
+   * @param enable True to rasterize solid particles, false to fill each one
+   *               through Graphics2D
+   * @return This config instance for method chaining
+   */
+  public EngineConfig rasterParticles(boolean enable) {
+    this.rasterParticles = enable;
+    return this;
+  }
+
   public EngineConfig showPerformanceStats(boolean show) {
     this.showPerformanceStats = show;
     return this;
@@ -162,6 +285,34 @@ public class EngineConfig {
     return targetFps;
   }
 
+  public int getMaxCatchUpTicks() {
+    return maxCatchUpTicks;
+  }
+
+  public int getSystemThreads() {
+    return systemThreads;
+  }
+
+  public boolean isThreadedRendering() {
+    return threadedRendering;
+  }
+
+  public boolean isVolatileImages() {
+    return volatileImages;
+  }
+
+  public boolean isSpriteTransformCache() {
+    return spriteTransformCache;
+  }
+
+  public boolean isStaticLayerCaching() {
+    return staticLayerCaching;
+  }
+
+  public boolean isRasterParticles() {
+    return rasterParticles;
+  }
+
   public boolean isShowPerformanceStats() {
     return showPerformanceStats;
   }
@@ -6,10 +6,16 @@ import com.engine.di.DaggerEngineComponent;
 import com.engine.di.EngineComponent;
 import com.engine.di.EngineModule;
 import com.engine.components.GameObjectComponent;
+import com.engine.components.Transform;
+import com.engine.components.SpriteAnimationComponent;
+import com.engine.components.SpriteComponent;
 import com.engine.entity.EntityFactory;
 import com.engine.graph.OverlayRenderer;
 import com.engine.graph.RenderSystem;
+import com.engine.graph.VolatileImageCache;
 import com.engine.input.InputManager;
+import com.engine.physics.PhysicsRegionManager;
+import com.engine.physics.PhysicsStepController;
 import com.engine.physics.PhysicsWorld;
 import com.engine.scene.Scene;
 import com.engine.scene.SceneManager;
@@ -22,10 +28,10 @@ import com.engine.particles.ParticleSystem;
 import com.engine.particles.ParticleEmitter;
 import com.engine.audio.AudioSystem;
 import com.engine.audio.AudioListenerComponent;
+import com.engine.audio.AudioSourceComponent;
 
 import dev.dominion.ecs.api.Dominion;
 import dev.dominion.ecs.api.Entity;
-import dev.dominion.ecs.api.Scheduler;
 
 import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
@@ -39,6 +45,7 @@ import java.util.logging.Logger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.imageio.ImageIO;
 import javax.inject.Inject;
@@ -66,10 +73,15 @@ public class GameEngine implements OverlayRenderer {
   private final RenderSystem renderer;
   private final CameraSystem cameraSystem;
   private final PhysicsWorld physicsWorld;
+  private final PhysicsRegionManager physicsRegions;
   private boolean closedByWindow;
-  private Scheduler scheduler;
+  private GameLoop gameLoop;
+  private SystemScheduler systemScheduler;
   private int targetFps = 60;
 
+  // Tasks run once per simulation tick
+  private final List<Runnable> scheduledTasks = new CopyOnWriteArrayList<>();
+
   // Performance monitoring
   private long frameCount = 0;
   private long lastFpsReportTime = 0;
@@ -104,7 +116,7 @@ public class GameEngine implements OverlayRenderer {
   @Inject
   public GameEngine(GameFrame gameFrame, GameWindow window, Dominion ecs, RenderSystem renderer,
       CameraSystem cameraSystem, PhysicsWorld physicsWorld,
-      EntityFactory entityFactory, UISystem uiSystem,
+      PhysicsRegionManager physicsRegions, EntityFactory entityFactory, UISystem uiSystem,
       InputManager inputManager, EngineConfig config,
       EventSystem eventSystem, AssetManager assetManager,
       AnimationSystem animationSystem, ParticleSystem particleSystem,
@@ -115,6 +127,7 @@ public class GameEngine implements OverlayRenderer {
     this.renderer = renderer;
     this.cameraSystem = cameraSystem;
     this.physicsWorld = physicsWorld;
+    this.physicsRegions = physicsRegions;
     this.entityFactory = entityFactory;
     this.uiSystem = uiSystem;
     this.inputManager = inputManager;
@@ -176,17 +189,21 @@ public class GameEngine implements OverlayRenderer {
       // Connect AssetManager to AudioSystem for audio loading
       assetManager.setAudioSystem(audioSystem, eventSystem);
 
-      // Setup the main loop scheduler
-      this.scheduler = ecs.createScheduler();
-      this.scheduler.schedule(this::update);
-      this.scheduler.schedule(() -> renderer.render());
-      this.scheduler.schedule(() -> cameraSystem.update((float) this.scheduler.deltaTime()));
-      this.scheduler.schedule(() -> uiSystem.update(this.scheduler.deltaTime()));
-      this.scheduler.schedule(() -> animationSystem.update(this.scheduler.deltaTime()));
-      // Add particle system to the scheduler
-      this.scheduler.schedule(() -> particleSystem.update((float) this.scheduler.deltaTime()));
-      // Add audio system to the scheduler
-      this.scheduler.schedule(() -> audioSystem.update(this.scheduler.deltaTime()));
+      // Atlas pages gain pixels as images are packed; drop their VRAM copies
+      assetManager.getAtlas().addPageListener(page -> {
+        VolatileImageCache images = renderer.getVolatileImageCache();
+        if (images != null) {
+          images.invalidate(page);
+        }
+      });
+
+      // Register per-tick systems; non-conflicting ones run in parallel
+      this.systemScheduler = new SystemScheduler(eventSystem, config.getSystemThreads());
+      registerSystems();
+
+      // Setup the main loop: fixed simulation ticks, interpolated rendering
+      this.gameLoop = new GameLoop(config.getPhysicsTimeStep(), targetFps,
+          config.getMaxCatchUpTicks(), this::tick, this::renderFrame);
 
       // Initialize FPS counter
       lastFpsReportTime = System.currentTimeMillis();
@@ -211,22 +228,93 @@ public class GameEngine implements OverlayRenderer {
   }
 
   /**
-   * Updates physics bodies for all entities that have physics components
+   * Declares the engine systems and the components each of them touches
+   */
+  private void registerSystems() {
+    // Events, physics, GameObjects and scenes may touch anything
+    systemScheduler.register("simulation", this::update)
+        .exclusive();
+    systemScheduler.register("camera", dt -> cameraSystem.update((float) dt))
+        .reads(CameraComponent.class, Transform.class);
+    systemScheduler.register("ui", uiSystem::update)
+        .writes(UIComponent.class);
+    systemScheduler.register("animation", animationSystem::update)
+        .writes(SpriteComponent.class, SpriteAnimationComponent.class);
+    systemScheduler.register("particles", dt -> particleSystem.update((float) dt))
+        .reads(CameraComponent.class, Transform.class)
+        .writes(ParticleEmitter.class, PhysicsWorld.class);
+    systemScheduler.register("audio", audioSystem::update)
+        .reads(Transform.class, AudioListenerComponent.class)
+        .writes(AudioSourceComponent.class);
+  }
+
+  /**
+   * Runs one fixed simulation tick of every engine system
+   *
+   * @param deltaTime The fixed time step in seconds
+   */
+  private void tick(double deltaTime) {
+    // Draw callbacks on the render thread must not see a half-updated world
+    synchronized (renderer.getWorldLock()) {
+      // Keep the last simulated state for render interpolation
+      ecs.findEntitiesWith(Transform.class).forEach(result -> result.comp().storePreviousState());
+
+      // Returns once every system has finished, so rendering sees a settled world
+      systemScheduler.run(deltaTime);
+
+      for (Runnable task : scheduledTasks) {
+        task.run();
+      }
+    }
+  }
+
+  /**
+   * Records one frame, blending entity transforms between the last two ticks.
+   * With threaded rendering the frame is drawn on the render thread while the
+   * next ticks run.
+   *
+   * @param alpha Interpolation factor supplied by the game loop
    */
-  private void update() {
+  private void renderFrame(float alpha) {
+    // Physics gets exactly one step per tick, so its budget, backlog and
+    // alpha are the loop's
+    physicsRegions.recordFrame(gameLoop.getLastFrameTicks(), gameLoop.getMaxCatchUpTicks(),
+        gameLoop.getLastFrameDroppedTicks(), alpha);
+
+    cameraSystem.setInterpolationAlpha(alpha);
+    renderer.setInterpolationAlpha(alpha);
+    renderer.render();
+
+    // Performance monitoring
+    frameCount++;
+    long now = System.currentTimeMillis();
+    if (now - lastFpsReportTime >= 1000) {
+      averageFps = frameCount * 1000.0 / (now - lastFpsReportTime);
+      frameCount = 0;
+      lastFpsReportTime = now;
+
+      if (showPerformanceStats) {
+        LOGGER.info(String.format("FPS: %.2f, catch-up ticks: %d, dropped ticks: %d, dropped frames: %d",
+            averageFps, gameLoop.getCatchUpTicks(), gameLoop.getDroppedTicks(), gameLoop.getDroppedFrames()));
+      }
+    }
+  }
+
+  /**
+   * Updates events, physics, GameObjects and the current scene
+   */
+  private void update(double deltaTime) {
     try {
       // Skip updates if paused
       if (engineState == State.PAUSED) {
         return;
       }
 
-      double deltaTime = this.scheduler.deltaTime();
-
       // Process events
       eventSystem.processEvents();
 
-      // Update physics
-      this.physicsWorld.update(deltaTime);
+      // Update physics in every region
+      this.physicsRegions.update(deltaTime);
 
       // Update GameObjects
       updateGameObjects(deltaTime);
@@ -236,19 +324,6 @@ public class GameEngine implements OverlayRenderer {
         sceneManager.update(deltaTime);
       }
 
-      // Performance monitoring
-      frameCount++;
-      long now = System.currentTimeMillis();
-      if (now - lastFpsReportTime >= 1000) {
-        averageFps = frameCount * 1000.0 / (now - lastFpsReportTime);
-        frameCount = 0;
-        lastFpsReportTime = now;
-
-        if (showPerformanceStats) {
-          LOGGER.info(String.format("FPS: %.2f", averageFps));
-        }
-      }
-
       // Update debug stats
       updateDebugStats();
     } catch (Exception e) {
@@ -339,9 +414,9 @@ public class GameEngine implements OverlayRenderer {
     this.targetFps = fps;
     LOGGER.info("Target FPS set to " + fps);
 
-    // Update scheduler rate if engine is already running
-    if (engineState == State.RUNNING) {
-      scheduler.tickAtFixedRate(targetFps);
+    // Update render rate if the loop already exists
+    if (gameLoop != null) {
+      gameLoop.setTargetFps(targetFps);
     }
 
     return this;
@@ -365,7 +440,14 @@ public class GameEngine implements OverlayRenderer {
     this.cameraSystem.updateAllViewports(gameFrame.getWidth(), gameFrame.getHeight());
     this.setDebugDisplay(debugPhysics, debugColliders, this.debugGrid);
     LOGGER.info("Starting the Game Engine with target FPS: " + targetFps);
-    scheduler.tickAtFixedRate(targetFps); // Start scheduler at target FPS
+    renderer.setVolatileImagesEnabled(config.isVolatileImages());
+    renderer.setSpriteTransformCacheEnabled(config.isSpriteTransformCache());
+    renderer.setStaticLayerCaching(config.isStaticLayerCaching());
+    renderer.setParticleRasterizerEnabled(config.isRasterParticles());
+    if (config.isThreadedRendering()) {
+      renderer.startRenderThread();
+    }
+    gameLoop.start(); // Start fixed-step simulation and rendering
     return this;
   }
 
@@ -376,12 +458,17 @@ public class GameEngine implements OverlayRenderer {
     engineState = State.STOPPED;
     LOGGER.info("Stopping the Game Engine...");
 
+    // Wait for the last tick and frame before releasing what they use
+    gameLoop.stop();
+
     // Clean up resources
     audioSystem.shutdown(); // Shutdown audio resources
     assetManager.shutdown();
     // Notify listeners
     eventSystem.fireEvent(new GameEvent("game:shutdown"));
-    scheduler.shutDown(); // Stop the scheduler
+    renderer.stopRenderThread();
+    systemScheduler.shutdown();
+    physicsRegions.shutdown();
 
     // Properly dispose the window
     window.dispose();
@@ -423,6 +510,10 @@ public class GameEngine implements OverlayRenderer {
     return physicsWorld;
   }
 
+  public PhysicsRegionManager getPhysicsRegions() {
+    return physicsRegions;
+  }
+
   public CameraSystem getCameraSystem() {
     return cameraSystem;
   }
@@ -475,6 +566,8 @@ public class GameEngine implements OverlayRenderer {
     if (debugOverlay != null && debugOverlay.isVisible()) {
       // Update FPS
       debugOverlay.updateStat("FPS", averageFps);
+      debugOverlay.updateStat("Catch-up Ticks", gameLoop.getCatchUpTicks());
+      debugOverlay.updateStat("Dropped Frames", gameLoop.getDroppedFrames());
       debugOverlay.updateStat("Gravity", this.config.getGravity().toString());
       // // Update entity count
       // int entityCount = ecs.findEntitiesWith().count();
@@ -484,9 +577,17 @@ public class GameEngine implements OverlayRenderer {
       Runtime runtime = Runtime.getRuntime();
       long usedMemory = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
       debugOverlay.updateStat("Memory", usedMemory + " MB");
+      debugOverlay.updateStat("Render Alloc", (renderer.getLastRecordAllocatedBytes()
+          + renderer.getLastReplayAllocatedBytes()) / 1024 + " KB/frame");
 
       // Update physics stats
-      debugOverlay.updateStat("Bodies", physicsWorld.getBodyCount());
+      debugOverlay.updateStat("Bodies", physicsRegions.getBodyCount());
+      debugOverlay.updateStat("Bodies Synced", physicsWorld.getSyncedBodyCount()
+          + " (" + physicsWorld.getSkippedBodyCount() + " skipped)");
+      PhysicsStepController steps = physicsWorld.getStepController();
+      debugOverlay.updateStat("Physics Steps", steps.getLastSubSteps() + "/" + steps.getMaxSubSteps()
+          + " (" + steps.getOverloadCount() + " overloads)");
+      debugOverlay.updateStat("Physics Step Time", steps.getStepTimes().toString());
 
       // Update particle stats
       if (particleSystem != null) {
@@ -884,12 +985,40 @@ public class GameEngine implements OverlayRenderer {
     return engine;
   }
 
+  /**
+   * Schedule a task to run once per simulation tick
+   *
+   * @param r The task to run
+   */
   public void scheduleTask(Runnable r) {
-    scheduler.schedule(r);
+    scheduledTasks.add(r);
   }
 
+  /**
+   * Get the fixed simulation time step
+   *
+   * @return Seconds advanced by each simulation tick
+   */
   public double getDeltaTime() {
-    return this.scheduler.deltaTime();
+    return gameLoop.getFixedDeltaTime();
+  }
+
+  /**
+   * Get the game loop driving simulation and rendering
+   *
+   * @return The game loop
+   */
+  public GameLoop getGameLoop() {
+    return gameLoop;
+  }
+
+  /**
+   * Get the scheduler running the per-tick engine systems
+   *
+   * @return The system scheduler
+   */
+  public SystemScheduler getSystemScheduler() {
+    return systemScheduler;
   }
 
   /**
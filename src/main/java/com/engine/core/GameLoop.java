@@ -0,0 +1,297 @@
+package com.engine.core;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fixed-timestep game loop that decouples simulation from rendering.
+ * <p>
+ * The simulation always advances in ticks of exactly {@code fixedDeltaTime}
+ * seconds, while the render pass runs at a variable rate capped by the target
+ * FPS. Leftover simulation time is passed to the render pass as an
+ * interpolation factor so that rendering can blend between the last two
+ * simulation states. A slow render frame therefore never changes the size of
+ * a simulation step - the loop catches up with extra ticks instead, and drops
+ * the backlog once the catch-up budget is exhausted.
+ */
+public class GameLoop implements Runnable {
+  private static final Logger LOGGER = Logger.getLogger(GameLoop.class.getName());
+  private static final long STOP_TIMEOUT_MILLIS = 2000;
+
+  /**
+   * Callback for a single fixed simulation tick
+   */
+  @FunctionalInterface
+  public interface Simulation {
+    /**
+     * Advance the simulation by one fixed step
+     *
+     * @param deltaTime The fixed time step in seconds
+     */
+    void tick(double deltaTime);
+  }
+
+  /**
+   * Callback for a render pass
+   */
+  @FunctionalInterface
+  public interface RenderPass {
+    /**
+     * Render a frame
+     *
+     * @param alpha Interpolation factor between the previous (0) and current (1)
+     *              simulation state
+     */
+    void render(float alpha);
+  }
+
+  private final double fixedDeltaTime;
+  private final Simulation simulation;
+  private final RenderPass renderPass;
+
+  private volatile int targetFps;
+  private volatile int maxCatchUpTicks;
+  private volatile boolean running = false;
+  private Thread loopThread;
+
+  // Loop statistics
+  private volatile long tickCount = 0;
+  private volatile long frameCount = 0;
+  private volatile long catchUpTicks = 0;
+  private volatile long droppedTicks = 0;
+  private volatile long droppedFrames = 0;
+  private volatile float lastAlpha = 0;
+  private volatile int lastFrameTicks = 0;
+  private volatile int lastFrameDroppedTicks = 0;
+
+  /**
+   * Create a new game loop
+   *
+   * @param fixedDeltaTime  Duration of one simulation tick in seconds
+   * @param targetFps       Maximum render frames per second
+   * @param maxCatchUpTicks Maximum simulation ticks run per render frame
+   * @param simulation      Fixed-step simulation callback
+   * @param renderPass      Render callback
+   */
+  public GameLoop(double fixedDeltaTime, int targetFps, int maxCatchUpTicks,
+      Simulation simulation, RenderPass renderPass) {
+    if (fixedDeltaTime <= 0) {
+      throw new IllegalArgumentException("Fixed delta time must be positive: " + fixedDeltaTime);
+    }
+    this.fixedDeltaTime = fixedDeltaTime;
+    this.simulation = simulation;
+    this.renderPass = renderPass;
+    setTargetFps(targetFps);
+    setMaxCatchUpTicks(maxCatchUpTicks);
+  }
+
+  /**
+   * Start the loop on its own thread
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+
+    running = true;
+    loopThread = new Thread(this, "GameLoop");
+    loopThread.start();
+    LOGGER.info("Game loop started: tick=" + fixedDeltaTime + "s, targetFps=" + targetFps
+        + ", maxCatchUpTicks=" + maxCatchUpTicks);
+  }
+
+  /**
+   * Stop the loop and wait for its current frame to finish, so callers can
+   * release what the simulation and render pass use. Waits at most two
+   * seconds; called from the loop thread itself it only signals the loop to
+   * stop after the current frame.
+   */
+  public void stop() {
+    Thread thread;
+    synchronized (this) {
+      running = false;
+      thread = loopThread;
+      loopThread = null;
+    }
+    if (thread == null) {
+      return;
+    }
+    LockSupport.unpark(thread);
+    if (thread == Thread.currentThread()) {
+      return;
+    }
+    try {
+      thread.join(STOP_TIMEOUT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (thread.isAlive()) {
+      LOGGER.warning("Game loop did not stop within " + STOP_TIMEOUT_MILLIS + " ms");
+    }
+  }
+
+  @Override
+  public void run() {
+    double accumulator = 0;
+    long previousTime = System.nanoTime();
+    long nextFrameTime = previousTime;
+
+    while (running) {
+      long now = System.nanoTime();
+      accumulator += (now - previousTime) / 1_000_000_000.0;
+      previousTime = now;
+
+      long frameInterval = 1_000_000_000L / targetFps;
+
+      // Run as many fixed ticks as the elapsed time requires, within budget
+      int ticks = 0;
+      int budget = maxCatchUpTicks;
+      while (accumulator >= fixedDeltaTime && ticks < budget) {
+        try {
+          simulation.tick(fixedDeltaTime);
+        } catch (Exception e) {
+          LOGGER.log(Level.SEVERE, "Error in simulation tick", e);
+        }
+        accumulator -= fixedDeltaTime;
+        ticks++;
+      }
+      tickCount += ticks;
+
+      // Ticks beyond what a normal frame needs are catch-up work
+      int expectedTicks = (int) Math.max(1, Math.ceil(frameInterval / 1_000_000_000.0 / fixedDeltaTime));
+      if (ticks > expectedTicks) {
+        catchUpTicks += ticks - expectedTicks;
+      }
+
+      // Too far behind: discard the backlog rather than spiral
+      int dropped = 0;
+      if (accumulator >= fixedDeltaTime) {
+        dropped = (int) Math.min(Integer.MAX_VALUE, (long) (accumulator / fixedDeltaTime));
+        droppedTicks += dropped;
+        accumulator -= dropped * fixedDeltaTime;
+      }
+      lastFrameTicks = ticks;
+      lastFrameDroppedTicks = dropped;
+
+      float alpha = (float) (accumulator / fixedDeltaTime);
+      lastAlpha = alpha;
+      try {
+        renderPass.render(alpha);
+      } catch (Exception e) {
+        LOGGER.log(Level.SEVERE, "Error in render pass", e);
+      }
+      frameCount++;
+
+      // Pace the render rate and record frames that missed their deadline
+      nextFrameTime += frameInterval;
+      long afterRender = System.nanoTime();
+      long lateness = afterRender - nextFrameTime;
+      if (lateness > frameInterval) {
+        droppedFrames += lateness / frameInterval;
+        nextFrameTime = afterRender;
+      }
+
+      long sleepNanos = nextFrameTime - System.nanoTime();
+      if (sleepNanos > 0) {
+        LockSupport.parkNanos(sleepNanos);
+      }
+    }
+
+    LOGGER.info("Game loop stopped after " + tickCount + " ticks and " + frameCount + " frames");
+  }
+
+  /**
+   * Set the maximum render frame rate
+   *
+   * @param fps Target frames per second
+   */
+  public void setTargetFps(int fps) {
+    this.targetFps = Math.max(1, fps);
+  }
+
+  /**
+   * Set how many simulation ticks may run in one frame before the remaining
+   * backlog is dropped
+   *
+   * @param maxTicks Maximum ticks per frame
+   */
+  public void setMaxCatchUpTicks(int maxTicks) {
+    this.maxCatchUpTicks = Math.max(1, maxTicks);
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  public double getFixedDeltaTime() {
+    return fixedDeltaTime;
+  }
+
+  public int getTargetFps() {
+    return targetFps;
+  }
+
+  public int getMaxCatchUpTicks() {
+    return maxCatchUpTicks;
+  }
+
+  /**
+   * Get the total number of simulation ticks executed
+   */
+  public long getTickCount() {
+    return tickCount;
+  }
+
+  /**
+   * Get the total number of frames rendered
+   */
+  public long getFrameCount() {
+    return frameCount;
+  }
+
+  /**
+   * Get the number of extra ticks run to catch up after slow frames
+   */
+  public long getCatchUpTicks() {
+    return catchUpTicks;
+  }
+
+  /**
+   * Get the number of simulation ticks discarded because the catch-up budget
+   * was exhausted
+   */
+  public long getDroppedTicks() {
+    return droppedTicks;
+  }
+
+  /**
+   * Get the number of render frames that missed their deadline
+   */
+  public long getDroppedFrames() {
+    return droppedFrames;
+  }
+
+  /**
+   * Get the number of simulation ticks run for the frame being rendered, or
+   * the most recent one
+   */
+  public int getLastFrameTicks() {
+    return lastFrameTicks;
+  }
+
+  /**
+   * Get the number of ticks dropped for the frame being rendered, or the most
+   * recent one; positive when the catch-up budget was exhausted
+   */
+  public int getLastFrameDroppedTicks() {
+    return lastFrameDroppedTicks;
+  }
+
+  /**
+   * Get the interpolation factor used for the most recent frame
+   */
+  public float getLastAlpha() {
+    return lastAlpha;
+  }
+}
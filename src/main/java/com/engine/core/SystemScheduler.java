@@ -0,0 +1,347 @@
+package com.engine.core;
+
+import com.engine.events.EventSystem;
+import com.engine.events.GameEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs engine systems once per simulation tick, in parallel where their
+ * declared component access allows it.
+ * <p>
+ * Every system declares the component types (or any other shared resource
+ * class) it reads and writes. Two systems conflict when one writes something
+ * the other reads or writes. Systems are grouped into stages: a system is
+ * placed in the first stage after every earlier-registered system it conflicts
+ * with, so conflicting systems always run in registration order while
+ * independent ones share a stage and run concurrently on a fork-join pool.
+ * <p>
+ * Events fired by systems running in a parallel stage are captured per system
+ * and delivered on the calling thread once the stage completes, in
+ * registration order. Listeners therefore never run concurrently and see the
+ * same event order on every run. When {@link #run(double)} returns, all
+ * systems have finished and it is safe to render.
+ */
+public class SystemScheduler {
+  private static final Logger LOGGER = Logger.getLogger(SystemScheduler.class.getName());
+
+  /**
+   * Per-tick update callback of a system
+   */
+  @FunctionalInterface
+  public interface SystemTask {
+    void update(double deltaTime);
+  }
+
+  /**
+   * A registered system and its declared component access
+   */
+  public static class SystemNode {
+    private final String name;
+    private final SystemTask task;
+    private final Set<Class<?>> reads = new HashSet<>();
+    private final Set<Class<?>> writes = new HashSet<>();
+    private boolean exclusive = false;
+    private boolean enabled = true;
+    private long lastDurationNanos;
+    private final SystemScheduler owner;
+
+    private SystemNode(String name, SystemTask task, SystemScheduler owner) {
+      this.name = name;
+      this.task = task;
+      this.owner = owner;
+    }
+
+    /**
+     * Declare component types this system reads
+     *
+     * @return This node for method chaining
+     */
+    public SystemNode reads(Class<?>... types) {
+      reads.addAll(Arrays.asList(types));
+      owner.invalidate();
+      return this;
+    }
+
+    /**
+     * Declare component types this system writes
+     *
+     * @return This node for method chaining
+     */
+    public SystemNode writes(Class<?>... types) {
+      writes.addAll(Arrays.asList(types));
+      owner.invalidate();
+      return this;
+    }
+
+    /**
+     * Mark this system as conflicting with every other system, so it always
+     * runs alone. Use for systems whose access cannot be described by
+     * component types.
+     *
+     * @return This node for method chaining
+     */
+    public SystemNode exclusive() {
+      this.exclusive = true;
+      owner.invalidate();
+      return this;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Set<Class<?>> getReads() {
+      return Collections.unmodifiableSet(reads);
+    }
+
+    public Set<Class<?>> getWrites() {
+      return Collections.unmodifiableSet(writes);
+    }
+
+    /**
+     * Get how long this system took in the last tick it ran
+     */
+    public long getLastDurationNanos() {
+      return lastDurationNanos;
+    }
+
+    /**
+     * Check if this system may not run at the same time as another
+     */
+    boolean conflictsWith(SystemNode other) {
+      if (exclusive || other.exclusive) {
+        return true;
+      }
+      for (Class<?> type : writes) {
+        if (other.writes.contains(type) || other.reads.contains(type)) {
+          return true;
+        }
+      }
+      for (Class<?> type : other.writes) {
+        if (reads.contains(type)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void runTimed(double deltaTime) {
+      long start = System.nanoTime();
+      try {
+        task.update(deltaTime);
+      } catch (Exception e) {
+        LOGGER.log(Level.SEVERE, "Error updating system " + name, e);
+      }
+      lastDurationNanos = System.nanoTime() - start;
+    }
+  }
+
+  private final EventSystem eventSystem;
+  private final ForkJoinPool pool;
+  private final List<SystemNode> systems = new ArrayList<>();
+  private List<List<SystemNode>> stages = new ArrayList<>();
+  private boolean stagesDirty = true;
+  private boolean parallel = true;
+
+  /**
+   * Create a scheduler
+   *
+   * @param eventSystem Event system used to defer events from worker threads
+   * @param threads     Worker thread count, 0 to use all available processors
+   */
+  public SystemScheduler(EventSystem eventSystem, int threads) {
+    this.eventSystem = eventSystem;
+    int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.pool = new ForkJoinPool(Math.max(1, parallelism));
+  }
+
+  /**
+   * Register a system. Systems registered earlier run first when they
+   * conflict with later ones.
+   *
+   * @param name Name used in logs and stats
+   * @param task Update callback
+   * @return The system node, to declare its component access
+   */
+  public synchronized SystemNode register(String name, SystemTask task) {
+    SystemNode node = new SystemNode(name, task, this);
+    systems.add(node);
+    stagesDirty = true;
+    return node;
+  }
+
+  /**
+   * Remove a system by name
+   *
+   * @return True if a system was removed
+   */
+  public synchronized boolean unregister(String name) {
+    boolean removed = systems.removeIf(node -> node.name.equals(name));
+    if (removed) {
+      stagesDirty = true;
+    }
+    return removed;
+  }
+
+  /**
+   * Find a registered system by name
+   */
+  public synchronized SystemNode getSystem(String name) {
+    for (SystemNode node : systems) {
+      if (node.name.equals(name)) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  private synchronized void invalidate() {
+    stagesDirty = true;
+  }
+
+  /**
+   * Run every enabled system for one tick and wait for all of them to finish
+   *
+   * @param deltaTime The fixed time step in seconds
+   */
+  public void run(double deltaTime) {
+    for (List<SystemNode> stage : getStages()) {
+      if (stage.size() == 1 || !parallel) {
+        for (SystemNode node : stage) {
+          if (node.enabled) {
+            node.runTimed(deltaTime);
+          }
+        }
+      } else {
+        runParallel(stage, deltaTime);
+      }
+    }
+  }
+
+  private void runParallel(List<SystemNode> stage, double deltaTime) {
+    List<Callable<List<GameEvent>>> tasks = new ArrayList<>(stage.size());
+    for (SystemNode node : stage) {
+      if (!node.enabled) {
+        continue;
+      }
+      tasks.add(() -> {
+        List<GameEvent> captured;
+        eventSystem.beginDeferring();
+        try {
+          node.runTimed(deltaTime);
+        } finally {
+          captured = eventSystem.endDeferring();
+        }
+        return captured;
+      });
+    }
+
+    // Merge point: deliver captured events in registration order
+    for (var future : pool.invokeAll(tasks)) {
+      try {
+        for (GameEvent event : future.get()) {
+          eventSystem.fireEvent(event);
+        }
+      } catch (Exception e) {
+        LOGGER.log(Level.SEVERE, "Error completing parallel system stage", e);
+      }
+    }
+  }
+
+  /**
+   * Get the current execution plan, rebuilding it if systems changed
+   *
+   * @return Stages in execution order; systems within a stage run concurrently
+   */
+  public synchronized List<List<SystemNode>> getStages() {
+    if (stagesDirty) {
+      stages = buildStages();
+      stagesDirty = false;
+      LOGGER.info("System schedule: " + describe());
+    }
+    return stages;
+  }
+
+  private List<List<SystemNode>> buildStages() {
+    List<List<SystemNode>> result = new ArrayList<>();
+    int[] stageOf = new int[systems.size()];
+
+    for (int i = 0; i < systems.size(); i++) {
+      SystemNode node = systems.get(i);
+      int stage = 0;
+      for (int j = 0; j < i; j++) {
+        if (node.conflictsWith(systems.get(j))) {
+          stage = Math.max(stage, stageOf[j] + 1);
+        }
+      }
+      stageOf[i] = stage;
+      while (result.size() <= stage) {
+        result.add(new ArrayList<>());
+      }
+      result.get(stage).add(node);
+    }
+    return result;
+  }
+
+  /**
+   * Describe the execution plan, e.g. "[physics] -> [animation, audio, ui]"
+   */
+  public synchronized String describe() {
+    StringBuilder sb = new StringBuilder();
+    for (List<SystemNode> stage : stages) {
+      if (sb.length() > 0) {
+        sb.append(" -> ");
+      }
+      sb.append('[');
+      for (int i = 0; i < stage.size(); i++) {
+        if (i > 0) {
+          sb.append(", ");
+        }
+        sb.append(stage.get(i).name);
+      }
+      sb.append(']');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Enable or disable concurrent execution. When disabled every stage runs
+   * serially on the calling thread, in registration order.
+   */
+  public void setParallel(boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  public boolean isParallel() {
+    return parallel;
+  }
+
+  public int getParallelism() {
+    return pool.getParallelism();
+  }
+
+  /**
+   * Stop the worker pool
+   */
+  public void shutdown() {
+    pool.shutdown();
+  }
+}
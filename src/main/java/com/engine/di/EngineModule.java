@@ -19,6 +19,7 @@ import com.engine.graph.OverlayRenderer;
 import com.engine.graph.RenderSystem;
 import com.engine.graph.RenderingSystem;
 import com.engine.input.InputManager;
+import com.engine.physics.PhysicsRegionManager;
 import com.engine.physics.PhysicsSystem;
 import com.engine.physics.PhysicsWorld;
 import com.engine.scene.SceneManager;
@@ -130,8 +131,9 @@ public abstract class EngineModule {
 
     @Provides
     @Singleton
-    public EntityFactory provideEntityFactory(Dominion ecs, PhysicsSystem physicsWorld) {
-      return new EntityFactory(ecs, (PhysicsWorld) physicsWorld);
+    public EntityFactory provideEntityFactory(Dominion ecs, PhysicsSystem physicsWorld,
+        RenderSystem renderSystem) {
+      return new EntityFactory(ecs, (PhysicsWorld) physicsWorld, renderSystem);
     }
 
     @Provides
@@ -190,6 +192,9 @@ public abstract class EngineModule {
       engineConfig.physicsTimeStep(
           Float.parseFloat(config.getProperty("physics.timeStep", "0.016667")));
 
+      engineConfig.physicsMaxSubSteps(
+          Integer.parseInt(config.getProperty("physics.maxSubSteps", "12")));
+
       engineConfig.enableBodySleeping(
           Boolean.parseBoolean(config.getProperty("physics.enableSleeping", "false")));
 
@@ -205,6 +210,15 @@ public abstract class EngineModule {
       engineConfig.targetFps(
           Integer.parseInt(config.getProperty("engine.targetFps", "60")));
 
+      engineConfig.maxCatchUpTicks(
+          Integer.parseInt(config.getProperty("engine.maxCatchUpTicks", "5")));
+
+      engineConfig.systemThreads(
+          Integer.parseInt(config.getProperty("engine.systemThreads", "0")));
+
+      engineConfig.threadedRendering(
+          Boolean.parseBoolean(config.getProperty("render.threaded", "true")));
+
       engineConfig
           .showPerformanceStats(Boolean.parseBoolean(config.getProperty("debug.showPerformanceStats", "false")));
       engineConfig.gravity(
@@ -218,14 +232,14 @@ public abstract class EngineModule {
     public GameEngine provideGameEngine(GameFrame gameFrame, GameWindow window, // Add window parameter
         Dominion ecs, RenderSystem renderer,
         CameraSystem cameraSystem, PhysicsSystem physicsWorld,
-        EntityFactory entityFactory, UISystem uiSystem,
+        PhysicsRegionManager physicsRegions, EntityFactory entityFactory, UISystem uiSystem,
         InputManager inputManager, EngineConfig config,
         EventSystem eventSystem, AssetManager assetManager,
         AnimationSystem animationSystem, ParticleSystem particleSystem,
         AudioSystem audioSystem) { // Add AudioSystem parameter
 
       GameEngine engine = new GameEngine(gameFrame, window, ecs, renderer, cameraSystem, // Pass window here
-          (PhysicsWorld) physicsWorld, entityFactory, uiSystem, inputManager,
+          (PhysicsWorld) physicsWorld, physicsRegions, entityFactory, uiSystem, inputManager,
           config, eventSystem, assetManager, animationSystem, particleSystem,
           audioSystem); // Pass AudioSystem here
 
@@ -251,8 +265,8 @@ public abstract class EngineModule {
     @Singleton
     public ParticleEmitterFactory provideParticleEmitterFactory(PhysicsSystem physicsSystem,
         AssetManager assetManager,
-        World physicsWorld) {
-      return new ParticleEmitterFactory(physicsSystem, assetManager, physicsWorld);
+        World physicsWorld, PhysicsRegionManager physicsRegions) {
+      return new ParticleEmitterFactory(physicsSystem, assetManager, physicsWorld, physicsRegions);
     }
 
     @Provides
@@ -22,6 +22,7 @@ import com.engine.components.SpriteComponent;
 import com.engine.components.SpriteAnimationComponent;
 import com.engine.graph.Circle;
 import com.engine.graph.Rect;
+import com.engine.graph.RenderSystem;
 import com.engine.gameobject.GameObject;
 import com.engine.physics.PhysicsWorld;
 import com.engine.physics.BoxCollider;
@@ -48,6 +49,9 @@ public class EntityFactory {
   /** Physics world for physics calculations and conversions */
   private final PhysicsWorld physicsWorld;
 
+  /** Render system culling the created entities */
+  private final RenderSystem renderSystem;
+
   /** Current entity registrar for registering created entities */
   private EntityRegistrar currentRegistrar;
 
@@ -56,11 +60,13 @@ public class EntityFactory {
    *
    * @param ecs          The Entity Component System
    * @param physicsWorld The physics world
+   * @param renderSystem The render system
    */
   @Inject
-  public EntityFactory(Dominion ecs, PhysicsWorld physicsWorld) {
+  public EntityFactory(Dominion ecs, PhysicsWorld physicsWorld, RenderSystem renderSystem) {
     this.ecs = ecs;
     this.physicsWorld = physicsWorld;
+    this.renderSystem = renderSystem;
   }
 
   /**
@@ -79,6 +85,9 @@ public class EntityFactory {
    * @return The registered entity
    */
   private Entity registerWithRegistrar(Entity entity) {
+    // Every factory-made entity passes here; let the renderer cull it
+    renderSystem.track(entity);
+
     if (currentRegistrar != null && entity != null) {
       try {
         return currentRegistrar.registerEntity(entity);
@@ -149,11 +158,15 @@ public class EntityFactory {
     Transform transform = new Transform(x, y, 0, 1, 1);
 
     // Create entity
+    RenderableComponent renderable = new RenderableComponent(groundRect);
+    renderable.setStatic(true);
+
     Entity entity = ecs.createEntity(
         "ground",
         transform,
-        new RenderableComponent(groundRect),
+        renderable,
         new PhysicsBodyComponent(groundBodyDef, groundShape, 0, 0.3f, 0.2f));
+    physicsWorld.queueBody(entity);
 
     LOGGER.fine("Created ground at: " + x + "," + y + " with size: " + width + "x" + height);
     return registerWithRegistrar(entity);
@@ -200,6 +213,7 @@ public class EntityFactory {
         transform,
         new RenderableComponent(ballCircle),
         new PhysicsBodyComponent(ballBodyDef, ballShape, density, friction, restitution));
+    physicsWorld.queueBody(entity);
 
     LOGGER.fine("Created ball at: " + x + "," + y + " with radius: " + radius);
     return registerWithRegistrar(entity);
@@ -246,6 +260,7 @@ public class EntityFactory {
         transform,
         new RenderableComponent(rectangle),
         new PhysicsBodyComponent(bodyDef, shape, density, friction, restitution));
+    physicsWorld.queueBody(entity);
 
     LOGGER.fine("Created rectangle at: " + x + "," + y + " with size: " + width + "x" + height);
     return registerWithRegistrar(entity);
@@ -316,6 +331,7 @@ public class EntityFactory {
         transform,
         new GameObjectComponent(gameObject),
         new PhysicsBodyComponent(bodyDef, shape, density, friction, restitution));
+    physicsWorld.queueBody(entity);
 
     LOGGER.fine("Created physics GameObject at: " + x + "," + y);
     return registerWithRegistrar(entity);
@@ -357,6 +373,7 @@ public class EntityFactory {
 
     // Add physics component to entity
     entity.add(new PhysicsBodyComponent(bodyDef, shape, density, friction, restitution));
+    physicsWorld.queueBody(entity);
 
     System.out.println("Added box physics to entity at: " + transform.getX() + "," + transform.getY());
     return entity;
@@ -397,6 +414,7 @@ public class EntityFactory {
 
     // Add physics component to entity
     entity.add(new PhysicsBodyComponent(bodyDef, shape, density, friction, restitution));
+    physicsWorld.queueBody(entity);
 
     System.out.println("Added circle physics to entity at: " + transform.getX() + "," + transform.getY());
     return entity;
@@ -645,11 +663,14 @@ public class EntityFactory {
     bodyDef.type = RigidBody.toBox2DBodyType(bodyType);
     bodyDef.position.set(physicsWorld.toPhysicsWorld(x), physicsWorld.toPhysicsWorld(y));
 
+    RenderableComponent renderable = new RenderableComponent(new Rect(color, width, height));
+    renderable.setStatic(bodyType == RigidBody.Type.STATIC);
+
     // Create entity
     Entity entity = ecs.createEntity(
         "box_" + System.currentTimeMillis(),
         new Transform(x, y, 0, 1, 1),
-        new RenderableComponent(new Rect(color, width, height)),
+        renderable,
         boxCollider,
         new PhysicsBodyComponent(
             bodyDef,
@@ -657,6 +678,7 @@ public class EntityFactory {
             bodyType == RigidBody.Type.STATIC ? 0.0f : 1.0f,
             0.3f,
             0.2f));
+    physicsWorld.queueBody(entity);
 
     return registerWithRegistrar(entity);
   }
@@ -700,11 +722,14 @@ public class EntityFactory {
     bodyDef.type = RigidBody.toBox2DBodyType(bodyType);
     bodyDef.position.set(physicsWorld.toPhysicsWorld(x), physicsWorld.toPhysicsWorld(y));
 
+    RenderableComponent renderable = new RenderableComponent(new Circle(color, radius));
+    renderable.setStatic(bodyType == RigidBody.Type.STATIC);
+
     // Create entity
     Entity entity = ecs.createEntity(
         "circle_" + System.currentTimeMillis(),
         new Transform(x, y, 0, 1, 1),
-        new RenderableComponent(new Circle(color, radius)),
+        renderable,
         circleCollider,
         new PhysicsBodyComponent(
             bodyDef,
@@ -712,6 +737,7 @@ public class EntityFactory {
             bodyType == RigidBody.Type.STATIC ? 0.0f : 1.0f,
             0.3f,
             0.2f));
+    physicsWorld.queueBody(entity);
 
     return registerWithRegistrar(entity);
   }
@@ -758,6 +784,7 @@ public class EntityFactory {
             bodyType == RigidBody.Type.STATIC ? 0.0f : 1.0f,
             0.3f,
             0.2f));
+    physicsWorld.queueBody(entity);
 
     return registerWithRegistrar(entity);
   }
@@ -788,6 +815,7 @@ public class EntityFactory {
         "sensor_" + System.currentTimeMillis(),
         new Transform(x, y, 0, 1, 1),
         physicsBody);
+    physicsWorld.queueBody(entity);
 
     // Add the specific collider component
     if (collider instanceof BoxCollider) {
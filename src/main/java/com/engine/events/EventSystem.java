@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -23,8 +24,14 @@ public class EventSystem {
 
   private final Map<String, List<GameEventListener>> listeners = new ConcurrentHashMap<>();
   private final Map<Pattern, List<GameEventListener>> patternListeners = new ConcurrentHashMap<>();
+  // Whether an event type has any listener; cleared whenever listeners change
+  private final Map<String, Boolean> subscribedTypes = new ConcurrentHashMap<>();
+  // Bumped on every listener change, so lookups can tell their answer is stale
+  private final AtomicLong listenerVersion = new AtomicLong();
   private final List<GameEvent> eventQueue = new ArrayList<>();
   private final Map<String, Object> globalState = new HashMap<>();
+  // Events captured instead of delivered while the current thread is deferring
+  private final ThreadLocal<List<GameEvent>> deferredEvents = new ThreadLocal<>();
   private EngineConfig config;
   private boolean debugMode = false;
 
@@ -41,6 +48,7 @@ public class EventSystem {
    */
   public void addEventListener(String eventType, GameEventListener listener) {
     listeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(listener);
+    listenersChanged();
     LOGGER.fine("Added listener for event type: " + eventType);
   }
 
@@ -59,6 +67,7 @@ public class EventSystem {
     Pattern compiledPattern = Pattern.compile(regex);
 
     patternListeners.computeIfAbsent(compiledPattern, k -> new ArrayList<>()).add(listener);
+    listenersChanged();
     LOGGER.fine("Added pattern listener for: " + pattern);
   }
 
@@ -71,6 +80,7 @@ public class EventSystem {
   public void removeEventListener(String eventType, GameEventListener listener) {
     if (listeners.containsKey(eventType)) {
       listeners.get(eventType).remove(listener);
+      listenersChanged();
       LOGGER.fine("Removed listener for event type: " + eventType);
     }
   }
@@ -84,16 +94,68 @@ public class EventSystem {
     if (listeners.containsKey(eventType)) {
       int count = listeners.get(eventType).size();
       listeners.remove(eventType);
+      listenersChanged();
       LOGGER.fine("Removed " + count + " listeners for event type: " + eventType);
     }
   }
 
+  /**
+   * Check whether firing an event type would reach any listener. Lets hot
+   * code skip building events nobody receives; the answer, including pattern
+   * matches, is cached until listeners change.
+   *
+   * @param eventType The event type
+   * @return True if an exact or pattern listener is registered for the type
+   */
+  public boolean hasListeners(String eventType) {
+    Boolean subscribed = subscribedTypes.get(eventType);
+    if (subscribed == null) {
+      long version = listenerVersion.get();
+      subscribed = computeHasListeners(eventType);
+      subscribedTypes.put(eventType, subscribed);
+      if (listenerVersion.get() != version) {
+        // Listeners changed while computing; the change's own clear may
+        // already have run, so drop the possibly stale answer here
+        subscribedTypes.remove(eventType, subscribed);
+      }
+    }
+    return subscribed;
+  }
+
+  /**
+   * Invalidate cached {@link #hasListeners} answers. Called after the
+   * listener maps were modified.
+   */
+  private void listenersChanged() {
+    listenerVersion.incrementAndGet();
+    subscribedTypes.clear();
+  }
+
+  private boolean computeHasListeners(String eventType) {
+    List<GameEventListener> exact = listeners.get(eventType);
+    if (exact != null && !exact.isEmpty()) {
+      return true;
+    }
+    for (Map.Entry<Pattern, List<GameEventListener>> entry : patternListeners.entrySet()) {
+      if (!entry.getValue().isEmpty() && entry.getKey().matcher(eventType).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Fire an event immediately
    *
    * @param event The event to fire
    */
   public void fireEvent(GameEvent event) {
+    List<GameEvent> deferred = deferredEvents.get();
+    if (deferred != null) {
+      deferred.add(event);
+      return;
+    }
+
     if (debugMode) {
       LOGGER.info("Event fired: " + event.toString());
     }
@@ -155,6 +217,26 @@ public class EventSystem {
     }
   }
 
+  /**
+   * Start capturing events fired on the calling thread instead of delivering
+   * them. Used to run systems off the main thread without invoking listeners
+   * concurrently.
+   */
+  public void beginDeferring() {
+    deferredEvents.set(new ArrayList<>());
+  }
+
+  /**
+   * Stop capturing events on the calling thread
+   *
+   * @return The events fired since {@link #beginDeferring()}, in firing order
+   */
+  public List<GameEvent> endDeferring() {
+    List<GameEvent> captured = deferredEvents.get();
+    deferredEvents.remove();
+    return captured != null ? captured : new ArrayList<>();
+  }
+
   /**
    * Process all queued events
    */
@@ -20,6 +20,7 @@ public interface EventTypes {
   String PHYSICS_BODY_CREATED = "physics:body:created";
   String PHYSICS_BODY_DESTROYED = "physics:body:destroyed";
   String PHYSICS_GRAVITY_CHANGED = "physics:gravity:changed";
+  String PHYSICS_OVERLOAD = "physics:overload";
 
   // Collision events
   String COLLISION_BEGIN = "collision:begin";
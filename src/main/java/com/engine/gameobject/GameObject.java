@@ -53,4 +53,15 @@ public interface GameObject {
   default void onCollisionExit(Collision collision) {
     // Default implementation does nothing
   }
+
+  /**
+   * Radius around the entity position that {@link #render} stays within,
+   * used to skip rendering while off screen.
+   * Default implementation returns -1, meaning unknown: always rendered
+   *
+   * @return Bounding radius in world units, or a negative value if unknown
+   */
+  default float getRenderRadius() {
+    return -1;
+  }
 }
@@ -19,4 +19,8 @@ public class Circle extends Shape {
     // Draw the circle centered at (0,0) - this works correctly in world space
     g.fillOval(-radius, -radius, (int) diameter, (int) diameter);
   }
+
+  public double getDiameter() {
+    return diameter;
+  }
 }
@@ -25,7 +25,7 @@ import dev.dominion.ecs.api.Entity;
  * Dedicated class for debug rendering with optimizations
  */
 @Singleton
-public class DebugRenderer {
+public class DebugRenderer implements Renderable {
   private final Dominion world;
 
 
@@ -62,6 +62,7 @@ public class DebugRenderer {
   /**
    * Render debug visualizations
    */
+  @Override
   public void render(Graphics2D g) {
     if (!showPhysics && !showColliders) {
       return; // Early exit if debugging is disabled
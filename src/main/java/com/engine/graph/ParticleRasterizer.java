@@ -0,0 +1,397 @@
+package com.engine.graph;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Draws solid particles by writing pixels straight into an integer raster.
+ * <p>
+ * Filling a rotated square through Graphics2D costs a transform change, a
+ * shape fill and a transform reset per particle. Here particles are
+ * transformed to screen space once, then every covered row is filled as a
+ * span in a premultiplied {@code int[]} canvas, blended over or added onto
+ * what is already there. The canvas is composited onto the target with a
+ * single {@code drawImage}.
+ * <p>
+ * The rows touched by a frame are split into bands rasterized on a fork-join
+ * pool. Each band owns its rows, so bands never write the same pixel, and
+ * within a band particles are drawn in the order they were added. Only the
+ * area drawn to is composited and cleared again.
+ * <p>
+ * One frame is built at a time: {@link #begin}, {@link #add} for every
+ * particle, then {@link #draw}. Instances are not thread-safe.
+ */
+public class ParticleRasterizer {
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+
+  // Below this half size in pixels squares are drawn axis-aligned
+  private static final float MIN_ROTATED_HALF = 2.0f;
+  private static final int MIN_BAND_ROWS = 16;
+
+  /**
+   * How particle colors combine with the pixels below them
+   */
+  public enum BlendMode {
+    /** Source over destination */
+    ALPHA,
+    /** Colors are added, saturating at white */
+    ADDITIVE
+  }
+
+  private final ForkJoinPool pool;
+  private BlendMode blendMode = BlendMode.ALPHA;
+  private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+  // Canvas in premultiplied ARGB
+  private BufferedImage canvas;
+  private int[] pixels;
+  private int canvasWidth;
+  private int canvasHeight;
+
+  // Particle-to-canvas transform of the current frame
+  private float m00, m01, m02, m10, m11, m12;
+  private float scale;
+  private float angleOffset;
+
+  // Particles of the current frame, in canvas space
+  private float[] centerX = new float[256];
+  private float[] centerY = new float[256];
+  private float[] half = new float[256];
+  private float[] cos = new float[256];
+  private float[] sin = new float[256];
+  private int[] colors = new int[256];
+  private int[] top = new int[256];
+  private int[] bottom = new int[256];
+  private int count = 0;
+
+  // Area drawn to in the current frame
+  private int dirtyX0, dirtyY0, dirtyX1, dirtyY1;
+
+  // Statistics
+  private int lastParticleCount = 0;
+  private long lastRasterNanos = 0;
+
+  public ParticleRasterizer() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a rasterizer
+   *
+   * @param pool Pool to rasterize row bands on, or null to draw on the caller
+   */
+  public ParticleRasterizer(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Start a frame
+   *
+   * @param width     Width of the target in screen pixels
+   * @param height    Height of the target in screen pixels
+   * @param transform Transform from particle coordinates to screen pixels
+   */
+  public void begin(int width, int height, AffineTransform transform) {
+    width = Math.max(1, width);
+    height = Math.max(1, height);
+    if (canvas == null || canvasWidth != width || canvasHeight != height) {
+      canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+      pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+      canvasWidth = width;
+      canvasHeight = height;
+    }
+
+    m00 = (float) transform.getScaleX();
+    m01 = (float) transform.getShearX();
+    m02 = (float) transform.getTranslateX();
+    m10 = (float) transform.getShearY();
+    m11 = (float) transform.getScaleY();
+    m12 = (float) transform.getTranslateY();
+    scale = (float) Math.sqrt(Math.abs(transform.getDeterminant()));
+    angleOffset = (float) Math.atan2(m10, m00);
+
+    count = 0;
+    dirtyX0 = canvasWidth;
+    dirtyY0 = canvasHeight;
+    dirtyX1 = 0;
+    dirtyY1 = 0;
+  }
+
+  /**
+   * Add a square particle to the frame
+   *
+   * @param x        Center X in particle coordinates
+   * @param y        Center Y in particle coordinates
+   * @param size     Edge length in particle coordinates
+   * @param rotation Rotation in radians
+   * @param argb     Color with opacity in the alpha channel
+   */
+  public void add(float x, float y, float size, float rotation, int argb) {
+    int alpha = argb >>> 24;
+    float h = size * scale / 2;
+    if (alpha == 0 || !(h > 0)) {
+      return;
+    }
+
+    float cx = m00 * x + m01 * y + m02;
+    float cy = m10 * x + m11 * y + m12;
+    float c = 1;
+    float s = 0;
+    float extent = h;
+    if (h >= MIN_ROTATED_HALF) {
+      double angle = rotation + angleOffset;
+      c = (float) Math.cos(angle);
+      s = (float) Math.sin(angle);
+      extent = h * (Math.abs(c) + Math.abs(s));
+    }
+
+    // Pixels whose centers fall inside the bounds
+    int x0 = Math.max(0, (int) Math.ceil(cx - extent - 0.5f));
+    int x1 = Math.min(canvasWidth, (int) Math.ceil(cx + extent - 0.5f));
+    int y0 = Math.max(0, (int) Math.ceil(cy - extent - 0.5f));
+    int y1 = Math.min(canvasHeight, (int) Math.ceil(cy + extent - 0.5f));
+    if (x0 >= x1 || y0 >= y1) {
+      return;
+    }
+
+    if (count == colors.length) {
+      int capacity = count * 2;
+      centerX = Arrays.copyOf(centerX, capacity);
+      centerY = Arrays.copyOf(centerY, capacity);
+      half = Arrays.copyOf(half, capacity);
+      cos = Arrays.copyOf(cos, capacity);
+      sin = Arrays.copyOf(sin, capacity);
+      colors = Arrays.copyOf(colors, capacity);
+      top = Arrays.copyOf(top, capacity);
+      bottom = Arrays.copyOf(bottom, capacity);
+    }
+
+    // Premultiply once so blending is integer arithmetic only
+    int r = ((argb >> 16) & 0xFF) * alpha / 255;
+    int g = ((argb >> 8) & 0xFF) * alpha / 255;
+    int b = (argb & 0xFF) * alpha / 255;
+
+    centerX[count] = cx;
+    centerY[count] = cy;
+    half[count] = h;
+    cos[count] = c;
+    sin[count] = s;
+    colors[count] = (alpha << 24) | (r << 16) | (g << 8) | b;
+    top[count] = y0;
+    bottom[count] = y1;
+    count++;
+
+    dirtyX0 = Math.min(dirtyX0, x0);
+    dirtyY0 = Math.min(dirtyY0, y0);
+    dirtyX1 = Math.max(dirtyX1, x1);
+    dirtyY1 = Math.max(dirtyY1, y1);
+  }
+
+  /**
+   * Rasterize the frame and composite it with the current transform and
+   * composite of the target, then clear the canvas for the next frame
+   *
+   * @param g Graphics context whose transform maps screen pixels
+   */
+  public void draw(Graphics2D g) {
+    lastParticleCount = count;
+    if (count == 0 || dirtyX0 >= dirtyX1 || dirtyY0 >= dirtyY1) {
+      lastRasterNanos = 0;
+      return;
+    }
+
+    long startTime = System.nanoTime();
+    int rows = dirtyY1 - dirtyY0;
+    if (pool != null && pool.getParallelism() > 1 && count >= parallelThreshold
+        && rows >= MIN_BAND_ROWS * 2) {
+      int bands = Math.min(pool.getParallelism() * 2, rows / MIN_BAND_ROWS);
+      pool.invoke(new BandTask(dirtyY0, dirtyY1, Math.max(MIN_BAND_ROWS, (rows + bands - 1) / bands)));
+    } else {
+      rasterize(dirtyY0, dirtyY1);
+    }
+    lastRasterNanos = System.nanoTime() - startTime;
+
+    g.drawImage(canvas, dirtyX0, dirtyY0, dirtyX1, dirtyY1, dirtyX0, dirtyY0, dirtyX1, dirtyY1, null);
+
+    for (int y = dirtyY0; y < dirtyY1; y++) {
+      int row = y * canvasWidth;
+      Arrays.fill(pixels, row + dirtyX0, row + dirtyX1, 0);
+    }
+    count = 0;
+  }
+
+  /**
+   * Draw every particle's part within a band of rows
+   */
+  private void rasterize(int bandTop, int bandBottom) {
+    boolean additive = blendMode == BlendMode.ADDITIVE;
+    for (int p = 0; p < count; p++) {
+      int y0 = Math.max(top[p], bandTop);
+      int y1 = Math.min(bottom[p], bandBottom);
+      if (y0 >= y1) {
+        continue;
+      }
+
+      float cx = centerX[p];
+      float cy = centerY[p];
+      float h = half[p];
+      float c = cos[p];
+      float s = sin[p];
+      int color = colors[p];
+
+      for (int y = y0; y < y1; y++) {
+        // Pixel centers inside the square on this row
+        float dy = y + 0.5f - cy;
+        float left = cx - h;
+        float right = cx + h;
+        if (s != 0) {
+          // |dx*c + dy*s| <= h and |dy*c - dx*s| <= h
+          float u0 = slabMin(c, dy * s, h);
+          float u1 = slabMax(c, dy * s, h);
+          float v0 = slabMin(-s, dy * c, h);
+          float v1 = slabMax(-s, dy * c, h);
+          left = cx + Math.max(u0, v0);
+          right = cx + Math.min(u1, v1);
+        }
+
+        int x0 = Math.max(0, (int) Math.ceil(left - 0.5f));
+        int x1 = Math.min(canvasWidth, (int) Math.ceil(right - 0.5f));
+        if (x0 >= x1) {
+          continue;
+        }
+
+        int row = y * canvasWidth;
+        if (additive) {
+          addSpan(pixels, row + x0, row + x1, color);
+        } else {
+          blendSpan(pixels, row + x0, row + x1, color);
+        }
+      }
+    }
+  }
+
+  /**
+   * Smallest dx with |dx * k + offset| <= h, or -infinity if unbounded
+   */
+  private static float slabMin(float k, float offset, float h) {
+    if (k == 0) {
+      return Math.abs(offset) <= h ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+    }
+    return Math.min((-h - offset) / k, (h - offset) / k);
+  }
+
+  /**
+   * Largest dx with |dx * k + offset| <= h, or +infinity if unbounded
+   */
+  private static float slabMax(float k, float offset, float h) {
+    if (k == 0) {
+      return Math.abs(offset) <= h ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+    }
+    return Math.max((-h - offset) / k, (h - offset) / k);
+  }
+
+  private static void blendSpan(int[] pixels, int from, int to, int color) {
+    int inv = 255 - (color >>> 24);
+    if (inv == 0) {
+      Arrays.fill(pixels, from, to, color);
+      return;
+    }
+    for (int i = from; i < to; i++) {
+      pixels[i] = color + scalePixel(pixels[i], inv);
+    }
+  }
+
+  private static void addSpan(int[] pixels, int from, int to, int color) {
+    int sa = color >>> 24;
+    int sr = (color >> 16) & 0xFF;
+    int sg = (color >> 8) & 0xFF;
+    int sb = color & 0xFF;
+    for (int i = from; i < to; i++) {
+      int d = pixels[i];
+      int a = Math.min(255, (d >>> 24) + sa);
+      int r = Math.min(255, ((d >> 16) & 0xFF) + sr);
+      int g = Math.min(255, ((d >> 8) & 0xFF) + sg);
+      int b = Math.min(255, (d & 0xFF) + sb);
+      pixels[i] = (a << 24) | (r << 16) | (g << 8) | b;
+    }
+  }
+
+  /**
+   * Multiply all four channels of a pixel by factor / 255, rounded, two
+   * channels per multiplication
+   */
+  private static int scalePixel(int pixel, int factor) {
+    int rb = (pixel & 0x00FF00FF) * factor + 0x00800080;
+    rb = ((rb + ((rb >>> 8) & 0x00FF00FF)) >>> 8) & 0x00FF00FF;
+    int ag = ((pixel >>> 8) & 0x00FF00FF) * factor + 0x00800080;
+    ag = (ag + ((ag >>> 8) & 0x00FF00FF)) & 0xFF00FF00;
+    return ag | rb;
+  }
+
+  /**
+   * Rasterizes a range of rows, splitting it until bands are small enough
+   */
+  private final class BandTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int bandRows;
+
+    BandTask(int from, int to, int bandRows) {
+      this.from = from;
+      this.to = to;
+      this.bandRows = bandRows;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= bandRows) {
+        rasterize(from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new BandTask(from, mid, bandRows), new BandTask(mid, to, bandRows));
+    }
+  }
+
+  public void setBlendMode(BlendMode blendMode) {
+    this.blendMode = blendMode != null ? blendMode : BlendMode.ALPHA;
+  }
+
+  public BlendMode getBlendMode() {
+    return blendMode;
+  }
+
+  /**
+   * Set how many particles a frame needs before rows are rasterized in
+   * parallel
+   */
+  public void setParallelThreshold(int parallelThreshold) {
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  public int getParallelThreshold() {
+    return parallelThreshold;
+  }
+
+  /**
+   * Get the number of particles drawn by the last frame
+   */
+  public int getLastParticleCount() {
+    return lastParticleCount;
+  }
+
+  /**
+   * Get the time spent writing pixels in the last frame, excluding the
+   * composite
+   */
+  public long getLastRasterNanos() {
+    return lastRasterNanos;
+  }
+}
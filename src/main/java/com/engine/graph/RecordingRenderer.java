@@ -0,0 +1,19 @@
+package com.engine.graph;
+
+/**
+ * Interface for custom renderers that can describe their output as render
+ * commands instead of drawing directly.
+ * <p>
+ * Custom renderers that do not implement this interface are recorded as
+ * callbacks and drawn on the render thread while the simulation is held.
+ */
+public interface RecordingRenderer {
+
+  /**
+   * Record this renderer's draw commands for the current frame. Called on the
+   * simulation thread, so world state may be read freely.
+   *
+   * @param buffer The command buffer for the frame, in world space
+   */
+  void record(RenderCommandBuffer buffer);
+}
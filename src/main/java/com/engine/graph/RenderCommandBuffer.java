@@ -0,0 +1,685 @@
+package com.engine.graph;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import com.engine.assets.AtlasRegion;
+import com.engine.util.ColorCache;
+
+/**
+ * A frame's worth of draw commands, recorded on the simulation thread and
+ * replayed on the render thread.
+ * <p>
+ * Commands are stored as parallel primitive arrays so that recording a frame
+ * does not allocate once the buffer has grown to its working size. Each
+ * command carries its own transform (position, rotation, scale) and is drawn
+ * either in world space, under the camera transform captured for the frame,
+ * or in screen space.
+ * <p>
+ * Sprites, shapes, text and particle batches are fully described by their
+ * recorded data. Anything else is recorded as a callback, which is invoked on
+ * the render thread while holding the world lock passed to
+ * {@link #replay(Graphics2D, Object)}.
+ */
+public class RenderCommandBuffer {
+  // Command kinds
+  public static final byte SPRITE = 0;
+  public static final byte RECT = 1;
+  public static final byte OVAL = 2;
+  public static final byte TEXT = 3;
+  public static final byte PARTICLES = 4;
+  public static final byte CALLBACK = 5;
+
+  // Command flags
+  private static final int FLAG_WORLD = 1;
+  private static final int FLAG_FLIP_X = 2;
+  private static final int FLAG_FLIP_Y = 4;
+  private static final int FLAG_TRANSFORM = 8;
+  private static final int FLAG_REGION = 16;
+
+  // Per-particle floats: x, y, size, rotation
+  private static final int PARTICLE_STRIDE = 4;
+
+  private static final AlphaComposite[] ALPHA_COMPOSITES = new AlphaComposite[256];
+  private static final AffineTransform IDENTITY = new AffineTransform();
+
+  static {
+    for (int i = 0; i < ALPHA_COMPOSITES.length; i++) {
+      ALPHA_COMPOSITES[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / 255.0f);
+    }
+  }
+
+  private int count = 0;
+  private byte[] kinds;
+  private int[] flags;
+  private float[] x;
+  private float[] y;
+  private float[] rotation;
+  private float[] scaleX;
+  private float[] scaleY;
+  private float[] width;
+  private float[] height;
+  private float[] pivotX;
+  private float[] pivotY;
+  private float[] opacity;
+  private int[] dataOffset;
+  private int[] dataCount;
+  private Object[] refs;
+  private Font[] fonts;
+  private Color[] colors;
+
+  // Particle instance data shared by all particle batch commands
+  private float[] particleData;
+  private int[] particleArgb;
+  private int particleCount = 0;
+  private int openBatch = -1;
+
+  // Frame state
+  private final AffineTransform worldTransform = new AffineTransform();
+  private final AffineTransform screenBase = new AffineTransform();
+  private final AffineTransform worldBase = new AffineTransform();
+  private boolean worldSpace = true;
+  private int frameWidth;
+  private int frameHeight;
+  private long frameNumber;
+
+  // Composite tracking during replay
+  private Composite currentComposite;
+  private int compositeChanges = 0;
+  private volatile int lastCompositeChanges = 0;
+
+  // Accelerated image copies used during replay, may be null
+  private VolatileImageCache imageCache;
+
+  // Pre-rotated, scaled and faded sprite variants used during replay, may be null
+  private SpriteTransformCache transformCache;
+
+  // Rasterizer for solid particle batches during replay, may be null
+  private ParticleRasterizer particleRasterizer;
+
+  public RenderCommandBuffer() {
+    this(256, 1024);
+  }
+
+  /**
+   * Create a buffer with initial capacity
+   *
+   * @param commandCapacity  Initial number of commands
+   * @param particleCapacity Initial number of particle instances
+   */
+  public RenderCommandBuffer(int commandCapacity, int particleCapacity) {
+    allocateCommands(Math.max(16, commandCapacity));
+    particleData = new float[Math.max(16, particleCapacity) * PARTICLE_STRIDE];
+    particleArgb = new int[Math.max(16, particleCapacity)];
+  }
+
+  /**
+   * Clear the buffer and start recording a new frame
+   *
+   * @param frameNumber   Sequence number of the frame
+   * @param width         Width of the target surface
+   * @param height        Height of the target surface
+   * @param viewTransform Camera transform applied to world-space commands
+   */
+  public void begin(long frameNumber, int width, int height, AffineTransform viewTransform) {
+    // Drop references from the previous frame so they can be collected
+    Arrays.fill(refs, 0, count, null);
+    Arrays.fill(fonts, 0, count, null);
+    Arrays.fill(colors, 0, count, null);
+
+    this.count = 0;
+    this.particleCount = 0;
+    this.openBatch = -1;
+    this.worldSpace = true;
+    this.frameNumber = frameNumber;
+    this.frameWidth = width;
+    this.frameHeight = height;
+    this.worldTransform.setTransform(viewTransform);
+  }
+
+  /**
+   * Record subsequent commands in world space (camera transformed)
+   */
+  public void useWorldSpace() {
+    worldSpace = true;
+    openBatch = -1;
+  }
+
+  /**
+   * Record subsequent commands in screen space (pixels)
+   */
+  public void useScreenSpace() {
+    worldSpace = false;
+    openBatch = -1;
+  }
+
+  /**
+   * Record a sprite drawn centered on its pivot
+   *
+   * @param image   Image to draw
+   * @param x       Position X
+   * @param y       Position Y
+   * @param rot     Rotation in radians
+   * @param sx      Scale X
+   * @param sy      Scale Y
+   * @param w       Drawn width
+   * @param h       Drawn height
+   * @param px      Pivot X in the range [0, 1]
+   * @param py      Pivot Y in the range [0, 1]
+   * @param flipX   Mirror horizontally about the pivot
+   * @param flipY   Mirror vertically about the pivot
+   * @param alpha   Opacity in the range [0, 1]
+   */
+  public void addSprite(Image image, float x, float y, float rot, float sx, float sy,
+      float w, float h, float px, float py, boolean flipX, boolean flipY, float alpha) {
+    int i = next(SPRITE, FLAG_TRANSFORM);
+    setTransform(i, x, y, rot, sx, sy);
+    this.refs[i] = image;
+    this.width[i] = w;
+    this.height[i] = h;
+    this.pivotX[i] = px;
+    this.pivotY[i] = py;
+    this.opacity[i] = alpha;
+    if (flipX) {
+      this.flags[i] |= FLAG_FLIP_X;
+    }
+    if (flipY) {
+      this.flags[i] |= FLAG_FLIP_Y;
+    }
+  }
+
+  /**
+   * Record a sprite drawn from a source rectangle of an atlas page or sprite
+   * sheet; parameters are as for
+   * {@link #addSprite(Image, float, float, float, float, float, float, float, float, float, boolean, boolean, float)}
+   */
+  public void addSprite(AtlasRegion region, float x, float y, float rot, float sx, float sy,
+      float w, float h, float px, float py, boolean flipX, boolean flipY, float alpha) {
+    addSprite((Image) null, x, y, rot, sx, sy, w, h, px, py, flipX, flipY, alpha);
+    int i = count - 1;
+    this.refs[i] = region;
+    this.flags[i] |= FLAG_REGION;
+  }
+
+  /**
+   * Record a filled rectangle centered on the given position
+   */
+  public void addRect(float x, float y, float rot, float sx, float sy, float w, float h, Color color) {
+    int i = next(RECT, FLAG_TRANSFORM);
+    setTransform(i, x, y, rot, sx, sy);
+    this.width[i] = w;
+    this.height[i] = h;
+    this.colors[i] = color;
+  }
+
+  /**
+   * Record a filled circle centered on the given position
+   */
+  public void addOval(float x, float y, float rot, float sx, float sy, float diameter, Color color) {
+    int i = next(OVAL, FLAG_TRANSFORM);
+    setTransform(i, x, y, rot, sx, sy);
+    this.width[i] = diameter;
+    this.height[i] = diameter;
+    this.colors[i] = color;
+  }
+
+  /**
+   * Record a line of text with its baseline starting at the given position
+   */
+  public void addText(String text, Font font, Color color, float x, float y) {
+    int i = next(TEXT, 0);
+    setTransform(i, x, y, 0, 1, 1);
+    this.refs[i] = text;
+    this.fonts[i] = font;
+    this.colors[i] = color;
+  }
+
+  /**
+   * Record a single particle. Consecutive particles sharing the same image are
+   * merged into one batch command.
+   *
+   * @param image Sprite image, or null for a solid square
+   * @param x     Center X in world space
+   * @param y     Center Y in world space
+   * @param size  Edge length
+   * @param rot   Rotation in radians
+   * @param argb  Color (solid particles) or opacity in the alpha channel
+   *              (sprite particles)
+   */
+  public void addParticle(Image image, float x, float y, float size, float rot, int argb) {
+    if (openBatch < 0 || refs[openBatch] != image) {
+      openBatch = next(PARTICLES, 0);
+      this.refs[openBatch] = image;
+      this.dataOffset[openBatch] = particleCount;
+      this.dataCount[openBatch] = 0;
+    }
+
+    if (particleCount == particleArgb.length) {
+      int capacity = particleArgb.length * 2;
+      particleData = Arrays.copyOf(particleData, capacity * PARTICLE_STRIDE);
+      particleArgb = Arrays.copyOf(particleArgb, capacity);
+    }
+
+    int d = particleCount * PARTICLE_STRIDE;
+    particleData[d] = x;
+    particleData[d + 1] = y;
+    particleData[d + 2] = size;
+    particleData[d + 3] = rot;
+    particleArgb[particleCount] = argb;
+    particleCount++;
+    dataCount[openBatch]++;
+  }
+
+  /**
+   * Record an opaque draw callback
+   *
+   * @param renderable Callback invoked on the render thread under the world lock
+   */
+  public void addCallback(Renderable renderable) {
+    int i = next(CALLBACK, 0);
+    this.refs[i] = renderable;
+  }
+
+  /**
+   * Record an opaque draw callback with its own local transform
+   */
+  public void addCallback(Renderable renderable, float x, float y, float rot, float sx, float sy) {
+    int i = next(CALLBACK, FLAG_TRANSFORM);
+    setTransform(i, x, y, rot, sx, sy);
+    this.refs[i] = renderable;
+  }
+
+  /**
+   * Draw every recorded command.
+   * <p>
+   * Everything is drawn through the one context passed in: per-command
+   * transforms are applied on top of a preallocated base transform and reset
+   * afterwards, so replaying a frame does not create a graphics context or
+   * transform per command. Callbacks that carry a transform (entities,
+   * GameObjects) share the context too and have their paint, stroke, font,
+   * composite and background restored after they return; screen-space
+   * callbacks such as UI and overlays get their own copy of the context.
+   *
+   * @param g         Graphics context of the target surface
+   * @param worldLock Lock held while invoking callbacks, so they never run
+   *                  concurrently with a simulation tick; may be null
+   */
+  public void replay(Graphics2D g, Object worldLock) {
+    Object lock = worldLock != null ? worldLock : this;
+    screenBase.setTransform(g.getTransform());
+    worldBase.setTransform(screenBase);
+    worldBase.concatenate(worldTransform);
+    Composite baseComposite = g.getComposite();
+    currentComposite = baseComposite;
+    compositeChanges = 0;
+
+    for (int i = 0; i < count; i++) {
+      AffineTransform base = (flags[i] & FLAG_WORLD) != 0 ? worldBase : screenBase;
+      g.setTransform(base);
+
+      // Sprites and particles switch the composite only when it differs from
+      // the previous one, so runs sorted by opacity share a single change;
+      // everything else draws with the surface's own composite
+      if (kinds[i] != SPRITE && kinds[i] != PARTICLES) {
+        useComposite(g, baseComposite);
+      }
+
+      switch (kinds[i]) {
+        case SPRITE: {
+          float w = width[i];
+          float h = height[i];
+          if (transformCache != null && pivotX[i] == 0.5f && pivotY[i] == 0.5f
+              && drawCachedSprite(g, base, i, baseComposite)) {
+            break;
+          }
+          applyTransform(g, i);
+          if ((flags[i] & (FLAG_FLIP_X | FLAG_FLIP_Y)) != 0) {
+            float pivotPointX = w * pivotX[i];
+            float pivotPointY = h * pivotY[i];
+            g.translate(pivotPointX, pivotPointY);
+            g.scale((flags[i] & FLAG_FLIP_X) != 0 ? -1 : 1, (flags[i] & FLAG_FLIP_Y) != 0 ? -1 : 1);
+            g.translate(-pivotPointX, -pivotPointY);
+          }
+          useComposite(g, opacity[i] < 1.0f ? alphaComposite(opacity[i]) : baseComposite);
+          if ((flags[i] & FLAG_REGION) != 0) {
+            AtlasRegion region = (AtlasRegion) refs[i];
+            region.draw(g, accelerated(g, region.getPage()),
+                -(int) (w * pivotX[i]), -(int) (h * pivotY[i]), (int) w, (int) h);
+          } else {
+            g.drawImage(accelerated(g, (Image) refs[i]),
+                -(int) (w * pivotX[i]), -(int) (h * pivotY[i]), (int) w, (int) h, null);
+          }
+          break;
+        }
+        case RECT:
+        case OVAL: {
+          applyTransform(g, i);
+          g.setColor(colors[i]);
+          if (kinds[i] == RECT) {
+            g.fillRect((int) -width[i] / 2, (int) -height[i] / 2, (int) width[i], (int) height[i]);
+          } else {
+            int radius = (int) (width[i] / 2);
+            g.fillOval(-radius, -radius, (int) width[i], (int) width[i]);
+          }
+          break;
+        }
+        case TEXT: {
+          g.setColor(colors[i]);
+          if (fonts[i] != null) {
+            g.setFont(fonts[i]);
+          }
+          g.drawString((String) refs[i], x[i], y[i]);
+          break;
+        }
+        case PARTICLES: {
+          Image image = (Image) refs[i];
+          int end = dataOffset[i] + dataCount[i];
+          if (image == null && particleRasterizer != null) {
+            rasterizeParticles(g, i, baseComposite);
+            break;
+          }
+          for (int p = dataOffset[i]; p < end; p++) {
+            int d = p * PARTICLE_STRIDE;
+            float size = particleData[d + 2];
+            float halfSize = size / 2;
+
+            g.setTransform(base);
+            g.translate(particleData[d], particleData[d + 1]);
+
+            if (image == null) {
+              g.rotate(particleData[d + 3]);
+              useComposite(g, baseComposite);
+              g.setColor(ColorCache.get(particleArgb[p]));
+              g.fillRect((int) (-halfSize), (int) (-halfSize), (int) size, (int) size);
+              continue;
+            }
+
+            int alpha = particleArgb[p] >>> 24;
+            if (transformCache != null && drawVariant(g, base, image, particleData[d], particleData[d + 1],
+                particleData[d + 3], size, size, alpha / 255.0f, baseComposite)) {
+              // Rotation and alpha are baked into the variant
+              continue;
+            }
+            g.rotate(particleData[d + 3]);
+            useComposite(g, alpha < 255 ? ALPHA_COMPOSITES[alpha] : baseComposite);
+            g.drawImage(image, (int) (-halfSize), (int) (-halfSize), (int) size, (int) size, null);
+          }
+          break;
+        }
+        case CALLBACK: {
+          Renderable renderable = (Renderable) refs[i];
+          if ((flags[i] & FLAG_TRANSFORM) != 0) {
+            applyTransform(g, i);
+            Paint paint = g.getPaint();
+            Stroke stroke = g.getStroke();
+            Font font = g.getFont();
+            Composite composite = g.getComposite();
+            Color background = g.getBackground();
+            try {
+              synchronized (lock) {
+                renderable.render(g);
+              }
+            } finally {
+              g.setPaint(paint);
+              g.setStroke(stroke);
+              g.setFont(font);
+              g.setComposite(composite);
+              g.setBackground(background);
+            }
+          } else {
+            Graphics2D callbackG = (Graphics2D) g.create();
+            try {
+              synchronized (lock) {
+                renderable.render(callbackG);
+              }
+            } finally {
+              callbackG.dispose();
+            }
+          }
+          break;
+        }
+        default:
+          break;
+      }
+    }
+
+    g.setTransform(screenBase);
+    g.setComposite(baseComposite);
+    lastCompositeChanges = compositeChanges;
+  }
+
+  /**
+   * Draw a batch of solid particles through the rasterizer. Particle data is
+   * in the command's space, which maps onto the screen through the world
+   * transform or not at all.
+   */
+  private void rasterizeParticles(Graphics2D g, int i, Composite baseComposite) {
+    particleRasterizer.begin(frameWidth, frameHeight,
+        (flags[i] & FLAG_WORLD) != 0 ? worldTransform : IDENTITY);
+    int end = dataOffset[i] + dataCount[i];
+    for (int p = dataOffset[i]; p < end; p++) {
+      int d = p * PARTICLE_STRIDE;
+      particleRasterizer.add(particleData[d], particleData[d + 1], particleData[d + 2], particleData[d + 3],
+          particleArgb[p]);
+    }
+    g.setTransform(screenBase);
+    useComposite(g, baseComposite);
+    particleRasterizer.draw(g);
+  }
+
+  /**
+   * Set the rasterizer solid particle batches are drawn through. When set, a
+   * batch is written into an integer raster and composited with one image
+   * draw instead of filling every particle through Graphics2D.
+   *
+   * @param particleRasterizer The rasterizer, or null to fill every particle
+   */
+  public void setParticleRasterizer(ParticleRasterizer particleRasterizer) {
+    this.particleRasterizer = particleRasterizer;
+  }
+
+  /**
+   * Draw a center-pivoted sprite as a plain blit of a pre-transformed variant
+   *
+   * @return False if the variant is not cacheable and the sprite must be drawn
+   *         through the transform
+   */
+  private boolean drawCachedSprite(Graphics2D g, AffineTransform base, int i, Composite baseComposite) {
+    Image source = (flags[i] & FLAG_REGION) != 0 ? ((AtlasRegion) refs[i]).toImage() : (Image) refs[i];
+    boolean transformed = (flags[i] & FLAG_TRANSFORM) != 0;
+    float w = width[i] * (transformed ? scaleX[i] : 1) * ((flags[i] & FLAG_FLIP_X) != 0 ? -1 : 1);
+    float h = height[i] * (transformed ? scaleY[i] : 1) * ((flags[i] & FLAG_FLIP_Y) != 0 ? -1 : 1);
+    return drawVariant(g, base, source, transformed ? x[i] : 0, transformed ? y[i] : 0,
+        transformed ? rotation[i] : 0, w, h, opacity[i], baseComposite);
+  }
+
+  /**
+   * Blit a cached variant centered on a point. The variant is rasterized at
+   * its size in device pixels and drawn with an identity transform, so zoom
+   * does not resample it.
+   *
+   * @param base Transform from the point's space to device pixels
+   * @param w    Width in the point's space, negative to mirror
+   * @param h    Height in the point's space, negative to mirror
+   * @return False if the transform or the size rule out a cached variant; the
+   *         context is then left untouched
+   */
+  private boolean drawVariant(Graphics2D g, AffineTransform base, Image source, float px, float py,
+      float rot, float w, float h, float alpha, Composite baseComposite) {
+    double scale = SpriteTransformCache.deviceScale(base);
+    if (scale <= 0) {
+      return false;
+    }
+    BufferedImage variant = transformCache.get(source, rot,
+        (int) Math.round(w * scale), (int) Math.round(h * scale), alpha,
+        g.getRenderingHint(RenderingHints.KEY_INTERPOLATION));
+    if (variant == null) {
+      return false;
+    }
+
+    g.setTransform(IDENTITY);
+    useComposite(g, baseComposite);
+    g.drawImage(variant,
+        (int) Math.round(px * scale + base.getTranslateX()) - variant.getWidth() / 2,
+        (int) Math.round(py * scale + base.getTranslateY()) - variant.getHeight() / 2, null);
+    return true;
+  }
+
+  /**
+   * Set the cache of pre-transformed sprite variants. When set, center-pivoted
+   * sprites and sprite particles are drawn as translated blits of cached
+   * variants instead of through a rotation and scale.
+   *
+   * @param transformCache The cache, or null to transform every draw
+   */
+  public void setTransformCache(SpriteTransformCache transformCache) {
+    this.transformCache = transformCache;
+  }
+
+  /**
+   * Get the accelerated copy of an image for the surface being drawn to
+   */
+  private Image accelerated(Graphics2D g, Image image) {
+    return imageCache != null ? imageCache.resolve(image, g.getDeviceConfiguration()) : image;
+  }
+
+  /**
+   * Set the cache of accelerated image copies sprites are drawn from during
+   * replay
+   *
+   * @param imageCache The cache, or null to draw images as they are
+   */
+  public void setImageCache(VolatileImageCache imageCache) {
+    this.imageCache = imageCache;
+  }
+
+  private void useComposite(Graphics2D g, Composite composite) {
+    if (composite != currentComposite) {
+      g.setComposite(composite);
+      currentComposite = composite;
+      compositeChanges++;
+    }
+  }
+
+  /**
+   * Get the number of composite switches made by the last replay
+   */
+  public int getLastCompositeChanges() {
+    return lastCompositeChanges;
+  }
+
+  /**
+   * Get the number of recorded commands
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Get the number of recorded particle instances
+   */
+  public int getParticleCount() {
+    return particleCount;
+  }
+
+  public long getFrameNumber() {
+    return frameNumber;
+  }
+
+  public int getFrameWidth() {
+    return frameWidth;
+  }
+
+  public int getFrameHeight() {
+    return frameHeight;
+  }
+
+  private static AlphaComposite alphaComposite(float alpha) {
+    return ALPHA_COMPOSITES[Math.max(0, Math.min(255, Math.round(alpha * 255)))];
+  }
+
+  private void applyTransform(Graphics2D g, int i) {
+    if ((flags[i] & FLAG_TRANSFORM) == 0) {
+      return;
+    }
+    g.translate(x[i], y[i]);
+    if (rotation[i] != 0) {
+      g.rotate(rotation[i]);
+    }
+    if (scaleX[i] != 1 || scaleY[i] != 1) {
+      g.scale(scaleX[i], scaleY[i]);
+    }
+  }
+
+  private void setTransform(int i, float x, float y, float rot, float sx, float sy) {
+    this.x[i] = x;
+    this.y[i] = y;
+    this.rotation[i] = rot;
+    this.scaleX[i] = sx;
+    this.scaleY[i] = sy;
+  }
+
+  private int next(byte kind, int commandFlags) {
+    if (count == kinds.length) {
+      allocateCommands(kinds.length * 2);
+    }
+    int i = count++;
+    kinds[i] = kind;
+    flags[i] = commandFlags | (worldSpace ? FLAG_WORLD : 0);
+    if (kind != PARTICLES) {
+      openBatch = -1;
+    }
+    return i;
+  }
+
+  private void allocateCommands(int capacity) {
+    if (kinds == null) {
+      kinds = new byte[capacity];
+      flags = new int[capacity];
+      x = new float[capacity];
+      y = new float[capacity];
+      rotation = new float[capacity];
+      scaleX = new float[capacity];
+      scaleY = new float[capacity];
+      width = new float[capacity];
+      height = new float[capacity];
+      pivotX = new float[capacity];
+      pivotY = new float[capacity];
+      opacity = new float[capacity];
+      dataOffset = new int[capacity];
+      dataCount = new int[capacity];
+      refs = new Object[capacity];
+      fonts = new Font[capacity];
+      colors = new Color[capacity];
+      return;
+    }
+
+    kinds = Arrays.copyOf(kinds, capacity);
+    flags = Arrays.copyOf(flags, capacity);
+    x = Arrays.copyOf(x, capacity);
+    y = Arrays.copyOf(y, capacity);
+    rotation = Arrays.copyOf(rotation, capacity);
+    scaleX = Arrays.copyOf(scaleX, capacity);
+    scaleY = Arrays.copyOf(scaleY, capacity);
+    width = Arrays.copyOf(width, capacity);
+    height = Arrays.copyOf(height, capacity);
+    pivotX = Arrays.copyOf(pivotX, capacity);
+    pivotY = Arrays.copyOf(pivotY, capacity);
+    opacity = Arrays.copyOf(opacity, capacity);
+    dataOffset = Arrays.copyOf(dataOffset, capacity);
+    dataCount = Arrays.copyOf(dataCount, capacity);
+    refs = Arrays.copyOf(refs, capacity);
+    fonts = Arrays.copyOf(fonts, capacity);
+    colors = Arrays.copyOf(colors, capacity);
+  }
+}
@@ -0,0 +1,260 @@
+package com.engine.graph;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.engine.components.Transform;
+import com.engine.util.SpatialIndex;
+
+/**
+ * Keeps the world-space footprint of one kind of renderable in a persistent
+ * {@link SpatialIndex} and answers which of them overlap the view.
+ * <p>
+ * The owner calls {@link #put} when a renderable is first seen and again only
+ * when its transform or size changes, and {@link #remove} when it goes away.
+ * A frame costs one {@link #queryVisible} plus whatever the owner does with
+ * the visible entries, so unchanged off-screen renderables cost nothing.
+ * Visible ids are returned in ascending order, so draw order follows the
+ * order in which renderables were first seen.
+ */
+public class RenderCuller {
+
+  /**
+   * A tracked renderable and its transform snapshot for the current frame
+   */
+  public static class Entry {
+    private final Object key;
+    private final int id;
+    private Object component;
+    private Transform transform;
+    private float radius;
+    private Object payload;
+    private Object attachment;
+
+    // Interpolated transform captured when drawn
+    private float x;
+    private float y;
+    private float rotation;
+    private float scaleX;
+    private float scaleY;
+
+    // Draw-order state owned by RenderQueue
+    long sortKey;
+    int queueKind;
+    long queuedFrame = -1;
+    long orderedFrame = -1;
+
+    private Entry(Object key, int id) {
+      this.key = key;
+      this.id = id;
+    }
+
+    /**
+     * Get the identity of the renderable, usually its entity
+     */
+    public Object getKey() {
+      return key;
+    }
+
+    /**
+     * Get the component the renderable was tracked for
+     */
+    public Object getComponent() {
+      return component;
+    }
+
+    public Transform getTransform() {
+      return transform;
+    }
+
+    /**
+     * Get the unscaled bounding radius the entry was placed with
+     */
+    public float getRadius() {
+      return radius;
+    }
+
+    /**
+     * Get the object being drawn this frame (component, GameObject,
+     * renderable)
+     */
+    public Object getPayload() {
+      return payload;
+    }
+
+    public void setPayload(Object payload) {
+      this.payload = payload;
+    }
+
+    /**
+     * Get data the owner cached on this entry; kept for as long as the
+     * renderable stays tracked
+     */
+    public Object getAttachment() {
+      return attachment;
+    }
+
+    public void setAttachment(Object attachment) {
+      this.attachment = attachment;
+    }
+
+    /**
+     * Capture the transform to draw with this frame
+     */
+    public void setSnapshot(float x, float y, float rotation, float scaleX, float scaleY) {
+      this.x = x;
+      this.y = y;
+      this.rotation = rotation;
+      this.scaleX = scaleX;
+      this.scaleY = scaleY;
+    }
+
+    public float getX() {
+      return x;
+    }
+
+    public float getY() {
+      return y;
+    }
+
+    public float getRotation() {
+      return rotation;
+    }
+
+    public float getScaleX() {
+      return scaleX;
+    }
+
+    public float getScaleY() {
+      return scaleY;
+    }
+  }
+
+  private final SpatialIndex index;
+  private final Map<Object, Entry> entries = new IdentityHashMap<>();
+  private Entry[] entriesById = new Entry[64];
+  private int[] visibleIds = new int[64];
+  private int visibleCount = 0;
+
+  /**
+   * Create a culler
+   *
+   * @param cellSize Cell size of the underlying spatial index in world units
+   */
+  public RenderCuller(float cellSize) {
+    this.index = new SpatialIndex(cellSize);
+  }
+
+  /**
+   * Insert a renderable or move it to new bounds
+   *
+   * @param key       Identity of the renderable, usually its entity
+   * @param component Component the renderable is tracked for
+   * @param transform Transform the bounds were computed from
+   * @param radius    Unscaled bounding radius the bounds were computed from
+   * @return The entry
+   */
+  public Entry put(Object key, Object component, Transform transform, float radius,
+      float minX, float minY, float maxX, float maxY) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      int id = index.insert(minX, minY, maxX, maxY);
+      entry = new Entry(key, id);
+      entries.put(key, entry);
+      if (id >= entriesById.length) {
+        entriesById = Arrays.copyOf(entriesById, Math.max(id + 1, entriesById.length * 2));
+      }
+      entriesById[id] = entry;
+    } else {
+      index.update(entry.id, minX, minY, maxX, maxY);
+    }
+    entry.component = component;
+    entry.transform = transform;
+    entry.radius = radius;
+    return entry;
+  }
+
+  /**
+   * Get the entry of a renderable
+   *
+   * @param key Identity of the renderable
+   * @return The entry, or null if it is not tracked
+   */
+  public Entry get(Object key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Stop tracking a renderable
+   *
+   * @param key Identity of the renderable
+   * @return The removed entry, or null if it was not tracked
+   */
+  public Entry remove(Object key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      index.remove(entry.id);
+      entriesById[entry.id] = null;
+    }
+    return entry;
+  }
+
+  /**
+   * Find the tracked renderables that overlap the view
+   *
+   * @return Number of visible entries, available through {@link #getVisible}
+   */
+  public int queryVisible(float minX, float minY, float maxX, float maxY) {
+    int found = index.query(minX, minY, maxX, maxY, visibleIds);
+    if (found > visibleIds.length) {
+      visibleIds = new int[Integer.highestOneBit(found) << 1];
+      found = index.query(minX, minY, maxX, maxY, visibleIds);
+    }
+    Arrays.sort(visibleIds, 0, found);
+    visibleCount = found;
+    return found;
+  }
+
+  /**
+   * Select every tracked renderable without consulting the index, for when
+   * culling is off or the view has no finite bounds
+   *
+   * @return Number of entries, available through {@link #getVisible}
+   */
+  public int selectAll() {
+    int found = 0;
+    for (int id = 0; id < entriesById.length; id++) {
+      if (entriesById[id] != null) {
+        if (found == visibleIds.length) {
+          visibleIds = Arrays.copyOf(visibleIds, visibleIds.length * 2);
+        }
+        visibleIds[found++] = id;
+      }
+    }
+    visibleCount = found;
+    return found;
+  }
+
+  /**
+   * Get the i-th visible entry from the last {@link #queryVisible} or
+   * {@link #selectAll} call; null if it was removed since
+   */
+  public Entry getVisible(int i) {
+    return entriesById[visibleIds[i]];
+  }
+
+  /**
+   * Get the number of tracked renderables
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Get the number of renderables found visible by the last query
+   */
+  public int getVisibleCount() {
+    return visibleCount;
+  }
+}
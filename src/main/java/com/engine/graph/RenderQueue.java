@@ -0,0 +1,281 @@
+package com.engine.graph;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Orders the visible world renderables of a frame by (layer, z, kind,
+ * texture, composite).
+ * <p>
+ * Keys are packed into a single {@code long} so that comparing two items is
+ * one primitive comparison. Sorting is incremental: the queue starts from the
+ * previous frame's order, keeps the items that are still visible in that
+ * order, appends newly visible ones, and repairs the result with an insertion
+ * sort. Since most renderables keep their layer, depth and image between
+ * frames this is close to linear. When many items are out of place (a scene
+ * change, a mass depth change) it falls back to a stable LSD radix sort over
+ * the key bits.
+ * <p>
+ * Items with equal keys keep their previous relative order, so sprites that
+ * share an image and composite end up adjacent and the replay only switches
+ * state between batches.
+ */
+public class RenderQueue {
+  // Item kinds, in the order they were drawn before sorting was introduced
+  public static final int KIND_SHAPE = 0;
+  public static final int KIND_GAME_OBJECT = 1;
+  public static final int KIND_SPRITE = 2;
+
+  // Key layout, from most to least significant (bit 63 always clear)
+  private static final int LAYER_SHIFT = 55; // 8 bits
+  private static final int Z_SHIFT = 31; // 24 bits
+  private static final int KIND_SHIFT = 29; // 2 bits
+  private static final int TEXTURE_SHIFT = 15; // 14 bits
+  private static final int COMPOSITE_SHIFT = 7; // 8 bits
+  private static final int TEXTURE_MASK = (1 << 14) - 1;
+  private static final int KEY_BITS_LOW = COMPOSITE_SHIFT;
+  private static final int KEY_BITS_HIGH = 63;
+
+  private RenderCuller.Entry[] pending = new RenderCuller.Entry[256];
+  private RenderCuller.Entry[] order = new RenderCuller.Entry[256];
+  private RenderCuller.Entry[] previous = new RenderCuller.Entry[256];
+  private int pendingCount = 0;
+  private int count = 0;
+  private int previousCount = 0;
+  private long frame = 0;
+
+  // Radix sort scratch space
+  private long[] radixKeys = new long[256];
+  private long[] radixKeysTemp = new long[256];
+  private RenderCuller.Entry[] radixTemp = new RenderCuller.Entry[256];
+  private final int[] radixCounts = new int[257];
+
+  // Small ids for images, so textures fit in the key
+  private final Map<Object, Integer> textureIds = new IdentityHashMap<>();
+  private int nextTextureId = 1;
+
+  // Statistics
+  private int lastShiftCount = 0;
+  private boolean lastUsedRadix = false;
+
+  /**
+   * Pack a sort key
+   */
+  private long key(int layer, double z, int kind, Object texture, float opacity) {
+    long layerBits = Math.max(-128, Math.min(127, layer)) + 128;
+
+    // Order-preserving mapping of the float bits onto unsigned ints
+    int zBits = Float.floatToIntBits((float) z);
+    zBits ^= (zBits >> 31) | Integer.MIN_VALUE;
+    long zKey = (zBits >>> 8) & 0xFFFFFFL;
+
+    long opacityBits = Math.max(0, Math.min(255, Math.round(opacity * 255)));
+
+    return (layerBits << LAYER_SHIFT)
+        | (zKey << Z_SHIFT)
+        | ((long) (kind & 3) << KIND_SHIFT)
+        | ((long) textureId(texture) << TEXTURE_SHIFT)
+        | (opacityBits << COMPOSITE_SHIFT);
+  }
+
+  private int textureId(Object texture) {
+    if (texture == null) {
+      return 0;
+    }
+    Integer id = textureIds.get(texture);
+    if (id == null) {
+      if (textureIds.size() >= TEXTURE_MASK) {
+        // Ids only group images; wrap rather than grow without bound
+        textureIds.clear();
+        nextTextureId = 1;
+      }
+      id = nextTextureId++;
+      textureIds.put(texture, id);
+    }
+    return id;
+  }
+
+  /**
+   * Start collecting a new frame
+   */
+  public void begin() {
+    frame++;
+    RenderCuller.Entry[] swap = previous;
+    previous = order;
+    order = swap;
+    previousCount = count;
+    count = 0;
+    Arrays.fill(pending, 0, pendingCount, null);
+    pendingCount = 0;
+  }
+
+  /**
+   * Compute the sort key of a tracked item; call whenever it is tracked
+   *
+   * @param entry   Culler entry of the item
+   * @param kind    One of the KIND constants
+   * @param layer   Render layer; lower layers are drawn first
+   * @param z       Depth within the layer; lower values are drawn first
+   * @param texture Image drawn by the item, or null
+   * @param opacity Opacity in the range [0, 1]
+   */
+  public void prepare(RenderCuller.Entry entry, int kind, int layer, double z, Object texture,
+      float opacity) {
+    entry.queueKind = kind;
+    entry.sortKey = key(layer, z, kind, texture, opacity);
+  }
+
+  /**
+   * Queue a visible item prepared this frame
+   */
+  public void add(RenderCuller.Entry entry) {
+    entry.queuedFrame = frame;
+    if (pendingCount == pending.length) {
+      pending = Arrays.copyOf(pending, pending.length * 2);
+    }
+    pending[pendingCount++] = entry;
+  }
+
+  /**
+   * Order the items queued this frame
+   */
+  public void sort() {
+    ensureOrderCapacity(pendingCount);
+
+    // Survivors from last frame first, in last frame's order
+    for (int i = 0; i < previousCount; i++) {
+      RenderCuller.Entry entry = previous[i];
+      if (entry.queuedFrame == frame && entry.orderedFrame != frame) {
+        entry.orderedFrame = frame;
+        order[count++] = entry;
+      }
+      previous[i] = null;
+    }
+    // Then everything that just became visible
+    for (int i = 0; i < pendingCount; i++) {
+      RenderCuller.Entry entry = pending[i];
+      if (entry.orderedFrame != frame) {
+        entry.orderedFrame = frame;
+        order[count++] = entry;
+      }
+    }
+
+    int descents = 0;
+    for (int i = 1; i < count; i++) {
+      if (order[i].sortKey < order[i - 1].sortKey) {
+        descents++;
+      }
+    }
+
+    lastShiftCount = 0;
+    lastUsedRadix = descents > 32 && descents > count / 16;
+    if (lastUsedRadix) {
+      radixSort();
+    } else if (descents > 0) {
+      insertionSort();
+    }
+  }
+
+  private void insertionSort() {
+    int shifts = 0;
+    for (int i = 1; i < count; i++) {
+      RenderCuller.Entry entry = order[i];
+      long key = entry.sortKey;
+      int j = i - 1;
+      while (j >= 0 && order[j].sortKey > key) {
+        order[j + 1] = order[j];
+        j--;
+        shifts++;
+      }
+      order[j + 1] = entry;
+    }
+    lastShiftCount = shifts;
+  }
+
+  private void radixSort() {
+    if (radixKeys.length < count) {
+      int capacity = Math.max(count, radixKeys.length * 2);
+      radixKeys = new long[capacity];
+      radixKeysTemp = new long[capacity];
+      radixTemp = new RenderCuller.Entry[capacity];
+    }
+
+    long[] keys = radixKeys;
+    long[] keysTemp = radixKeysTemp;
+    RenderCuller.Entry[] items = order;
+    RenderCuller.Entry[] itemsTemp = radixTemp;
+    for (int i = 0; i < count; i++) {
+      keys[i] = items[i].sortKey;
+    }
+
+    for (int shift = KEY_BITS_LOW; shift < KEY_BITS_HIGH; shift += 8) {
+      Arrays.fill(radixCounts, 0);
+      for (int i = 0; i < count; i++) {
+        radixCounts[(int) ((keys[i] >>> shift) & 0xFF) + 1]++;
+      }
+      for (int b = 0; b < 256; b++) {
+        radixCounts[b + 1] += radixCounts[b];
+      }
+      for (int i = 0; i < count; i++) {
+        int dest = radixCounts[(int) ((keys[i] >>> shift) & 0xFF)]++;
+        keysTemp[dest] = keys[i];
+        itemsTemp[dest] = items[i];
+      }
+
+      long[] swapKeys = keys;
+      keys = keysTemp;
+      keysTemp = swapKeys;
+      RenderCuller.Entry[] swapItems = items;
+      items = itemsTemp;
+      itemsTemp = swapItems;
+    }
+
+    // An odd number of passes leaves the result in the scratch array
+    if (items != order) {
+      System.arraycopy(items, 0, order, 0, count);
+    }
+    Arrays.fill(radixTemp, 0, count, null);
+  }
+
+  private void ensureOrderCapacity(int capacity) {
+    if (order.length < capacity) {
+      order = Arrays.copyOf(order, Math.max(capacity, order.length * 2));
+    }
+  }
+
+  /**
+   * Get the number of items queued this frame
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Get the i-th item in draw order
+   */
+  public RenderCuller.Entry get(int i) {
+    return order[i];
+  }
+
+  /**
+   * Get the kind of a queued entry
+   */
+  public static int getKind(RenderCuller.Entry entry) {
+    return entry.queueKind;
+  }
+
+  /**
+   * Get the number of element moves made by the last insertion sort
+   */
+  public int getLastShiftCount() {
+    return lastShiftCount;
+  }
+
+  /**
+   * Check if the last sort fell back to the radix sort
+   */
+  public boolean isLastSortRadix() {
+    return lastUsedRadix;
+  }
+}
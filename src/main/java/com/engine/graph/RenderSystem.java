@@ -5,14 +5,18 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.BasicStroke;
 import java.awt.Toolkit;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferStrategy;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Logger;
-import java.util.ArrayDeque;
-import java.util.Deque;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -31,6 +35,8 @@ import com.engine.core.GameFrame;
 import com.engine.editor.Editor;
 import com.engine.events.EventSystem;
 import com.engine.events.EventTypes;
+import com.engine.gameobject.GameObject;
+import com.engine.util.AllocationMeter;
 import com.engine.physics.BoxCollider;
 import com.engine.physics.CircleCollider;
 import com.engine.physics.PolygonCollider;
@@ -45,6 +51,7 @@ public class RenderSystem implements RenderingSystem {
   private final CameraSystem cameraSystem;
   private final EventSystem eventSystem;
   private static final Logger LOGGER = Logger.getLogger(RenderSystem.class.getName());
+  private static final float CULLING_CELL_SIZE = 256;
 
   // Debug visualization flags
   private boolean debugPhysics = false;
@@ -56,12 +63,61 @@ public class RenderSystem implements RenderingSystem {
   private Editor editor;
   private boolean editorActive = false;
 
+  // Interpolation factor between the last two simulation ticks
+  private float interpolationAlpha = 1.0f;
+
   // Rendering statistics
   private int lastFrameEntityCount = 0;
   private int lastFrameUICount = 0;
-
-  // Performance optimization - Graphics context pool
-  private final Deque<Graphics2D> graphicsPool = new ArrayDeque<>();
+  private int lastFrameDrawnCount = 0;
+  private int lastFrameCulledCount = 0;
+  private volatile long lastRecordAllocatedBytes = 0;
+  private volatile long lastReplayAllocatedBytes = 0;
+
+  // View-frustum culling backed by persistent spatial indexes
+  private final RenderCuller entityCuller = new RenderCuller(CULLING_CELL_SIZE);
+  private final RenderCuller gameObjectCuller = new RenderCuller(CULLING_CELL_SIZE);
+  private final RenderCuller spriteCuller = new RenderCuller(CULLING_CELL_SIZE);
+  private final double[] viewCorners = new double[8];
+  private final float[] viewBounds = new float[4];
+  private boolean culling = true;
+  private boolean viewUnbounded = false; // View could not be inverted this frame
+  private float cullingMargin = 32;
+
+  // Entities to start or stop tracking, and tracked transforms that changed
+  private final Queue<Entity> pendingTracks = new ConcurrentLinkedQueue<>();
+  private final Queue<Entity> pendingUntracks = new ConcurrentLinkedQueue<>();
+  private final Queue<Transform> changedTransforms = new ConcurrentLinkedQueue<>();
+  private final Transform.ChangeListener transformListener = changedTransforms::offer;
+  private final Map<Transform, Entity> trackedTransforms = new IdentityHashMap<>();
+  private boolean initialScanDone = false;
+
+  // Tracked static renderables, fed to the static layer while it is active
+  private final Map<Entity, Boolean> staticEntities = new IdentityHashMap<>();
+  private final List<Entity> staticEntityList = new ArrayList<>();
+
+  // Draw order of world renderables, kept sorted across frames
+  private final RenderQueue renderQueue = new RenderQueue();
+
+  // Static geometry and the grid, rasterized into cached tiles
+  private final StaticLayerCache staticLayer = new StaticLayerCache();
+  private boolean staticLayerCaching = true;
+  private boolean staticLayerActive = false;
+
+  // Frame recording and hand-off to the render thread
+  private final Renderable gridRenderer = this::drawWorldGrid;
+  private final Object worldLock = new Object();
+  private final RenderCommandBuffer inlineBuffer = new RenderCommandBuffer();
+  private final AffineTransform viewTransform = new AffineTransform();
+  private volatile RenderThread renderThread;
+  private long frameNumber = 0;
+
+  // Video memory copies of sprite images, only touched while presenting
+  private volatile VolatileImageCache volatileImages;
+  private volatile ParticleRasterizer particleRasterizer;
+
+  // Pre-rotated and scaled sprite variants, only touched while presenting
+  private volatile SpriteTransformCache transformCache;
 
   // List of custom renderers
   private final List<CustomRenderer> customRenderers = new ArrayList<>();
@@ -122,10 +178,193 @@ public class RenderSystem implements RenderingSystem {
   }
 
   /**
-   * Main render method - orchestrates the entire rendering pipeline
+   * Set the factor used to blend entity transforms between the previous and
+   * current simulation tick
+   *
+   * @param alpha Interpolation factor in the range [0, 1]
+   */
+  public void setInterpolationAlpha(float alpha) {
+    this.interpolationAlpha = Math.max(0.0f, Math.min(1.0f, alpha));
+  }
+
+  /**
+   * Get the lock held while the simulation ticks. Draw callbacks that read
+   * live world state run under this lock on the render thread.
+   *
+   * @return The world lock
+   */
+  public Object getWorldLock() {
+    return worldLock;
+  }
+
+  /**
+   * Start drawing on a dedicated render thread. Frames recorded by
+   * {@link #render()} are then drawn while the simulation continues.
+   */
+  public synchronized void startRenderThread() {
+    if (renderThread == null) {
+      renderThread = new RenderThread(this::present);
+    }
+    renderThread.start();
+  }
+
+  /**
+   * Stop the render thread; later frames are drawn inline
+   */
+  public synchronized void stopRenderThread() {
+    if (renderThread != null) {
+      renderThread.stop();
+      renderThread = null;
+    }
+  }
+
+  /**
+   * Draw sprites from copies kept in video memory. Copies are validated every
+   * frame and restored when the display loses them.
+   *
+   * @param enabled Whether to use accelerated copies
+   */
+  public void setVolatileImagesEnabled(boolean enabled) {
+    this.volatileImages = enabled ? new VolatileImageCache() : null;
+  }
+
+  /**
+   * Get the cache of accelerated sprite copies, or null when disabled
+   */
+  public VolatileImageCache getVolatileImageCache() {
+    return volatileImages;
+  }
+
+  /**
+   * Draw center-pivoted sprites and sprite particles from cached pre-rotated,
+   * scaled and faded variants
+   *
+   * @param enabled Whether to use the cache
+   */
+  public void setSpriteTransformCacheEnabled(boolean enabled) {
+    this.transformCache = enabled ? new SpriteTransformCache() : null;
+  }
+
+  /**
+   * Get the cache of pre-transformed sprite variants, or null when disabled
+   */
+  public SpriteTransformCache getSpriteTransformCache() {
+    return transformCache;
+  }
+
+  /**
+   * Draw solid particles by writing them into an integer raster that is
+   * composited with a single image draw
+   *
+   * @param enabled Whether to rasterize solid particles
+   */
+  public void setParticleRasterizerEnabled(boolean enabled) {
+    this.particleRasterizer = enabled ? new ParticleRasterizer() : null;
+  }
+
+  /**
+   * Get the rasterizer for solid particles, or null when disabled
+   */
+  public ParticleRasterizer getParticleRasterizer() {
+    return particleRasterizer;
+  }
+
+  /**
+   * Enable or disable drawing static geometry and the grid from cached tiles
+   *
+   * @param enabled Whether to cache static geometry
+   */
+  public void setStaticLayerCaching(boolean enabled) {
+    this.staticLayerCaching = enabled;
+    if (!enabled) {
+      staticLayer.clear();
+    }
+  }
+
+  /**
+   * Redraw all static geometry tiles, for example after changing a custom
+   * static renderable in place
+   */
+  public void invalidateStaticLayer() {
+    staticLayer.invalidate();
+  }
+
+  public StaticLayerCache getStaticLayer() {
+    return staticLayer;
+  }
+
+  /**
+   * Get the render thread, or null when drawing inline
+   */
+  public RenderThread getRenderThread() {
+    return renderThread;
+  }
+
+  /**
+   * Main render method - records the frame and hands it to the render thread,
+   * or draws it immediately when no render thread is running
    */
   @Override
   public void render() {
+    RenderThread thread = renderThread;
+    RenderCommandBuffer buffer = (thread != null && thread.isRunning()) ? thread.acquire() : null;
+    boolean threaded = buffer != null;
+    if (!threaded) {
+      buffer = inlineBuffer;
+    }
+
+    long allocatedBefore = AllocationMeter.currentThreadAllocatedBytes();
+    recordFrame(buffer);
+    if (allocatedBefore >= 0) {
+      lastRecordAllocatedBytes = AllocationMeter.currentThreadAllocatedBytes() - allocatedBefore;
+    }
+
+    // Fire render complete event with stats
+    eventSystem.fireEvent(EventTypes.RENDER_FRAME_COMPLETE,
+        "entityCount", lastFrameEntityCount,
+        "uiCount", lastFrameUICount,
+        "drawnCount", lastFrameDrawnCount,
+        "culledCount", lastFrameCulledCount);
+
+    if (threaded) {
+      thread.submit(buffer);
+    } else {
+      present(buffer);
+    }
+  }
+
+  /**
+   * Record the whole frame - world, UI, editor and overlays - into a buffer
+   */
+  private void recordFrame(RenderCommandBuffer buffer) {
+    cameraSystem.getViewTransform(viewTransform);
+    buffer.begin(++frameNumber, window.getWidth(), window.getHeight(), viewTransform);
+    updateViewBounds(window.getWidth(), window.getHeight());
+    lastFrameEntityCount = 0;
+    lastFrameDrawnCount = 0;
+    lastFrameCulledCount = 0;
+
+    // === RENDER WORLD ===
+    recordWorld(buffer);
+
+    // === RENDER UI ===
+    buffer.useScreenSpace();
+    recordUI(buffer);
+
+    // === RENDER EDITOR ===
+    if (editorActive && editor != null) {
+      buffer.addCallback(editor::render);
+    }
+    // === RENDER OVERLAY ===
+    if (overlayRenderer != null) {
+      buffer.addCallback(overlayRenderer::renderOverlays);
+    }
+  }
+
+  /**
+   * Draw a recorded frame through the window's buffer strategy
+   */
+  private void present(RenderCommandBuffer buffer) {
     // Create buffer strategy if needed
     if (window.getBufferStrategy() == null) {
       try {
@@ -146,28 +385,16 @@ public class RenderSystem implements RenderingSystem {
 
     try {
       // Clear the screen
-      g.clearRect(0, 0, window.getWidth(), window.getHeight());
-
-      // === RENDER WORLD ===
-      renderWorld(g);
-
-      // === RENDER UI ===
-      renderUI(g);
-
-      // === RENDER EDITOR ===
-      if (editorActive && editor != null) {
-        renderEditor(g);
-      }
-      // === RENDER OVERLAY ===
-      if (overlayRenderer != null) {
-        overlayRenderer.renderOverlays(g);
+      g.clearRect(0, 0, buffer.getFrameWidth(), buffer.getFrameHeight());
+
+      long allocatedBefore = AllocationMeter.currentThreadAllocatedBytes();
+      buffer.setImageCache(volatileImages);
+      buffer.setTransformCache(transformCache);
+      buffer.setParticleRasterizer(particleRasterizer);
+      buffer.replay(g, worldLock);
+      if (allocatedBefore >= 0) {
+        lastReplayAllocatedBytes = AllocationMeter.currentThreadAllocatedBytes() - allocatedBefore;
       }
-
-      // Fire render complete event with stats
-      eventSystem.fireEvent(EventTypes.RENDER_FRAME_COMPLETE,
-          "entityCount", lastFrameEntityCount,
-          "uiCount", lastFrameUICount);
-
     } finally {
       g.dispose();
       bs.show();
@@ -176,58 +403,43 @@ public class RenderSystem implements RenderingSystem {
   }
 
   /**
-   * Render the game world (entities, GameObjects, sprites)
+   * Record the game world (entities, GameObjects, sprites)
    */
-  private void renderWorld(Graphics2D baseG) {
+  private void recordWorld(RenderCommandBuffer buffer) {
+    // Static geometry and the grid come from cached tiles when the zoom allows
+    double zoom = Math.hypot(viewTransform.getScaleX(), viewTransform.getShearY());
+    staticLayerActive = staticLayerCaching && staticLayer.supportsZoom(zoom);
+
     // Only draw grid if flag is enabled
-    if (showGrid) {
-      drawWorldGrid(baseG);
+    if (showGrid && !staticLayerActive) {
+      buffer.useScreenSpace();
+      buffer.addCallback(gridRenderer);
     }
 
-    // Apply camera transformation for world rendering
-    Graphics2D g = cameraSystem.applyActiveCamera((Graphics2D) baseG.create());
-
-    try {
-
-      // Clear graphics pool before rendering frame
-      graphicsPool.clear();
-
-      // Render game entities in the world
-      renderEntities(g);
-      renderGameObjects(g);
-      renderSprites(g);
+    // World commands are drawn under the camera transform
+    buffer.useWorldSpace();
 
-      // Render any custom renderers in order of priority
-      renderCustom(g);
-
-      // Use optimized debug renderer
-      if (debugPhysics || debugColliders) {
-        debugRenderer.render(g);
-      }
-    } finally {
-      g.dispose();
+    // Render game entities in the world, sorted by layer, Z and image
+    applyTrackingChanges();
+    renderQueue.begin();
+    if (staticLayerActive) {
+      staticLayer.beginFrame(showGrid);
     }
-  }
-
-  /**
-   * Get a graphics context from pool or create new one
-   */
-  private Graphics2D getGraphics(Graphics2D source) {
-    Graphics2D g = graphicsPool.poll();
-    if (g == null) {
-      g = (Graphics2D) source.create();
+    queueEntities();
+    if (staticLayerActive) {
+      staticLayer.endFrame();
+      staticLayer.record(buffer, zoom, viewBounds[0], viewBounds[1], viewBounds[2], viewBounds[3]);
     }
-    return g;
-  }
+    queueGameObjects();
+    queueSprites();
+    recordQueued(buffer);
 
-  /**
-   * Return graphics context to pool for reuse
-   */
-  private void recycleGraphics(Graphics2D g) {
-    if (graphicsPool.size() < 20) { // Limit pool size
-      graphicsPool.offer(g);
-    } else {
-      g.dispose();
+    // Render any custom renderers in order of priority
+    recordCustom(buffer);
+
+    // Use optimized debug renderer
+    if (debugPhysics || debugColliders) {
+      buffer.addCallback(debugRenderer);
     }
   }
 
@@ -251,48 +463,35 @@ public class RenderSystem implements RenderingSystem {
   }
 
   /**
-   * Render all active custom renderers
+   * Record all active custom renderers
    */
-  private void renderCustom(Graphics2D g) {
+  private void recordCustom(RenderCommandBuffer buffer) {
     for (CustomRenderer renderer : customRenderers) {
-
-      renderer.render(g);
-
+      if (renderer instanceof RecordingRenderer) {
+        ((RecordingRenderer) renderer).record(buffer);
+        buffer.useWorldSpace();
+      } else {
+        buffer.addCallback(renderer::render);
+      }
     }
   }
 
   /**
-   * Render UI elements
+   * Record UI elements (not affected by camera)
    */
-  private void renderUI(Graphics2D baseG) {
-    // Create a separate graphics context for UI (not affected by camera)
-    Graphics2D g = (Graphics2D) baseG.create();
-
-    try {
-      int uiCount = 0;
-
-      // Render all UI components
-      for (var result : world.findEntitiesWith(UIComponent.class)) {
-        UIComponent com = result.comp();
-        if (com.isVisible()) {
-          com.render(g);
-          uiCount++;
-        }
+  private void recordUI(RenderCommandBuffer buffer) {
+    int uiCount = 0;
+
+    // Render all UI components
+    for (var result : world.findEntitiesWith(UIComponent.class)) {
+      UIComponent com = result.comp();
+      if (com.isVisible()) {
+        buffer.addCallback(com);
+        uiCount++;
       }
-
-      lastFrameUICount = uiCount;
-    } finally {
-      g.dispose();
     }
-  }
 
-  /**
-   * Render the editor UI
-   */
-  private void renderEditor(Graphics2D g) {
-    if (editor != null) {
-      editor.render(g);
-    }
+    lastFrameUICount = uiCount;
   }
 
   /**
@@ -365,105 +564,532 @@ public class RenderSystem implements RenderingSystem {
   }
 
   /**
-   * Renders entities using the camera-transformed graphics context
+   * Start tracking an entity's renderable components for culling. Entities
+   * made by the {@link com.engine.entity.EntityFactory} are tracked
+   * automatically; call this after creating one directly through the ECS or
+   * after adding, replacing or resizing a renderable component. Safe to call
+   * from any thread; takes effect at the next frame.
+   *
+   * @param entity The entity
+   */
+  public void track(Entity entity) {
+    if (entity != null) {
+      pendingTracks.offer(entity);
+    }
+  }
+
+  /**
+   * Stop tracking an entity, e.g. before it is deleted. Safe to call from any
+   * thread; takes effect at the next frame.
+   *
+   * @param entity The entity
+   */
+  public void untrack(Entity entity) {
+    if (entity != null) {
+      pendingUntracks.offer(entity);
+    }
+  }
+
+  /**
+   * Track every entity that currently has a renderable component. Runs once
+   * before the first frame; call it again after creating many entities
+   * directly through the ECS.
+   */
+  public void trackAll() {
+    world.findEntitiesWith(Transform.class, RenderableComponent.class).forEach(r -> track(r.entity()));
+    world.findEntitiesWith(Transform.class, GameObjectComponent.class).forEach(r -> track(r.entity()));
+    world.findEntitiesWith(Transform.class, SpriteComponent.class).forEach(r -> track(r.entity()));
+    initialScanDone = true;
+  }
+
+  /**
+   * Bring the culling indexes up to date with the entities tracked or
+   * untracked and the transforms changed since the last frame
+   */
+  private void applyTrackingChanges() {
+    if (!initialScanDone) {
+      trackAll();
+    }
+
+    Entity entity;
+    while ((entity = pendingUntracks.poll()) != null) {
+      removeTracked(entity);
+    }
+    while ((entity = pendingTracks.poll()) != null) {
+      refreshTracked(entity);
+    }
+
+    Transform transform;
+    while ((transform = changedTransforms.poll()) != null) {
+      // Re-arm first, so a change made while we read is reported again
+      transform.clearChanged();
+      entity = trackedTransforms.get(transform);
+      if (entity != null) {
+        refreshTracked(entity);
+      }
+    }
+  }
+
+  /**
+   * Place an entity's renderable components in the culling indexes, or drop
+   * the ones it no longer has
+   */
+  private void refreshTracked(Entity entity) {
+    Transform transform = entity.isDeleted() ? null : entity.get(Transform.class);
+    if (transform == null) {
+      removeTracked(entity);
+      return;
+    }
+
+    RenderableComponent renderable = entity.get(RenderableComponent.class);
+    if (renderable != null) {
+      place(entityCuller, entity, renderable, transform, radiusOf(renderable.getR()));
+      if (renderable.isStatic()) {
+        addStatic(entity);
+      }
+    } else {
+      entityCuller.remove(entity);
+    }
+
+    GameObjectComponent gameObjectComp = entity.get(GameObjectComponent.class);
+    if (gameObjectComp != null && !gameObjectComp.isDestroyed() && gameObjectComp.getGameObject() != null) {
+      place(gameObjectCuller, entity, gameObjectComp, transform, gameObjectComp.getGameObject().getRenderRadius());
+    } else {
+      gameObjectCuller.remove(entity);
+    }
+
+    SpriteComponent sprite = entity.get(SpriteComponent.class);
+    if (sprite != null) {
+      place(spriteCuller, entity, sprite, transform, radiusOf(sprite));
+    } else {
+      spriteCuller.remove(entity);
+    }
+
+    if (renderable == null && gameObjectComp == null && sprite == null) {
+      removeTracked(entity);
+      return;
+    }
+    Entity previous = trackedTransforms.put(transform, entity);
+    if (previous == null) {
+      transform.setChangeListener(transformListener);
+    }
+  }
+
+  private void removeTracked(Entity entity) {
+    RenderCuller.Entry[] removed = {
+        entityCuller.remove(entity), gameObjectCuller.remove(entity), spriteCuller.remove(entity) };
+    for (RenderCuller.Entry entry : removed) {
+      if (entry != null && trackedTransforms.remove(entry.getTransform()) != null
+          && entry.getTransform().getChangeListener() == transformListener) {
+        entry.getTransform().setChangeListener(null);
+      }
+    }
+  }
+
+  /**
+   * Put a renderable in a culler with bounds covering every position it can
+   * be drawn at this tick, from its previous to its current position
+   */
+  private RenderCuller.Entry place(RenderCuller culler, Entity entity, Object component, Transform transform,
+      float radius) {
+    float reach = radius * (float) Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+    if (radius < 0 || !Float.isFinite(reach)) {
+      // Unknown size; never culled
+      return culler.put(entity, component, transform, radius, Float.NEGATIVE_INFINITY,
+          Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+    }
+    float x0 = (float) transform.getInterpolatedX(0);
+    float y0 = (float) transform.getInterpolatedY(0);
+    float x1 = (float) transform.getX();
+    float y1 = (float) transform.getY();
+    return culler.put(entity, component, transform, radius,
+        Math.min(x0, x1) - reach, Math.min(y0, y1) - reach, Math.max(x0, x1) + reach, Math.max(y0, y1) + reach);
+  }
+
+  private static float radiusOf(Renderable r) {
+    if (r instanceof Rect) {
+      Rect rect = (Rect) r;
+      return (float) (Math.hypot(rect.getWidth(), rect.getHeight()) / 2);
+    } else if (r instanceof Circle) {
+      return (float) (((Circle) r).getDiameter() / 2);
+    }
+    return -1;
+  }
+
+  private static float radiusOf(SpriteComponent sprite) {
+    // Farthest corner from the pivot
+    float reachX = sprite.getWidth() * Math.max(sprite.getPivotX(), 1 - sprite.getPivotX());
+    float reachY = sprite.getHeight() * Math.max(sprite.getPivotY(), 1 - sprite.getPivotY());
+    return (float) Math.hypot(reachX, reachY);
+  }
+
+  /**
+   * Check a visible entry against its entity before drawing it. Entries of
+   * deleted entities are dropped, entries whose component was replaced or
+   * resized are placed again.
+   *
+   * @return Whether the entry can be drawn this frame
+   */
+  private boolean validate(RenderCuller.Entry entry, Class<?> componentType, float radius) {
+    Entity entity = (Entity) entry.getKey();
+    if (entity.isDeleted()) {
+      removeTracked(entity);
+      return false;
+    }
+    if (entity.get(componentType) != entry.getComponent() || entity.get(Transform.class) != entry.getTransform()) {
+      refreshTracked(entity);
+      return false;
+    }
+    if (radius != entry.getRadius()) {
+      place(entryCuller(componentType), entity, entry.getComponent(), entry.getTransform(), radius);
+    }
+    return true;
+  }
+
+  private RenderCuller entryCuller(Class<?> componentType) {
+    if (componentType == RenderableComponent.class) {
+      return entityCuller;
+    }
+    return componentType == GameObjectComponent.class ? gameObjectCuller : spriteCuller;
+  }
+
+  private void addStatic(Entity entity) {
+    if (staticEntities.put(entity, Boolean.TRUE) == null) {
+      staticEntityList.add(entity);
+    }
+  }
+
+  /**
+   * Feed the static layer every tracked static renderable. The layer detects
+   * changes by comparing what it is given each frame, so static renderables
+   * are visited every frame while it is active.
+   */
+  private void trackStaticLayer() {
+    for (int i = staticEntityList.size() - 1; i >= 0; i--) {
+      Entity entity = staticEntityList.get(i);
+      RenderCuller.Entry entry = entityCuller.get(entity);
+      RenderableComponent renderable = entry != null ? (RenderableComponent) entry.getComponent() : null;
+      if (renderable == null || entity.isDeleted() || !renderable.isStatic()) {
+        // Swap-remove; the layer keeps its own draw order
+        staticEntityList.set(i, staticEntityList.get(staticEntityList.size() - 1));
+        staticEntityList.remove(staticEntityList.size() - 1);
+        staticEntities.remove(entity);
+        continue;
+      }
+      trackStatic(renderable, entry.getTransform());
+    }
+  }
+
+  /**
+   * Give one static renderable to the static layer
+   *
+   * @return Whether the layer draws it
+   */
+  private boolean trackStatic(RenderableComponent renderable, Transform transform) {
+    Renderable r = renderable.getR();
+    float radius = radiusOf(r);
+    if (!renderable.isVisible() || r == null || radius < 0) {
+      return false;
+    }
+    staticLayer.track(renderable, r, renderable.getLayer(), transform.getZ(),
+        (float) transform.getX(), (float) transform.getY(), (float) transform.getRotation(),
+        (float) transform.getScaleX(), (float) transform.getScaleY(), radius);
+    return true;
+  }
+
+  /**
+   * Queue visible entities; plain rectangles and circles are later recorded as
+   * shape commands, any other renderable through a callback
    */
-  private void renderEntities(Graphics2D g) {
-    int entityCount = 0;
+  private void queueEntities() {
+    if (staticLayerActive) {
+      trackStaticLayer();
+    }
 
-    for (var result : world.findEntitiesWith(Transform.class, RenderableComponent.class)) {
-      Transform transform = result.comp1();
-      RenderableComponent renderable = result.comp2();
+    int visible = cull(entityCuller);
+    int queued = 0;
+    for (int i = 0; i < visible; i++) {
+      RenderCuller.Entry entry = entityCuller.getVisible(i);
+      if (entry == null) {
+        continue;
+      }
+      RenderableComponent renderable = (RenderableComponent) entry.getComponent();
+      Renderable r = renderable.getR();
+      if (!validate(entry, RenderableComponent.class, radiusOf(r))) {
+        continue;
+      }
 
       // Only render if the component is visible
-      if (renderable.isVisible()) {
-        // Create a copy of the camera-transformed graphics for this entity
-        Graphics2D entityG = (Graphics2D) g.create();
-
-        try {
-          // Apply entity's local transformations
-          entityG.translate(transform.getX(), transform.getY());
-          entityG.rotate(transform.getRotation());
-          entityG.scale(transform.getScaleX(), transform.getScaleY());
-
-          // Render the entity with the combined transformations
-          renderable.render(entityG);
-          entityCount++;
-        } finally {
-          entityG.dispose();
+      if (!renderable.isVisible() || r == null) {
+        continue;
+      }
+
+      if (renderable.isStatic()) {
+        Entity entity = (Entity) entry.getKey();
+        if (!staticEntities.containsKey(entity)) {
+          // Made static since it was tracked
+          addStatic(entity);
+          if (staticLayerActive && trackStatic(renderable, entry.getTransform())) {
+            continue;
+          }
+        } else if (staticLayerActive && entry.getRadius() >= 0) {
+          continue;
         }
       }
+
+      entry.setPayload(r);
+      snapshot(entry);
+      renderQueue.prepare(entry, RenderQueue.KIND_SHAPE, renderable.getLayer(), entry.getTransform().getZ(),
+          null, 1.0f);
+      renderQueue.add(entry);
+      queued++;
     }
 
-    lastFrameEntityCount += entityCount;
+    lastFrameEntityCount += queued;
+    lastFrameDrawnCount += queued;
   }
 
   /**
-   * Renders custom GameObjects with culling optimization
+   * Queue visible custom GameObjects, drawn as callbacks at their entity
+   * transform
    */
-  private void renderGameObjects(Graphics2D g) {
-    world.findEntitiesWith(Transform.class, GameObjectComponent.class).forEach(result -> {
-      Transform transform = result.comp1();
-      GameObjectComponent gameObjectComp = result.comp2();
-      if(gameObjectComp == null && transform == null) return;
+  private void queueGameObjects() {
+    int visible = cull(gameObjectCuller);
+    int queued = 0;
+    for (int i = 0; i < visible; i++) {
+      RenderCuller.Entry entry = gameObjectCuller.getVisible(i);
+      if (entry == null) {
+        continue;
+      }
+      GameObjectComponent gameObjectComp = (GameObjectComponent) entry.getComponent();
       // Skip if the GameObject has been destroyed
       if (gameObjectComp.isDestroyed()) {
-        return;
+        gameObjectCuller.remove(entry.getKey());
+        continue;
       }
 
-      // Reuse graphics context from pool
-      Graphics2D entityG = getGraphics(g);
-
-      // Reset transformation to match the parent graphics context before applying new
-      // transforms
-      entityG.setTransform(g.getTransform());
-
-      // Apply entity's local transformations
-      entityG.translate(transform.getX(), transform.getY());
-      entityG.rotate(transform.getRotation());
-      entityG.scale(transform.getScaleX(), transform.getScaleY());
+      GameObject gameObject = gameObjectComp.getGameObject();
+      if (!validate(entry, GameObjectComponent.class, gameObject.getRenderRadius())) {
+        continue;
+      }
 
-      // Let the GameObject render itself
-      gameObjectComp.getGameObject().render(entityG);
+      // Adapt the GameObject to a callback once, not every frame
+      if (entry.getAttachment() == null) {
+        entry.setAttachment((Renderable) gameObject::render);
+      }
+      entry.setPayload(gameObject);
+      snapshot(entry);
+      renderQueue.prepare(entry, RenderQueue.KIND_GAME_OBJECT, gameObjectComp.getLayer(),
+          entry.getTransform().getZ(), null, 1.0f);
+      renderQueue.add(entry);
+      queued++;
+    }
 
-      // Return graphics context to pool instead of disposing
-      recycleGraphics(entityG);
-    });
+    lastFrameDrawnCount += queued;
   }
 
   /**
-   * Render sprite components
+   * Queue visible sprite components
    */
-  private void renderSprites(Graphics2D g) {
-    int renderedCount = 0;
-
-    for (var result : world.findEntitiesWith(Transform.class, SpriteComponent.class)) {
-      Transform transform = result.comp1();
-      SpriteComponent sprite = result.comp2();
+  private void queueSprites() {
+    int visible = cull(spriteCuller);
+    int queued = 0;
+    for (int i = 0; i < visible; i++) {
+      RenderCuller.Entry entry = spriteCuller.getVisible(i);
+      if (entry == null) {
+        continue;
+      }
+      SpriteComponent sprite = (SpriteComponent) entry.getComponent();
+      if (!validate(entry, SpriteComponent.class, radiusOf(sprite))) {
+        continue;
+      }
 
       // Skip if sprite is not visible or has no image
-      if (!sprite.isVisible() || sprite.getImage() == null) {
+      if (!sprite.isVisible() || sprite.getTexture() == null) {
         continue;
       }
 
-      // Create a copy of the camera-transformed graphics for this entity
-      Graphics2D entityG = (Graphics2D) g.create();
+      entry.setPayload(sprite);
+      snapshot(entry);
+      renderQueue.prepare(entry, RenderQueue.KIND_SPRITE, sprite.getLayer(), entry.getTransform().getZ(),
+          sprite.getTexture(), sprite.getOpacity());
+      renderQueue.add(entry);
+      queued++;
+    }
 
-      // Apply entity's local transformations
-      entityG.translate(transform.getX(), transform.getY());
-      entityG.rotate(transform.getRotation());
+    lastFrameDrawnCount += queued;
+  }
 
-      // Fix: Apply scale with Y-component negated to correct the sprite orientation
-      entityG.scale(transform.getScaleX(), -transform.getScaleY());
+  /**
+   * Record the queued world renderables in sorted order
+   */
+  private void recordQueued(RenderCommandBuffer buffer) {
+    renderQueue.sort();
+
+    int sprites = 0;
+    for (int i = 0, n = renderQueue.size(); i < n; i++) {
+      RenderCuller.Entry entry = renderQueue.get(i);
+      switch (RenderQueue.getKind(entry)) {
+        case RenderQueue.KIND_SHAPE:
+          recordShape(buffer, entry);
+          break;
+        case RenderQueue.KIND_GAME_OBJECT:
+          // Let the GameObject render itself
+          buffer.addCallback((Renderable) entry.getAttachment(), entry.getX(), entry.getY(),
+              entry.getRotation(), entry.getScaleX(), entry.getScaleY());
+          break;
+        default:
+          recordSprite(buffer, entry);
+          sprites++;
+          break;
+      }
+    }
 
-      // Render the sprite
-      sprite.render(entityG);
-      entityG.dispose();
+    if (sprites > 0) {
+      LOGGER.fine("Recorded " + sprites + " sprites");
+    }
+  }
 
-      renderedCount++;
+  private void recordShape(RenderCommandBuffer buffer, RenderCuller.Entry entry) {
+    Renderable r = (Renderable) entry.getPayload();
+
+    if (r.getClass() == Rect.class && ((Rect) r).getColor() != null) {
+      Rect rect = (Rect) r;
+      buffer.addRect(entry.getX(), entry.getY(), entry.getRotation(), entry.getScaleX(), entry.getScaleY(),
+          (float) rect.getWidth(), (float) rect.getHeight(), rect.getColor());
+    } else if (r.getClass() == Circle.class && ((Circle) r).getColor() != null) {
+      Circle circle = (Circle) r;
+      buffer.addOval(entry.getX(), entry.getY(), entry.getRotation(), entry.getScaleX(), entry.getScaleY(),
+          (float) circle.getDiameter(), circle.getColor());
+    } else {
+      buffer.addCallback(r, entry.getX(), entry.getY(), entry.getRotation(), entry.getScaleX(),
+          entry.getScaleY());
     }
+  }
+
+  private void recordSprite(RenderCommandBuffer buffer, RenderCuller.Entry entry) {
+    SpriteComponent sprite = (SpriteComponent) entry.getPayload();
 
-    if (renderedCount > 0) {
-      LOGGER.fine("Rendered " + renderedCount + " sprites");
+    // Scale Y is negated to correct the sprite orientation under the
+    // Y-up camera
+    if (sprite.getRegion() != null) {
+      buffer.addSprite(sprite.getRegion(), entry.getX(), entry.getY(), entry.getRotation(),
+          entry.getScaleX(), -entry.getScaleY(),
+          sprite.getWidth(), sprite.getHeight(), sprite.getPivotX(), sprite.getPivotY(),
+          sprite.isFlipX(), sprite.isFlipY(), sprite.getOpacity());
+    } else {
+      buffer.addSprite(sprite.getImage(), entry.getX(), entry.getY(), entry.getRotation(),
+          entry.getScaleX(), -entry.getScaleY(),
+          sprite.getWidth(), sprite.getHeight(), sprite.getPivotX(), sprite.getPivotY(),
+          sprite.isFlipX(), sprite.isFlipY(), sprite.getOpacity());
     }
   }
+
+  /**
+   * Capture a visible entry's interpolated transform for drawing
+   */
+  private void snapshot(RenderCuller.Entry entry) {
+    Transform transform = entry.getTransform();
+    entry.setSnapshot(
+        (float) transform.getInterpolatedX(interpolationAlpha),
+        (float) transform.getInterpolatedY(interpolationAlpha),
+        (float) transform.getInterpolatedRotation(interpolationAlpha),
+        (float) transform.getScaleX(), (float) transform.getScaleY());
+  }
+
+  /**
+   * Query a culler against the frame's view bounds and count what it culled
+   *
+   * @return Number of entries in view, including hidden ones
+   */
+  private int cull(RenderCuller culler) {
+    int visible = culling && !viewUnbounded
+        ? culler.queryVisible(viewBounds[0], viewBounds[1], viewBounds[2], viewBounds[3])
+        : culler.selectAll();
+    lastFrameCulledCount += culler.size() - visible;
+    return visible;
+  }
+
+  /**
+   * Compute the world-space box visible through the frame's view transform
+   */
+  private void updateViewBounds(int width, int height) {
+    viewCorners[0] = 0;
+    viewCorners[1] = 0;
+    viewCorners[2] = width;
+    viewCorners[3] = 0;
+    viewCorners[4] = 0;
+    viewCorners[5] = height;
+    viewCorners[6] = width;
+    viewCorners[7] = height;
+
+    try {
+      viewTransform.inverseTransform(viewCorners, 0, viewCorners, 0, 4);
+    } catch (NoninvertibleTransformException e) {
+      // Degenerate camera (zero zoom); nothing sensible to cull against
+      viewBounds[0] = viewBounds[1] = Float.NEGATIVE_INFINITY;
+      viewBounds[2] = viewBounds[3] = Float.POSITIVE_INFINITY;
+      viewUnbounded = true;
+      return;
+    }
+    viewUnbounded = false;
+
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < 8; i += 2) {
+      minX = Math.min(minX, viewCorners[i]);
+      maxX = Math.max(maxX, viewCorners[i]);
+      minY = Math.min(minY, viewCorners[i + 1]);
+      maxY = Math.max(maxY, viewCorners[i + 1]);
+    }
+    viewBounds[0] = (float) minX - cullingMargin;
+    viewBounds[1] = (float) minY - cullingMargin;
+    viewBounds[2] = (float) maxX + cullingMargin;
+    viewBounds[3] = (float) maxY + cullingMargin;
+  }
+
+  /**
+   * Enable or disable view-frustum culling of entities, GameObjects and sprites
+   *
+   * @param enabled True to skip renderables outside the view
+   * @param margin  Extra world units around the view still treated as visible
+   */
+  public void setCulling(boolean enabled, float margin) {
+    this.culling = enabled;
+    this.cullingMargin = Math.max(0, margin);
+  }
+
+  public boolean isCulling() {
+    return culling;
+  }
+
+  /**
+   * Get the number of renderables drawn in the last recorded frame
+   */
+  public int getLastFrameDrawnCount() {
+    return lastFrameDrawnCount;
+  }
+
+  /**
+   * Get the number of renderables skipped by culling in the last recorded frame
+   */
+  public int getLastFrameCulledCount() {
+    return lastFrameCulledCount;
+  }
+
+  /**
+   * Get the bytes allocated on the simulation thread while recording the
+   * last frame, or 0 if the JVM cannot measure it
+   */
+  public long getLastRecordAllocatedBytes() {
+    return lastRecordAllocatedBytes;
+  }
+
+  /**
+   * Get the bytes allocated while replaying the last drawn frame, or 0 if
+   * the JVM cannot measure it
+   */
+  public long getLastReplayAllocatedBytes() {
+    return lastReplayAllocatedBytes;
+  }
 }
@@ -0,0 +1,156 @@
+package com.engine.graph;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dedicated thread that draws recorded frames.
+ * <p>
+ * Two command buffers are passed back and forth: the simulation thread
+ * records into one while this thread draws the other. Recording a new frame
+ * blocks only if the previous submitted frame has not been drawn yet, so the
+ * simulation can run at most one frame ahead of the screen.
+ */
+public class RenderThread implements Runnable {
+  private static final Logger LOGGER = Logger.getLogger(RenderThread.class.getName());
+  private static final long POLL_TIMEOUT_MS = 100;
+
+  private final BlockingQueue<RenderCommandBuffer> freeBuffers = new ArrayBlockingQueue<>(2);
+  private final BlockingQueue<RenderCommandBuffer> readyBuffers = new ArrayBlockingQueue<>(1);
+  private final Consumer<RenderCommandBuffer> presenter;
+
+  private volatile boolean running = false;
+  private Thread thread;
+
+  // Statistics
+  private volatile long framesPresented = 0;
+  private volatile long lastPresentNanos = 0;
+  private volatile long lastWaitNanos = 0;
+
+  /**
+   * Create a render thread
+   *
+   * @param presenter Draws a buffer to the screen; invoked on the render thread
+   */
+  public RenderThread(Consumer<RenderCommandBuffer> presenter) {
+    this.presenter = presenter;
+    freeBuffers.add(new RenderCommandBuffer());
+    freeBuffers.add(new RenderCommandBuffer());
+  }
+
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this, "RenderThread");
+    thread.setDaemon(true);
+    thread.start();
+    LOGGER.info("Render thread started");
+  }
+
+  public synchronized void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+      thread = null;
+    }
+  }
+
+  /**
+   * Take a buffer to record the next frame into, waiting for the render thread
+   * to release one if both are in use
+   *
+   * @return A cleared buffer, or null if the thread stopped while waiting
+   */
+  public RenderCommandBuffer acquire() {
+    long start = System.nanoTime();
+    try {
+      while (running) {
+        RenderCommandBuffer buffer = freeBuffers.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (buffer != null) {
+          lastWaitNanos = System.nanoTime() - start;
+          return buffer;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return null;
+  }
+
+  /**
+   * Hand a recorded buffer to the render thread
+   *
+   * @param buffer Buffer previously returned by {@link #acquire()}
+   */
+  public void submit(RenderCommandBuffer buffer) {
+    try {
+      while (running) {
+        if (readyBuffers.offer(buffer, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Not drawn; keep it available for the next frame
+    freeBuffers.offer(buffer);
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      RenderCommandBuffer buffer;
+      try {
+        buffer = readyBuffers.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        break;
+      }
+      if (buffer == null) {
+        continue;
+      }
+
+      long start = System.nanoTime();
+      try {
+        presenter.accept(buffer);
+        framesPresented++;
+      } catch (Exception e) {
+        LOGGER.log(Level.SEVERE, "Error presenting frame " + buffer.getFrameNumber(), e);
+      } finally {
+        lastPresentNanos = System.nanoTime() - start;
+        freeBuffers.offer(buffer);
+      }
+    }
+    LOGGER.info("Render thread stopped after " + framesPresented + " frames");
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Get the number of frames drawn by this thread
+   */
+  public long getFramesPresented() {
+    return framesPresented;
+  }
+
+  /**
+   * Get how long drawing the most recent frame took
+   */
+  public long getLastPresentNanos() {
+    return lastPresentNanos;
+  }
+
+  /**
+   * Get how long the simulation thread last waited for a free buffer
+   */
+  public long getLastWaitNanos() {
+    return lastWaitNanos;
+  }
+}
@@ -30,14 +30,14 @@ public abstract class Shape implements Renderable {
   protected abstract void drawShape(Graphics2D g);
 
   /**
-   * Render the shape applying its transformation.
+   * Render the shape in the caller's current transform. Only the color is
+   * changed, and it is restored afterwards, so no graphics copy is needed.
    */
   @Override
   public void render(Graphics2D g) {
-    Graphics2D g2 = (Graphics2D) g.create();
-    // Apply translation, rotation, and scaling
-    g2.setColor(color);
-    drawShape(g2);
-    g2.dispose();
+    Color previous = g.getColor();
+    g.setColor(color);
+    drawShape(g);
+    g.setColor(previous);
   }
 }
@@ -0,0 +1,319 @@
+package com.engine.graph;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.RescaleOp;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of pre-transformed sprite images.
+ * <p>
+ * Rotating, scaling or fading an image through the Graphics2D transform and
+ * composite resamples it on every draw. Sprites and particles mostly repeat a
+ * small set of angles, sizes and opacities, so each variant is rendered once
+ * into its own image and later draws are plain translated blits. Angles are
+ * quantized into {@code angleSteps} buckets per turn and alpha into 32 levels;
+ * sizes are whole pixels. Negative sizes mirror the image.
+ * <p>
+ * A blit is only unfiltered when one variant pixel lands on one device pixel,
+ * so variants are requested at their size on the device, zoom included, and
+ * drawn with an identity transform. {@link #deviceScale} tells whether the
+ * transform in effect allows that. Each variant is centered on the center of
+ * its image, so it is drawn at
+ * {@code (x - variant.getWidth() / 2, y - variant.getHeight() / 2)} in device
+ * pixels. Variants are evicted least recently used first once their pixels
+ * exceed the memory budget.
+ */
+public class SpriteTransformCache {
+  public static final int DEFAULT_ANGLE_STEPS = 128;
+  public static final long DEFAULT_BYTE_BUDGET = 32L * 1024 * 1024;
+  public static final int DEFAULT_MAX_VARIANT_SIZE = 512;
+  private static final int ALPHA_LEVELS = 32;
+  private static final int WHITE = 0xFFFFFFFF;
+
+  /**
+   * Identity of a variant. Source images are compared by identity.
+   */
+  private static final class Key {
+    Image image;
+    int angle;
+    int width;
+    int height;
+    int tint;
+    int alpha;
+    Object interpolation;
+
+    Key set(Image image, int angle, int width, int height, int tint, int alpha, Object interpolation) {
+      this.image = image;
+      this.angle = angle;
+      this.width = width;
+      this.height = height;
+      this.tint = tint;
+      this.alpha = alpha;
+      this.interpolation = interpolation;
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key k = (Key) o;
+      return image == k.image && angle == k.angle && width == k.width && height == k.height
+          && tint == k.tint && alpha == k.alpha && interpolation == k.interpolation;
+    }
+
+    @Override
+    public int hashCode() {
+      int h = System.identityHashCode(image);
+      h = h * 31 + angle;
+      h = h * 31 + width;
+      h = h * 31 + height;
+      h = h * 31 + tint;
+      h = h * 31 + System.identityHashCode(interpolation);
+      return h * 31 + alpha;
+    }
+  }
+
+  private final Map<Key, BufferedImage> variants = new LinkedHashMap<>(256, 0.75f, true);
+  private final Key probe = new Key();
+  private final int angleSteps;
+  private final long byteBudget;
+  private final int maxVariantSize;
+  private long cachedBytes = 0;
+
+  // Statistics
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+  private long bypassed = 0;
+
+  public SpriteTransformCache() {
+    this(DEFAULT_ANGLE_STEPS, DEFAULT_BYTE_BUDGET, DEFAULT_MAX_VARIANT_SIZE);
+  }
+
+  /**
+   * Create a cache
+   *
+   * @param angleSteps     Number of rotation buckets per full turn
+   * @param byteBudget     Maximum bytes of variant pixels kept
+   * @param maxVariantSize Largest variant edge in pixels; bigger draws are not
+   *                       cached
+   */
+  public SpriteTransformCache(int angleSteps, long byteBudget, int maxVariantSize) {
+    if (angleSteps <= 0) {
+      throw new IllegalArgumentException("Angle steps must be positive");
+    }
+    this.angleSteps = angleSteps;
+    this.byteBudget = byteBudget;
+    this.maxVariantSize = maxVariantSize;
+  }
+
+  /**
+   * Get a pre-transformed variant of an image
+   *
+   * @param image    Source image
+   * @param rotation Rotation in radians
+   * @param width    Drawn width in pixels, negative to mirror horizontally
+   * @param height   Drawn height in pixels, negative to mirror vertically
+   * @param tint          ARGB color multiplied into the image, white for none
+   * @param alpha         Opacity in the range [0, 1]
+   * @param interpolation {@link RenderingHints#KEY_INTERPOLATION} value to
+   *                      resample with, matching the surface the variant is
+   *                      drawn to; null for nearest neighbor
+   * @return The variant, or null if it is empty or too large to cache; draw
+   *         the source image through the transform instead
+   */
+  public synchronized BufferedImage get(Image image, float rotation, int width, int height, int tint,
+      float alpha, Object interpolation) {
+    if (image == null || width == 0 || height == 0) {
+      return null;
+    }
+    if (Math.abs(width) > maxVariantSize || Math.abs(height) > maxVariantSize) {
+      bypassed++;
+      return null;
+    }
+
+    int angle = quantizeAngle(rotation);
+    int alphaLevel = Math.round(Math.max(0, Math.min(1, alpha)) * (ALPHA_LEVELS - 1));
+    BufferedImage variant = variants.get(probe.set(image, angle, width, height, tint, alphaLevel, interpolation));
+    probe.image = null;
+    if (variant != null) {
+      hits++;
+      return variant;
+    }
+
+    misses++;
+    variant = render(image, angle, width, height, tint, alphaLevel, interpolation);
+    variants.put(new Key().set(image, angle, width, height, tint, alphaLevel, interpolation), variant);
+    cachedBytes += bytes(variant);
+    trim();
+    return variant;
+  }
+
+  /**
+   * Get a variant with no tint
+   */
+  public BufferedImage get(Image image, float rotation, int width, int height, float alpha,
+      Object interpolation) {
+    return get(image, rotation, width, height, WHITE, alpha, interpolation);
+  }
+
+  /**
+   * Get a bilinearly filtered variant with no tint
+   */
+  public BufferedImage get(Image image, float rotation, int width, int height, float alpha) {
+    return get(image, rotation, width, height, WHITE, alpha, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+  }
+
+  /**
+   * Get the device pixels per unit of a transform, if variants can be blitted
+   * under it
+   *
+   * @param transform Transform from drawing space to device pixels
+   * @return The scale, or 0 if the transform rotates, shears, mirrors or
+   *         scales the axes differently
+   */
+  public static double deviceScale(AffineTransform transform) {
+    int type = transform.getType();
+    if ((type & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE)) != 0) {
+      return 0;
+    }
+    return transform.getScaleX();
+  }
+
+  private int quantizeAngle(float rotation) {
+    double turns = rotation / (Math.PI * 2);
+    int step = (int) Math.round((turns - Math.floor(turns)) * angleSteps);
+    return step == angleSteps ? 0 : step;
+  }
+
+  private BufferedImage render(Image image, int angle, int width, int height, int tint, int alphaLevel,
+      Object interpolation) {
+    double theta = angle * (Math.PI * 2) / angleSteps;
+    double cos = Math.abs(Math.cos(theta));
+    double sin = Math.abs(Math.sin(theta));
+    int w = Math.abs(width);
+    int h = Math.abs(height);
+    int boundsW = Math.max(1, (int) Math.ceil(w * cos + h * sin));
+    int boundsH = Math.max(1, (int) Math.ceil(w * sin + h * cos));
+
+    BufferedImage variant = new BufferedImage(boundsW, boundsH, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = variant.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation != null ? interpolation
+          : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      if (alphaLevel < ALPHA_LEVELS - 1) {
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER,
+            alphaLevel / (float) (ALPHA_LEVELS - 1)));
+      }
+      g.translate(boundsW / 2.0, boundsH / 2.0);
+      g.rotate(theta);
+      g.scale(Integer.signum(width), Integer.signum(height));
+      g.drawImage(image, -w / 2, -h / 2, w, h, null);
+    } finally {
+      g.dispose();
+    }
+
+    if (tint != WHITE) {
+      float[] scales = {
+          ((tint >> 16) & 0xFF) / 255f,
+          ((tint >> 8) & 0xFF) / 255f,
+          (tint & 0xFF) / 255f,
+          (tint >>> 24) / 255f };
+      new RescaleOp(scales, new float[4], null).filter(variant, variant);
+    }
+    return variant;
+  }
+
+  private void trim() {
+    Iterator<Map.Entry<Key, BufferedImage>> it = variants.entrySet().iterator();
+    while (cachedBytes > byteBudget && it.hasNext()) {
+      BufferedImage eldest = it.next().getValue();
+      it.remove();
+      cachedBytes -= bytes(eldest);
+      evictions++;
+    }
+  }
+
+  private static long bytes(BufferedImage image) {
+    return (long) image.getWidth() * image.getHeight() * 4;
+  }
+
+  /**
+   * Drop every variant of an image, for example after its pixels changed
+   */
+  public synchronized void evict(Image image) {
+    Iterator<Map.Entry<Key, BufferedImage>> it = variants.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Key, BufferedImage> entry = it.next();
+      if (entry.getKey().image == image) {
+        cachedBytes -= bytes(entry.getValue());
+        it.remove();
+      }
+    }
+  }
+
+  public synchronized void clear() {
+    variants.clear();
+    cachedBytes = 0;
+  }
+
+  public synchronized void resetStats() {
+    hits = 0;
+    misses = 0;
+    evictions = 0;
+    bypassed = 0;
+  }
+
+  public synchronized int getSize() {
+    return variants.size();
+  }
+
+  public synchronized long getCachedBytes() {
+    return cachedBytes;
+  }
+
+  public long getByteBudget() {
+    return byteBudget;
+  }
+
+  public int getMaxVariantSize() {
+    return maxVariantSize;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Get how many lookups were too large to cache
+   */
+  public synchronized long getBypassed() {
+    return bypassed;
+  }
+
+  /**
+   * Get the fraction of lookups served from the cache
+   */
+  public synchronized float getHitRate() {
+    long lookups = hits + misses;
+    return lookups > 0 ? (float) hits / lookups : 0;
+  }
+}
@@ -0,0 +1,440 @@
+package com.engine.graph;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import com.engine.assets.ImageOptimizer;
+
+/**
+ * Rasterizes static world geometry into cached tiles.
+ * <p>
+ * The world is split into square chunks, and every chunk that comes into view
+ * is drawn once, with the static renderables overlapping it and optionally the
+ * world grid, into a tile image. Later frames draw each visible tile as one
+ * image. Tiles are kept per zoom level; zoom is quantized to steps of a half
+ * power of two, so a tile covers about {@link #TILE_PIXELS} screen pixels and
+ * is blitted at close to its own resolution. Only the last few zoom levels
+ * and a bounded number of tiles are kept, least recently drawn dropped first.
+ * <p>
+ * Static renderables are re-tracked every frame. A tile is dropped when an
+ * item overlapping it appears, disappears, moves or changes color, and is
+ * redrawn the next time it is visible. Changes made inside a custom
+ * renderable cannot be seen; call {@link #invalidate()} after them.
+ * <p>
+ * Static renderables are drawn beneath everything else in the world, sorted
+ * among themselves by layer and Z. All methods are called on the thread that
+ * records frames; finished tiles are never modified, so the render thread
+ * can draw them while new ones are made.
+ */
+public class StaticLayerCache {
+  private static final Logger LOGGER = Logger.getLogger(StaticLayerCache.class.getName());
+  public static final int TILE_PIXELS = 512;
+  private static final int MIN_ZOOM_LEVEL = -12; // 1/64
+  private static final int MAX_ZOOM_LEVEL = 12; // 64
+  private static final int MAX_CACHED_ZOOM_LEVELS = 3;
+  private static final int MAX_TILES = 48; // About 1 MB each
+  private static final float GRID_SIZE = 50;
+  private static final BufferedImage EMPTY = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+  /**
+   * A tracked static renderable
+   */
+  private static class Item {
+    Renderable renderable;
+    Color color;
+    int layer;
+    double z;
+    float x, y, rotation, scaleX, scaleY;
+    float minX, minY, maxX, maxY;
+    long lastSeen;
+
+    boolean intersects(double x0, double y0, double x1, double y1) {
+      return maxX >= x0 && minX <= x1 && maxY >= y0 && minY <= y1;
+    }
+  }
+
+  private final Map<Object, Item> items = new IdentityHashMap<>();
+  private final List<Item> drawOrder = new ArrayList<>();
+  private boolean drawOrderDirty = false;
+
+  // Zoom level -> chunk key -> tile, eldest zoom level first
+  private final LinkedHashMap<Integer, Map<Long, BufferedImage>> levels = new LinkedHashMap<>(8, 0.75f, true);
+  private final AffineTransform tileTransform = new AffineTransform();
+  private final List<Item> chunkItems = new ArrayList<>();
+
+  private long frame = 0;
+  private boolean grid = false;
+  private int tileCount = 0; // Non-empty tiles held across all levels
+
+  // Statistics
+  private int lastTilesDrawn = 0;
+  private int lastTilesRasterized = 0;
+  private long tilesRasterized = 0;
+  private long invalidations = 0;
+
+  /**
+   * Start tracking a new frame
+   *
+   * @param showGrid Whether the world grid is drawn into the tiles
+   */
+  public void beginFrame(boolean showGrid) {
+    frame++;
+    if (showGrid != grid) {
+      grid = showGrid;
+      invalidate();
+    }
+  }
+
+  /**
+   * Check whether tiles can be used at a camera zoom
+   */
+  public boolean supportsZoom(double zoom) {
+    if (!(zoom > 0) || Double.isInfinite(zoom)) {
+      return false;
+    }
+    int level = zoomLevel(zoom);
+    return level >= MIN_ZOOM_LEVEL && level <= MAX_ZOOM_LEVEL;
+  }
+
+  /**
+   * Track a static renderable for this frame
+   *
+   * @param key        Identity of the item, stable across frames
+   * @param renderable What to draw
+   * @param layer      Render layer
+   * @param z          Depth within the layer
+   * @param radius     Bounding radius around the position, before scaling
+   */
+  public void track(Object key, Renderable renderable, int layer, double z, float x, float y,
+      float rotation, float scaleX, float scaleY, float radius) {
+    Color color = renderable instanceof Shape ? ((Shape) renderable).getColor() : null;
+    Item item = items.get(key);
+    if (item == null) {
+      item = new Item();
+      items.put(key, item);
+      drawOrder.add(item);
+      drawOrderDirty = true;
+    } else if (item.renderable == renderable && item.color == color && item.layer == layer && item.z == z
+        && item.x == x && item.y == y && item.rotation == rotation
+        && item.scaleX == scaleX && item.scaleY == scaleY) {
+      item.lastSeen = frame;
+      return;
+    } else {
+      // Changed; drop the tiles under its old bounds
+      invalidate(item);
+      drawOrderDirty |= item.layer != layer || item.z != z;
+    }
+
+    item.renderable = renderable;
+    item.color = color;
+    item.layer = layer;
+    item.z = z;
+    item.x = x;
+    item.y = y;
+    item.rotation = rotation;
+    item.scaleX = scaleX;
+    item.scaleY = scaleY;
+    float reach = radius * Math.max(Math.abs(scaleX), Math.abs(scaleY));
+    item.minX = x - reach;
+    item.minY = y - reach;
+    item.maxX = x + reach;
+    item.maxY = y + reach;
+    item.lastSeen = frame;
+    invalidate(item);
+  }
+
+  /**
+   * Forget items that were not tracked this frame
+   */
+  public void endFrame() {
+    Iterator<Item> it = items.values().iterator();
+    while (it.hasNext()) {
+      Item item = it.next();
+      if (item.lastSeen != frame) {
+        invalidate(item);
+        it.remove();
+        drawOrder.remove(item);
+      }
+    }
+  }
+
+  /**
+   * Record the visible tiles, rasterizing any that are missing
+   *
+   * @param buffer Buffer recording world-space commands
+   * @param zoom   Camera zoom (screen pixels per world unit)
+   * @param minX   Visible world bounds
+   * @param minY   Visible world bounds
+   * @param maxX   Visible world bounds
+   * @param maxY   Visible world bounds
+   */
+  public void record(RenderCommandBuffer buffer, double zoom, float minX, float minY, float maxX, float maxY) {
+    int level = zoomLevel(zoom);
+    int chunk = chunkSize(level);
+    double scale = (double) TILE_PIXELS / chunk;
+    if (!Float.isFinite(minX) || !Float.isFinite(minY) || !Float.isFinite(maxX) || !Float.isFinite(maxY)) {
+      return;
+    }
+    Map<Long, BufferedImage> tiles = levels.computeIfAbsent(level, k -> new LinkedHashMap<>(64, 0.75f, true));
+    while (levels.size() > MAX_CACHED_ZOOM_LEVELS) {
+      Iterator<Map<Long, BufferedImage>> eldest = levels.values().iterator();
+      tileCount -= countTiles(eldest.next());
+      eldest.remove();
+    }
+
+    if (drawOrderDirty) {
+      drawOrder.sort((a, b) -> a.layer != b.layer ? Integer.compare(a.layer, b.layer) : Double.compare(a.z, b.z));
+      drawOrderDirty = false;
+    }
+
+    int cx0 = (int) Math.floor(minX / chunk);
+    int cy0 = (int) Math.floor(minY / chunk);
+    int cx1 = (int) Math.floor(maxX / chunk);
+    int cy1 = (int) Math.floor(maxY / chunk);
+
+    lastTilesDrawn = 0;
+    lastTilesRasterized = 0;
+    for (int cy = cy0; cy <= cy1; cy++) {
+      for (int cx = cx0; cx <= cx1; cx++) {
+        long key = ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+        BufferedImage tile = tiles.get(key);
+        if (tile == null) {
+          tile = rasterize((double) cx * chunk, (double) cy * chunk, chunk, scale);
+          tiles.put(key, tile);
+          lastTilesRasterized++;
+          if (tile != EMPTY) {
+            tileCount++;
+            trim(tiles);
+          }
+        }
+        if (tile != EMPTY) {
+          // Pivot at the corner so the tile is never mistaken for a sprite
+          // that could be pre-rotated
+          buffer.addSprite(tile, (float) cx * chunk, (float) cy * chunk, 0, 1, 1,
+              chunk, chunk, 0, 0, false, false, 1.0f);
+          lastTilesDrawn++;
+        }
+      }
+    }
+    tilesRasterized += lastTilesRasterized;
+  }
+
+  /**
+   * Draw one chunk into a new tile
+   *
+   * @return The tile, or {@link #EMPTY} when nothing overlaps the chunk
+   */
+  private BufferedImage rasterize(double x0, double y0, int chunk, double scale) {
+    double x1 = x0 + chunk;
+    double y1 = y0 + chunk;
+    chunkItems.clear();
+    for (Item item : drawOrder) {
+      if (item.intersects(x0, y0, x1, y1)) {
+        chunkItems.add(item);
+      }
+    }
+    if (chunkItems.isEmpty() && !grid) {
+      return EMPTY;
+    }
+
+    BufferedImage tile = ImageOptimizer.createCompatibleImage(TILE_PIXELS, TILE_PIXELS, Transparency.TRANSLUCENT);
+    Graphics2D g = tile.createGraphics();
+    try {
+      g.scale(scale, scale);
+      g.translate(-x0, -y0);
+      tileTransform.setTransform(g.getTransform());
+
+      if (grid) {
+        drawGrid(g, x0, y0, x1, y1);
+      }
+
+      for (Item item : chunkItems) {
+        g.setTransform(tileTransform);
+        g.translate(item.x, item.y);
+        if (item.rotation != 0) {
+          g.rotate(item.rotation);
+        }
+        if (item.scaleX != 1 || item.scaleY != 1) {
+          g.scale(item.scaleX, item.scaleY);
+        }
+        item.renderable.render(g);
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warning("Error drawing static tile: " + e.getMessage());
+    } finally {
+      g.dispose();
+    }
+    return tile;
+  }
+
+  /**
+   * Draw the part of the world grid inside a chunk
+   */
+  private void drawGrid(Graphics2D g, double x0, double y0, double x1, double y1) {
+    g.setColor(new Color(0, 0, 255, 128));
+    g.setStroke(new BasicStroke(0.5f));
+    int startX = (int) (Math.floor(x0 / GRID_SIZE) * GRID_SIZE);
+    int startY = (int) (Math.floor(y0 / GRID_SIZE) * GRID_SIZE);
+    for (int x = startX; x <= x1; x += GRID_SIZE) {
+      g.drawLine(x, (int) Math.floor(y0), x, (int) Math.ceil(y1));
+    }
+    for (int y = startY; y <= y1; y += GRID_SIZE) {
+      g.drawLine((int) Math.floor(x0), y, (int) Math.ceil(x1), y);
+    }
+
+    // Main axes and origin marker
+    g.setStroke(new BasicStroke(2.0f));
+    g.setColor(Color.RED);
+    g.drawLine(-1000, 0, 1000, 0);
+    g.setColor(Color.GREEN);
+    g.drawLine(0, -1000, 0, 1000);
+    g.setColor(Color.WHITE);
+    g.fillOval(-5, -5, 10, 10);
+  }
+
+  /**
+   * Drop the tiles under an item at every zoom level
+   */
+  private void invalidate(Item item) {
+    if (item.renderable == null) {
+      return;
+    }
+    for (Map.Entry<Integer, Map<Long, BufferedImage>> level : levels.entrySet()) {
+      Map<Long, BufferedImage> tiles = level.getValue();
+      if (tiles.isEmpty()) {
+        continue;
+      }
+      int chunk = chunkSize(level.getKey());
+      int cx0 = (int) Math.floor(item.minX / chunk);
+      int cy0 = (int) Math.floor(item.minY / chunk);
+      int cx1 = (int) Math.floor(item.maxX / chunk);
+      int cy1 = (int) Math.floor(item.maxY / chunk);
+
+      if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > tiles.size()) {
+        // Item spans more chunks than are cached; check the cached ones
+        Iterator<Map.Entry<Long, BufferedImage>> it = tiles.entrySet().iterator();
+        while (it.hasNext()) {
+          Map.Entry<Long, BufferedImage> tile = it.next();
+          int cx = (int) (tile.getKey() >> 32);
+          int cy = (int) (long) tile.getKey();
+          if (cx >= cx0 && cx <= cx1 && cy >= cy0 && cy <= cy1) {
+            tileCount -= tile.getValue() != EMPTY ? 1 : 0;
+            it.remove();
+          }
+        }
+        continue;
+      }
+
+      for (int cy = cy0; cy <= cy1; cy++) {
+        for (int cx = cx0; cx <= cx1; cx++) {
+          BufferedImage tile = tiles.remove(((long) cx << 32) | (cy & 0xFFFFFFFFL));
+          tileCount -= tile != null && tile != EMPTY ? 1 : 0;
+        }
+      }
+    }
+    invalidations++;
+  }
+
+  /**
+   * Drop least recently drawn tiles until the tile budget is met
+   */
+  private void trim(Map<Long, BufferedImage> current) {
+    for (Iterator<Map<Long, BufferedImage>> levelIt = levels.values().iterator(); levelIt.hasNext()
+        && tileCount > MAX_TILES;) {
+      Map<Long, BufferedImage> tiles = levelIt.next();
+      // Visible tiles of the current level were just drawn, so they are last
+      Iterator<BufferedImage> it = tiles.values().iterator();
+      while (tileCount > MAX_TILES && it.hasNext()) {
+        BufferedImage tile = it.next();
+        if (tiles == current && !it.hasNext()) {
+          break;
+        }
+        it.remove();
+        tileCount -= tile != EMPTY ? 1 : 0;
+      }
+    }
+  }
+
+  private static int countTiles(Map<Long, BufferedImage> tiles) {
+    int count = 0;
+    for (BufferedImage tile : tiles.values()) {
+      count += tile != EMPTY ? 1 : 0;
+    }
+    return count;
+  }
+
+  /**
+   * Drop every tile; they are redrawn as they come into view
+   */
+  public void invalidate() {
+    levels.clear();
+    tileCount = 0;
+    invalidations++;
+  }
+
+  /**
+   * Forget all items and tiles
+   */
+  public void clear() {
+    items.clear();
+    drawOrder.clear();
+    levels.clear();
+    tileCount = 0;
+  }
+
+  private static int zoomLevel(double zoom) {
+    return (int) Math.round(2 * Math.log(zoom) / Math.log(2));
+  }
+
+  /**
+   * Get the edge length of a chunk in world units. Chunks are a whole number
+   * of units so that tiles meet without seams.
+   */
+  private static int chunkSize(int level) {
+    return Math.max(1, (int) Math.round(TILE_PIXELS / Math.pow(2, level / 2.0)));
+  }
+
+  public int getItemCount() {
+    return items.size();
+  }
+
+  /**
+   * Get the number of tiles drawn in the last recorded frame
+   */
+  public int getLastTilesDrawn() {
+    return lastTilesDrawn;
+  }
+
+  /**
+   * Get the number of tiles rasterized in the last recorded frame
+   */
+  public int getLastTilesRasterized() {
+    return lastTilesRasterized;
+  }
+
+  /**
+   * Get the number of non-empty tiles held in memory
+   */
+  public int getTileCount() {
+    return tileCount;
+  }
+
+  public long getTilesRasterized() {
+    return tilesRasterized;
+  }
+
+  public long getInvalidations() {
+    return invalidations;
+  }
+}
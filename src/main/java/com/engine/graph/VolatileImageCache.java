@@ -0,0 +1,216 @@
+package com.engine.graph;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * Keeps copies of sprite images in video memory.
+ * <p>
+ * Managed images are only cached in VRAM after several identical draws; a
+ * {@link VolatileImage} stays accelerated for as long as its surface lives.
+ * The copy is not updated when the source image changes: whoever draws into a
+ * cached image must {@link #evict} or {@link #invalidate} it, as the engine
+ * does for texture atlas pages. Surfaces can be lost at any
+ * time (display mode changes, other applications), so every lookup validates
+ * the copy against the target and re-renders it from the source image when it
+ * was restored or recreates it when it became incompatible. If the contents
+ * are still lost afterwards the source image is drawn instead.
+ * <p>
+ * Entries are weakly keyed by source image and bounded by a pixel budget.
+ * Lookups and {@link #evict} must happen on the thread that draws;
+ * {@link #invalidate} may be called from any thread.
+ */
+public class VolatileImageCache {
+  private static final Logger LOGGER = Logger.getLogger(VolatileImageCache.class.getName());
+  public static final long DEFAULT_PIXEL_BUDGET = 16L * 1024 * 1024;
+
+  private final Map<BufferedImage, VolatileImage> images = new WeakHashMap<>();
+  private final ConcurrentLinkedQueue<BufferedImage> invalidated = new ConcurrentLinkedQueue<>();
+  private final long pixelBudget;
+  private long cachedPixels = 0;
+
+  // Statistics
+  private long created = 0;
+  private long restored = 0;
+  private long fallbacks = 0;
+
+  public VolatileImageCache() {
+    this(DEFAULT_PIXEL_BUDGET);
+  }
+
+  /**
+   * Create a cache
+   *
+   * @param pixelBudget Maximum number of pixels held in video memory
+   */
+  public VolatileImageCache(long pixelBudget) {
+    this.pixelBudget = pixelBudget;
+  }
+
+  /**
+   * Get the image to draw in place of a source image
+   *
+   * @param source Image to draw
+   * @param config Configuration of the surface being drawn to
+   * @return An accelerated copy of the source, or the source itself if it is
+   *         not a BufferedImage, does not fit the budget or could not be
+   *         restored
+   */
+  public Image resolve(Image source, GraphicsConfiguration config) {
+    if (!(source instanceof BufferedImage) || config == null) {
+      return source;
+    }
+    BufferedImage image = (BufferedImage) source;
+
+    BufferedImage stale;
+    while ((stale = invalidated.poll()) != null) {
+      evict(stale);
+    }
+
+    VolatileImage copy = images.get(image);
+    if (copy == null) {
+      long pixels = (long) image.getWidth() * image.getHeight();
+      if (cachedPixels + pixels > pixelBudget) {
+        // Entries of collected images vanish without notice; recount first
+        recount();
+        if (cachedPixels + pixels > pixelBudget) {
+          return source;
+        }
+      }
+      copy = create(image, config);
+      if (copy == null) {
+        return source;
+      }
+      images.put(image, copy);
+      cachedPixels += pixels;
+    }
+
+    switch (copy.validate(config)) {
+      case VolatileImage.IMAGE_INCOMPATIBLE:
+        copy.flush();
+        copy = create(image, config);
+        if (copy == null) {
+          evict(image);
+          return source;
+        }
+        images.put(image, copy);
+        break;
+      case VolatileImage.IMAGE_RESTORED:
+        copyPixels(image, copy);
+        restored++;
+        break;
+      default:
+        break;
+    }
+
+    if (copy.contentsLost()) {
+      // Lost again while re-rendering; try once more next frame
+      fallbacks++;
+      return source;
+    }
+    return copy;
+  }
+
+  /**
+   * Drop the copy of an image, for example after its pixels changed
+   */
+  public void evict(BufferedImage source) {
+    VolatileImage copy = images.remove(source);
+    if (copy != null) {
+      cachedPixels -= (long) source.getWidth() * source.getHeight();
+      copy.flush();
+    }
+  }
+
+  /**
+   * Drop the copy of an image before the next lookup. Unlike {@link #evict}
+   * this may be called from any thread, e.g. one loading assets.
+   *
+   * @param source The modified image
+   */
+  public void invalidate(BufferedImage source) {
+    invalidated.add(source);
+  }
+
+  /**
+   * Release every copy
+   */
+  public void clear() {
+    for (Iterator<VolatileImage> it = images.values().iterator(); it.hasNext();) {
+      it.next().flush();
+      it.remove();
+    }
+    cachedPixels = 0;
+  }
+
+  private void recount() {
+    cachedPixels = 0;
+    for (VolatileImage copy : images.values()) {
+      cachedPixels += (long) copy.getWidth() * copy.getHeight();
+    }
+  }
+
+  private VolatileImage create(BufferedImage source, GraphicsConfiguration config) {
+    VolatileImage copy;
+    try {
+      copy = config.createCompatibleVolatileImage(source.getWidth(), source.getHeight(),
+          source.getTransparency());
+    } catch (IllegalArgumentException | UnsupportedOperationException e) {
+      LOGGER.fine("Cannot accelerate image: " + e.getMessage());
+      return null;
+    }
+    if (copy == null) {
+      return null;
+    }
+    copy.validate(config);
+    copyPixels(source, copy);
+    created++;
+    return copy;
+  }
+
+  private static void copyPixels(BufferedImage source, VolatileImage copy) {
+    Graphics2D g = copy.createGraphics();
+    try {
+      // Replace rather than blend so translucent pixels survive the copy
+      g.setComposite(AlphaComposite.Src);
+      g.drawImage(source, 0, 0, null);
+    } finally {
+      g.dispose();
+    }
+  }
+
+  public int getSize() {
+    return images.size();
+  }
+
+  public long getCachedPixels() {
+    return cachedPixels;
+  }
+
+  public long getCreatedCount() {
+    return created;
+  }
+
+  /**
+   * Get how often a copy was re-rendered after its surface was lost
+   */
+  public long getRestoredCount() {
+    return restored;
+  }
+
+  /**
+   * Get how often the source image had to be drawn because its copy was lost
+   */
+  public long getFallbackCount() {
+    return fallbacks;
+  }
+}
@@ -1,5 +1,6 @@
 package com.engine.particles;
 
+import java.awt.Color;
 import java.awt.Graphics2D;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +11,7 @@ import dev.dominion.ecs.api.Entity;
 /**
  * Abstract base class for particle emitters providing common functionality.
  */
-public abstract class AbstractParticleEmitter implements ParticleEmitter {
+public abstract class AbstractParticleEmitter implements ParticleEmitter, PooledParticleEmitter {
 
   // Common properties
   protected float x, y; // Position
@@ -20,16 +21,26 @@ public abstract class AbstractParticleEmitter implements ParticleEmitter {
   protected boolean active = false; // Whether the emitter is active
   protected boolean continuous = false; // Whether to emit continuously
   protected Entity attachedEntity = null; // Entity this emitter is attached to
+  protected int priority = 0; // Budget and LOD priority
+  protected final ParticleRandom random = new ParticleRandom(); // Spawn randomness
 
-  // Particle pool
+  // Level of detail and global budget, set by the particle system
+  protected LodLevel lodLevel = LodLevel.FULL;
+  protected ParticleBudget particleBudget = null;
+
+  // Live particles
   protected final List<Particle> particles = new ArrayList<>();
 
+  // Pools dead particles are returned to, if any
+  protected ParticlePools particlePools = null;
+
   @Override
   public void update(float deltaTime) {
     // Update emission (if continuous)
-    if (continuous && active) {
+    float rate = emissionRate * lodLevel.getEmissionScale();
+    if (continuous && active && rate > 0) {
       emissionAccumulator += deltaTime;
-      float emissionInterval = 1.0f / emissionRate;
+      float emissionInterval = 1.0f / rate;
 
       while (emissionAccumulator >= emissionInterval) {
         emit(1);
@@ -53,6 +64,11 @@ public abstract class AbstractParticleEmitter implements ParticleEmitter {
           particles.set(i, particles.get(lastIndex));
         }
         particles.remove(lastIndex);
+
+        onParticleRemoved(p);
+        if (particlePools != null) {
+          particlePools.recycle(p);
+        }
       }
     }
   }
@@ -66,7 +82,7 @@ public abstract class AbstractParticleEmitter implements ParticleEmitter {
 
   @Override
   public void emit(int count) {
-    for (int i = 0; i < count && particles.size() < maxParticles; i++) {
+    for (int i = 0; i < count && particles.size() < maxParticles && acquireBudget(); i++) {
       particles.add(createParticle());
     }
   }
@@ -117,6 +133,35 @@ public abstract class AbstractParticleEmitter implements ParticleEmitter {
     return particles;
   }
 
+  @Override
+  public int getParticleCount() {
+    return particles.size();
+  }
+
+  @Override
+  public void setParticlePools(ParticlePools pools) {
+    this.particlePools = pools;
+  }
+
+  @Override
+  public void setLevelOfDetail(LodLevel level) {
+    this.lodLevel = level;
+  }
+
+  @Override
+  public void setParticleBudget(ParticleBudget budget) {
+    this.particleBudget = budget;
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+
+  public void setPriority(int priority) {
+    this.priority = priority;
+  }
+
   @Override
   public void setAttachedEntity(Entity entity) {
     this.attachedEntity = entity;
@@ -127,6 +172,11 @@ public abstract class AbstractParticleEmitter implements ParticleEmitter {
     return attachedEntity;
   }
 
+  @Override
+  public void setSeed(long seed) {
+    random.setSeed(seed);
+  }
+
   @Override
   public void configure(Map<String, Object> params) {
     if (params.containsKey("x"))
@@ -135,6 +185,10 @@ public abstract class AbstractParticleEmitter implements ParticleEmitter {
       this.y = ((Number) params.get("y")).floatValue();
     if (params.containsKey("emissionRate"))
       this.emissionRate = ((Number) params.get("emissionRate")).floatValue();
+    if (params.containsKey("priority"))
+      this.priority = ((Number) params.get("priority")).intValue();
+    if (params.containsKey("seed"))
+      random.setSeed(((Number) params.get("seed")).longValue());
     if (params.containsKey("maxParticles"))
       this.maxParticles = ((Number) params.get("maxParticles")).intValue();
   }
@@ -146,6 +200,36 @@ public abstract class AbstractParticleEmitter implements ParticleEmitter {
    */
   protected abstract Particle createParticle();
 
+  /**
+   * Called when a dead particle leaves the emitter, before it is returned to
+   * its pool. Subclasses release anything the particle owns here.
+   *
+   * @param particle The removed particle
+   */
+  protected void onParticleRemoved(Particle particle) {
+  }
+
+  /**
+   * Get a plain particle, from the pools if the emitter has them
+   *
+   * @return A particle ready to use
+   */
+  protected Particle obtainParticle(float x, float y, float size, Color color, float lifetime) {
+    return particlePools != null
+        ? particlePools.getParticles().obtainParticle(x, y, size, color, lifetime)
+        : new Particle(x, y, size, color, lifetime);
+  }
+
+  /**
+   * Take one particle from the global budget, if the emitter has one
+   *
+   * @return Whether another particle may be spawned
+   */
+  protected boolean acquireBudget() {
+    return particleBudget == null
+        || particleBudget.tryAcquire(priority > 0 ? 1.0f : lodLevel.getBudgetShare());
+  }
+
   /**
    * Update position if attached to an entity
    */
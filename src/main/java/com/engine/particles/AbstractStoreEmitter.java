@@ -0,0 +1,313 @@
+package com.engine.particles;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.engine.particles.emitters.SpriteParticleEmitter.SpriteParticle;
+import com.engine.physics.StaticCollisionGrid;
+import com.engine.util.ColorCache;
+
+import dev.dominion.ecs.api.Entity;
+
+/**
+ * Base class for emitters whose particles live in a {@link ParticleDataStore}
+ * instead of individual {@link Particle} objects. Each emitter owns its own
+ * store, which doubles as its slice for culling: the store tracks the bounds
+ * of its particles.
+ */
+public abstract class AbstractStoreEmitter implements ParticleEmitter, BatchableEmitter {
+  private static final int INITIAL_CAPACITY = 64;
+
+  // Common properties
+  protected float x, y; // Position
+  protected float emissionRate = 10; // Particles per second
+  protected float emissionAccumulator = 0; // Time accumulator for emission
+  protected int maxParticles = 1000; // Maximum number of particles
+  protected boolean active = false; // Whether the emitter is active
+  protected boolean continuous = false; // Whether to emit continuously
+  protected Entity attachedEntity = null; // Entity this emitter is attached to
+  protected int priority = 0; // Budget and LOD priority
+  protected final ParticleRandom random = new ParticleRandom(); // Spawn randomness
+
+  // Level of detail and global budget, set by the particle system
+  protected LodLevel lodLevel = LodLevel.FULL;
+  protected ParticleBudget particleBudget = null;
+
+  // Collision against static geometry, off unless a grid is set
+  protected StaticCollisionGrid collisionGrid = null;
+  protected float restitution = 0.5f; // Bounciness
+  protected float friction = 0.1f;
+  protected boolean removeOnCollision = false;
+
+  // Particle storage
+  protected final ParticleDataStore store = new ParticleDataStore(INITIAL_CAPACITY, maxParticles);
+
+  // Last color used by render, to avoid a Color allocation per particle
+
+  @Override
+  public void update(float deltaTime) {
+    prepareUpdate(deltaTime);
+
+    // Update all particles
+    store.updateAll(deltaTime);
+  }
+
+  /**
+   * Emit due particles and follow the attached entity, without advancing the
+   * particles. Used when the particle system advances stores in parallel.
+   *
+   * @param deltaTime Time since last update in seconds
+   */
+  public void prepareUpdate(float deltaTime) {
+    // Update emission (if continuous)
+    float rate = emissionRate * lodLevel.getEmissionScale();
+    if (continuous && active && rate > 0) {
+      emissionAccumulator += deltaTime;
+      int due = (int) (emissionAccumulator * rate);
+      if (due > 0) {
+        emit(due);
+        emissionAccumulator -= due / rate;
+      }
+    }
+
+    // Update position if attached to an entity
+    updateAttachedPosition();
+  }
+
+  @Override
+  public void render(Graphics2D g) {
+    AffineTransform originalTransform = g.getTransform();
+    Composite originalComposite = g.getComposite();
+    BufferedImage[] sprites = getSprites();
+
+    for (int i = 0; i < store.getCount(); i++) {
+      float size = store.getSize(i);
+      int half = (int) (size / 2);
+
+      g.translate(store.getX(i), store.getY(i));
+      g.rotate(store.getRotation(i));
+
+      int sprite = store.getSprite(i);
+      if (sprites != null && sprite >= 0 && sprite < sprites.length) {
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, store.getAlpha(i)));
+        g.drawImage(sprites[sprite], -half, -half, (int) size, (int) size, null);
+        g.setComposite(originalComposite);
+      } else {
+        g.setColor(ColorCache.get(store.getArgb(i)));
+        g.fillRect(-half, -half, (int) size, (int) size);
+      }
+
+      g.setTransform(originalTransform);
+    }
+  }
+
+  @Override
+  public void emit(int count) {
+    for (int i = 0; i < count && store.getCount() < maxParticles; i++) {
+      if (!acquireBudget() || createParticle() < 0) {
+        break;
+      }
+    }
+  }
+
+  @Override
+  public void burst(int count) {
+    boolean prevContinuous = continuous;
+    continuous = false;
+    emit(count);
+    continuous = prevContinuous;
+  }
+
+  @Override
+  public void start() {
+    active = true;
+    continuous = true;
+  }
+
+  @Override
+  public void stop() {
+    active = false;
+    continuous = false;
+  }
+
+  @Override
+  public boolean isActive() {
+    return active;
+  }
+
+  @Override
+  public void setPosition(float x, float y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  @Override
+  public float getX() {
+    return x;
+  }
+
+  @Override
+  public float getY() {
+    return y;
+  }
+
+  /**
+   * Get a snapshot of the particles as objects. This allocates on every call
+   * and is meant for inspection; use {@link #getStore()} on hot paths.
+   */
+  @Override
+  public List<Particle> getParticles() {
+    BufferedImage[] sprites = getSprites();
+    List<Particle> snapshot = new ArrayList<>(store.getCount());
+    for (int i = 0; i < store.getCount(); i++) {
+      int sprite = store.getSprite(i);
+      Color color = new Color(store.getArgb(i), true);
+      Particle p = sprites != null && sprite >= 0 && sprite < sprites.length
+          ? new SpriteParticle(store.getX(i), store.getY(i), store.getSize(i), color,
+              store.getLifetime(i), sprites[sprite])
+          : new Particle(store.getX(i), store.getY(i), store.getSize(i), color, store.getLifetime(i));
+      p.setVelocityX(store.getVelocityX(i));
+      p.setVelocityY(store.getVelocityY(i));
+      p.setRotation(store.getRotation(i));
+      p.setAlpha(store.getAlpha(i));
+      snapshot.add(p);
+    }
+    return snapshot;
+  }
+
+  @Override
+  public int getParticleCount() {
+    return store.getCount();
+  }
+
+  /**
+   * Get the store holding this emitter's particles
+   *
+   * @return The particle store
+   */
+  public ParticleDataStore getStore() {
+    return store;
+  }
+
+  @Override
+  public void setLevelOfDetail(LodLevel level) {
+    this.lodLevel = level;
+  }
+
+  @Override
+  public void setParticleBudget(ParticleBudget budget) {
+    this.particleBudget = budget;
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+
+  public void setPriority(int priority) {
+    this.priority = priority;
+  }
+
+  @Override
+  public void setAttachedEntity(Entity entity) {
+    this.attachedEntity = entity;
+  }
+
+  @Override
+  public Entity getAttachedEntity() {
+    return attachedEntity;
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    random.setSeed(seed);
+  }
+
+  @Override
+  public void configure(Map<String, Object> params) {
+    if (params.containsKey("x"))
+      this.x = ((Number) params.get("x")).floatValue();
+    if (params.containsKey("y"))
+      this.y = ((Number) params.get("y")).floatValue();
+    if (params.containsKey("emissionRate"))
+      this.emissionRate = ((Number) params.get("emissionRate")).floatValue();
+    if (params.containsKey("priority"))
+      this.priority = ((Number) params.get("priority")).intValue();
+    if (params.containsKey("seed"))
+      random.setSeed(((Number) params.get("seed")).longValue());
+    if (params.containsKey("maxParticles")) {
+      this.maxParticles = ((Number) params.get("maxParticles")).intValue();
+      store.setMaxCapacity(maxParticles);
+    }
+    if (params.containsKey("restitution"))
+      this.restitution = ((Number) params.get("restitution")).floatValue();
+    if (params.containsKey("friction"))
+      this.friction = ((Number) params.get("friction")).floatValue();
+    if (params.containsKey("removeOnCollision"))
+      this.removeOnCollision = (Boolean) params.get("removeOnCollision");
+    store.setCollision(collisionGrid, restitution, friction, removeOnCollision);
+  }
+
+  /**
+   * Make particles collide with static world geometry. Collision is resolved
+   * in the particle store, so no physics bodies are created.
+   *
+   * @param collisionGrid Baked static geometry, or null to disable collision
+   */
+  public void setCollisionGrid(StaticCollisionGrid collisionGrid) {
+    this.collisionGrid = collisionGrid;
+    store.setCollision(collisionGrid, restitution, friction, removeOnCollision);
+  }
+
+  @Override
+  public void addToBatch(BatchRenderer renderer) {
+    renderer.addParticles(store, getSprites());
+  }
+
+  /**
+   * Get the sprites that particle sprite indices refer to
+   *
+   * @return The sprite table, or null if particles are solid squares
+   */
+  protected BufferedImage[] getSprites() {
+    return null;
+  }
+
+  /**
+   * Spawn a new particle in the store with emitter-specific properties
+   *
+   * @return Index of the new particle, or -1 if the store is full
+   */
+  protected abstract int createParticle();
+
+  /**
+   * Take one particle from the global budget, if the emitter has one
+   *
+   * @return Whether another particle may be spawned
+   */
+  protected boolean acquireBudget() {
+    return particleBudget == null
+        || particleBudget.tryAcquire(priority > 0 ? 1.0f : lodLevel.getBudgetShare());
+  }
+
+  /**
+   * Update position if attached to an entity
+   */
+  protected void updateAttachedPosition() {
+    if (attachedEntity != null) {
+      // Try to get Transform component from attached entity
+      var transform = attachedEntity.get(com.engine.components.Transform.class);
+      if (transform != null) {
+        this.x = (float) transform.getX();
+        this.y = (float) transform.getY();
+      }
+    }
+  }
+}
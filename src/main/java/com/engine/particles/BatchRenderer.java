@@ -1,6 +1,7 @@
 package com.engine.particles;
 
 import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 
 /**
  * Interface for renderers that can batch-render multiple particles efficiently.
@@ -14,6 +15,14 @@ public interface BatchRenderer {
    */
   void addParticle(Particle particle);
 
+  /**
+   * Add every particle of a particle store to the batch
+   *
+   * @param store   The particle store
+   * @param sprites Sprites that the store's sprite indices refer to, or null
+   */
+  void addParticles(ParticleDataStore store, BufferedImage[] sprites);
+
   /**
    * Render all batched particles at once
    *
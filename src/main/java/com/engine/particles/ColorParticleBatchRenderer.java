@@ -5,11 +5,14 @@ import java.awt.Color;
 import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.engine.util.ColorCache;
+
 /**
  * Batch renderer for color particles that reduces draw calls.
  */
@@ -19,6 +22,9 @@ public class ColorParticleBatchRenderer implements BatchRenderer {
   private final Map<Float, List<Particle>> particlesByAlpha = new HashMap<>();
   private long currentFrameNumber = 0;
 
+  // Particle stores are drawn straight from their arrays
+  private final List<ParticleDataStore> stores = new ArrayList<>();
+
   @Override
   public void addParticle(Particle particle) {
     if (!particle.isActive()) {
@@ -34,6 +40,13 @@ public class ColorParticleBatchRenderer implements BatchRenderer {
     particle.setLastFrameRendered(currentFrameNumber);
   }
 
+  @Override
+  public void addParticles(ParticleDataStore store, BufferedImage[] sprites) {
+    if (store.getCount() > 0) {
+      stores.add(store);
+    }
+  }
+
   @Override
   public void render(Graphics2D g) {
     // Increment frame counter for tracking rendered particles
@@ -75,11 +88,31 @@ public class ColorParticleBatchRenderer implements BatchRenderer {
 
     // Restore original composite
     g.setComposite(originalComposite);
+
+    // Store particles carry their opacity in the color, so the composite
+    // never changes; colors come from the shared cache
+    for (ParticleDataStore store : stores) {
+      for (int i = 0; i < store.getCount(); i++) {
+        int argb = store.getArgb(i);
+        if ((argb >>> 24) == 0) {
+          continue;
+        }
+
+        float size = store.getSize(i);
+        float halfSize = size / 2;
+        g.setColor(ColorCache.get(argb));
+        g.translate(store.getX(i), store.getY(i));
+        g.rotate(store.getRotation(i));
+        g.fillRect((int) (-halfSize), (int) (-halfSize), (int) size, (int) size);
+        g.setTransform(originalTransform);
+      }
+    }
   }
 
   @Override
   public void reset() {
     particlesByAlpha.clear();
+    stores.clear();
   }
 
   @Override
@@ -0,0 +1,196 @@
+package com.engine.particles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.engine.particles.emitters.TrailEmitter;
+import com.engine.util.SpatialIndex;
+
+/**
+ * Persistent spatial index over the particle footprints of emitters.
+ * <p>
+ * Each frame the update thread calls {@link #track} for every live emitter,
+ * which moves the emitter's entry in a {@link SpatialIndex} to the bounds of
+ * its particles, then {@link #sweep()} to drop emitters that were removed.
+ * Nothing is rebuilt: an emitter whose particles stay within the same cells
+ * costs a few field writes. {@link #updateVisibility} marks the emitters that
+ * overlap the view, and {@link #isVisible} can be called from the render
+ * thread.
+ */
+public class EmitterIndex {
+
+  private static final class Entry {
+    final ParticleEmitter emitter;
+    final int id;
+    long lastSeenFrame;
+    volatile long visibleFrame = -1;
+
+    Entry(ParticleEmitter emitter, int id) {
+      this.emitter = emitter;
+      this.id = id;
+    }
+  }
+
+  private final SpatialIndex index;
+  private final Map<ParticleEmitter, Entry> entries = new ConcurrentHashMap<>();
+  private Entry[] entriesById = new Entry[64];
+  private int[] queryIds = new int[64];
+  private long frame = 0;
+
+  // Frame of the last view query, or -1 if everything counts as visible
+  private volatile long visibleFrame = -1;
+
+  /**
+   * Create an index
+   *
+   * @param cellSize Cell size of the underlying spatial index in world units
+   */
+  public EmitterIndex(float cellSize) {
+    this.index = new SpatialIndex(cellSize);
+  }
+
+  /**
+   * Start a new frame
+   */
+  public void beginFrame() {
+    frame++;
+  }
+
+  /**
+   * Insert an emitter or move its entry to the current bounds of its particles
+   *
+   * @param emitter The emitter to track
+   */
+  public void track(ParticleEmitter emitter) {
+    float minX = emitter.getX();
+    float minY = emitter.getY();
+    float maxX = minX;
+    float maxY = minY;
+
+    if (emitter instanceof AbstractStoreEmitter) {
+      ParticleDataStore store = ((AbstractStoreEmitter) emitter).getStore();
+      if (store.getCount() > 0) {
+        minX = store.getMinX();
+        minY = store.getMinY();
+        maxX = store.getMaxX();
+        maxY = store.getMaxY();
+      }
+    } else if (emitter instanceof TrailEmitter) {
+      TrailEmitter trail = (TrailEmitter) emitter;
+      minX = trail.getMinX();
+      minY = trail.getMinY();
+      maxX = trail.getMaxX();
+      maxY = trail.getMaxY();
+    } else {
+      List<Particle> particles = emitter.getParticles();
+      for (int i = 0; i < particles.size(); i++) {
+        Particle p = particles.get(i);
+        float half = p.getSize() / 2;
+        minX = Math.min(minX, p.getX() - half);
+        minY = Math.min(minY, p.getY() - half);
+        maxX = Math.max(maxX, p.getX() + half);
+        maxY = Math.max(maxY, p.getY() + half);
+      }
+    }
+
+    Entry entry = entries.get(emitter);
+    if (entry == null) {
+      int id = index.insert(minX, minY, maxX, maxY);
+      entry = new Entry(emitter, id);
+      entries.put(emitter, entry);
+      if (id >= entriesById.length) {
+        entriesById = Arrays.copyOf(entriesById, Math.max(id + 1, entriesById.length * 2));
+      }
+      entriesById[id] = entry;
+    } else {
+      index.update(entry.id, minX, minY, maxX, maxY);
+    }
+    entry.lastSeenFrame = frame;
+  }
+
+  /**
+   * Drop emitters that were not tracked this frame
+   */
+  public void sweep() {
+    for (int id = 0; id < entriesById.length; id++) {
+      Entry entry = entriesById[id];
+      if (entry != null && entry.lastSeenFrame != frame) {
+        index.remove(id);
+        entries.remove(entry.emitter);
+        entriesById[id] = null;
+      }
+    }
+  }
+
+  /**
+   * Mark the tracked emitters whose particles overlap the view
+   */
+  public void updateVisibility(float minX, float minY, float maxX, float maxY) {
+    int found = queryIds(minX, minY, maxX, maxY);
+    for (int i = 0; i < found; i++) {
+      entriesById[queryIds[i]].visibleFrame = frame;
+    }
+    visibleFrame = frame;
+  }
+
+  /**
+   * Treat every emitter as visible, e.g. while there is no camera
+   */
+  public void clearVisibility() {
+    visibleFrame = -1;
+  }
+
+  /**
+   * Check if an emitter overlapped the view at the last visibility update.
+   * Emitters that have not been tracked yet count as visible. Safe to call
+   * from the render thread.
+   *
+   * @param emitter The emitter to check
+   * @return Whether the emitter should be drawn
+   */
+  public boolean isVisible(ParticleEmitter emitter) {
+    long visible = visibleFrame;
+    if (visible < 0) {
+      return true;
+    }
+    Entry entry = entries.get(emitter);
+    // A later mark than the published frame only means visibility is being
+    // refreshed, so it counts as visible too
+    return entry == null || entry.visibleFrame >= visible;
+  }
+
+  /**
+   * Find the tracked emitters whose particles overlap a box. Must be called
+   * from the update thread.
+   *
+   * @param out Array receiving the emitters
+   * @return The total number of matches; only the first {@code out.length}
+   *         are written
+   */
+  public int query(float minX, float minY, float maxX, float maxY, ParticleEmitter[] out) {
+    int found = queryIds(minX, minY, maxX, maxY);
+    int written = Math.min(found, out.length);
+    for (int i = 0; i < written; i++) {
+      out[i] = entriesById[queryIds[i]].emitter;
+    }
+    return found;
+  }
+
+  private int queryIds(float minX, float minY, float maxX, float maxY) {
+    int found = index.query(minX, minY, maxX, maxY, queryIds);
+    if (found > queryIds.length) {
+      queryIds = new int[Integer.highestOneBit(found) << 1];
+      found = index.query(minX, minY, maxX, maxY, queryIds);
+    }
+    return found;
+  }
+
+  /**
+   * Get the number of tracked emitters
+   */
+  public int size() {
+    return index.size();
+  }
+}
@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.engine.graph.SpriteTransformCache;
 import com.engine.particles.emitters.SpriteParticleEmitter.SpriteParticle;
 
 /**
@@ -19,6 +20,7 @@ import com.engine.particles.emitters.SpriteParticleEmitter.SpriteParticle;
  * same sprite.
  */
 public class InstancedSpriteRenderer implements BatchRenderer {
+  private static final AffineTransform IDENTITY = new AffineTransform();
 
   // Represents a group of particles sharing the same sprite and properties
   private static class ParticleInstance {
@@ -33,6 +35,9 @@ public class InstancedSpriteRenderer implements BatchRenderer {
   private final Map<BufferedImage, Map<Integer, List<ParticleInstance>>> instanceGroups = new HashMap<>();
   private long currentFrameNumber = 0;
 
+  // Pre-rotated sprite variants so each instance is a plain blit; off unless set
+  private SpriteTransformCache transformCache;
+
   @Override
   public void addParticle(Particle particle) {
     if (!particle.isActive() || !(particle instanceof SpriteParticle)) {
@@ -45,13 +50,36 @@ public class InstancedSpriteRenderer implements BatchRenderer {
       return;
     }
 
+    addInstance(sprite, particle.getX(), particle.getY(), particle.getSize(), particle.getRotation(),
+        particle.getAlpha());
+
+    // Mark particle as processed
+    particle.setLastFrameRendered(currentFrameNumber);
+  }
+
+  @Override
+  public void addParticles(ParticleDataStore store, BufferedImage[] sprites) {
+    if (sprites == null) {
+      return;
+    }
+
+    for (int i = 0; i < store.getCount(); i++) {
+      int sprite = store.getSprite(i);
+      if (sprite >= 0 && sprite < sprites.length && sprites[sprite] != null) {
+        addInstance(sprites[sprite], store.getX(i), store.getY(i), store.getSize(i), store.getRotation(i),
+            store.getAlpha(i));
+      }
+    }
+  }
+
+  private void addInstance(BufferedImage sprite, float x, float y, float size, float rotation, float alpha) {
     // Create instance data
     ParticleInstance instance = new ParticleInstance();
-    instance.x = particle.getX();
-    instance.y = particle.getY();
-    instance.size = particle.getSize();
-    instance.rotation = particle.getRotation();
-    instance.alpha = particle.getAlpha();
+    instance.x = x;
+    instance.y = y;
+    instance.size = size;
+    instance.rotation = rotation;
+    instance.alpha = alpha;
 
     // Group key combines discretized size and alpha for maximum batching
     int sizeKey = (int) (instance.size * 2); // Round to nearest 0.5
@@ -63,9 +91,6 @@ public class InstancedSpriteRenderer implements BatchRenderer {
         .computeIfAbsent(sprite, k -> new HashMap<>())
         .computeIfAbsent(combinedKey, k -> new ArrayList<>())
         .add(instance);
-
-    // Mark particle as processed
-    particle.setLastFrameRendered(currentFrameNumber);
   }
 
   @Override
@@ -95,6 +120,12 @@ public class InstancedSpriteRenderer implements BatchRenderer {
         // Sample the first instance for shared properties
         ParticleInstance sample = instances.get(0);
 
+        // Rotation, size and alpha are baked into cached variants; the
+        // batch then only needs translated blits
+        if (transformCache != null && drawCached(g, sprite, instances, originalTransform, originalComposite)) {
+          continue;
+        }
+
         // Set alpha composite once for the whole batch
         if (sample.alpha < 1.0f) {
           g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, sample.alpha));
@@ -162,6 +193,52 @@ public class InstancedSpriteRenderer implements BatchRenderer {
     }
   }
 
+  /**
+   * Draw a batch from pre-transformed variants, rasterized at their size in
+   * device pixels and blitted with an identity transform
+   *
+   * @return False if the sprite is too large to cache or the transform does
+   *         not allow unfiltered blits
+   */
+  private boolean drawCached(Graphics2D g, BufferedImage sprite, List<ParticleInstance> instances,
+      AffineTransform transform, Composite composite) {
+    double scale = SpriteTransformCache.deviceScale(transform);
+    // Sizes in a batch differ by under a pixel; leave room so no instance of
+    // the batch is refused after others were drawn
+    if (scale <= 0 || (instances.get(0).size + 1) * scale > transformCache.getMaxVariantSize()) {
+      return false;
+    }
+
+    g.setTransform(IDENTITY);
+    g.setComposite(composite);
+    for (ParticleInstance inst : instances) {
+      int size = (int) Math.round(inst.size * scale);
+      BufferedImage variant = transformCache.get(sprite, inst.rotation, size, size, inst.alpha);
+      if (variant == null) {
+        continue;
+      }
+      g.drawImage(variant,
+          (int) Math.round(inst.x * scale + transform.getTranslateX()) - variant.getWidth() / 2,
+          (int) Math.round(inst.y * scale + transform.getTranslateY()) - variant.getHeight() / 2, null);
+    }
+    g.setTransform(transform);
+    return true;
+  }
+
+  /**
+   * Set the cache of pre-transformed sprite variants
+   *
+   * @param transformCache The cache, or null to rotate every instance through
+   *                       the transform
+   */
+  public void setTransformCache(SpriteTransformCache transformCache) {
+    this.transformCache = transformCache;
+  }
+
+  public SpriteTransformCache getTransformCache() {
+    return transformCache;
+  }
+
   @Override
   public void reset() {
     instanceGroups.clear();
@@ -0,0 +1,47 @@
+package com.engine.particles;
+
+/**
+ * Level of detail an emitter is simulated and drawn at. Lower levels update
+ * less often (catching up with the accumulated time), spawn fewer particles,
+ * may only use part of the global particle budget, and are drawn as points.
+ */
+public enum LodLevel {
+  /** Near the camera: every frame, full emission, full detail */
+  FULL(1, 1.0f, 1.0f),
+  /** Beyond the distance threshold */
+  REDUCED(2, 0.5f, 0.75f),
+  /** Outside the view */
+  HIDDEN(4, 0.25f, 0.5f);
+
+  private final int updateInterval;
+  private final float emissionScale;
+  private final float budgetShare;
+
+  LodLevel(int updateInterval, float emissionScale, float budgetShare) {
+    this.updateInterval = updateInterval;
+    this.emissionScale = emissionScale;
+    this.budgetShare = budgetShare;
+  }
+
+  /**
+   * Get the number of frames between updates
+   */
+  public int getUpdateInterval() {
+    return updateInterval;
+  }
+
+  /**
+   * Get the factor applied to continuous emission rates
+   */
+  public float getEmissionScale() {
+    return emissionScale;
+  }
+
+  /**
+   * Get the fraction of the global particle budget emitters at this level may
+   * fill; higher-priority emitters keep spawning into the rest
+   */
+  public float getBudgetShare() {
+    return budgetShare;
+  }
+}
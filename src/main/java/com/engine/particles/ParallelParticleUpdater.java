@@ -0,0 +1,206 @@
+package com.engine.particles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Advances particle stores on a fork-join pool.
+ * <p>
+ * The live range of every store is cut into fixed-size chunks and the chunk
+ * table is split recursively, so idle workers steal the remaining halves from
+ * busy ones. Work therefore scales with the number of particles rather than
+ * the number of emitters: a single large burst is spread over every thread.
+ * Dead particles are removed afterwards, one task per store.
+ */
+public class ParallelParticleUpdater {
+  public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  // Chunk table rebuilt on every update; the arrays are reused
+  private ParticleDataStore[] chunkStores = new ParticleDataStore[64];
+  private int[] chunkStarts = new int[64];
+  private int[] chunkEnds = new int[64];
+  private float[] chunkDeltas = new float[64];
+  private int chunkCount = 0;
+
+  // Read by the tasks; published to the workers by ForkJoinPool.invoke
+  private List<ParticleDataStore> stores;
+
+  // Statistics
+  private long lastUpdateNanos = 0;
+
+  /**
+   * Create an updater
+   *
+   * @param pool      Pool to run chunks on, or null to update on the caller
+   * @param chunkSize Number of particles per chunk
+   */
+  public ParallelParticleUpdater(ForkJoinPool pool, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Advance every particle of the given stores and remove the ones that died
+   *
+   * @param stores    Stores to update; must not change during the call
+   * @param deltaTime Time since last update in seconds
+   */
+  public void update(List<ParticleDataStore> stores, float deltaTime) {
+    update(stores, null, deltaTime);
+  }
+
+  /**
+   * Advance every store by its own time step, e.g. when some emitters are
+   * updated less often and catch up with the time they skipped
+   *
+   * @param stores     Stores to update; must not change during the call
+   * @param deltaTimes Time since the last update of each store, in seconds
+   */
+  public void update(List<ParticleDataStore> stores, float[] deltaTimes) {
+    update(stores, deltaTimes, 0);
+  }
+
+  private void update(List<ParticleDataStore> stores, float[] deltaTimes, float deltaTime) {
+    long startTime = System.nanoTime();
+    buildChunks(stores, deltaTimes, deltaTime);
+    this.stores = stores;
+
+    try {
+      if (pool == null || pool.getParallelism() <= 1 || chunkCount <= 1) {
+        updateChunks(0, chunkCount);
+        removeDead(0, stores.size());
+      } else {
+        pool.invoke(new ChunkTask(0, chunkCount));
+        if (stores.size() > 1) {
+          pool.invoke(new CompactTask(0, stores.size()));
+        } else {
+          removeDead(0, stores.size());
+        }
+      }
+    } finally {
+      // Don't keep stores of removed emitters reachable
+      this.stores = null;
+      for (int c = 0; c < chunkCount; c++) {
+        chunkStores[c] = null;
+      }
+    }
+
+    lastUpdateNanos = System.nanoTime() - startTime;
+  }
+
+  private void buildChunks(List<ParticleDataStore> stores, float[] deltaTimes, float deltaTime) {
+    chunkCount = 0;
+    for (int s = 0; s < stores.size(); s++) {
+      ParticleDataStore store = stores.get(s);
+      float storeDelta = deltaTimes != null ? deltaTimes[s] : deltaTime;
+      int count = store.getCount();
+      for (int start = 0; start < count; start += chunkSize) {
+        if (chunkCount == chunkStores.length) {
+          int capacity = chunkCount * 2;
+          chunkStores = Arrays.copyOf(chunkStores, capacity);
+          chunkStarts = Arrays.copyOf(chunkStarts, capacity);
+          chunkEnds = Arrays.copyOf(chunkEnds, capacity);
+          chunkDeltas = Arrays.copyOf(chunkDeltas, capacity);
+        }
+        chunkStores[chunkCount] = store;
+        chunkStarts[chunkCount] = start;
+        chunkEnds[chunkCount] = Math.min(count, start + chunkSize);
+        chunkDeltas[chunkCount] = storeDelta;
+        chunkCount++;
+      }
+    }
+  }
+
+  private void updateChunks(int from, int to) {
+    for (int c = from; c < to; c++) {
+      chunkStores[c].updateRange(chunkStarts[c], chunkEnds[c], chunkDeltas[c]);
+    }
+  }
+
+  private void removeDead(int from, int to) {
+    for (int s = from; s < to; s++) {
+      stores.get(s).removeDead();
+    }
+  }
+
+  /**
+   * Integrates a range of chunks, splitting it in half until one chunk is
+   * left
+   */
+  private final class ChunkTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+
+    ChunkTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= 1) {
+        updateChunks(from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new ChunkTask(from, mid), new ChunkTask(mid, to));
+    }
+  }
+
+  /**
+   * Compacts a range of stores, one store per leaf
+   */
+  private final class CompactTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+
+    CompactTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= 1) {
+        removeDead(from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new CompactTask(from, mid), new CompactTask(mid, to));
+    }
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Get the number of threads chunks are spread over
+   */
+  public int getParallelism() {
+    return pool != null ? pool.getParallelism() : 1;
+  }
+
+  /**
+   * Get how many chunks the last update was split into
+   */
+  public int getLastChunkCount() {
+    return chunkCount;
+  }
+
+  public long getLastUpdateNanos() {
+    return lastUpdateNanos;
+  }
+}
@@ -0,0 +1,89 @@
+package com.engine.particles;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global limit on live particles, shared by all emitters of a particle
+ * system. The system resets it to the live count every frame and emitters
+ * acquire one unit per spawned particle, so bursts between frames are capped
+ * too. Emitters may only fill their share of the limit, which lets important
+ * effects keep spawning once distant ones have been cut off.
+ */
+public class ParticleBudget {
+  /**
+   * Limit that lets every spawn through
+   */
+  public static final int UNLIMITED = 0;
+
+  private final AtomicInteger used = new AtomicInteger();
+  private volatile int limit;
+
+  // Statistics
+  private final AtomicInteger denied = new AtomicInteger();
+
+  /**
+   * Create a budget
+   *
+   * @param limit Maximum number of live particles, or {@link #UNLIMITED}
+   */
+  public ParticleBudget(int limit) {
+    this.limit = limit;
+  }
+
+  /**
+   * Reserve room for one particle
+   *
+   * @param share Fraction of the limit the caller may fill, between 0 and 1
+   * @return Whether the particle may be spawned
+   */
+  public boolean tryAcquire(float share) {
+    int limit = this.limit;
+    if (limit <= UNLIMITED) {
+      return true;
+    }
+    int allowed = (int) (limit * share);
+    while (true) {
+      int current = used.get();
+      if (current >= allowed) {
+        denied.incrementAndGet();
+        return false;
+      }
+      if (used.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Start a new frame
+   *
+   * @param liveCount Number of particles alive after the last update
+   */
+  public void reset(int liveCount) {
+    used.set(liveCount);
+    denied.set(0);
+  }
+
+  public void setLimit(int limit) {
+    this.limit = limit;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Get the number of particles live or spawned since the last reset; spawns
+   * are not counted while the budget is unlimited
+   */
+  public int getUsed() {
+    return used.get();
+  }
+
+  /**
+   * Get the number of spawns refused since the last reset
+   */
+  public int getDeniedCount() {
+    return denied.get();
+  }
+}
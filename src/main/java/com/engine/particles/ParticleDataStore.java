@@ -1,43 +1,103 @@
 package com.engine.particles;
 
-import java.awt.Color;
+import java.util.Arrays;
+
+import com.engine.physics.StaticCollisionGrid;
 
 /**
  * Memory-optimized storage for particle data using arrays instead of objects.
  * This improves cache locality and reduces GC pressure.
+ * <p>
+ * Live particles always occupy indices {@code [0, getCount())}. Dead particles
+ * are removed by moving the last particle into their slot, so indices are not
+ * stable across updates and the order of particles is not preserved. Arrays
+ * grow by doubling up to the maximum capacity and are never shrunk, so a store
+ * that has reached its working size no longer allocates.
+ * <p>
+ * Colors are kept as separate channels in the range [0, 1], each with a rate
+ * of change per second, so fading and color transitions are plain array
+ * arithmetic. Channels are clamped only when a color is read.
+ * <p>
+ * Alternatively a store can be given lookup tables sampled over the
+ * particles' life (see {@link #setLifeTables}); size and color then come
+ * from a table lookup by age instead of the linear rates.
+ * <p>
+ * A store given a {@link StaticCollisionGrid} (see {@link #setCollision})
+ * bounces its particles off static world geometry during the update, without
+ * any physics bodies.
  */
 public class ParticleDataStore {
+  private static final int MIN_CAPACITY = 64;
 
   // Core particle properties in arrays for better memory locality
-  private final float[] posX;
-  private final float[] posY;
-  private final float[] velX;
-  private final float[] velY;
-  private final float[] accX;
-  private final float[] accY;
-  private final float[] sizes;
-  private final float[] rotations;
-  private final float[] rotationSpeeds;
-  private final float[] lifetimes;
-  private final float[] remainingLifetimes;
-  private final boolean[] active;
-
-  // Color components
-  private final int[] colors;
-  private final float[] alphas;
-
-  private final int capacity;
+  private float[] posX;
+  private float[] posY;
+  private float[] velX;
+  private float[] velY;
+  private float[] accX;
+  private float[] accY;
+  private float[] sizes;
+  private float[] baseSizes;
+  private float[] sizeRates;
+  private float[] rotations;
+  private float[] rotationSpeeds;
+  private float[] lifetimes;
+  private float[] inverseLifetimes;
+  private float[] ages;
+
+  // Color channels and their change per second
+  private float[] red;
+  private float[] green;
+  private float[] blue;
+  private float[] alphas;
+  private float[] redRates;
+  private float[] greenRates;
+  private float[] blueRates;
+  private float[] alphaRates;
+
+  // Index into the owning emitter's sprite table, -1 for none
+  private int[] sprites;
+
+  // Optional over-life tables shared by all particles, null if unused
+  private float[] sizeTable;
+  private int[] colorTable;
+
+  // Optional collision against static geometry, null if unused
+  private StaticCollisionGrid collisionGrid;
+  private float restitution = 0.5f;
+  private float friction = 0.1f;
+  private boolean killOnCollision = false;
+
+  private int maxCapacity;
   private int count = 0;
 
+  // Extent of the live particles after the last update or spawn
+  private float minX = Float.POSITIVE_INFINITY;
+  private float minY = Float.POSITIVE_INFINITY;
+  private float maxX = Float.NEGATIVE_INFINITY;
+  private float maxY = Float.NEGATIVE_INFINITY;
+
   /**
-   * Create a new particle data store with the specified capacity
+   * Create a new particle data store with a fixed capacity
    *
    * @param capacity Maximum number of particles to store
    */
   public ParticleDataStore(int capacity) {
-    this.capacity = capacity;
+    this(capacity, capacity);
+  }
+
+  /**
+   * Create a new particle data store that grows on demand
+   *
+   * @param initialCapacity Number of particles allocated up front
+   * @param maxCapacity     Maximum number of particles to store
+   */
+  public ParticleDataStore(int initialCapacity, int maxCapacity) {
+    this.maxCapacity = Math.max(0, maxCapacity);
+    allocate(Math.max(0, Math.min(initialCapacity, this.maxCapacity)));
+  }
 
-    // Allocate arrays
+  private void allocate(int capacity) {
     posX = new float[capacity];
     posY = new float[capacity];
     velX = new float[capacity];
@@ -45,28 +105,75 @@ public class ParticleDataStore {
     accX = new float[capacity];
     accY = new float[capacity];
     sizes = new float[capacity];
+    baseSizes = new float[capacity];
+    sizeRates = new float[capacity];
     rotations = new float[capacity];
     rotationSpeeds = new float[capacity];
     lifetimes = new float[capacity];
-    remainingLifetimes = new float[capacity];
-    active = new boolean[capacity];
+    inverseLifetimes = new float[capacity];
+    ages = new float[capacity];
 
-    colors = new int[capacity];
+    red = new float[capacity];
+    green = new float[capacity];
+    blue = new float[capacity];
     alphas = new float[capacity];
+    redRates = new float[capacity];
+    greenRates = new float[capacity];
+    blueRates = new float[capacity];
+    alphaRates = new float[capacity];
+
+    sprites = new int[capacity];
+  }
+
+  private boolean ensureCapacity(int required) {
+    int capacity = posX.length;
+    if (required <= capacity) {
+      return true;
+    }
+    if (required > maxCapacity) {
+      return false;
+    }
+
+    capacity = Math.min(maxCapacity, Math.max(required, Math.max(MIN_CAPACITY, capacity * 2)));
+    posX = Arrays.copyOf(posX, capacity);
+    posY = Arrays.copyOf(posY, capacity);
+    velX = Arrays.copyOf(velX, capacity);
+    velY = Arrays.copyOf(velY, capacity);
+    accX = Arrays.copyOf(accX, capacity);
+    accY = Arrays.copyOf(accY, capacity);
+    sizes = Arrays.copyOf(sizes, capacity);
+    baseSizes = Arrays.copyOf(baseSizes, capacity);
+    sizeRates = Arrays.copyOf(sizeRates, capacity);
+    rotations = Arrays.copyOf(rotations, capacity);
+    rotationSpeeds = Arrays.copyOf(rotationSpeeds, capacity);
+    lifetimes = Arrays.copyOf(lifetimes, capacity);
+    inverseLifetimes = Arrays.copyOf(inverseLifetimes, capacity);
+    ages = Arrays.copyOf(ages, capacity);
+
+    red = Arrays.copyOf(red, capacity);
+    green = Arrays.copyOf(green, capacity);
+    blue = Arrays.copyOf(blue, capacity);
+    alphas = Arrays.copyOf(alphas, capacity);
+    redRates = Arrays.copyOf(redRates, capacity);
+    greenRates = Arrays.copyOf(greenRates, capacity);
+    blueRates = Arrays.copyOf(blueRates, capacity);
+    alphaRates = Arrays.copyOf(alphaRates, capacity);
+
+    sprites = Arrays.copyOf(sprites, capacity);
+    return true;
   }
 
   /**
-   * Create a new particle
+   * Create a new particle. It starts at rest, one unit large, opaque white and
+   * without a sprite; use the setters to give it its properties.
    *
    * @param x        X position
    * @param y        Y position
-   * @param size     Particle size
-   * @param color    Particle color
-   * @param lifetime Particle lifetime
+   * @param lifetime Particle lifetime in seconds
    * @return Index of the new particle or -1 if full
    */
-  public int createParticle(float x, float y, float size, Color color, float lifetime) {
-    if (count >= capacity) {
+  public int spawn(float x, float y, float lifetime) {
+    if (!ensureCapacity(count + 1)) {
       return -1;
     }
 
@@ -77,87 +184,330 @@ public class ParticleDataStore {
     velY[index] = 0;
     accX[index] = 0;
     accY[index] = 0;
-    sizes[index] = size;
+    sizes[index] = 1;
+    baseSizes[index] = 1;
+    sizeRates[index] = 0;
     rotations[index] = 0;
     rotationSpeeds[index] = 0;
     lifetimes[index] = lifetime;
-    remainingLifetimes[index] = lifetime;
-    active[index] = true;
+    inverseLifetimes[index] = lifetime > 0 ? 1.0f / lifetime : 0;
+    ages[index] = 0;
 
-    colors[index] = color.getRGB();
-    alphas[index] = 1.0f;
+    red[index] = 1;
+    green[index] = 1;
+    blue[index] = 1;
+    alphas[index] = 1;
+    redRates[index] = 0;
+    greenRates[index] = 0;
+    blueRates[index] = 0;
+    alphaRates[index] = 0;
 
+    sprites[index] = -1;
+
+    include(x, y, 0.5f);
     return index;
   }
 
+  public void setVelocity(int index, float vx, float vy) {
+    velX[index] = vx;
+    velY[index] = vy;
+  }
+
+  public void setAcceleration(int index, float ax, float ay) {
+    accX[index] = ax;
+    accY[index] = ay;
+  }
+
+  /**
+   * Set the rotation of a particle
+   *
+   * @param rotation Rotation in radians
+   * @param speed    Rotation speed in radians per second
+   */
+  public void setRotation(int index, float rotation, float speed) {
+    rotations[index] = rotation;
+    rotationSpeeds[index] = speed;
+  }
+
+  /**
+   * Set a size that changes linearly over the particle's lifetime
+   *
+   * @param start Size at spawn
+   * @param end   Size at the end of the lifetime
+   */
+  public void setSize(int index, float start, float end) {
+    baseSizes[index] = start;
+    sizes[index] = sizeTable != null ? start * sizeTable[0] : start;
+    sizeRates[index] = lifetimes[index] > 0 ? (end - start) / lifetimes[index] : 0;
+    include(posX[index], posY[index], sizes[index] / 2);
+  }
+
   /**
-   * Update all particles
+   * Set a color that blends linearly over the particle's lifetime
+   *
+   * @param startArgb Color at spawn
+   * @param endArgb   Color at the end of the lifetime
+   */
+  public void setColor(int index, int startArgb, int endArgb) {
+    float lifetime = lifetimes[index];
+    float inv = lifetime > 0 ? 1.0f / (255 * lifetime) : 0;
+    red[index] = ((startArgb >> 16) & 0xFF) / 255f;
+    green[index] = ((startArgb >> 8) & 0xFF) / 255f;
+    blue[index] = (startArgb & 0xFF) / 255f;
+    alphas[index] = (startArgb >>> 24) / 255f;
+    redRates[index] = (((endArgb >> 16) & 0xFF) - ((startArgb >> 16) & 0xFF)) * inv;
+    greenRates[index] = (((endArgb >> 8) & 0xFF) - ((startArgb >> 8) & 0xFF)) * inv;
+    blueRates[index] = ((endArgb & 0xFF) - (startArgb & 0xFF)) * inv;
+    alphaRates[index] = ((endArgb >>> 24) - (startArgb >>> 24)) * inv;
+  }
+
+  /**
+   * Set the opacity of a particle and how fast it changes. Opacity below zero
+   * is drawn as fully transparent.
+   *
+   * @param alpha Opacity at spawn
+   * @param rate  Change of opacity per second
+   */
+  public void setAlpha(int index, float alpha, float rate) {
+    alphas[index] = alpha;
+    alphaRates[index] = rate;
+  }
+
+  /**
+   * Use lookup tables for size and color. Each table is sampled evenly from
+   * spawn to the end of a particle's life. With a size table a particle's size
+   * is its start size times the table entry; with a color table its color is
+   * the table entry. Pass null to go back to the linear rates.
+   *
+   * @param sizeTable  Size factors over life, or null
+   * @param colorTable ARGB colors over life, or null
+   */
+  public void setLifeTables(float[] sizeTable, int[] colorTable) {
+    this.sizeTable = sizeTable != null && sizeTable.length > 0 ? sizeTable : null;
+    this.colorTable = colorTable != null && colorTable.length > 0 ? colorTable : null;
+  }
+
+  private int lifeIndex(int index, int tableLength) {
+    int last = tableLength - 1;
+    return Math.min(last, (int) (ages[index] * inverseLifetimes[index] * last));
+  }
+
+  /**
+   * Collide particles against static geometry. A particle moving into a solid
+   * cell is kept at its previous position and the velocity component into the
+   * wall is reflected and scaled by the restitution, while the other component
+   * is scaled by one minus the friction.
+   *
+   * @param grid            Baked static geometry, or null to disable collision
+   * @param restitution     Fraction of the normal speed kept after a bounce
+   * @param friction        Fraction of the tangential speed lost per bounce
+   * @param killOnCollision Whether particles die on their first contact
+   *                        instead of bouncing
+   */
+  public void setCollision(StaticCollisionGrid grid, float restitution, float friction,
+      boolean killOnCollision) {
+    this.collisionGrid = grid;
+    this.restitution = restitution;
+    this.friction = friction;
+    this.killOnCollision = killOnCollision;
+  }
+
+  /**
+   * Set the sprite of a particle
+   *
+   * @param spriteIndex Index into the owning emitter's sprites, -1 for none
+   */
+  public void setSprite(int index, int spriteIndex) {
+    sprites[index] = spriteIndex;
+  }
+
+  /**
+   * Mark a particle as dead. It is removed by the next update.
+   */
+  public void kill(int index) {
+    ages[index] = lifetimes[index];
+  }
+
+  /**
+   * Update all particles and remove the ones that died
    *
    * @param deltaTime Time since last update
    */
   public void updateAll(float deltaTime) {
-    // Update all particles in one pass for better cache utilization
-    for (int i = 0; i < count; i++) {
-      if (!active[i])
-        continue;
+    updateRange(0, count, deltaTime);
+    removeDead();
+  }
 
-      // Update lifetime
-      remainingLifetimes[i] -= deltaTime;
-      if (remainingLifetimes[i] <= 0) {
-        active[i] = false;
-        continue;
+  /**
+   * Advance a range of particles without removing the ones that died. The
+   * loops only do independent arithmetic on parallel arrays so the JIT can
+   * vectorize them, and disjoint ranges may be updated from different
+   * threads. Call {@link #removeDead()} once every range has been updated.
+   *
+   * @param from      First particle index, inclusive
+   * @param to        Last particle index, exclusive
+   * @param deltaTime Time since last update
+   */
+  public void updateRange(int from, int to, float deltaTime) {
+    float halfDt2 = 0.5f * deltaTime * deltaTime;
+    StaticCollisionGrid grid = collisionGrid;
+    if (grid != null) {
+      integrateColliding(from, to, deltaTime, halfDt2, grid);
+    } else {
+      for (int i = from; i < to; i++) {
+        posX[i] += velX[i] * deltaTime + accX[i] * halfDt2;
+        posY[i] += velY[i] * deltaTime + accY[i] * halfDt2;
+        velX[i] += accX[i] * deltaTime;
+        velY[i] += accY[i] * deltaTime;
+      }
+    }
+    for (int i = from; i < to; i++) {
+      rotations[i] += rotationSpeeds[i] * deltaTime;
+      sizes[i] += sizeRates[i] * deltaTime;
+      ages[i] += deltaTime;
+    }
+    for (int i = from; i < to; i++) {
+      red[i] += redRates[i] * deltaTime;
+      green[i] += greenRates[i] * deltaTime;
+      blue[i] += blueRates[i] * deltaTime;
+      alphas[i] += alphaRates[i] * deltaTime;
+    }
+
+    float[] table = sizeTable;
+    if (table != null) {
+      int last = table.length - 1;
+      for (int i = from; i < to; i++) {
+        int t = Math.min(last, (int) (ages[i] * inverseLifetimes[i] * last));
+        sizes[i] = baseSizes[i] * table[t];
       }
+    }
+  }
 
-      // Update position and velocity with Verlet integration
-      float halfDt2 = 0.5f * deltaTime * deltaTime;
-      posX[i] += velX[i] * deltaTime + accX[i] * halfDt2;
-      posY[i] += velY[i] * deltaTime + accY[i] * halfDt2;
+  private void integrateColliding(int from, int to, float deltaTime, float halfDt2,
+      StaticCollisionGrid grid) {
+    float keep = 1.0f - friction;
+    for (int i = from; i < to; i++) {
+      float oldX = posX[i];
+      float oldY = posY[i];
+      float newX = oldX + velX[i] * deltaTime + accX[i] * halfDt2;
+      float newY = oldY + velY[i] * deltaTime + accY[i] * halfDt2;
+      float vx = velX[i] + accX[i] * deltaTime;
+      float vy = velY[i] + accY[i] * deltaTime;
 
-      velX[i] += accX[i] * deltaTime;
-      velY[i] += accY[i] * deltaTime;
+      if (grid.isSolid(newX, newY)) {
+        if (killOnCollision) {
+          ages[i] = lifetimes[i];
+        }
 
-      // Update rotation
-      rotations[i] += rotationSpeeds[i] * deltaTime;
+        // Find which axis moved into the wall; a corner hit blocks both
+        boolean hitX = grid.isSolid(newX, oldY);
+        boolean hitY = grid.isSolid(oldX, newY);
+        if (!hitX && !hitY) {
+          hitX = true;
+          hitY = true;
+        }
+        if (hitX) {
+          newX = oldX;
+          vx = -vx * restitution;
+          vy *= keep;
+        }
+        if (hitY) {
+          newY = oldY;
+          vy = -vy * restitution;
+          vx *= keep;
+        }
+      }
 
-      // Update alpha based on lifetime
-      float progress = 1.0f - (remainingLifetimes[i] / lifetimes[i]);
-      alphas[i] = 1.0f - progress; // Linear fade out
+      posX[i] = newX;
+      posY[i] = newY;
+      velX[i] = vx;
+      velY[i] = vy;
     }
+  }
 
-    // Compact arrays by removing inactive particles
-    compactArrays();
-  }
-
-  /**
-   * Remove inactive particles and compact arrays
-   */
-  private void compactArrays() {
-    int writeIndex = 0;
-
-    for (int readIndex = 0; readIndex < count; readIndex++) {
-      if (active[readIndex]) {
-        if (writeIndex != readIndex) {
-          // Copy data from read index to write index
-          posX[writeIndex] = posX[readIndex];
-          posY[writeIndex] = posY[readIndex];
-          velX[writeIndex] = velX[readIndex];
-          velY[writeIndex] = velY[readIndex];
-          accX[writeIndex] = accX[readIndex];
-          accY[writeIndex] = accY[readIndex];
-          sizes[writeIndex] = sizes[readIndex];
-          rotations[writeIndex] = rotations[readIndex];
-          rotationSpeeds[writeIndex] = rotationSpeeds[readIndex];
-          lifetimes[writeIndex] = lifetimes[readIndex];
-          remainingLifetimes[writeIndex] = remainingLifetimes[readIndex];
-          active[writeIndex] = active[readIndex];
-          colors[writeIndex] = colors[readIndex];
-          alphas[writeIndex] = alphas[readIndex];
+  /**
+   * Remove dead particles by moving the last live particle into each hole, and
+   * recompute the bounds of the survivors
+   */
+  public void removeDead() {
+    float x0 = Float.POSITIVE_INFINITY;
+    float y0 = Float.POSITIVE_INFINITY;
+    float x1 = Float.NEGATIVE_INFINITY;
+    float y1 = Float.NEGATIVE_INFINITY;
+
+    int i = 0;
+    while (i < count) {
+      if (ages[i] >= lifetimes[i]) {
+        int last = --count;
+        if (i != last) {
+          move(last, i);
         }
-        writeIndex++;
+        continue;
       }
+
+      float half = Math.abs(sizes[i]) / 2;
+      x0 = Math.min(x0, posX[i] - half);
+      y0 = Math.min(y0, posY[i] - half);
+      x1 = Math.max(x1, posX[i] + half);
+      y1 = Math.max(y1, posY[i] + half);
+      i++;
     }
 
-    count = writeIndex;
+    minX = x0;
+    minY = y0;
+    maxX = x1;
+    maxY = y1;
+  }
+
+  private void move(int from, int to) {
+    posX[to] = posX[from];
+    posY[to] = posY[from];
+    velX[to] = velX[from];
+    velY[to] = velY[from];
+    accX[to] = accX[from];
+    accY[to] = accY[from];
+    sizes[to] = sizes[from];
+    baseSizes[to] = baseSizes[from];
+    sizeRates[to] = sizeRates[from];
+    rotations[to] = rotations[from];
+    rotationSpeeds[to] = rotationSpeeds[from];
+    lifetimes[to] = lifetimes[from];
+    inverseLifetimes[to] = inverseLifetimes[from];
+    ages[to] = ages[from];
+    red[to] = red[from];
+    green[to] = green[from];
+    blue[to] = blue[from];
+    alphas[to] = alphas[from];
+    redRates[to] = redRates[from];
+    greenRates[to] = greenRates[from];
+    blueRates[to] = blueRates[from];
+    alphaRates[to] = alphaRates[from];
+    sprites[to] = sprites[from];
+  }
+
+  private void include(float x, float y, float half) {
+    minX = Math.min(minX, x - half);
+    minY = Math.min(minY, y - half);
+    maxX = Math.max(maxX, x + half);
+    maxY = Math.max(maxY, y + half);
+  }
+
+  /**
+   * Remove all particles
+   */
+  public void clear() {
+    count = 0;
+    minX = Float.POSITIVE_INFINITY;
+    minY = Float.POSITIVE_INFINITY;
+    maxX = Float.NEGATIVE_INFINITY;
+    maxY = Float.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Check whether any live particle may overlap a rectangle
+   */
+  public boolean intersects(float x, float y, float width, float height) {
+    return count > 0 && maxX >= x && minX <= x + width && maxY >= y && minY <= y + height;
   }
 
   /**
@@ -169,13 +519,46 @@ public class ParticleDataStore {
     return count;
   }
 
+  /**
+   * Get the number of particles the arrays currently hold
+   *
+   * @return Allocated capacity
+   */
+  public int getCapacity() {
+    return posX.length;
+  }
+
   /**
    * Get capacity of the store
    *
    * @return Maximum number of particles
    */
-  public int getCapacity() {
-    return capacity;
+  public int getMaxCapacity() {
+    return maxCapacity;
+  }
+
+  /**
+   * Set the maximum number of particles. Particles above a lowered limit
+   * live on until they die.
+   */
+  public void setMaxCapacity(int maxCapacity) {
+    this.maxCapacity = Math.max(0, maxCapacity);
+  }
+
+  public float getMinX() {
+    return minX;
+  }
+
+  public float getMinY() {
+    return minY;
+  }
+
+  public float getMaxX() {
+    return maxX;
+  }
+
+  public float getMaxY() {
+    return maxY;
   }
 
   /**
@@ -192,6 +575,14 @@ public class ParticleDataStore {
     return posY[index];
   }
 
+  public float getVelocityX(int index) {
+    return velX[index];
+  }
+
+  public float getVelocityY(int index) {
+    return velY[index];
+  }
+
   /**
    * Get size of a particle
    */
@@ -207,23 +598,51 @@ public class ParticleDataStore {
   }
 
   /**
-   * Get color of a particle
+   * Get the color of a particle with its opacity in the alpha channel
    */
-  public Color getColor(int index) {
-    return new Color(colors[index], true);
+  public int getArgb(int index) {
+    int[] table = colorTable;
+    if (table != null) {
+      return table[lifeIndex(index, table.length)];
+    }
+    return (channel(alphas[index]) << 24) | (channel(red[index]) << 16)
+        | (channel(green[index]) << 8) | channel(blue[index]);
+  }
+
+  private static int channel(float value) {
+    return Math.max(0, Math.min(255, (int) (value * 255 + 0.5f)));
   }
 
   /**
-   * Get alpha value of a particle
+   * Get alpha value of a particle, clamped to [0, 1]
    */
   public float getAlpha(int index) {
-    return alphas[index];
+    int[] table = colorTable;
+    if (table != null) {
+      return (table[lifeIndex(index, table.length)] >>> 24) / 255f;
+    }
+    return Math.max(0.0f, Math.min(1.0f, alphas[index]));
+  }
+
+  /**
+   * Get the sprite index of a particle, -1 for none
+   */
+  public int getSprite(int index) {
+    return sprites[index];
+  }
+
+  public float getAge(int index) {
+    return ages[index];
+  }
+
+  public float getLifetime(int index) {
+    return lifetimes[index];
   }
 
   /**
    * Check if a particle is active
    */
   public boolean isActive(int index) {
-    return active[index];
+    return index < count && ages[index] < lifetimes[index];
   }
 }
@@ -12,6 +12,9 @@ import dev.dominion.ecs.api.Entity;
  */
 public interface ParticleEmitter {
 
+  /** Time step used by {@link #prewarm(float)}, in seconds */
+  float PREWARM_STEP = 1.0f / 30.0f;
+
   /**
    * Update all particles in this emitter
    * 
@@ -93,6 +96,15 @@ public interface ParticleEmitter {
    */
   List<Particle> getParticles();
 
+  /**
+   * Get the number of active particles
+   *
+   * @return Number of active particles
+   */
+  default int getParticleCount() {
+    return getParticles().size();
+  }
+
   /**
    * Set the entity this emitter is attached to (if any)
    * 
@@ -106,4 +118,60 @@ public interface ParticleEmitter {
    * @return The attached entity or null
    */
   Entity getAttachedEntity();
+
+  /**
+   * Set the level of detail chosen by the particle system. Emitters that
+   * support it scale their continuous emission and budget share accordingly.
+   *
+   * @param level The level of detail
+   */
+  default void setLevelOfDetail(LodLevel level) {
+  }
+
+  /**
+   * Set the global budget spawned particles are taken from
+   *
+   * @param budget The particle budget, or null for no limit
+   */
+  default void setParticleBudget(ParticleBudget budget) {
+  }
+
+  /**
+   * Get the priority of this emitter. Emitters with a positive priority may
+   * fill the whole particle budget and are never reduced in detail.
+   *
+   * @return The priority, 0 by default
+   */
+  default int getPriority() {
+    return 0;
+  }
+
+  /**
+   * Restart the emitter's random sequence. Emitters with the same seed and
+   * configuration that are updated with the same time steps produce the same
+   * particles.
+   *
+   * @param seed The seed
+   */
+  default void setSeed(long seed) {
+  }
+
+  /**
+   * Fast-forward the emitter so that it starts in its steady state, e.g. a
+   * fire that is already burning when the scene loads. Runs fixed
+   * {@link #PREWARM_STEP} updates, so the result is deterministic for a
+   * seeded emitter.
+   *
+   * @param seconds Simulated time to skip
+   */
+  default void prewarm(float seconds) {
+    int steps = (int) (seconds / PREWARM_STEP);
+    for (int i = 0; i < steps; i++) {
+      update(PREWARM_STEP);
+    }
+    float rest = seconds - steps * PREWARM_STEP;
+    if (rest > 0) {
+      update(rest);
+    }
+  }
 }
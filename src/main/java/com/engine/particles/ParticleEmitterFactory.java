@@ -4,18 +4,28 @@ import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.BodyType;
 import org.jbox2d.dynamics.World;
 
 import com.engine.assets.AssetManager;
+import com.engine.particles.effects.ParticleEffect;
+import com.engine.particles.effects.ParticleEffectLibrary;
 import com.engine.particles.emitters.ColorParticleEmitter;
+import com.engine.particles.emitters.EffectParticleEmitter;
 import com.engine.particles.emitters.PhysicalParticleEmitter;
 import com.engine.particles.emitters.SpriteParticleEmitter;
+import com.engine.particles.emitters.TrailEmitter;
+import com.engine.physics.PhysicsListener;
+import com.engine.physics.PhysicsRegionManager;
 import com.engine.physics.PhysicsSystem;
+import com.engine.physics.StaticCollisionGrid;
 
 /**
  * Factory for creating particle emitters of different types.
@@ -26,14 +36,51 @@ public class ParticleEmitterFactory {
   private final PhysicsSystem physicsSystem;
   private final AssetManager assetManager;
   private final World physicsWorld;
+  private final PhysicsRegionManager physicsRegions;
 
   private final Map<String, Supplier<ParticleEmitter>> emitterFactories = new HashMap<>();
+  private final ParticleEffectLibrary effects = new ParticleEffectLibrary();
+  private volatile StaticCollisionGrid collisionGrid;
+  private final AtomicBoolean collisionGridDirty = new AtomicBoolean();
+
+  // Rebakes the grid before the next step once static bodies came or went in
+  // any world. Regions step concurrently, so only the first world to step
+  // claims the rebake; static bodies are not moved while worlds step.
+  private final PhysicsListener collisionGridUpdater = new PhysicsListener() {
+    @Override
+    public void onStep(float timeStep) {
+      if (collisionGridDirty.compareAndSet(true, false)) {
+        collisionGrid.bake(physicsRegions.getWorlds(), physicsSystem);
+      }
+    }
+
+    @Override
+    public void onBodyCreated(Body body) {
+      if (body.getType() == BodyType.STATIC) {
+        collisionGridDirty.set(true);
+      }
+    }
+
+    @Override
+    public void onBodyDestroyed(Body body) {
+      if (body.getType() == BodyType.STATIC) {
+        collisionGridDirty.set(true);
+      }
+    }
+  };
+
+  // Seeds handed to new emitters when deterministic seeding is on
+  private boolean seeded = false;
+  private long seed;
+  private long seededCount;
 
   @Inject
-  public ParticleEmitterFactory(PhysicsSystem physicsSystem, AssetManager assetManager, World physicsWorld) {
+  public ParticleEmitterFactory(PhysicsSystem physicsSystem, AssetManager assetManager, World physicsWorld,
+      PhysicsRegionManager physicsRegions) {
     this.physicsSystem = physicsSystem;
     this.assetManager = assetManager;
     this.physicsWorld = physicsWorld;
+    this.physicsRegions = physicsRegions;
 
     // Register built-in emitter types
     registerDefaultEmitters();
@@ -54,7 +101,7 @@ public class ParticleEmitterFactory {
       return new ColorParticleEmitter(x, y);
     });
 
-    ParticleEmitter emitter = factory.get();
+    ParticleEmitter emitter = seeded(factory.get());
     emitter.setPosition(x, y);
 
     // Apply configuration if provided
@@ -73,7 +120,7 @@ public class ParticleEmitterFactory {
    * @return The created emitter
    */
   public ColorParticleEmitter createColorEmitter(float x, float y) {
-    return new ColorParticleEmitter(x, y);
+    return seeded(new ColorParticleEmitter(x, y));
   }
 
   /**
@@ -85,7 +132,7 @@ public class ParticleEmitterFactory {
    * @return The created emitter
    */
   public SpriteParticleEmitter createSpriteEmitter(float x, float y, BufferedImage[] sprites) {
-    return new SpriteParticleEmitter(x, y, sprites);
+    return seeded(new SpriteParticleEmitter(x, y, sprites));
 
   }
 
@@ -115,7 +162,132 @@ public class ParticleEmitterFactory {
    * @return The created emitter
    */
   public PhysicalParticleEmitter createPhysicalEmitter(float x, float y) {
-    return new PhysicalParticleEmitter(x, y, physicsSystem, physicsWorld);
+    return seeded(new PhysicalParticleEmitter(x, y, physicsSystem, physicsWorld));
+  }
+
+  /**
+   * Create a trail emitter
+   *
+   * @param x X position
+   * @param y Y position
+   * @return The created emitter
+   */
+  public TrailEmitter createTrailEmitter(float x, float y) {
+    return new TrailEmitter(x, y);
+  }
+
+  /**
+   * Create a spark emitter whose particles fall under the world's gravity and
+   * bounce off static geometry. Unlike {@link #createPhysicalEmitter} it
+   * creates no physics bodies, so thousands of sparks cost no more than
+   * plain color particles.
+   *
+   * @param x X position
+   * @param y Y position
+   * @return Configured spark emitter
+   */
+  public ColorParticleEmitter createSparkEmitter(float x, float y) {
+    ColorParticleEmitter emitter = createColorEmitter(x, y);
+
+    Map<String, Object> config = new HashMap<>();
+    config.put("startColor", new Color(255, 230, 120, 255));
+    config.put("endColor", new Color(255, 80, 0, 0));
+    config.put("minSize", 2.0f);
+    config.put("maxSize", 4.0f);
+    config.put("minSpeed", 100.0f);
+    config.put("maxSpeed", 300.0f);
+    config.put("minLifetime", 1.0f);
+    config.put("maxLifetime", 2.5f);
+    config.put("spreadAngle", Math.PI * 2); // 360 degrees
+    config.put("emissionRate", 0.0f); // No continuous emission
+    config.put("gravity", physicsSystem.fromPhysicsWorld(physicsWorld.getGravity().y));
+    config.put("restitution", 0.4f);
+    config.put("friction", 0.2f);
+
+    emitter.configure(config);
+    emitter.setCollisionGrid(getCollisionGrid());
+    return emitter;
+  }
+
+  /**
+   * Get the static geometry that lightweight particles collide with, baking
+   * it from the default world and every region on first use. The grid is
+   * baked again before the next physics step whenever static bodies are
+   * created or destroyed in any of them, including by region migration.
+   *
+   * @return The collision grid
+   */
+  public synchronized StaticCollisionGrid getCollisionGrid() {
+    if (collisionGrid == null) {
+      collisionGrid = new StaticCollisionGrid(8.0f);
+      collisionGrid.bake(physicsRegions.getWorlds(), physicsSystem);
+      physicsRegions.addPhysicsListener(collisionGridUpdater);
+    }
+    return collisionGrid;
+  }
+
+  /**
+   * Rebuild the collision grid now, e.g. after static bodies were moved or
+   * changed type, which is not picked up automatically
+   */
+  public void rebakeCollisionGrid() {
+    collisionGridDirty.set(false);
+    getCollisionGrid().bake(physicsRegions.getWorlds(), physicsSystem);
+  }
+
+  /**
+   * Create an emitter playing a compiled particle effect
+   *
+   * @param x    X position
+   * @param y    Y position
+   * @param name Name of an effect in the effect library
+   * @return The created emitter, started and prewarmed as the effect says
+   * @throws IllegalArgumentException If no effect of that name is loaded
+   */
+  public EffectParticleEmitter createEffectEmitter(float x, float y, String name) {
+    ParticleEffectLibrary.Handle handle = effects.get(name);
+    if (handle == null) {
+      throw new IllegalArgumentException("Unknown particle effect: " + name);
+    }
+
+    EffectParticleEmitter emitter = seeded(new EffectParticleEmitter(x, y, handle));
+    ParticleEffect effect = handle.getEffect();
+    if (effect.getEmissionRate() > 0) {
+      emitter.start();
+    }
+    if (effect.getPrewarm() > 0) {
+      emitter.prewarm(effect.getPrewarm());
+    }
+    return emitter;
+  }
+
+  /**
+   * Get the library of compiled particle effects
+   *
+   * @return The effect library
+   */
+  public ParticleEffectLibrary getEffects() {
+    return effects;
+  }
+
+  /**
+   * Seed every emitter created from now on from a base seed, in creation
+   * order. Creating the same emitters in the same order then reproduces the
+   * same particles, e.g. when replaying a recorded session.
+   *
+   * @param seed Base seed
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+    this.seededCount = 0;
+    this.seeded = true;
+  }
+
+  private <T extends ParticleEmitter> T seeded(T emitter) {
+    if (seeded) {
+      emitter.setSeed(ParticleRandom.seedFor(seed, seededCount++));
+    }
+    return emitter;
   }
 
   /**
@@ -142,6 +314,9 @@ public class ParticleEmitterFactory {
       return new SpriteParticleEmitter(0, 0, defaultSprites);
     });
 
+    // Register trail emitter
+    registerEmitterType("trail", () -> new TrailEmitter(0, 0));
+
     // Register physical particle emitter
     registerEmitterType("physical", () -> new PhysicalParticleEmitter(0, 0, physicsSystem, physicsWorld));
   }
@@ -1,39 +1,151 @@
 package com.engine.particles;
 
 import java.awt.Color;
-import java.util.ArrayList;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
- * Pool of reusable particle objects to reduce garbage collection overhead.
+ * Pool of reusable particle objects of one type to reduce garbage collection
+ * overhead.
+ * <p>
+ * Every thread obtains from and recycles into its own small cache without
+ * synchronization. When a cache fills up, one batch of particles moves to a
+ * lock-free overflow queue shared by all threads; an empty cache refills with
+ * a whole batch from there. Particles therefore only cross threads in batches,
+ * and the emptied batch arrays are kept for the next spill. Caches of threads
+ * that have ended are drained into the overflow by {@link #cleanup()}.
+ *
+ * @param <T> Particle type handed out by this pool
  */
-public class ParticlePool {
+public class ParticlePool<T extends Particle> {
   private static final Logger LOGGER = Logger.getLogger(ParticlePool.class.getName());
 
-  private final Queue<Particle> availableParticles;
-  private final int initialCapacity;
-  private int peakUsage = 0;
-  private int totalCreated = 0;
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  private final String name;
+  private final Supplier<T> factory;
+  private final int batchSize;
+
+  // Shared overflow of full batches
+  private final Queue<Particle[]> overflow = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger overflowCount = new AtomicInteger();
+  private volatile int maxRetained;
+
+  // Per-thread caches of live threads; listed for the statistics and pruning
+  private final Queue<LocalCache> caches = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<LocalCache> localCache;
+
+  // Statistics
+  private final AtomicInteger totalCreated = new AtomicInteger();
+  private volatile int highWaterMark = 0;
+
+  // Counters of pruned caches, written only by cleanup
+  private volatile long retiredObtained = 0;
+  private volatile long retiredMissed = 0;
+  private volatile long retiredRecycled = 0;
+
+  /**
+   * Per-thread cache. Only the owning thread writes to it; the counters are
+   * volatile so other threads can read them for statistics.
+   */
+  private static final class LocalCache {
+    final Particle[] items;
+    final WeakReference<Thread> owner;
+    int size = 0;
+    Particle[] spareBatch;
+
+    volatile long obtained = 0;
+    volatile long missed = 0;
+    volatile long recycled = 0;
+
+    LocalCache(int capacity, Thread owner) {
+      this.items = new Particle[capacity];
+      this.owner = new WeakReference<>(owner);
+    }
+
+    boolean isOrphaned() {
+      Thread thread = owner.get();
+      return thread == null || !thread.isAlive();
+    }
+  }
 
   /**
    * Create a new particle pool with the specified initial capacity
    *
+   * @param name            Name used in log messages
+   * @param factory         Creates a blank particle when the pool is empty
+   * @param initialCapacity Number of particles to pre-allocate
+   */
+  public ParticlePool(String name, Supplier<T> factory, int initialCapacity) {
+    this(name, factory, initialCapacity, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Create a new particle pool
+   *
+   * @param name            Name used in log messages
+   * @param factory         Creates a blank particle when the pool is empty
    * @param initialCapacity Number of particles to pre-allocate
+   * @param batchSize       Number of particles moved between a thread cache
+   *                        and the shared overflow at once
+   */
+  public ParticlePool(String name, Supplier<T> factory, int initialCapacity, int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.name = name;
+    this.factory = factory;
+    this.batchSize = batchSize;
+    this.maxRetained = Math.max(initialCapacity, batchSize * 16);
+    this.localCache = ThreadLocal.withInitial(() -> {
+      LocalCache cache = new LocalCache(batchSize * 2, Thread.currentThread());
+      caches.add(cache);
+      return cache;
+    });
+
+    // Pre-allocate particles into the overflow
+    for (int filled = 0; filled < initialCapacity; filled += batchSize) {
+      Particle[] batch = new Particle[batchSize];
+      for (int i = 0; i < batchSize; i++) {
+        T p = factory.get();
+        p.prepareForPool();
+        batch[i] = p;
+      }
+      overflow.offer(batch);
+      overflowCount.addAndGet(batchSize);
+      totalCreated.addAndGet(batchSize);
+    }
+
+    LOGGER.info("Particle pool '" + name + "' created with " + totalCreated.get() + " particles");
+  }
+
+  /**
+   * Get a blank particle from the pool, or create a new one if none is left.
+   * The caller resets it before use.
+   *
+   * @return A pooled or new particle
    */
-  public ParticlePool(int initialCapacity) {
-    this.initialCapacity = initialCapacity;
-    this.availableParticles = new ConcurrentLinkedQueue<>();
+  @SuppressWarnings("unchecked")
+  public T obtain() {
+    LocalCache cache = localCache.get();
+    cache.obtained++;
 
-    // Pre-allocate particles
-    for (int i = 0; i < initialCapacity; i++) {
-      availableParticles.add(new Particle(0, 0, 1, Color.WHITE, 1));
-      totalCreated++;
+    if (cache.size == 0 && !refill(cache)) {
+      cache.missed++;
+      totalCreated.incrementAndGet();
+      return factory.get();
     }
 
-    LOGGER.info("Particle pool created with " + initialCapacity + " particles");
+    Particle p = cache.items[--cache.size];
+    cache.items[cache.size] = null;
+    return (T) p;
   }
 
   /**
@@ -46,55 +158,172 @@ public class ParticlePool {
    * @param lifetime Lifetime in seconds
    * @return A particle ready to use
    */
-  public Particle obtainParticle(float x, float y, float size, Color color, float lifetime) {
-    Particle p = availableParticles.poll();
+  public T obtainParticle(float x, float y, float size, Color color, float lifetime) {
+    T p = obtain();
+    p.reset(x, y, size, color, lifetime);
+    return p;
+  }
 
-    if (p == null) {
-      // Create a new particle if none available
-      p = new Particle(x, y, size, color, lifetime);
-      totalCreated++;
-    } else {
-      // Reset and reuse existing particle
-      p.reset(x, y, size, color, lifetime);
+  /**
+   * Return a particle to the pool for reuse. The particle must no longer be
+   * referenced by its emitter.
+   *
+   * @param particle The particle to recycle
+   */
+  public void recycleParticle(T particle) {
+    // Clear any references the particle might be holding
+    particle.prepareForPool();
+
+    LocalCache cache = localCache.get();
+    cache.recycled++;
+    if (cache.size == cache.items.length) {
+      spill(cache);
     }
+    cache.items[cache.size++] = particle;
+  }
 
-    // Track usage statistics
-    int currentUsage = totalCreated - availableParticles.size();
-    if (currentUsage > peakUsage) {
-      peakUsage = currentUsage;
+  /**
+   * Recycle a list of particles back to the pool
+   *
+   * @param particles List of particles to recycle
+   */
+  public void recycleParticles(List<? extends T> particles) {
+    for (T p : particles) {
+      if (p != null) {
+        recycleParticle(p);
+      }
     }
+  }
 
-    return p;
+  private boolean refill(LocalCache cache) {
+    Particle[] batch = overflow.poll();
+    if (batch == null) {
+      return false;
+    }
+    overflowCount.addAndGet(-batch.length);
+    System.arraycopy(batch, 0, cache.items, 0, batch.length);
+    cache.size = batch.length;
+
+    // Keep the emptied array for the next spill
+    Arrays.fill(batch, null);
+    cache.spareBatch = batch;
+    return true;
+  }
+
+  private void spill(LocalCache cache) {
+    int from = cache.size - batchSize;
+
+    // Past the retention limit the batch is left to the garbage collector
+    if (overflowCount.get() < maxRetained) {
+      Particle[] batch = cache.spareBatch != null ? cache.spareBatch : new Particle[batchSize];
+      cache.spareBatch = null;
+      System.arraycopy(cache.items, from, batch, 0, batchSize);
+      overflow.offer(batch);
+      overflowCount.addAndGet(batchSize);
+    }
+
+    Arrays.fill(cache.items, from, cache.size, null);
+    cache.size = from;
   }
 
   /**
-   * Return a particle to the pool for reuse
+   * Sample the statistics, drain the caches of threads that have ended and
+   * drop overflow beyond the retention limit. Called once per frame by the
+   * particle system; the high-water mark is the largest in-use count seen at
+   * these samples.
+   */
+  public synchronized void cleanup() {
+    pruneCaches();
+
+    int inUse = getInUseCount();
+    if (inUse > highWaterMark) {
+      highWaterMark = inUse;
+    }
+
+    while (overflowCount.get() > maxRetained) {
+      Particle[] batch = overflow.poll();
+      if (batch == null) {
+        break;
+      }
+      overflowCount.addAndGet(-batch.length);
+    }
+  }
+
+  /**
+   * Move the particles of ended threads' caches to the overflow and fold their
+   * counters into the retired totals. A thread that has ended no longer
+   * touches its cache, and seeing it dead makes its writes visible here.
+   */
+  private void pruneCaches() {
+    for (Iterator<LocalCache> it = caches.iterator(); it.hasNext();) {
+      LocalCache cache = it.next();
+      if (!cache.isOrphaned()) {
+        continue;
+      }
+      it.remove();
+      while (cache.size >= batchSize) {
+        spill(cache);
+      }
+      // Less than a batch is left to the garbage collector
+      Arrays.fill(cache.items, 0, cache.size, null);
+      cache.size = 0;
+
+      retiredObtained += cache.obtained;
+      retiredMissed += cache.missed;
+      retiredRecycled += cache.recycled;
+    }
+  }
+
+  /**
+   * Set how many particles the shared overflow keeps at most. Recycled
+   * particles beyond this are released to the garbage collector.
    *
-   * @param particle The particle to recycle
+   * @param maxRetained Maximum number of particles kept in the overflow
    */
-  public void recycleParticle(Particle particle) {
-    // Clear any references the particle might be holding
-    particle.prepareForPool();
+  public void setMaxRetained(int maxRetained) {
+    this.maxRetained = Math.max(batchSize, maxRetained);
+  }
 
-    // Add back to the available queue
-    availableParticles.offer(particle);
+  public int getMaxRetained() {
+    return maxRetained;
+  }
+
+  public String getName() {
+    return name;
   }
 
   /**
-   * Get the number of available particles in the pool
+   * Get the number of particles handed out and not yet recycled
+   *
+   * @return Count of particles in use
+   */
+  public int getInUseCount() {
+    long obtained = retiredObtained;
+    long recycled = retiredRecycled;
+    for (LocalCache cache : caches) {
+      obtained += cache.obtained;
+      recycled += cache.recycled;
+    }
+    return (int) Math.max(0, obtained - recycled);
+  }
+
+  /**
+   * Get the number of available particles in the shared overflow. Particles
+   * held in thread caches are not included.
    *
    * @return Count of available particles
    */
   public int getAvailableCount() {
-    return availableParticles.size();
+    return overflowCount.get();
   }
 
   /**
-   * Clean up any particles that have been marked for recycling
+   * Get the largest number of particles seen in use at once
+   *
+   * @return The high-water mark
    */
-  public void cleanup() {
-    // This would be called periodically to return inactive particles to the pool
-    // The implementation will depend on how particles are tracked in the system
+  public int getHighWaterMark() {
+    return highWaterMark;
   }
 
   /**
@@ -103,28 +332,30 @@ public class ParticlePool {
    * @return The maximum number of particles used simultaneously
    */
   public int getPeakUsage() {
-    return peakUsage;
+    return getHighWaterMark();
   }
 
   /**
-   * Get the total number of particles created by this pool
+   * Get the fraction of requests that had to create a new particle
    *
-   * @return Total particle count
+   * @return Miss rate between 0 and 1
    */
-  public int getTotalCreated() {
-    return totalCreated;
+  public double getMissRate() {
+    long obtained = retiredObtained;
+    long missed = retiredMissed;
+    for (LocalCache cache : caches) {
+      obtained += cache.obtained;
+      missed += cache.missed;
+    }
+    return obtained > 0 ? (double) missed / obtained : 0.0;
   }
 
   /**
-   * Recycle a list of particles back to the pool
+   * Get the total number of particles created by this pool
    *
-   * @param particles List of particles to recycle
+   * @return Total particle count
    */
-  public void recycleParticles(List<Particle> particles) {
-    for (Particle p : particles) {
-      if (p != null) {
-        recycleParticle(p);
-      }
-    }
+  public int getTotalCreated() {
+    return totalCreated.get();
   }
 }
@@ -0,0 +1,86 @@
+package com.engine.particles;
+
+import java.awt.Color;
+import java.util.logging.Logger;
+
+import com.engine.particles.emitters.PhysicalParticleEmitter.PhysicalParticle;
+import com.engine.particles.emitters.SpriteParticleEmitter.SpriteParticle;
+
+/**
+ * The typed particle pools shared by the emitters of a particle system. Dead
+ * particles are routed back to the pool of their exact type; subclasses the
+ * pools don't know are left to the garbage collector.
+ */
+public class ParticlePools {
+  private static final Logger LOGGER = Logger.getLogger(ParticlePools.class.getName());
+
+  private final ParticlePool<Particle> particles;
+  private final ParticlePool<SpriteParticle> spriteParticles;
+  private final ParticlePool<PhysicalParticle> physicalParticles;
+
+  /**
+   * Create the pools
+   *
+   * @param initialCapacity Number of particles to pre-allocate per type
+   */
+  public ParticlePools(int initialCapacity) {
+    particles = new ParticlePool<>("particle",
+        () -> new Particle(0, 0, 1, Color.WHITE, 1), initialCapacity);
+    spriteParticles = new ParticlePool<>("sprite",
+        () -> new SpriteParticle(0, 0, 1, Color.WHITE, 1, null), initialCapacity);
+    physicalParticles = new ParticlePool<>("physical",
+        () -> new PhysicalParticle(0, 0, 1, Color.WHITE, 1, null, null), initialCapacity);
+  }
+
+  /**
+   * Return a dead particle to the pool of its type
+   *
+   * @param particle The particle to recycle
+   * @return Whether a pool took the particle
+   */
+  public boolean recycle(Particle particle) {
+    Class<?> type = particle.getClass();
+    if (type == Particle.class) {
+      particles.recycleParticle(particle);
+    } else if (type == SpriteParticle.class) {
+      spriteParticles.recycleParticle((SpriteParticle) particle);
+    } else if (type == PhysicalParticle.class) {
+      physicalParticles.recycleParticle((PhysicalParticle) particle);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Sample statistics and trim the pools; called once per frame
+   */
+  public void cleanup() {
+    particles.cleanup();
+    spriteParticles.cleanup();
+    physicalParticles.cleanup();
+  }
+
+  public ParticlePool<Particle> getParticles() {
+    return particles;
+  }
+
+  public ParticlePool<SpriteParticle> getSpriteParticles() {
+    return spriteParticles;
+  }
+
+  public ParticlePool<PhysicalParticle> getPhysicalParticles() {
+    return physicalParticles;
+  }
+
+  /**
+   * Log high-water mark and miss rate of every pool
+   */
+  public void logStats() {
+    for (ParticlePool<?> pool : new ParticlePool<?>[] { particles, spriteParticles, physicalParticles }) {
+      LOGGER.info(String.format("Pool '%s': in use %d, high-water %d, created %d, miss rate %.1f%%",
+          pool.getName(), pool.getInUseCount(), pool.getHighWaterMark(), pool.getTotalCreated(),
+          pool.getMissRate() * 100));
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.engine.particles;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small seedable random number generator for particle spawning
+ * (xorshift64*).
+ * <p>
+ * Unlike {@link java.util.Random} it has no synchronization and can be
+ * reseeded in place, so emitters can restart a sequence without allocating.
+ * Two generators with the same seed produce the same sequence, which makes
+ * particle simulations reproducible for replays and prewarming. Not thread
+ * safe; each emitter owns its own.
+ */
+public final class ParticleRandom {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  // Default seeds for generators that are never seeded explicitly
+  private static final AtomicLong SEED_SEQUENCE = new AtomicLong(System.nanoTime());
+
+  private long seed;
+  private long state;
+
+  /**
+   * Create a generator with a seed distinct from other unseeded generators
+   */
+  public ParticleRandom() {
+    this(SEED_SEQUENCE.getAndAdd(GOLDEN_GAMMA));
+  }
+
+  /**
+   * Create a generator with a fixed seed
+   *
+   * @param seed The seed
+   */
+  public ParticleRandom(long seed) {
+    setSeed(seed);
+  }
+
+  /**
+   * Restart the sequence from a seed
+   *
+   * @param seed The seed
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+    // Spread the seed bits; xorshift must not start from zero
+    long mixed = mix(seed);
+    this.state = mixed != 0 ? mixed : GOLDEN_GAMMA;
+  }
+
+  /**
+   * Get the seed the current sequence started from
+   *
+   * @return The seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  public long nextLong() {
+    long x = state;
+    x ^= x >>> 12;
+    x ^= x << 25;
+    x ^= x >>> 27;
+    state = x;
+    return x * 0x2545F4914F6CDD1DL;
+  }
+
+  /**
+   * Get a uniformly distributed float in [0, 1)
+   */
+  public float nextFloat() {
+    return (nextLong() >>> 40) * 0x1.0p-24f;
+  }
+
+  /**
+   * Get a uniformly distributed float in [min, max)
+   */
+  public float nextFloat(float min, float max) {
+    return min + nextFloat() * (max - min);
+  }
+
+  /**
+   * Get a uniformly distributed int in [0, bound)
+   *
+   * @param bound Upper bound, must be positive
+   */
+  public int nextInt(int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("Bound must be positive");
+    }
+    return (int) (((nextLong() >>> 33) * bound) >>> 31);
+  }
+
+  /**
+   * Derive the seed of the n-th generator in a family from a base seed, so
+   * that emitters created in the same order get the same sequences
+   *
+   * @param baseSeed Seed of the family
+   * @param index    Index of the generator
+   * @return A well-mixed seed
+   */
+  public static long seedFor(long baseSeed, long index) {
+    return mix(baseSeed + index * GOLDEN_GAMMA);
+  }
+
+  // SplitMix64 finalizer
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
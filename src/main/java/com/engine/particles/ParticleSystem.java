@@ -3,18 +3,20 @@ package com.engine.particles;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -23,12 +25,15 @@ import com.engine.core.CameraSystem;
 import com.engine.events.EventSystem;
 import com.engine.events.EventTypes;
 import com.engine.graph.CustomRenderer;
+import com.engine.graph.ParticleRasterizer;
+import com.engine.graph.RecordingRenderer;
+import com.engine.graph.RenderCommandBuffer;
 import com.engine.graph.RenderSystem;
+import com.engine.particles.emitters.EffectParticleEmitter;
 import com.engine.particles.emitters.PhysicalParticleEmitter;
+import com.engine.particles.emitters.TrailEmitter;
 import com.engine.physics.Collision;
 import com.engine.physics.CollisionSystem;
-import com.engine.util.ParticleQuadTree;
-import com.engine.util.SpatialHashGrid;
 
 import dev.dominion.ecs.api.Entity;
 import org.jbox2d.dynamics.Body;
@@ -39,16 +44,18 @@ import org.jbox2d.dynamics.contacts.Contact;
  * systems.
  */
 @Singleton
-public class ParticleSystem implements CustomRenderer {
+public class ParticleSystem implements CustomRenderer, RecordingRenderer {
 
   private static final Logger LOGGER = Logger.getLogger(ParticleSystem.class.getName());
 
   // Thread pool for parallel particle processing
-  private final ExecutorService particleThreadPool;
+  private final ForkJoinPool particleThreadPool;
   private final int numThreads;
 
-  // Unified particle storage for better memory access patterns
-  private final ParticleDataStore particleStore;
+  // Chunked update of store-backed emitters across all threads
+  private final ParallelParticleUpdater serialUpdater;
+  private final ParallelParticleUpdater parallelUpdater;
+  private final List<ParticleDataStore> storesToUpdate = new ArrayList<>();
 
   private final List<ParticleEmitter> emitters = new ArrayList<>();
   private final Map<Entity, List<ParticleEmitter>> entityEmitters = new HashMap<>();
@@ -57,18 +64,30 @@ public class ParticleSystem implements CustomRenderer {
   private final RenderSystem renderSystem;
   private final CameraSystem cameraSystem;
 
-  // Advanced spatial partitioning
-  private final ParticleQuadTree quadTree;
-  private final SpatialHashGrid spatialGrid; // Keep both for different use cases
+  // Persistent spatial index of emitter footprints, used for culling
+  private final EmitterIndex emitterIndex = new EmitterIndex(256);
 
   // Particle pooling
-  private final ParticlePool particlePool;
+  private final ParticlePools particlePools;
 
   // View frustum for culling
   private Rectangle viewBounds = new Rectangle(-1000, -1000, 2000, 2000);
+  private boolean viewBoundsFromCamera = false;
+  private float viewCenterX = 0;
+  private float viewCenterY = 0;
+
+  // Level of detail per emitter and the global particle budget
+  private final Map<ParticleEmitter, LodState> lodStates = new ConcurrentHashMap<>();
+  private int nextLodPhase = 0;
+  private final ParticleBudget particleBudget;
+  private float[] storeDeltas = new float[64];
 
   // Batch rendering support with instanced rendering capability
   private final Map<String, BatchRenderer> batchRenderers = new HashMap<>();
+  private final RecordingBatchRenderer recordingRenderer = new RecordingBatchRenderer();
+  private final RasterParticleBatchRenderer rasterRenderer = new RasterParticleBatchRenderer();
+  private final PointParticleBatchRenderer pointRenderer = new PointParticleBatchRenderer();
+  private final PointParticleBatchRenderer recordingPointRenderer = new PointParticleBatchRenderer();
 
   // Performance monitoring
   private long lastUpdateTime = 0;
@@ -77,7 +96,7 @@ public class ParticleSystem implements CustomRenderer {
 
   private int totalParticleCount = 0;
   private boolean paused = false;
-  private int maxParticlesTotal = 10000; // Global limit across all emitters
+  private int maxParticlesTotal = ParticleBudget.UNLIMITED; // Global limit across all emitters
 
   // Performance optimization settings
   private boolean enableCulling = true;
@@ -88,6 +107,21 @@ public class ParticleSystem implements CustomRenderer {
   private int distanceThreshold = 2000; // Distance beyond which to reduce update frequency
   private boolean useAdaptiveUpdates = true;
 
+  /**
+   * Update schedule of one emitter
+   */
+  private static final class LodState {
+    volatile LodLevel level = LodLevel.FULL;
+    int framesSinceUpdate;
+    float pendingTime = 0;
+    float step = 0; // Time step of this frame's update, 0 if skipped
+
+    LodState(int phase) {
+      // Spread emitters with the same interval over different frames
+      this.framesSinceUpdate = phase;
+    }
+  }
+
   @Inject
   public ParticleSystem(ParticleEmitterFactory emitterFactory,
       EventSystem eventSystem,
@@ -102,17 +136,13 @@ public class ParticleSystem implements CustomRenderer {
     // Set up thread pool for parallel processing (use available processors - 1 to
     // avoid starving the main thread)
     numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
-    particleThreadPool = Executors.newFixedThreadPool(numThreads);
-
-    // Initialize unified particle data store
-    this.particleStore = new ParticleDataStore(20000);
-
-    // Initialize spatial data structures
-    this.spatialGrid = new SpatialHashGrid(200, 200, 64); // Larger world, optimized cell size
-    this.quadTree = new ParticleQuadTree(-10000, -10000, 20000, 20000, 8, 10); // 10k by 10k world
+    particleThreadPool = new ForkJoinPool(numThreads);
+    serialUpdater = new ParallelParticleUpdater(null, ParallelParticleUpdater.DEFAULT_CHUNK_SIZE);
+    parallelUpdater = new ParallelParticleUpdater(particleThreadPool, ParallelParticleUpdater.DEFAULT_CHUNK_SIZE);
 
-    // Initialize particle pool with larger capacity for better reuse
-    this.particlePool = new ParticlePool(5000);
+    // Initialize typed particle pools shared by object-based emitters
+    this.particlePools = new ParticlePools(1000);
+    this.particleBudget = new ParticleBudget(maxParticlesTotal);
 
     // Register as a custom renderer with the render system
     renderSystem.addCustomRenderer(this);
@@ -124,6 +154,9 @@ public class ParticleSystem implements CustomRenderer {
     batchRenderers.put("color", new ColorParticleBatchRenderer());
     batchRenderers.put("sprite", new SpriteParticleBatchRenderer());
     batchRenderers.put("instanced", new InstancedSpriteRenderer());
+    batchRenderers.put("raster", rasterRenderer);
+    batchRenderers.put("point", pointRenderer);
+    batchRenderers.put("trail", new TrailBatchRenderer());
 
     LOGGER.info("Optimized particle system initialized with " + numThreads + " worker threads");
   }
@@ -139,12 +172,6 @@ public class ParticleSystem implements CustomRenderer {
    */
   public ParticleEmitter createEmitter(String type, float x, float y, Map<String, Object> params) {
     ParticleEmitter emitter = emitterFactory.createEmitter(type, x, y, params);
-
-    // Configure emitter to use particle pool if it supports it
-    if (emitter instanceof PooledParticleEmitter) {
-      ((PooledParticleEmitter) emitter).setParticlePool(particlePool);
-    }
-
     addEmitter(emitter);
     return emitter;
   }
@@ -155,6 +182,12 @@ public class ParticleSystem implements CustomRenderer {
    * @param emitter The emitter to add
    */
   public void addEmitter(ParticleEmitter emitter) {
+    // Configure emitter to use the particle pools if it supports them
+    if (emitter instanceof PooledParticleEmitter) {
+      ((PooledParticleEmitter) emitter).setParticlePools(particlePools);
+    }
+    emitter.setParticleBudget(particleBudget);
+
     synchronized (emitters) {
       emitters.add(emitter);
     }
@@ -174,6 +207,7 @@ public class ParticleSystem implements CustomRenderer {
     synchronized (emitters) {
       emitters.remove(emitter);
     }
+    lodStates.remove(emitter);
 
     // Also remove from entity associations
     Entity attachedEntity = emitter.getAttachedEntity();
@@ -239,9 +273,8 @@ public class ParticleSystem implements CustomRenderer {
       // Update camera view bounds for culling
       updateViewBounds();
 
-      // Clear spatial data structures before updating positions
-      spatialGrid.clear();
-      quadTree.clear();
+      // Reload effect definitions changed on disk
+      emitterFactory.getEffects().update(deltaTime);
 
       // Create a safe copy to iterate over
       List<ParticleEmitter> emittersCopy;
@@ -251,13 +284,65 @@ public class ParticleSystem implements CustomRenderer {
         emittersCopy = new ArrayList<>(emitters);
       }
 
+      // Spawns this frame are charged against the particles alive now
+      int liveCount = 0;
+      for (ParticleEmitter emitter : emittersCopy) {
+        liveCount += emitter.getParticleCount();
+      }
+      particleBudget.setLimit(maxParticlesTotal);
+      particleBudget.reset(liveCount);
+
       totalParticleCount = 0;
       AtomicInteger activeParticles = new AtomicInteger(0);
 
-      // Only use multi-threading if we have enough emitters to make it worthwhile
-      if (enableMultiThreading && emittersCopy.size() > 10) {
+      // Emit into store-backed emitters here; their particles are advanced
+      // together below, split by particle count rather than by emitter.
+      // Emitters at a reduced level of detail skip frames and then catch up
+      // with the accumulated time.
+      List<ParticleEmitter> objectEmitters = new ArrayList<>();
+      storesToUpdate.clear();
+      for (ParticleEmitter emitter : emittersCopy) {
+        if (!emitter.isActive() && emitter.getParticleCount() == 0) {
+          emittersToRemove.add(emitter);
+          continue;
+        }
+
+        LodState lod = scheduleUpdate(emitter, deltaTime);
+        if (lod.step == 0) {
+          totalParticleCount += emitter.getParticleCount();
+          continue;
+        }
+        if (!(emitter instanceof AbstractStoreEmitter)) {
+          objectEmitters.add(emitter);
+          continue;
+        }
+        try {
+          AbstractStoreEmitter storeEmitter = (AbstractStoreEmitter) emitter;
+          storeEmitter.prepareUpdate(lod.step);
+          if (storesToUpdate.size() == storeDeltas.length) {
+            storeDeltas = Arrays.copyOf(storeDeltas, storeDeltas.length * 2);
+          }
+          storeDeltas[storesToUpdate.size()] = lod.step;
+          storesToUpdate.add(storeEmitter.getStore());
+        } catch (Exception e) {
+          LOGGER.warning("Error updating emitter: " + e);
+        }
+      }
+
+      try {
+        (enableMultiThreading ? parallelUpdater : serialUpdater).update(storesToUpdate, storeDeltas);
+      } catch (Exception e) {
+        LOGGER.warning("Error updating particle stores: " + e);
+      }
+      for (int i = 0; i < storesToUpdate.size(); i++) {
+        totalParticleCount += storesToUpdate.get(i).getCount();
+      }
+      storesToUpdate.clear();
+
+      // Emitters of particle objects are updated one emitter per task
+      if (enableMultiThreading && objectEmitters.size() > 10) {
         // Group emitters for parallel processing
-        List<List<ParticleEmitter>> emitterGroups = partitionForThreads(emittersCopy, numThreads);
+        List<List<ParticleEmitter>> emitterGroups = partitionForThreads(objectEmitters, numThreads);
         List<Future<?>> futures = new ArrayList<>();
 
         // Process each group in parallel
@@ -267,7 +352,7 @@ public class ParticleSystem implements CustomRenderer {
 
           futures.add(particleThreadPool.submit(() -> {
             try {
-              int localCount = processEmitterGroup(group, deltaTime, emittersToRemove);
+              int localCount = processEmitterGroup(group, emittersToRemove);
               activeParticles.addAndGet(localCount);
             } catch (Exception e) {
               LOGGER.warning("Error in particle thread: " + e);
@@ -285,12 +370,12 @@ public class ParticleSystem implements CustomRenderer {
           }
         }
 
-        totalParticleCount = activeParticles.get();
+        totalParticleCount += activeParticles.get();
       } else {
         // Single-threaded update
-        for (ParticleEmitter emitter : emittersCopy) {
+        for (ParticleEmitter emitter : objectEmitters) {
           try {
-            int count = updateEmitter(emitter, deltaTime, emittersToRemove);
+            int count = updateEmitter(emitter, stepOf(emitter), emittersToRemove);
             totalParticleCount += count;
           } catch (Exception e) {
             LOGGER.warning("Error updating emitter: " + e);
@@ -298,19 +383,29 @@ public class ParticleSystem implements CustomRenderer {
         }
       }
 
-      // Now safely remove the inactive emitters
+      // Now safely remove the inactive emitters; removeAll and the index
+      // update look each emitter up in the set
+      Set<ParticleEmitter> removed = Collections.emptySet();
       if (!emittersToRemove.isEmpty()) {
+        removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(emittersToRemove);
         synchronized (emitters) {
-          emitters.removeAll(emittersToRemove);
+          emitters.removeAll(removed);
+        }
+        for (ParticleEmitter emitter : removed) {
+          lodStates.remove(emitter);
         }
       }
 
+      // Move the emitters to their new footprints in the spatial index
+      updateEmitterIndex(emittersCopy, removed);
+
       // Fire particle count event
       eventSystem.fireEvent(EventTypes.PARTICLE_COUNT_UPDATED,
           "count", totalParticleCount);
 
-      // Return unused particles to pool
-      particlePool.cleanup();
+      // Sample pool statistics and trim excess pooled particles
+      particlePools.cleanup();
     } catch (Exception e) {
       LOGGER.severe("Critical error in particle system update: " + e);
     }
@@ -341,8 +436,7 @@ public class ParticleSystem implements CustomRenderer {
     return groups;
   }
 
-  private int processEmitterGroup(List<ParticleEmitter> groupEmitters, float deltaTime,
-      List<ParticleEmitter> toRemove) {
+  private int processEmitterGroup(List<ParticleEmitter> groupEmitters, List<ParticleEmitter> toRemove) {
     int particleCount = 0;
 
     for (ParticleEmitter emitter : groupEmitters) {
@@ -350,7 +444,7 @@ public class ParticleSystem implements CustomRenderer {
         continue;
 
       try {
-        particleCount += updateEmitter(emitter, deltaTime, toRemove);
+        particleCount += updateEmitter(emitter, stepOf(emitter), toRemove);
       } catch (Exception e) {
         LOGGER.warning("Error processing emitter in thread: " + e);
         // Continue processing other emitters despite error
@@ -365,7 +459,7 @@ public class ParticleSystem implements CustomRenderer {
       return 0;
 
     // Skip inactive emitters with no particles
-    if (!emitter.isActive() && emitter.getParticles().isEmpty()) {
+    if (!emitter.isActive() && emitter.getParticleCount() == 0) {
       synchronized (toRemove) {
         toRemove.add(emitter);
       }
@@ -380,72 +474,80 @@ public class ParticleSystem implements CustomRenderer {
       return 0;
     }
 
-    int particleCount = 0;
+    return emitter.getParticleCount();
+  }
 
-    // Create a defensive copy to avoid concurrent modification during spatial
-    // registration
-    List<Particle> particlesCopy = new ArrayList<>();
-    try {
-      List<Particle> originalParticles = emitter.getParticles();
-      if (originalParticles != null) {
-        synchronized (originalParticles) {
-          particlesCopy.addAll(originalParticles);
-        }
-        particleCount = originalParticles.size();
-      }
-    } catch (Exception e) {
-      LOGGER.warning("Error copying particles: " + e);
-      return 0;
+  /**
+   * Choose the emitter's level of detail and decide whether it is updated
+   * this frame
+   */
+  private LodState scheduleUpdate(ParticleEmitter emitter, float deltaTime) {
+    LodState state = lodStates.get(emitter);
+    if (state == null) {
+      state = new LodState(nextLodPhase++ & 3);
+      lodStates.put(emitter, state);
     }
 
-    // Register particles in spatial structures
-    try {
-      if (emitter instanceof SpatialAware) {
-        try {
-          ((SpatialAware) emitter).registerInSpatialStructure(spatialGrid);
-        } catch (Exception e) {
-          LOGGER.warning("Error registering in spatial grid: " + e);
-        }
+    LodLevel level = chooseLevel(emitter);
+    if (level != state.level) {
+      state.level = level;
+      emitter.setLevelOfDetail(level);
+    }
 
-        try {
-          ((SpatialAware) emitter).registerInQuadTree(quadTree);
-        } catch (Exception e) {
-          LOGGER.warning("Error registering in quad tree: " + e);
-        }
-      } else if (!particlesCopy.isEmpty()) {
-        // Register each particle manually - use batched insertion for better
-        // performance
-        try {
-          // Filter to only active particles before adding to quadtree
-          List<Particle> activeParticles = particlesCopy.stream()
-              .filter(p -> p != null && p.isActive())
-              .collect(Collectors.toList());
+    state.pendingTime += deltaTime;
+    state.framesSinceUpdate++;
+    if (useAdaptiveUpdates && state.framesSinceUpdate < level.getUpdateInterval()) {
+      state.step = 0;
+      return state;
+    }
 
-          if (!activeParticles.isEmpty()) {
-            quadTree.insertParticles(activeParticles);
-          }
-        } catch (Exception e) {
-          LOGGER.warning("Error inserting into quad tree: " + e);
-        }
+    state.step = state.pendingTime;
+    state.pendingTime = 0;
+    state.framesSinceUpdate = 0;
+    return state;
+  }
 
-        // Register in spatial grid
-        for (Particle p : particlesCopy) {
-          if (p == null || !p.isActive())
-            continue;
+  private LodLevel chooseLevel(ParticleEmitter emitter) {
+    if (!enableLOD || !viewBoundsFromCamera || emitter.getPriority() > 0) {
+      return LodLevel.FULL;
+    }
+    // Visibility is from the last update, which is close enough for LOD
+    if (!emitterIndex.isVisible(emitter)) {
+      return LodLevel.HIDDEN;
+    }
+    float dx = emitter.getX() - viewCenterX;
+    float dy = emitter.getY() - viewCenterY;
+    if (dx * dx + dy * dy > (float) distanceThreshold * distanceThreshold) {
+      return LodLevel.REDUCED;
+    }
+    return LodLevel.FULL;
+  }
 
-          try {
-            float size = p.getSize();
-            spatialGrid.insertObject(p, p.getX() - size / 2, p.getY() - size / 2, size, size);
-          } catch (Exception e) {
-            // Skip this particle but continue with others
-          }
-        }
+  private float stepOf(ParticleEmitter emitter) {
+    LodState state = lodStates.get(emitter);
+    return state != null ? state.step : 0;
+  }
+
+  private LodLevel levelOf(ParticleEmitter emitter) {
+    LodState state = lodStates.get(emitter);
+    return state != null ? state.level : LodLevel.FULL;
+  }
+
+  private void updateEmitterIndex(List<ParticleEmitter> emittersCopy, Set<ParticleEmitter> removed) {
+    emitterIndex.beginFrame();
+    for (ParticleEmitter emitter : emittersCopy) {
+      if (!removed.contains(emitter)) {
+        emitterIndex.track(emitter);
       }
-    } catch (Exception e) {
-      LOGGER.warning("Error registering particles in spatial structures: " + e);
     }
+    emitterIndex.sweep();
 
-    return particleCount;
+    if (viewBoundsFromCamera) {
+      emitterIndex.updateVisibility(viewBounds.x, viewBounds.y,
+          viewBounds.x + viewBounds.width, viewBounds.y + viewBounds.height);
+    } else {
+      emitterIndex.clearVisibility();
+    }
   }
 
   private void updateViewBounds() {
@@ -455,12 +557,17 @@ public class ParticleSystem implements CustomRenderer {
       viewBounds.y = (int) worldBounds[1];
       viewBounds.width = (int) worldBounds[2];
       viewBounds.height = (int) worldBounds[3];
+      viewCenterX = worldBounds[0] + worldBounds[2] / 2;
+      viewCenterY = worldBounds[1] + worldBounds[3] / 2;
 
       // Expand view bounds by a margin to prevent popping
       viewBounds.x -= viewBounds.width / 2;
       viewBounds.y -= viewBounds.height / 2;
       viewBounds.width += viewBounds.width;
       viewBounds.height += viewBounds.height;
+      viewBoundsFromCamera = true;
+    } else {
+      viewBoundsFromCamera = false;
     }
   }
 
@@ -484,6 +591,10 @@ public class ParticleSystem implements CustomRenderer {
       emittersCopy = new ArrayList<>(emitters);
     }
 
+    // Color particles go through the raster when the render system has one
+    ParticleRasterizer rasterizer = renderSystem.getParticleRasterizer();
+    rasterRenderer.setRasterizer(rasterizer);
+
     // Sort emitters by type for better batching
     if (enableBatchRendering) {
       emittersCopy.sort((a, b) -> {
@@ -496,25 +607,24 @@ public class ParticleSystem implements CustomRenderer {
     // First pass - collect particles for batch rendering and render non-batchable
     // particles
     for (ParticleEmitter emitter : emittersCopy) {
-      // Skip out-of-view emitters using quad tree for faster culling
-      if (enableCulling && !quadTreeContains(emitter.getX(), emitter.getY())) {
+      // Skip out-of-view emitters
+      if (enableCulling && !isInView(emitter)) {
         continue;
       }
 
-      // Handle emitter rendering based on distance (LOD)
-      // float distance = distanceToCamera(emitter.getX(), emitter.getY());
-
-      // Choose rendering method based on distance and capability
+      // Choose rendering method based on level of detail and capability
       if (enableBatchRendering) {
         if (emitter instanceof BatchableEmitter) {
           BatchableEmitter batchable = (BatchableEmitter) emitter;
           String batchType = batchable.getBatchType();
 
-          // Use instanced rendering for sprites when far away
-          // if (enableInstancedRendering && "sprite".equals(batchType) && distance >
-          // distanceThreshold) {
-          if (enableInstancedRendering && "sprite".equals(batchType)) {
+          // Distant emitters are drawn as points; trails have none
+          if (enableLOD && levelOf(emitter) != LodLevel.FULL && !"trail".equals(batchType)) {
+            batchable.addToBatch(pointRenderer);
+          } else if (enableInstancedRendering && "sprite".equals(batchType)) {
             batchable.addToBatch(batchRenderers.get("instanced"));
+          } else if (rasterizer != null && "color".equals(batchType)) {
+            batchable.addToBatch(rasterRenderer);
           } else {
             BatchRenderer renderer = batchRenderers.get(batchType);
             if (renderer != null) {
@@ -541,9 +651,51 @@ public class ParticleSystem implements CustomRenderer {
     renderDuration = System.nanoTime() - startTime;
   }
 
-  private boolean quadTreeContains(float x, float y) {
-    // More efficient check than rectangle.contains for just a point
-    return quadTree.containsPoint(x, y) || viewBounds.contains(x, y);
+  /**
+   * Record callback - called by the RenderSystem when frames are drawn from
+   * a command buffer. Batchable particles are copied into the buffer; other
+   * emitters draw themselves through a callback.
+   */
+  @Override
+  public void record(RenderCommandBuffer buffer) {
+    long startTime = System.nanoTime();
+
+    List<ParticleEmitter> emittersCopy;
+    synchronized (emitters) {
+      emittersCopy = new ArrayList<>(emitters);
+    }
+
+    recordingRenderer.setTarget(buffer);
+    recordingPointRenderer.setTarget(buffer);
+    try {
+      for (ParticleEmitter emitter : emittersCopy) {
+        // Skip out-of-view emitters
+        if (enableCulling && !isInView(emitter)) {
+          continue;
+        }
+
+        if (enableBatchRendering && emitter instanceof BatchableEmitter
+            && !"trail".equals(((BatchableEmitter) emitter).getBatchType())) {
+          // Distant emitters are recorded as points
+          BatchRenderer renderer = enableLOD && levelOf(emitter) != LodLevel.FULL
+              ? recordingPointRenderer
+              : recordingRenderer;
+          ((BatchableEmitter) emitter).addToBatch(renderer);
+        } else {
+          buffer.addCallback(emitter::render);
+        }
+      }
+    } finally {
+      recordingRenderer.reset();
+      recordingPointRenderer.reset();
+    }
+
+    renderDuration = System.nanoTime() - startTime;
+  }
+
+  private boolean isInView(ParticleEmitter emitter) {
+    // Tests the bounds of the particles rather than the emitter position
+    return emitterIndex.isVisible(emitter);
   }
 
   // Getters for performance metrics
@@ -556,6 +708,71 @@ public class ParticleSystem implements CustomRenderer {
     return renderDuration / 1_000_000;
   }
 
+  /**
+   * Get the spatial index of emitter footprints, e.g. to find the emitters
+   * near a point from gameplay code running on the update thread
+   *
+   * @return The emitter index
+   */
+  public EmitterIndex getEmitterIndex() {
+    return emitterIndex;
+  }
+
+  /**
+   * Get the typed particle pools, e.g. for their high-water marks and miss
+   * rates
+   *
+   * @return The particle pools
+   */
+  public ParticlePools getParticlePools() {
+    return particlePools;
+  }
+
+  /**
+   * Get the updater that spreads store-backed particles over the worker threads
+   *
+   * @return The parallel particle updater
+   */
+  public ParallelParticleUpdater getParallelUpdater() {
+    return parallelUpdater;
+  }
+
+  /**
+   * Set the global limit on live particles. As it fills up, emitters stop
+   * spawning by level of detail: hidden ones first, then distant ones, while
+   * nearby emitters and those with a positive priority may use all of it.
+   * There is no limit unless one is set.
+   *
+   * @param maxParticlesTotal Maximum number of live particles, or
+   *                          {@link ParticleBudget#UNLIMITED}
+   */
+  public void setMaxParticlesTotal(int maxParticlesTotal) {
+    this.maxParticlesTotal = maxParticlesTotal;
+    particleBudget.setLimit(maxParticlesTotal);
+  }
+
+  public int getMaxParticlesTotal() {
+    return maxParticlesTotal;
+  }
+
+  /**
+   * Get the global particle budget, e.g. for the number of refused spawns
+   *
+   * @return The particle budget
+   */
+  public ParticleBudget getParticleBudget() {
+    return particleBudget;
+  }
+
+  /**
+   * Set whether emitters at a reduced level of detail update less often
+   *
+   * @param useAdaptiveUpdates Whether to skip frames for distant emitters
+   */
+  public void setAdaptiveUpdates(boolean useAdaptiveUpdates) {
+    this.useAdaptiveUpdates = useAdaptiveUpdates;
+  }
+
   /**
    * Set advanced optimization settings
    */
@@ -587,6 +804,52 @@ public class ParticleSystem implements CustomRenderer {
     return emitter;
   }
 
+  /**
+   * Create an emitter for a compiled particle effect and fire its burst
+   *
+   * @param name Name of an effect loaded into the factory's effect library
+   * @param x    X position
+   * @param y    Y position
+   * @return The effect emitter
+   * @throws IllegalArgumentException If no effect of that name is loaded
+   */
+  public ParticleEmitter createEffect(String name, float x, float y) {
+    EffectParticleEmitter emitter = emitterFactory.createEffectEmitter(x, y, name);
+    addEmitter(emitter);
+    emitter.burst(emitter.getHandle().getEffect().getBurst());
+    return emitter;
+  }
+
+  /**
+   * Create a burst of sparks that bounce off static geometry
+   *
+   * @param x             X position
+   * @param y             Y position
+   * @param particleCount Number of sparks
+   * @return The spark emitter
+   */
+  public ParticleEmitter createSparks(float x, float y, int particleCount) {
+    ParticleEmitter emitter = emitterFactory.createSparkEmitter(x, y);
+    addEmitter(emitter);
+    emitter.burst(particleCount);
+    return emitter;
+  }
+
+  /**
+   * Create a trail that follows an entity, e.g. a projectile. Stop the trail
+   * when the entity is gone; it then fades out and is removed.
+   *
+   * @param entity Entity with a transform to follow
+   * @return The trail emitter
+   */
+  public TrailEmitter createTrail(Entity entity) {
+    TrailEmitter trail = emitterFactory.createTrailEmitter(0, 0);
+    trail.setAttachedEntity(entity);
+    addEmitter(trail);
+    trail.start();
+    return trail;
+  }
+
   /**
    * Create a continuous fire effect at the specified position
    *
@@ -648,6 +911,7 @@ public class ParticleSystem implements CustomRenderer {
   public void clearAll() {
     emitters.clear();
     entityEmitters.clear();
+    lodStates.clear();
     totalParticleCount = 0;
     LOGGER.info("All particle emitters cleared");
   }
@@ -1,13 +1,33 @@
 package com.engine.particles;
 
+import java.util.Collections;
+import java.awt.Color;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import com.engine.util.AllocationMeter;
+import com.engine.util.ParticleQuadTree;
+import com.engine.util.SpatialHashGrid;
+import com.engine.util.SpatialIndex;
 
 /**
  * Performance profiling tool for the particle system.
  * Helps identify bottlenecks and optimization opportunities.
  */
 public class ParticleSystemProfiler {
+  private static final float SCALING_STEP = 1.0f / 60.0f;
+
+  // View-sized query made once per frame by the spatial comparison
+  private static final float SPATIAL_QUERY_X = 300;
+  private static final float SPATIAL_QUERY_Y = 300;
+  private static final float SPATIAL_QUERY_SIZE = 400;
+
   private final Map<String, Long> startTimes = new HashMap<>();
   private final Map<String, Long> durations = new HashMap<>();
   private final Map<String, Long> counts = new HashMap<>();
@@ -106,4 +126,158 @@ public class ParticleSystemProfiler {
     }
     System.out.println("===========================================");
   }
+
+  /**
+   * Measure how the chunked particle update scales with thread count. The same
+   * synthetic store is advanced on 1, 2 and 4 threads and on every available
+   * processor, after an equal number of warm-up updates so the update loops
+   * are compiled.
+   *
+   * @param particleCount Number of particles in the synthetic store
+   * @param frames        Number of timed updates per thread count
+   * @return Average milliseconds per update, keyed by thread count
+   */
+  public Map<Integer, Double> measureUpdateScaling(int particleCount, int frames) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    Map<Integer, Double> results = new TreeMap<>();
+
+    for (int threads : new int[] { 1, 2, 4, processors }) {
+      if (results.containsKey(threads)) {
+        continue;
+      }
+
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        ParallelParticleUpdater updater = new ParallelParticleUpdater(pool,
+            ParallelParticleUpdater.DEFAULT_CHUNK_SIZE);
+        List<ParticleDataStore> stores = Collections.singletonList(createScalingWorkload(particleCount));
+
+        for (int i = 0; i < frames; i++) {
+          updater.update(stores, SCALING_STEP);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+          updater.update(stores, SCALING_STEP);
+        }
+        results.put(threads, (System.nanoTime() - start) / (double) Math.max(1, frames) / 1_000_000.0);
+      } finally {
+        pool.shutdown();
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Compare the spatial structures on the same moving particles. Every frame
+   * the particles move and one view-sized range query is made: the hash grid
+   * and quad tree are cleared and refilled, while the persistent
+   * {@link SpatialIndex} moves its existing entries.
+   *
+   * @param particleCount Number of particles
+   * @param frames        Number of timed frames per structure
+   * @return Milliseconds and allocated bytes per frame, keyed by structure
+   */
+  public Map<String, String> measureSpatialIndexing(int particleCount, int frames) {
+    Map<String, String> results = new LinkedHashMap<>();
+    int[] queryIds = new int[particleCount];
+
+    List<Particle> gridParticles = createSpatialWorkload(particleCount);
+    SpatialHashGrid grid = new SpatialHashGrid(1000, 1000, 64);
+    results.put("SpatialHashGrid", measureSpatialFrames(gridParticles, frames, () -> {
+      grid.clear();
+      for (int i = 0; i < gridParticles.size(); i++) {
+        Particle p = gridParticles.get(i);
+        float size = p.getSize();
+        grid.insertObject(p, p.getX() - size / 2, p.getY() - size / 2, size, size);
+      }
+      grid.getPotentialCollisions(SPATIAL_QUERY_X, SPATIAL_QUERY_Y, SPATIAL_QUERY_SIZE, SPATIAL_QUERY_SIZE);
+    }));
+
+    List<Particle> treeParticles = createSpatialWorkload(particleCount);
+    ParticleQuadTree quadTree = new ParticleQuadTree(-1000, -1000, 3000, 3000, 8, 10);
+    results.put("ParticleQuadTree", measureSpatialFrames(treeParticles, frames, () -> {
+      quadTree.clear();
+      quadTree.insertParticles(treeParticles);
+      quadTree.queryRange(SPATIAL_QUERY_X, SPATIAL_QUERY_Y, SPATIAL_QUERY_SIZE, SPATIAL_QUERY_SIZE);
+    }));
+
+    List<Particle> indexedParticles = createSpatialWorkload(particleCount);
+    SpatialIndex index = new SpatialIndex(64, particleCount);
+    for (Particle p : indexedParticles) {
+      float half = p.getSize() / 2;
+      index.insert(p.getX() - half, p.getY() - half, p.getX() + half, p.getY() + half);
+    }
+    results.put("SpatialIndex", measureSpatialFrames(indexedParticles, frames, () -> {
+      // Ids were handed out in insertion order
+      for (int i = 0; i < indexedParticles.size(); i++) {
+        Particle p = indexedParticles.get(i);
+        float half = p.getSize() / 2;
+        index.update(i, p.getX() - half, p.getY() - half, p.getX() + half, p.getY() + half);
+      }
+      index.query(SPATIAL_QUERY_X, SPATIAL_QUERY_Y, SPATIAL_QUERY_X + SPATIAL_QUERY_SIZE,
+          SPATIAL_QUERY_Y + SPATIAL_QUERY_SIZE, queryIds);
+    }));
+
+    return results;
+  }
+
+  private static String measureSpatialFrames(List<Particle> particles, int frames, Runnable frame) {
+    // Warm up so the structure's code is compiled before timing
+    for (int i = 0; i < frames; i++) {
+      moveParticles(particles);
+      frame.run();
+    }
+
+    long elapsed = 0;
+    long allocated = 0;
+    for (int i = 0; i < frames; i++) {
+      moveParticles(particles);
+      long allocatedBefore = AllocationMeter.currentThreadAllocatedBytes();
+      long start = System.nanoTime();
+      frame.run();
+      elapsed += System.nanoTime() - start;
+      allocated += AllocationMeter.currentThreadAllocatedBytes() - allocatedBefore;
+    }
+
+    int count = Math.max(1, frames);
+    return String.format("%.3f ms, %d bytes per frame", elapsed / (double) count / 1_000_000.0,
+        AllocationMeter.isSupported() ? allocated / count : -1);
+  }
+
+  private static void moveParticles(List<Particle> particles) {
+    for (int i = 0; i < particles.size(); i++) {
+      particles.get(i).update(SCALING_STEP);
+    }
+  }
+
+  private static List<Particle> createSpatialWorkload(int particleCount) {
+    // Same seed for every structure; particles drift slowly inside the world
+    Random random = new Random(42);
+    List<Particle> particles = new ArrayList<>(particleCount);
+    for (int i = 0; i < particleCount; i++) {
+      Particle p = new Particle(random.nextFloat() * 1000, random.nextFloat() * 1000, 4, Color.WHITE,
+          Float.MAX_VALUE);
+      p.setVelocityX(random.nextFloat() * 20 - 10);
+      p.setVelocityY(random.nextFloat() * 20 - 10);
+      particles.add(p);
+    }
+    return particles;
+  }
+
+  private static ParticleDataStore createScalingWorkload(int particleCount) {
+    // Fixed seed and lifetimes that outlast the run keep every run identical
+    Random random = new Random(42);
+    ParticleDataStore store = new ParticleDataStore(particleCount);
+    for (int i = 0; i < particleCount; i++) {
+      int p = store.spawn(random.nextFloat() * 1000, random.nextFloat() * 1000, Float.MAX_VALUE);
+      store.setVelocity(p, random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+      store.setAcceleration(p, 0, 9.8f);
+      store.setRotation(p, 0, random.nextFloat());
+      store.setSize(p, 8, 4);
+      store.setColor(p, 0xFFFFA000, 0x00FF0000);
+    }
+    return store;
+  }
 }
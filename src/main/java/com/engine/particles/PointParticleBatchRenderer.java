@@ -0,0 +1,113 @@
+package com.engine.particles;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.engine.graph.RenderCommandBuffer;
+import com.engine.util.ColorCache;
+
+/**
+ * Batch renderer for emitters at a reduced level of detail. Every particle is
+ * drawn as a small unrotated square in its color, without sprites,
+ * transforms or composite changes. When a command buffer is set, points are
+ * recorded into it instead of collected for drawing.
+ */
+public class PointParticleBatchRenderer implements BatchRenderer {
+  private float pointSize = 2.0f;
+  private RenderCommandBuffer target;
+
+  // Batched particles, read when the batch is rendered
+  private final List<Particle> particles = new ArrayList<>();
+  private final List<ParticleDataStore> stores = new ArrayList<>();
+
+
+  /**
+   * Set the buffer points are recorded into
+   *
+   * @param target Command buffer for the current frame, or null to draw
+   */
+  public void setTarget(RenderCommandBuffer target) {
+    this.target = target;
+  }
+
+  @Override
+  public void addParticle(Particle particle) {
+    if (!particle.isActive()) {
+      return;
+    }
+    if (target != null) {
+      target.addParticle(null, particle.getX(), particle.getY(), pointSize, 0, argbOf(particle));
+    } else {
+      particles.add(particle);
+    }
+  }
+
+  @Override
+  public void addParticles(ParticleDataStore store, BufferedImage[] sprites) {
+    if (target != null) {
+      for (int i = 0; i < store.getCount(); i++) {
+        target.addParticle(null, store.getX(i), store.getY(i), pointSize, 0, store.getArgb(i));
+      }
+    } else if (store.getCount() > 0) {
+      stores.add(store);
+    }
+  }
+
+  @Override
+  public void render(Graphics2D g) {
+    int size = Math.max(1, Math.round(pointSize));
+    float half = pointSize / 2;
+
+    for (Particle p : particles) {
+      setColor(g, argbOf(p));
+      g.fillRect((int) (p.getX() - half), (int) (p.getY() - half), size, size);
+    }
+    for (ParticleDataStore store : stores) {
+      for (int i = 0; i < store.getCount(); i++) {
+        setColor(g, store.getArgb(i));
+        g.fillRect((int) (store.getX(i) - half), (int) (store.getY(i) - half), size, size);
+      }
+    }
+  }
+
+  private static void setColor(Graphics2D g, int argb) {
+    g.setColor(ColorCache.get(argb));
+  }
+
+  private static int argbOf(Particle particle) {
+    // Bake the particle alpha into the color's own alpha
+    Color color = particle.getColor();
+    int rgb = color != null ? color.getRGB() : 0xFFFFFFFF;
+    float alpha = Math.max(0.0f, Math.min(1.0f, particle.getAlpha()));
+    int a = Math.round((rgb >>> 24) * alpha);
+    return (a << 24) | (rgb & 0x00FFFFFF);
+  }
+
+  /**
+   * Set the edge length points are drawn with
+   *
+   * @param pointSize Point size in world units
+   */
+  public void setPointSize(float pointSize) {
+    this.pointSize = pointSize;
+  }
+
+  public float getPointSize() {
+    return pointSize;
+  }
+
+  @Override
+  public void reset() {
+    particles.clear();
+    stores.clear();
+    target = null;
+  }
+
+  @Override
+  public String getType() {
+    return "point";
+  }
+}
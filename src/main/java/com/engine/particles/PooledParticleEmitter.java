@@ -1,14 +1,14 @@
 package com.engine.particles;
 
 /**
- * Interface for particle emitters that can use a shared particle pool.
+ * Interface for particle emitters that can use shared particle pools.
  */
 public interface PooledParticleEmitter {
 
   /**
-   * Set the particle pool this emitter should use
+   * Set the particle pools this emitter should obtain from and recycle into
    *
-   * @param pool The particle pool
+   * @param pools The particle pools
    */
-  void setParticlePool(ParticlePool pool);
+  void setParticlePools(ParticlePools pools);
 }
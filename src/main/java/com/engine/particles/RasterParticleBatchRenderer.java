@@ -0,0 +1,113 @@
+package com.engine.particles;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.engine.graph.ParticleRasterizer;
+import com.engine.particles.emitters.SpriteParticleEmitter.SpriteParticle;
+
+/**
+ * Batch renderer for color particles that writes them into an integer raster
+ * through a {@link ParticleRasterizer} and composites the result with one
+ * image draw. Sprite particles are ignored.
+ */
+public class RasterParticleBatchRenderer implements BatchRenderer {
+  private static final AffineTransform IDENTITY = new AffineTransform();
+
+  private ParticleRasterizer rasterizer;
+
+  // Batched particles, read when the batch is rendered
+  private final List<Particle> particles = new ArrayList<>();
+  private final List<ParticleDataStore> stores = new ArrayList<>();
+
+  /**
+   * Create a renderer with its own rasterizer
+   */
+  public RasterParticleBatchRenderer() {
+    this(new ParticleRasterizer());
+  }
+
+  public RasterParticleBatchRenderer(ParticleRasterizer rasterizer) {
+    this.rasterizer = rasterizer;
+  }
+
+  @Override
+  public void addParticle(Particle particle) {
+    if (particle.isActive() && !(particle instanceof SpriteParticle)) {
+      particles.add(particle);
+    }
+  }
+
+  @Override
+  public void addParticles(ParticleDataStore store, BufferedImage[] sprites) {
+    if (store.getCount() > 0) {
+      stores.add(store);
+    }
+  }
+
+  @Override
+  public void render(Graphics2D g) {
+    if (particles.isEmpty() && stores.isEmpty()) {
+      return;
+    }
+
+    // The canvas covers the visible part of the device surface
+    AffineTransform transform = g.getTransform();
+    Shape clip = g.getClip();
+    Rectangle device = clip != null
+        ? transform.createTransformedShape(clip).getBounds()
+        : g.getDeviceConfiguration().getBounds();
+    rasterizer.begin(device.x + device.width, device.y + device.height, transform);
+
+    for (Particle p : particles) {
+      int rgb = p.getColor() != null ? p.getColor().getRGB() : 0xFFFFFFFF;
+      float alpha = Math.max(0.0f, Math.min(1.0f, p.getAlpha()));
+      int a = Math.round((rgb >>> 24) * alpha);
+      rasterizer.add(p.getX(), p.getY(), p.getSize(), p.getRotation(), (a << 24) | (rgb & 0x00FFFFFF));
+    }
+    for (ParticleDataStore store : stores) {
+      for (int i = 0; i < store.getCount(); i++) {
+        if (store.getSprite(i) < 0) {
+          rasterizer.add(store.getX(i), store.getY(i), store.getSize(i), store.getRotation(i),
+              store.getArgb(i));
+        }
+      }
+    }
+
+    g.setTransform(IDENTITY);
+    try {
+      rasterizer.draw(g);
+    } finally {
+      g.setTransform(transform);
+    }
+  }
+
+  /**
+   * Set the rasterizer batches are drawn through
+   */
+  public void setRasterizer(ParticleRasterizer rasterizer) {
+    if (rasterizer != null) {
+      this.rasterizer = rasterizer;
+    }
+  }
+
+  public ParticleRasterizer getRasterizer() {
+    return rasterizer;
+  }
+
+  @Override
+  public void reset() {
+    particles.clear();
+    stores.clear();
+  }
+
+  @Override
+  public String getType() {
+    return "raster";
+  }
+}
@@ -0,0 +1,88 @@
+package com.engine.particles;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import com.engine.graph.RenderCommandBuffer;
+import com.engine.particles.emitters.SpriteParticleEmitter.SpriteParticle;
+
+/**
+ * Batch renderer that copies particle state into a render command buffer
+ * instead of drawing. Used when the frame is drawn on the render thread, so
+ * that only primitive snapshots of the particles cross threads.
+ */
+public class RecordingBatchRenderer implements BatchRenderer {
+  private RenderCommandBuffer target;
+
+  /**
+   * Set the buffer that particles are recorded into
+   *
+   * @param target Command buffer for the current frame
+   */
+  public void setTarget(RenderCommandBuffer target) {
+    this.target = target;
+  }
+
+  @Override
+  public void addParticle(Particle particle) {
+    if (target == null || !particle.isActive()) {
+      return;
+    }
+
+    float alpha = Math.max(0.0f, Math.min(1.0f, particle.getAlpha()));
+
+    if (particle instanceof SpriteParticle) {
+      BufferedImage sprite = ((SpriteParticle) particle).getSprite();
+      if (sprite == null) {
+        return;
+      }
+      // Sprite particles only use the alpha channel
+      int a = Math.round(alpha * 255);
+      target.addParticle(sprite, particle.getX(), particle.getY(), particle.getSize(),
+          particle.getRotation(), a << 24);
+    } else {
+      // Bake the particle alpha into the color's own alpha
+      Color color = particle.getColor();
+      int rgb = color != null ? color.getRGB() : 0xFFFFFFFF;
+      int a = Math.round((rgb >>> 24) * alpha);
+      target.addParticle(null, particle.getX(), particle.getY(), particle.getSize(),
+          particle.getRotation(), (a << 24) | (rgb & 0x00FFFFFF));
+    }
+  }
+
+  @Override
+  public void addParticles(ParticleDataStore store, BufferedImage[] sprites) {
+    if (target == null) {
+      return;
+    }
+
+    for (int i = 0; i < store.getCount(); i++) {
+      int sprite = store.getSprite(i);
+      int argb = store.getArgb(i);
+      if (sprites != null && sprite >= 0 && sprite < sprites.length) {
+        // Sprite particles only use the alpha channel
+        target.addParticle(sprites[sprite], store.getX(i), store.getY(i), store.getSize(i),
+            store.getRotation(i), argb & 0xFF000000);
+      } else {
+        target.addParticle(null, store.getX(i), store.getY(i), store.getSize(i),
+            store.getRotation(i), argb);
+      }
+    }
+  }
+
+  @Override
+  public void render(Graphics2D g) {
+    // Particles were recorded as commands; nothing to draw here
+  }
+
+  @Override
+  public void reset() {
+    target = null;
+  }
+
+  @Override
+  public String getType() {
+    return "recording";
+  }
+}
@@ -21,6 +21,10 @@ public class SpriteParticleBatchRenderer implements BatchRenderer {
   private final Map<BufferedImage, Map<Float, List<SpriteParticle>>> particlesByImageAndAlpha = new HashMap<>();
   private long currentFrameNumber = 0;
 
+  // Particle stores and their sprite tables, drawn straight from the arrays
+  private final List<ParticleDataStore> stores = new ArrayList<>();
+  private final List<BufferedImage[]> storeSprites = new ArrayList<>();
+
   @Override
   public void addParticle(Particle particle) {
     if (!particle.isActive() || !(particle instanceof SpriteParticle)) {
@@ -45,6 +49,14 @@ public class SpriteParticleBatchRenderer implements BatchRenderer {
     spriteParticle.setLastFrameRendered(currentFrameNumber);
   }
 
+  @Override
+  public void addParticles(ParticleDataStore store, BufferedImage[] sprites) {
+    if (sprites != null && store.getCount() > 0) {
+      stores.add(store);
+      storeSprites.add(sprites);
+    }
+  }
+
   @Override
   public void render(Graphics2D g) {
     // Increment frame counter
@@ -92,6 +104,34 @@ public class SpriteParticleBatchRenderer implements BatchRenderer {
       }
     }
 
+    // Store particles, switching the composite only when the rounded alpha
+    // changes
+    for (int s = 0; s < stores.size(); s++) {
+      ParticleDataStore store = stores.get(s);
+      BufferedImage[] sprites = storeSprites.get(s);
+      float currentAlpha = -1;
+
+      for (int i = 0; i < store.getCount(); i++) {
+        int sprite = store.getSprite(i);
+        float alpha = Math.round(store.getAlpha(i) * 20) / 20.0f;
+        if (sprite < 0 || sprite >= sprites.length || alpha <= 0) {
+          continue;
+        }
+        if (alpha != currentAlpha) {
+          g.setComposite(alpha < 1.0f
+              ? AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha)
+              : originalComposite);
+          currentAlpha = alpha;
+        }
+
+        float size = store.getSize(i);
+        g.translate(store.getX(i), store.getY(i));
+        g.rotate(store.getRotation(i));
+        g.drawImage(sprites[sprite], (int) (-size / 2), (int) (-size / 2), (int) size, (int) size, null);
+        g.setTransform(originalTransform);
+      }
+    }
+
     // Restore original composite
     g.setComposite(originalComposite);
   }
@@ -99,6 +139,8 @@ public class SpriteParticleBatchRenderer implements BatchRenderer {
   @Override
   public void reset() {
     particlesByImageAndAlpha.clear();
+    stores.clear();
+    storeSprites.clear();
   }
 
   @Override
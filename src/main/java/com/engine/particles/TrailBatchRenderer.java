@@ -0,0 +1,75 @@
+package com.engine.particles;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.engine.particles.emitters.TrailEmitter;
+
+/**
+ * Batch renderer for trail emitters. Each trail is one filled outline; the
+ * batch sets anti-aliasing once for all trails and only changes the color
+ * between trails of different colors. Trails have no particles, so the
+ * particle methods ignore their input.
+ */
+public class TrailBatchRenderer implements BatchRenderer {
+  private final List<TrailEmitter> trails = new ArrayList<>();
+
+  /**
+   * Add a trail to the batch
+   *
+   * @param trail The trail emitter
+   */
+  public void addTrail(TrailEmitter trail) {
+    trails.add(trail);
+  }
+
+  @Override
+  public void addParticle(Particle particle) {
+  }
+
+  @Override
+  public void addParticles(ParticleDataStore store, BufferedImage[] sprites) {
+  }
+
+  @Override
+  public void render(Graphics2D g) {
+    if (trails.isEmpty()) {
+      return;
+    }
+
+    Object originalAntialiasing = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+    Color lastColor = null;
+    for (TrailEmitter trail : trails) {
+      Path2D outline = trail.buildPath();
+      if (outline == null) {
+        continue;
+      }
+      if (trail.getColor() != lastColor) {
+        lastColor = trail.getColor();
+        g.setColor(lastColor);
+      }
+      g.fill(outline);
+    }
+
+    if (originalAntialiasing != null) {
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, originalAntialiasing);
+    }
+  }
+
+  @Override
+  public void reset() {
+    trails.clear();
+  }
+
+  @Override
+  public String getType() {
+    return "trail";
+  }
+}
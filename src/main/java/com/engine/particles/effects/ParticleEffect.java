@@ -0,0 +1,138 @@
+package com.engine.particles.effects;
+
+/**
+ * A compiled particle effect. Spawn parameters are plain ranges and the
+ * over-life curves are baked into lookup tables of {@link #TABLE_SIZE}
+ * entries, so emitters never interpolate curves or parse values at runtime.
+ * Instances are immutable; reloading an effect produces a new instance.
+ *
+ * @see ParticleEffectCompiler
+ */
+public class ParticleEffect {
+  /** Number of entries in the baked over-life tables */
+  public static final int TABLE_SIZE = 64;
+
+  private final String name;
+
+  // Emission
+  float emissionRate = 10;
+  int burst = 0;
+  int maxParticles = 1000;
+  float prewarm = 0; // Seconds simulated before the effect is shown
+
+  // Spawn ranges
+  float minLifetime = 1.0f;
+  float maxLifetime = 2.0f;
+  float minSpeed = 50.0f;
+  float maxSpeed = 100.0f;
+  float minSize = 5.0f;
+  float maxSize = 10.0f;
+  float baseAngle = 0; // Radians
+  float spreadAngle = (float) Math.PI * 2; // Radians
+  float minRotationSpeed = (float) -Math.PI / 2; // Radians per second
+  float maxRotationSpeed = (float) Math.PI / 2;
+  float gravity = 0;
+
+  // Baked over-life tables
+  float[] sizeTable;
+  int[] colorTable;
+
+  ParticleEffect(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the continuous emission rate in particles per second
+   */
+  public float getEmissionRate() {
+    return emissionRate;
+  }
+
+  /**
+   * Get the number of particles emitted at once when the effect starts
+   */
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * Get how many seconds the effect is fast-forwarded when it is created
+   */
+  public float getPrewarm() {
+    return prewarm;
+  }
+
+  public int getMaxParticles() {
+    return maxParticles;
+  }
+
+  public float getMinLifetime() {
+    return minLifetime;
+  }
+
+  public float getMaxLifetime() {
+    return maxLifetime;
+  }
+
+  public float getMinSpeed() {
+    return minSpeed;
+  }
+
+  public float getMaxSpeed() {
+    return maxSpeed;
+  }
+
+  public float getMinSize() {
+    return minSize;
+  }
+
+  public float getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Get the emission direction in radians
+   */
+  public float getBaseAngle() {
+    return baseAngle;
+  }
+
+  /**
+   * Get the width of the emission cone in radians
+   */
+  public float getSpreadAngle() {
+    return spreadAngle;
+  }
+
+  public float getMinRotationSpeed() {
+    return minRotationSpeed;
+  }
+
+  public float getMaxRotationSpeed() {
+    return maxRotationSpeed;
+  }
+
+  public float getGravity() {
+    return gravity;
+  }
+
+  /**
+   * Get the size factors over life. Shared with the stores using the effect;
+   * must not be modified.
+   */
+  public float[] getSizeTable() {
+    return sizeTable;
+  }
+
+  /**
+   * Get the ARGB colors over life, with the alpha curve applied. Shared with
+   * the stores using the effect; must not be modified.
+   */
+  public int[] getColorTable() {
+    return colorTable;
+  }
+}
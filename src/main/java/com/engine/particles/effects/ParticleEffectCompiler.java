@@ -0,0 +1,287 @@
+package com.engine.particles.effects;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Properties;
+
+/**
+ * Compiles particle effect definitions into {@link ParticleEffect}s.
+ * <p>
+ * A definition is a properties file, one {@code key = value} per line, with
+ * {@code #} starting a comment line and {@code "# "} an end-of-line comment:
+ *
+ * <pre>
+ * # Campfire
+ * emissionRate  = 40
+ * lifetime      = 0.5 .. 1.5        # seconds
+ * speed         = 20 .. 60
+ * size          = 4 .. 12           # start size
+ * angle         = 90                # degrees, 90 is down in screen space
+ * spread        = 45
+ * gravity       = -20
+ * sizeOverLife  = 0:1, 0.2:1.4, 1:0.3
+ * colorOverLife = 0:#FFFFC040, 0.5:#FFFF6000, 1:#00FF0000
+ * alphaOverLife = 0:0, 0.1:1, 1:1
+ * </pre>
+ *
+ * Ranges are {@code min .. max} or a single value. Curves are
+ * comma-separated {@code time:value} keys with times from 0 (spawn) to 1
+ * (death), or a single constant value. Colors are {@code #RRGGBB} or
+ * {@code #AARRGGBB}. Other keys are {@code burst}, {@code maxParticles},
+ * {@code prewarm} (seconds) and {@code rotationSpeed} (degrees per second). Unknown keys are rejected so
+ * that typos do not go unnoticed.
+ */
+public final class ParticleEffectCompiler {
+
+  private ParticleEffectCompiler() {
+  }
+
+  /**
+   * Compile an effect definition
+   *
+   * @param name   Name of the effect
+   * @param reader Source of the definition
+   * @return The compiled effect
+   * @throws IOException              If the definition cannot be read
+   * @throws IllegalArgumentException If the definition is invalid
+   */
+  public static ParticleEffect compile(String name, Reader reader) throws IOException {
+    Properties definition = new Properties();
+    definition.load(reader);
+    return compile(name, definition);
+  }
+
+  /**
+   * Compile an effect definition
+   *
+   * @param name       Name of the effect
+   * @param definition The definition's keys and values
+   * @return The compiled effect
+   * @throws IllegalArgumentException If the definition is invalid
+   */
+  public static ParticleEffect compile(String name, Properties definition) {
+    ParticleEffect effect = new ParticleEffect(name);
+    String sizeCurve = "0:1, 1:0.5";
+    String colorCurve = "0:#FFFFFFFF, 1:#00FFFFFF";
+    String alphaCurve = "1";
+
+    for (String key : definition.stringPropertyNames()) {
+      String value = stripComment(definition.getProperty(key));
+      try {
+        switch (key) {
+          case "emissionRate":
+            effect.emissionRate = parseFloat(value);
+            break;
+          case "burst":
+            effect.burst = Integer.parseInt(value);
+            break;
+          case "maxParticles":
+            effect.maxParticles = Integer.parseInt(value);
+            break;
+          case "prewarm":
+            effect.prewarm = parseFloat(value);
+            break;
+          case "lifetime": {
+            float[] range = parseRange(value);
+            effect.minLifetime = range[0];
+            effect.maxLifetime = range[1];
+            break;
+          }
+          case "speed": {
+            float[] range = parseRange(value);
+            effect.minSpeed = range[0];
+            effect.maxSpeed = range[1];
+            break;
+          }
+          case "size": {
+            float[] range = parseRange(value);
+            effect.minSize = range[0];
+            effect.maxSize = range[1];
+            break;
+          }
+          case "rotationSpeed": {
+            float[] range = parseRange(value);
+            effect.minRotationSpeed = (float) Math.toRadians(range[0]);
+            effect.maxRotationSpeed = (float) Math.toRadians(range[1]);
+            break;
+          }
+          case "angle":
+            effect.baseAngle = (float) Math.toRadians(parseFloat(value));
+            break;
+          case "spread":
+            effect.spreadAngle = (float) Math.toRadians(parseFloat(value));
+            break;
+          case "gravity":
+            effect.gravity = parseFloat(value);
+            break;
+          case "sizeOverLife":
+            sizeCurve = value;
+            break;
+          case "colorOverLife":
+            colorCurve = value;
+            break;
+          case "alphaOverLife":
+            alphaCurve = value;
+            break;
+          default:
+            throw new IllegalArgumentException("unknown key");
+        }
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            "Effect '" + name + "': invalid '" + key + "' (" + value + "): " + e.getMessage(), e);
+      }
+    }
+
+    if (effect.minLifetime <= 0 || effect.maxLifetime < effect.minLifetime) {
+      throw new IllegalArgumentException("Effect '" + name + "': lifetime must be positive");
+    }
+
+    effect.sizeTable = bakeCurve(name, "sizeOverLife", sizeCurve);
+    effect.colorTable = bakeColorCurve(name, colorCurve, bakeCurve(name, "alphaOverLife", alphaCurve));
+    return effect;
+  }
+
+  private static String stripComment(String value) {
+    int comment = value.indexOf('#');
+    // A '#' directly followed by a hex digit starts a color, not a comment
+    while (comment >= 0 && comment + 1 < value.length()
+        && Character.digit(value.charAt(comment + 1), 16) >= 0) {
+      comment = value.indexOf('#', comment + 1);
+    }
+    return (comment >= 0 ? value.substring(0, comment) : value).trim();
+  }
+
+  private static float parseFloat(String value) {
+    return Float.parseFloat(value.trim());
+  }
+
+  private static float[] parseRange(String value) {
+    int separator = value.indexOf("..");
+    if (separator < 0) {
+      float single = parseFloat(value);
+      return new float[] { single, single };
+    }
+    float min = parseFloat(value.substring(0, separator));
+    float max = parseFloat(value.substring(separator + 2));
+    if (max < min) {
+      throw new IllegalArgumentException("range maximum is below its minimum");
+    }
+    return new float[] { min, max };
+  }
+
+  private static int parseColor(String value) {
+    String hex = value.trim();
+    if (!hex.startsWith("#") || (hex.length() != 7 && hex.length() != 9)) {
+      throw new IllegalArgumentException("colors are #RRGGBB or #AARRGGBB");
+    }
+    int argb = (int) Long.parseLong(hex.substring(1), 16);
+    return hex.length() == 7 ? 0xFF000000 | argb : argb;
+  }
+
+  /**
+   * Split a curve into key times and value strings
+   */
+  private static String[][] parseKeys(String curve) {
+    String[] entries = curve.split(",");
+    String[][] keys = new String[entries.length][];
+    float previous = -1;
+    for (int i = 0; i < entries.length; i++) {
+      String entry = entries[i].trim();
+      int colon = entry.indexOf(':');
+      if (colon < 0) {
+        if (entries.length != 1) {
+          throw new IllegalArgumentException("curve keys are time:value");
+        }
+        keys[i] = new String[] { "0", entry };
+        continue;
+      }
+      float time = parseFloat(entry.substring(0, colon));
+      if (time < 0 || time > 1 || time <= previous) {
+        throw new IllegalArgumentException("key times must increase from 0 to 1");
+      }
+      previous = time;
+      keys[i] = new String[] { entry.substring(0, colon).trim(), entry.substring(colon + 1).trim() };
+    }
+    return keys;
+  }
+
+  private static float[] bakeCurve(String name, String key, String curve) {
+    try {
+      String[][] keys = parseKeys(curve);
+      float[] times = new float[keys.length];
+      float[] values = new float[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        times[i] = parseFloat(keys[i][0]);
+        values[i] = parseFloat(keys[i][1]);
+      }
+
+      float[] table = new float[ParticleEffect.TABLE_SIZE];
+      for (int t = 0; t < table.length; t++) {
+        float time = t / (float) (table.length - 1);
+        int k = segment(times, time);
+        table[t] = lerp(values[k], values[Math.min(k + 1, values.length - 1)],
+            blend(times, k, time));
+      }
+      return table;
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Effect '" + name + "': invalid '" + key + "' (" + curve + "): " + e.getMessage(), e);
+    }
+  }
+
+  private static int[] bakeColorCurve(String name, String curve, float[] alphaTable) {
+    try {
+      String[][] keys = parseKeys(curve);
+      float[] times = new float[keys.length];
+      int[] colors = new int[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        times[i] = parseFloat(keys[i][0]);
+        colors[i] = parseColor(keys[i][1]);
+      }
+
+      int[] table = new int[ParticleEffect.TABLE_SIZE];
+      for (int t = 0; t < table.length; t++) {
+        float time = t / (float) (table.length - 1);
+        int k = segment(times, time);
+        int from = colors[k];
+        int to = colors[Math.min(k + 1, colors.length - 1)];
+        float f = blend(times, k, time);
+
+        float alpha = lerp(from >>> 24, to >>> 24, f) * Math.max(0, Math.min(1, alphaTable[t]));
+        table[t] = (Math.round(alpha) << 24)
+            | (Math.round(lerp((from >> 16) & 0xFF, (to >> 16) & 0xFF, f)) << 16)
+            | (Math.round(lerp((from >> 8) & 0xFF, (to >> 8) & 0xFF, f)) << 8)
+            | Math.round(lerp(from & 0xFF, to & 0xFF, f));
+      }
+      return table;
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Effect '" + name + "': invalid 'colorOverLife' (" + curve + "): " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Find the key at or before a time; times before the first key use it
+   */
+  private static int segment(float[] times, float time) {
+    int k = 0;
+    while (k + 1 < times.length && times[k + 1] <= time) {
+      k++;
+    }
+    return k;
+  }
+
+  /**
+   * Get how far a time is between key k and the next one
+   */
+  private static float blend(float[] times, int k, float time) {
+    if (k + 1 >= times.length || time <= times[k]) {
+      return 0;
+    }
+    return (time - times[k]) / (times[k + 1] - times[k]);
+  }
+
+  private static float lerp(float from, float to, float f) {
+    return from + (to - from) * f;
+  }
+}
@@ -0,0 +1,225 @@
+package com.engine.particles.effects;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Named particle effects compiled from definition files, with optional hot
+ * reloading.
+ * <p>
+ * Emitters hold a {@link Handle} rather than the effect itself. When hot
+ * reloading is enabled, {@link #update} checks the modification times of the
+ * source files at a fixed interval and recompiles changed ones; the handle
+ * then returns the new effect and emitters switch to it on their next
+ * update. A definition that fails to compile is logged and the previous
+ * version stays in use.
+ */
+public class ParticleEffectLibrary {
+  private static final Logger LOGGER = Logger.getLogger(ParticleEffectLibrary.class.getName());
+
+  /** File extension of effect definitions */
+  public static final String EXTENSION = ".effect";
+
+  /**
+   * Reference to the current version of a named effect
+   */
+  public static final class Handle {
+    private final String name;
+    private final Path source;
+    private volatile ParticleEffect effect;
+    private long lastModified;
+
+    private Handle(String name, Path source, ParticleEffect effect, long lastModified) {
+      this.name = name;
+      this.source = source;
+      this.effect = effect;
+      this.lastModified = lastModified;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Get the current version of the effect
+     */
+    public ParticleEffect getEffect() {
+      return effect;
+    }
+
+    /**
+     * Get the file the effect was compiled from, or null if it was registered
+     * directly
+     */
+    public Path getSource() {
+      return source;
+    }
+  }
+
+  private final Map<String, Handle> effects = new ConcurrentHashMap<>();
+  private boolean hotReload = false;
+  private float pollInterval = 1.0f; // Seconds between modification checks
+  private float timeSincePoll = 0;
+
+  /**
+   * Load an effect named after its file, without the extension
+   *
+   * @param path Definition file
+   * @return Handle to the effect
+   * @throws IOException If the file cannot be read
+   */
+  public Handle load(Path path) throws IOException {
+    String fileName = path.getFileName().toString();
+    String name = fileName.endsWith(EXTENSION)
+        ? fileName.substring(0, fileName.length() - EXTENSION.length())
+        : fileName;
+    return load(name, path);
+  }
+
+  /**
+   * Load an effect from a definition file, replacing any effect of that name
+   *
+   * @param name Name to register the effect under
+   * @param path Definition file
+   * @return Handle to the effect
+   * @throws IOException If the file cannot be read
+   */
+  public Handle load(String name, Path path) throws IOException {
+    long lastModified = Files.getLastModifiedTime(path).toMillis();
+    ParticleEffect effect = compile(name, path);
+
+    Handle handle = effects.get(name);
+    if (handle != null && path.equals(handle.source)) {
+      handle.effect = effect;
+      handle.lastModified = lastModified;
+    } else {
+      handle = new Handle(name, path, effect, lastModified);
+      effects.put(name, handle);
+    }
+    LOGGER.info("Loaded particle effect '" + name + "' from " + path);
+    return handle;
+  }
+
+  /**
+   * Load every effect definition in a directory
+   *
+   * @param directory Directory containing {@code .effect} files
+   * @return Number of effects loaded
+   * @throws IOException If the directory cannot be listed
+   */
+  public int loadDirectory(Path directory) throws IOException {
+    int loaded = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+      for (Path file : files) {
+        try {
+          load(file);
+          loaded++;
+        } catch (IOException | IllegalArgumentException e) {
+          LOGGER.warning("Could not load particle effect " + file + ": " + e.getMessage());
+        }
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Register an effect compiled elsewhere. It is not hot reloaded.
+   *
+   * @param effect The compiled effect
+   * @return Handle to the effect
+   */
+  public Handle register(ParticleEffect effect) {
+    Handle handle = new Handle(effect.getName(), null, effect, 0);
+    effects.put(effect.getName(), handle);
+    return handle;
+  }
+
+  /**
+   * Get an effect by name
+   *
+   * @param name Name of the effect
+   * @return Handle to the effect, or null if none is loaded under that name
+   */
+  public Handle get(String name) {
+    return effects.get(name);
+  }
+
+  /**
+   * Advance the hot reload timer and reload changed effects when it expires
+   *
+   * @param deltaTime Time since last update in seconds
+   */
+  public void update(float deltaTime) {
+    if (!hotReload) {
+      return;
+    }
+    timeSincePoll += deltaTime;
+    if (timeSincePoll >= pollInterval) {
+      timeSincePoll = 0;
+      reloadChanged();
+    }
+  }
+
+  /**
+   * Recompile every effect whose source file changed since it was loaded
+   *
+   * @return Number of effects reloaded
+   */
+  public int reloadChanged() {
+    int reloaded = 0;
+    for (Handle handle : effects.values()) {
+      if (handle.source == null) {
+        continue;
+      }
+      try {
+        long lastModified = Files.getLastModifiedTime(handle.source).toMillis();
+        if (lastModified == handle.lastModified) {
+          continue;
+        }
+        // Don't retry a broken file until it changes again
+        handle.lastModified = lastModified;
+        handle.effect = compile(handle.name, handle.source);
+        reloaded++;
+        LOGGER.info("Reloaded particle effect '" + handle.name + "'");
+      } catch (IOException | IllegalArgumentException e) {
+        LOGGER.warning("Could not reload particle effect '" + handle.name + "': " + e.getMessage());
+      }
+    }
+    return reloaded;
+  }
+
+  private static ParticleEffect compile(String name, Path path) throws IOException {
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return ParticleEffectCompiler.compile(name, reader);
+    }
+  }
+
+  /**
+   * Enable or disable checking effect files for changes
+   *
+   * @param hotReload Whether to reload changed effects
+   */
+  public void setHotReload(boolean hotReload) {
+    this.hotReload = hotReload;
+  }
+
+  public boolean isHotReload() {
+    return hotReload;
+  }
+
+  /**
+   * Set how often effect files are checked for changes
+   *
+   * @param pollInterval Seconds between checks
+   */
+  public void setPollInterval(float pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+}
@@ -2,21 +2,17 @@ package com.engine.particles.emitters;
 
 import java.awt.Color;
 import java.util.Map;
-import java.util.Random;
 
-import com.engine.particles.AbstractParticleEmitter;
-import com.engine.particles.Particle;
+import com.engine.particles.AbstractStoreEmitter;
 
 /**
  * Emitter that produces simple colored particles.
  */
-public class ColorParticleEmitter extends AbstractParticleEmitter {
-
-  private final Random random = new Random();
+public class ColorParticleEmitter extends AbstractStoreEmitter {
 
   // Particle properties
-  private Color startColor = Color.WHITE;
-  private Color endColor = new Color(255, 255, 255, 0); // Fade to transparent
+  private int startArgb = Color.WHITE.getRGB();
+  private int endArgb = 0x00FFFFFF; // Fade to transparent
   private float minSize = 5.0f;
   private float maxSize = 10.0f;
   private float minSpeed = 50.0f;
@@ -32,7 +28,7 @@ public class ColorParticleEmitter extends AbstractParticleEmitter {
   }
 
   @Override
-  protected Particle createParticle() {
+  protected int createParticle() {
     // Randomize lifetime
     float lifetime = minLifetime + random.nextFloat() * (maxLifetime - minLifetime);
 
@@ -40,36 +36,47 @@ public class ColorParticleEmitter extends AbstractParticleEmitter {
     float size = minSize + random.nextFloat() * (maxSize - minSize);
 
     // Create base particle
-    Particle p = new Particle(x, y, size, startColor, lifetime);
+    int p = store.spawn(x, y, lifetime);
+    if (p < 0) {
+      return -1;
+    }
 
     // Randomize velocity based on angle and speed
     float angle = baseAngle + (random.nextFloat() - 0.5f) * spreadAngle;
     float speed = minSpeed + random.nextFloat() * (maxSpeed - minSpeed);
-    p.setVelocityX((float) Math.cos(angle) * speed);
-    p.setVelocityY((float) Math.sin(angle) * speed);
+    store.setVelocity(p, (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed);
 
     // Set acceleration (gravity)
-    p.setAccelerationY(gravity);
+    store.setAcceleration(p, 0, gravity);
 
     // Randomize rotation
-    p.setRotation((float) (random.nextFloat() * Math.PI * 2));
-    p.setRotationSpeed((float) ((random.nextFloat() - 0.5f) * Math.PI));
+    store.setRotation(p, (float) (random.nextFloat() * Math.PI * 2),
+        (float) ((random.nextFloat() - 0.5f) * Math.PI));
 
-    // Set size transition
-    p.setInitialSize(size);
-    p.setFinalSize(size * 0.5f); // Shrink to half size
+    // Shrink to half size and blend to the end color over the lifetime
+    store.setSize(p, size, size * 0.5f);
+    store.setColor(p, startArgb, endArgb);
 
     return p;
   }
 
+  @Override
+  public String getBatchType() {
+    return "color";
+  }
+
   @Override
   public void configure(Map<String, Object> params) {
     super.configure(params);
 
-    if (params.containsKey("startColor"))
-      this.startColor = (Color) params.get("startColor");
+    if (params.containsKey("startColor")) {
+      this.startArgb = ((Color) params.get("startColor")).getRGB();
+      // Without an explicit end color, fade the start color out
+      if (!params.containsKey("endColor"))
+        this.endArgb = startArgb & 0x00FFFFFF;
+    }
     if (params.containsKey("endColor"))
-      this.endColor = (Color) params.get("endColor");
+      this.endArgb = ((Color) params.get("endColor")).getRGB();
     if (params.containsKey("minSize"))
       this.minSize = ((Number) params.get("minSize")).floatValue();
     if (params.containsKey("maxSize"))
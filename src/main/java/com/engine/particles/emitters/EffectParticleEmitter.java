@@ -0,0 +1,86 @@
+package com.engine.particles.emitters;
+
+import com.engine.particles.AbstractStoreEmitter;
+import com.engine.particles.effects.ParticleEffect;
+import com.engine.particles.effects.ParticleEffectLibrary;
+
+/**
+ * Emitter that produces colored particles from a compiled
+ * {@link ParticleEffect}. Size and color over life are looked up in the
+ * effect's baked tables, and the emitter switches to a reloaded version of
+ * the effect on its next update, including for live particles.
+ */
+public class EffectParticleEmitter extends AbstractStoreEmitter {
+
+  private final ParticleEffectLibrary.Handle handle;
+  private ParticleEffect effect;
+
+  public EffectParticleEmitter(float x, float y, ParticleEffectLibrary.Handle handle) {
+    setPosition(x, y);
+    this.handle = handle;
+    applyEffect(handle.getEffect());
+  }
+
+  @Override
+  public void prepareUpdate(float deltaTime) {
+    // Pick up a hot-reloaded version of the effect
+    ParticleEffect current = handle.getEffect();
+    if (current != effect) {
+      applyEffect(current);
+    }
+    super.prepareUpdate(deltaTime);
+  }
+
+  private void applyEffect(ParticleEffect effect) {
+    this.effect = effect;
+    this.emissionRate = effect.getEmissionRate();
+    this.maxParticles = effect.getMaxParticles();
+    store.setMaxCapacity(maxParticles);
+    store.setLifeTables(effect.getSizeTable(), effect.getColorTable());
+  }
+
+  @Override
+  protected int createParticle() {
+    ParticleEffect e = effect;
+
+    // Randomize lifetime
+    float lifetime = e.getMinLifetime() + random.nextFloat() * (e.getMaxLifetime() - e.getMinLifetime());
+
+    int p = store.spawn(x, y, lifetime);
+    if (p < 0) {
+      return -1;
+    }
+
+    // Randomize velocity based on angle and speed
+    float angle = e.getBaseAngle() + (random.nextFloat() - 0.5f) * e.getSpreadAngle();
+    float speed = e.getMinSpeed() + random.nextFloat() * (e.getMaxSpeed() - e.getMinSpeed());
+    store.setVelocity(p, (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed);
+
+    // Set acceleration (gravity)
+    store.setAcceleration(p, 0, e.getGravity());
+
+    // Randomize rotation
+    store.setRotation(p, (float) (random.nextFloat() * Math.PI * 2),
+        e.getMinRotationSpeed() + random.nextFloat() * (e.getMaxRotationSpeed() - e.getMinRotationSpeed()));
+
+    // Size and color follow the effect's tables
+    float size = e.getMinSize() + random.nextFloat() * (e.getMaxSize() - e.getMinSize());
+    store.setSize(p, size, size);
+
+    return p;
+  }
+
+  /**
+   * Get the handle of the effect this emitter plays
+   *
+   * @return The effect handle
+   */
+  public ParticleEffectLibrary.Handle getHandle() {
+    return handle;
+  }
+
+  @Override
+  public String getBatchType() {
+    return "color";
+  }
+}
@@ -4,7 +4,6 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 
 import org.jbox2d.collision.shapes.CircleShape;
 import org.jbox2d.common.Vec2;
@@ -21,6 +20,11 @@ import com.engine.physics.PhysicsSystem;
 /**
  * Emitter that produces particles with real physics interactions.
  * These particles interact with the physics world and can collide with objects.
+ * <p>
+ * Every particle is a Box2D body, so this only suits a few hundred particles
+ * that must push other bodies around. Particles that only need to bounce off
+ * level geometry should use a store emitter with a collision grid instead,
+ * see {@link com.engine.particles.ParticleEmitterFactory#createSparkEmitter}.
  */
 public class PhysicalParticleEmitter extends AbstractParticleEmitter {
 
@@ -43,14 +47,9 @@ public class PhysicalParticleEmitter extends AbstractParticleEmitter {
       if (!isActive())
         return;
 
-      // Update lifetime
-      float remainingLifetime = getRemainingLifetime() - deltaTime;
-      if (remainingLifetime <= 0) {
+      // Expired particles are deactivated; the emitter removes the body
+      if (getRemainingLifetime() - deltaTime <= 0) {
         setActive(false);
-        if (physicsBody != null && physicsSystem != null) {
-          physicsSystem.removeBody(physicsBody);
-          physicsBody = null;
-        }
         return;
       }
 
@@ -95,6 +94,28 @@ public class PhysicalParticleEmitter extends AbstractParticleEmitter {
       g.setComposite(originalComposite);
     }
 
+    /**
+     * Bind a reset particle to its physics body
+     */
+    public void attach(Body body, float radius, PhysicsSystem physicsSystem) {
+      this.physicsBody = body;
+      this.radius = radius;
+      this.physicsSystem = physicsSystem;
+    }
+
+    @Override
+    public void prepareForPool() {
+      super.prepareForPool();
+      // Remove references to the physics world
+      this.physicsBody = null;
+      this.physicsSystem = null;
+      this.removeOnCollision = false;
+    }
+
+    public float getRadius() {
+      return radius;
+    }
+
     public Body getPhysicsBody() {
       return physicsBody;
     }
@@ -108,7 +129,6 @@ public class PhysicalParticleEmitter extends AbstractParticleEmitter {
     }
   }
 
-  private final Random random = new Random();
   private PhysicsSystem physicsSystem;
   private World physicsWorld;
 
@@ -175,11 +195,15 @@ public class PhysicalParticleEmitter extends AbstractParticleEmitter {
 
     body.setLinearVelocity(velocity);
 
-    // Create the physical particle
-    PhysicalParticle p = new PhysicalParticle(
-        x, y, radius,
-        new Color(random.nextFloat(), random.nextFloat(), random.nextFloat()),
-        lifetime, body, physicsSystem);
+    // Create the physical particle, reusing a pooled one if possible
+    Color color = new Color(random.nextFloat(), random.nextFloat(), random.nextFloat());
+    PhysicalParticle p;
+    if (particlePools != null) {
+      p = particlePools.getPhysicalParticles().obtainParticle(x, y, radius * 2, color, lifetime);
+      p.attach(body, radius, physicsSystem);
+    } else {
+      p = new PhysicalParticle(x, y, radius, color, lifetime, body, physicsSystem);
+    }
     p.setRemoveOnCollision(removeOnCollision);
 
     // Store reference for collision handling
@@ -190,23 +214,15 @@ public class PhysicalParticleEmitter extends AbstractParticleEmitter {
   }
 
   @Override
-  public void update(float deltaTime) {
-    // Regular update
-    super.update(deltaTime);
-
-    // Clean up destroyed particles
-    particles.removeIf(p -> {
-      if (!p.isActive() && p instanceof PhysicalParticle) {
-        PhysicalParticle pp = (PhysicalParticle) p;
-        Body body = pp.getPhysicsBody();
-        if (body != null) {
-          physicsSystem.removeBody(body);
-          bodyToParticle.remove(body);
-        }
-        return true;
+  protected void onParticleRemoved(Particle particle) {
+    if (particle instanceof PhysicalParticle) {
+      Body body = ((PhysicalParticle) particle).getPhysicsBody();
+      if (body != null) {
+        bodyToParticle.remove(body);
+        body.setUserData(null);
+        physicsSystem.removeBody(body);
       }
-      return false;
-    });
+    }
   }
 
   /**
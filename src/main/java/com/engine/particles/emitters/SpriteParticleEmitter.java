@@ -4,26 +4,14 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.util.Map;
-import java.util.Random;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.stream.Collectors;
-
-import com.engine.particles.AbstractParticleEmitter;
-import com.engine.particles.BatchRenderer;
-import com.engine.particles.BatchableEmitter;
+
+import com.engine.particles.AbstractStoreEmitter;
 import com.engine.particles.Particle;
-import com.engine.particles.ParticlePool;
-import com.engine.particles.PooledParticleEmitter;
-import com.engine.util.SpatialHashGrid;
-import com.engine.util.ParticleQuadTree;
-import com.engine.particles.SpatialAware;
 
 /**
  * Emitter that produces particles using sprite images.
  */
-public class SpriteParticleEmitter extends AbstractParticleEmitter
-    implements BatchableEmitter, PooledParticleEmitter, SpatialAware {
+public class SpriteParticleEmitter extends AbstractStoreEmitter {
 
   public static class SpriteParticle extends Particle {
     private BufferedImage sprite;
@@ -89,9 +77,7 @@ public class SpriteParticleEmitter extends AbstractParticleEmitter
     }
   }
 
-  private final Random random = new Random();
   private BufferedImage[] sprites;
-  private ParticlePool particlePool;
 
   // Particle properties
   private float minSize = 10.0f;
@@ -117,13 +103,10 @@ public class SpriteParticleEmitter extends AbstractParticleEmitter
   }
 
   @Override
-  protected Particle createParticle() {
+  protected int createParticle() {
     // Skip if no sprites available
     if (sprites == null || sprites.length == 0)
-      return null;
-
-    // Pick a random sprite
-    BufferedImage sprite = sprites[random.nextInt(sprites.length)];
+      return -1;
 
     // Randomize lifetime
     float lifetime = minLifetime + random.nextFloat() * (maxLifetime - minLifetime);
@@ -131,71 +114,52 @@ public class SpriteParticleEmitter extends AbstractParticleEmitter
     // Randomize size
     float size = minSize + random.nextFloat() * (maxSize - minSize);
 
-    // Create sprite particle
-    SpriteParticle p;
-
-    // Use particle pool if available
-    if (particlePool != null) {
-      Particle baseParticle = particlePool.obtainParticle(x, y, size, Color.WHITE, lifetime);
-
-      // Convert to sprite particle if it's not already one
-      if (baseParticle instanceof SpriteParticle) {
-        p = (SpriteParticle) baseParticle;
-        p.setSprite(sprite);
-      } else {
-        // If the pool gave us a base particle, we need to create a sprite particle
-        p = new SpriteParticle(x, y, size, Color.WHITE, lifetime, sprite);
-      }
-    } else {
-      // Create new if no pool
-      p = new SpriteParticle(x, y, size, Color.WHITE, lifetime, sprite);
+    int p = store.spawn(x, y, lifetime);
+    if (p < 0) {
+      return -1;
     }
 
+    // Pick a random sprite
+    store.setSprite(p, random.nextInt(sprites.length));
+    store.setSize(p, size, size);
+
     // Randomize velocity based on angle and speed
     float angle = baseAngle + (random.nextFloat() - 0.5f) * spreadAngle;
     float speed = minSpeed + random.nextFloat() * (maxSpeed - minSpeed);
-    p.setVelocityX((float) Math.cos(angle) * speed);
-    p.setVelocityY((float) Math.sin(angle) * speed);
+    store.setVelocity(p, (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed);
 
     // Set acceleration (gravity)
-    p.setAccelerationY(gravity);
+    store.setAcceleration(p, 0, gravity);
 
     // Randomize rotation
-    p.setRotation((float) (random.nextFloat() * Math.PI * 2));
-    p.setRotationSpeed((float) ((random.nextFloat() - 0.5f) * Math.PI * 0.5));
+    store.setRotation(p, (float) (random.nextFloat() * Math.PI * 2),
+        (float) ((random.nextFloat() - 0.5f) * Math.PI * 0.5));
+
+    // Fade out at a fixed rate
+    store.setAlpha(p, 1.0f, -fadeRate);
 
     return p;
   }
 
   @Override
-  public void update(float deltaTime) {
-    super.update(deltaTime);
-
-    // Apply custom fading to particles
-    for (Particle p : particles) {
-      float currentAlpha = p.getAlpha();
-      float newAlpha = Math.max(0, currentAlpha - fadeRate * deltaTime);
-      p.setAlpha(newAlpha);
-    }
-
-    // Return inactive particles to pool
-    if (particlePool != null) {
-      particles.removeIf(p -> {
-        if (!p.isActive()) {
-          particlePool.recycleParticle(p);
-          return true;
-        }
-        return false;
-      });
-    }
+  protected BufferedImage[] getSprites() {
+    return sprites;
   }
 
   @Override
   public void configure(Map<String, Object> params) {
     super.configure(params);
 
-    if (params.containsKey("sprites"))
-      this.sprites = (BufferedImage[]) params.get("sprites");
+    if (params.containsKey("sprites")) {
+      BufferedImage[] newSprites = (BufferedImage[]) params.get("sprites");
+      if (newSprites != null && newSprites.length > 0) {
+        // Live particles keep their index, so drop the ones the new table lacks
+        if (newSprites.length < sprites.length) {
+          store.clear();
+        }
+        this.sprites = newSprites;
+      }
+    }
     if (params.containsKey("minSize"))
       this.minSize = ((Number) params.get("minSize")).floatValue();
     if (params.containsKey("maxSize"))
@@ -220,54 +184,8 @@ public class SpriteParticleEmitter extends AbstractParticleEmitter
       this.useInstancing = (Boolean) params.get("useInstancing");
   }
 
-  @Override
-  public void setParticlePool(ParticlePool pool) {
-    this.particlePool = pool;
-  }
-
   @Override
   public String getBatchType() {
     return useInstancing ? "instanced" : "sprite";
   }
-
-  @Override
-  public void addToBatch(BatchRenderer renderer) {
-    for (Particle p : particles) {
-      if (p.isActive() && p instanceof SpriteParticle) {
-        renderer.addParticle(p);
-      }
-    }
-  }
-
-  @Override
-  public void registerInSpatialStructure(SpatialHashGrid grid) {
-    for (Particle p : particles) {
-      if (p.isActive()) {
-        float size = p.getSize();
-        grid.insertObject(p, p.getX() - size / 2, p.getY() - size / 2, size, size);
-      }
-    }
-  }
-
-  @Override
-  public void registerInQuadTree(ParticleQuadTree quadTree) {
-    // Create a defensive copy to avoid concurrent modification
-    List<Particle> particlesCopy;
-    try {
-      synchronized (particles) {
-        particlesCopy = new ArrayList<>(particles);
-      }
-
-      // Only pass active particles
-      List<Particle> activeParticles = particlesCopy.stream()
-          .filter(p -> p != null && p.isActive())
-          .collect(Collectors.toList());
-
-      // Use the efficient batch insert for better performance
-      quadTree.insertParticles(activeParticles);
-    } catch (Exception e) {
-      // Catch exceptions to prevent the entire particle system from crashing
-      System.err.println("Error in SpriteParticleEmitter.registerInQuadTree: " + e.getMessage());
-    }
-  }
 }
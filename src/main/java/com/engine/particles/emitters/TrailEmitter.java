@@ -0,0 +1,378 @@
+package com.engine.particles.emitters;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.engine.particles.BatchRenderer;
+import com.engine.particles.BatchableEmitter;
+import com.engine.particles.Particle;
+import com.engine.particles.ParticleEmitter;
+import com.engine.particles.TrailBatchRenderer;
+
+import dev.dominion.ecs.api.Entity;
+
+/**
+ * Emitter that leaves a ribbon behind a moving point, e.g. a projectile.
+ * <p>
+ * Instead of particles the trail keeps a history of positions in a ring
+ * buffer of primitive floats (x, y and age per point). While the emitter is
+ * active it records a point whenever it has moved far enough; points expire
+ * after the trail lifetime, and the ribbon tapers from the start width at the
+ * emitter to the end width at the oldest point. It is drawn as a single
+ * filled outline built into a reused {@link Path2D}. Ring buffers are pooled
+ * between trails, so short-lived projectiles do not allocate per shot.
+ * <p>
+ * After {@link #stop()} the trail fades out; the particle count reported to
+ * the particle system is the number of live points, so the emitter is
+ * removed once the last one expires.
+ */
+public class TrailEmitter implements ParticleEmitter, BatchableEmitter {
+  private static final int STRIDE = 3; // x, y, age
+  private static final int MAX_FREE_BUFFERS = 256;
+
+  // Ring buffers of finished trails, reused by new ones of the same length
+  private static final Queue<float[]> FREE_BUFFERS = new ConcurrentLinkedQueue<>();
+
+  // Common properties
+  private float x, y; // Position
+  private boolean active = false; // Whether new points are recorded
+  private Entity attachedEntity = null; // Entity this emitter is attached to
+  private int priority = 0;
+
+  // Trail properties
+  private int maxPoints = 32;
+  private float lifetime = 0.4f; // Seconds a point stays in the trail
+  private float minDistance = 4.0f; // Movement before a new point is recorded
+  private float startWidth = 6.0f;
+  private float endWidth = 0.0f;
+  private Color color = new Color(255, 255, 255, 160);
+
+  // Ring buffer of points, oldest at head
+  private float[] points;
+  private int head = 0;
+  private int count = 0;
+
+  // Reused outline storage: left and right edge per vertex
+  private final Path2D.Float path = new Path2D.Float();
+  private float[] edges = new float[0];
+
+  // Extent of the ribbon after the last update
+  private float minX, minY, maxX, maxY;
+
+  public TrailEmitter(float x, float y) {
+    setPosition(x, y);
+  }
+
+  @Override
+  public void update(float deltaTime) {
+    updateAttachedPosition();
+
+    // Age the points and drop the expired ones from the tail
+    for (int i = 0; i < count; i++) {
+      points[slot(i) + 2] += deltaTime;
+    }
+    while (count > 0 && points[slot(0) + 2] >= lifetime) {
+      head = (head + 1) % maxPoints;
+      count--;
+    }
+
+    if (active) {
+      if (count == 0) {
+        addPoint(x, y);
+      } else {
+        int newest = slot(count - 1);
+        float dx = x - points[newest];
+        float dy = y - points[newest + 1];
+        if (dx * dx + dy * dy >= minDistance * minDistance) {
+          addPoint(x, y);
+        }
+      }
+    } else if (count == 0) {
+      releaseBuffer();
+    }
+
+    updateBounds();
+  }
+
+  private int slot(int i) {
+    return ((head + i) % maxPoints) * STRIDE;
+  }
+
+  private void addPoint(float px, float py) {
+    if (points == null) {
+      points = obtainBuffer(maxPoints * STRIDE);
+      head = 0;
+      count = 0;
+    }
+    if (count == maxPoints) {
+      // Full: overwrite the oldest point
+      head = (head + 1) % maxPoints;
+      count--;
+    }
+    int s = slot(count++);
+    points[s] = px;
+    points[s + 1] = py;
+    points[s + 2] = 0;
+  }
+
+  private void updateBounds() {
+    float half = Math.max(startWidth, endWidth) / 2;
+    float x0 = x, y0 = y, x1 = x, y1 = y;
+    for (int i = 0; i < count; i++) {
+      int s = slot(i);
+      x0 = Math.min(x0, points[s]);
+      y0 = Math.min(y0, points[s + 1]);
+      x1 = Math.max(x1, points[s]);
+      y1 = Math.max(y1, points[s + 1]);
+    }
+    minX = x0 - half;
+    minY = y0 - half;
+    maxX = x1 + half;
+    maxY = y1 + half;
+  }
+
+  private static float[] obtainBuffer(int length) {
+    float[] buffer = FREE_BUFFERS.poll();
+    return buffer != null && buffer.length == length ? buffer : new float[length];
+  }
+
+  private void releaseBuffer() {
+    if (points != null) {
+      if (FREE_BUFFERS.size() < MAX_FREE_BUFFERS) {
+        FREE_BUFFERS.offer(points);
+      }
+      points = null;
+      head = 0;
+      count = 0;
+    }
+  }
+
+  /**
+   * Build the ribbon outline into the reused path. The ribbon runs from the
+   * oldest point to the emitter position while the emitter is active.
+   *
+   * @return The outline, or null if the trail has fewer than two vertices
+   */
+  public Path2D buildPath() {
+    int vertices = count + (active ? 1 : 0);
+    if (vertices < 2) {
+      return null;
+    }
+    if (edges.length < vertices * 4) {
+      edges = new float[(maxPoints + 1) * 4];
+    }
+
+    float inverseLifetime = 1.0f / lifetime;
+    for (int i = 0; i < vertices; i++) {
+      // Direction from the previous to the next vertex
+      float prevX = vertexX(Math.max(0, i - 1));
+      float prevY = vertexY(Math.max(0, i - 1));
+      float nextX = vertexX(Math.min(vertices - 1, i + 1));
+      float nextY = vertexY(Math.min(vertices - 1, i + 1));
+      float dx = nextX - prevX;
+      float dy = nextY - prevY;
+      float length = (float) Math.sqrt(dx * dx + dy * dy);
+      if (length > 0) {
+        dx /= length;
+        dy /= length;
+      }
+
+      float age = i < count ? points[slot(i) + 2] : 0;
+      float t = Math.min(1.0f, age * inverseLifetime);
+      float half = (startWidth + (endWidth - startWidth) * t) / 2;
+
+      float vx = vertexX(i);
+      float vy = vertexY(i);
+      edges[i * 4] = vx - dy * half;
+      edges[i * 4 + 1] = vy + dx * half;
+      edges[i * 4 + 2] = vx + dy * half;
+      edges[i * 4 + 3] = vy - dx * half;
+    }
+
+    path.reset();
+    path.moveTo(edges[0], edges[1]);
+    for (int i = 1; i < vertices; i++) {
+      path.lineTo(edges[i * 4], edges[i * 4 + 1]);
+    }
+    for (int i = vertices - 1; i >= 0; i--) {
+      path.lineTo(edges[i * 4 + 2], edges[i * 4 + 3]);
+    }
+    path.closePath();
+    return path;
+  }
+
+  private float vertexX(int i) {
+    return i < count ? points[slot(i)] : x;
+  }
+
+  private float vertexY(int i) {
+    return i < count ? points[slot(i) + 1] : y;
+  }
+
+  @Override
+  public void render(Graphics2D g) {
+    Path2D outline = buildPath();
+    if (outline != null) {
+      g.setColor(color);
+      g.fill(outline);
+    }
+  }
+
+  /**
+   * Record the current position as a trail point
+   */
+  @Override
+  public void emit(int count) {
+    if (count > 0) {
+      addPoint(x, y);
+    }
+  }
+
+  @Override
+  public void burst(int count) {
+    emit(count);
+  }
+
+  @Override
+  public void start() {
+    active = true;
+  }
+
+  /**
+   * Stop recording points; the trail fades out over its lifetime
+   */
+  @Override
+  public void stop() {
+    active = false;
+  }
+
+  @Override
+  public boolean isActive() {
+    return active;
+  }
+
+  @Override
+  public void setPosition(float x, float y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  @Override
+  public float getX() {
+    return x;
+  }
+
+  @Override
+  public float getY() {
+    return y;
+  }
+
+  @Override
+  public void configure(Map<String, Object> params) {
+    if (params.containsKey("x"))
+      this.x = ((Number) params.get("x")).floatValue();
+    if (params.containsKey("y"))
+      this.y = ((Number) params.get("y")).floatValue();
+    if (params.containsKey("priority"))
+      this.priority = ((Number) params.get("priority")).intValue();
+    if (params.containsKey("maxPoints")) {
+      int newMaxPoints = Math.max(2, ((Number) params.get("maxPoints")).intValue());
+      if (newMaxPoints != maxPoints) {
+        // Points are laid out for the old length; start the trail over
+        releaseBuffer();
+        this.maxPoints = newMaxPoints;
+      }
+    }
+    if (params.containsKey("lifetime"))
+      this.lifetime = ((Number) params.get("lifetime")).floatValue();
+    if (params.containsKey("minDistance"))
+      this.minDistance = ((Number) params.get("minDistance")).floatValue();
+    if (params.containsKey("startWidth"))
+      this.startWidth = ((Number) params.get("startWidth")).floatValue();
+    if (params.containsKey("endWidth"))
+      this.endWidth = ((Number) params.get("endWidth")).floatValue();
+    if (params.containsKey("color"))
+      this.color = (Color) params.get("color");
+  }
+
+  /**
+   * Trails have no particle objects
+   *
+   * @return An empty list
+   */
+  @Override
+  public List<Particle> getParticles() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Get the number of live trail points
+   */
+  @Override
+  public int getParticleCount() {
+    return count;
+  }
+
+  @Override
+  public void setAttachedEntity(Entity entity) {
+    this.attachedEntity = entity;
+  }
+
+  @Override
+  public Entity getAttachedEntity() {
+    return attachedEntity;
+  }
+
+  private void updateAttachedPosition() {
+    if (attachedEntity != null) {
+      var transform = attachedEntity.get(com.engine.components.Transform.class);
+      if (transform != null) {
+        this.x = (float) transform.getX();
+        this.y = (float) transform.getY();
+      }
+    }
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+
+  @Override
+  public String getBatchType() {
+    return "trail";
+  }
+
+  @Override
+  public void addToBatch(BatchRenderer renderer) {
+    if (renderer instanceof TrailBatchRenderer) {
+      ((TrailBatchRenderer) renderer).addTrail(this);
+    }
+  }
+
+  public Color getColor() {
+    return color;
+  }
+
+  public float getMinX() {
+    return minX;
+  }
+
+  public float getMinY() {
+    return minY;
+  }
+
+  public float getMaxX() {
+    return maxX;
+  }
+
+  public float getMaxY() {
+    return maxY;
+  }
+}
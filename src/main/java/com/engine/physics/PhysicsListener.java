@@ -0,0 +1,48 @@
+package com.engine.physics;
+
+import org.jbox2d.dynamics.Body;
+
+/**
+ * Typed callbacks for physics world activity.
+ * <p>
+ * Unlike the string events of the {@link com.engine.events.EventSystem},
+ * these are plain method calls with primitive arguments, so notifying a
+ * listener allocates nothing. Use them for anything that happens per step or
+ * per body. Callbacks run on the thread stepping the world, which for a
+ * {@link PhysicsRegionManager} region is a worker thread. All methods default
+ * to doing nothing.
+ */
+public interface PhysicsListener {
+  /**
+   * Called before each physics step
+   *
+   * @param timeStep Length of the step in seconds
+   */
+  default void onStep(float timeStep) {
+  }
+
+  /**
+   * Called after a body was added to the world
+   *
+   * @param body The new body
+   */
+  default void onBodyCreated(Body body) {
+  }
+
+  /**
+   * Called before a body is removed from the world
+   *
+   * @param body The body being destroyed
+   */
+  default void onBodyDestroyed(Body body) {
+  }
+
+  /**
+   * Called after the world's gravity changed
+   *
+   * @param x Gravity along X in meters per second squared
+   * @param y Gravity along Y in meters per second squared
+   */
+  default void onGravityChanged(float x, float y) {
+  }
+}
@@ -0,0 +1,626 @@
+package com.engine.physics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jbox2d.callbacks.ContactImpulse;
+import org.jbox2d.callbacks.ContactListener;
+import org.jbox2d.callbacks.QueryCallback;
+import org.jbox2d.callbacks.RayCastCallback;
+import org.jbox2d.collision.AABB;
+import org.jbox2d.collision.Manifold;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.BodyDef;
+import org.jbox2d.dynamics.BodyType;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.FixtureDef;
+import org.jbox2d.dynamics.World;
+import org.jbox2d.dynamics.contacts.Contact;
+
+import com.engine.components.PhysicsBodyComponent;
+import com.engine.core.EngineConfig;
+import com.engine.events.EventSystem;
+import com.engine.events.GameEvent;
+
+import dev.dominion.ecs.api.Dominion;
+import dev.dominion.ecs.api.Entity;
+
+/**
+ * Splits the simulation into independent physics worlds that are stepped in
+ * parallel.
+ * <p>
+ * Each region is a rectangle of the level, e.g. a room, with its own
+ * {@link PhysicsWorld}. Bodies outside every region stay in the default
+ * world. Bodies in different worlds never collide, so regions suit parts of a
+ * level that do not interact physically. Entities keep being created through
+ * the default world's queue; their bodies are moved to the region containing
+ * them right after creation, and awake bodies that leave their region are
+ * moved to the world they entered after every update. Only bodies owned by an
+ * entity are moved, since nothing else can be told about the new body; bodies
+ * with joints are not moved either. Remove bodies and change gravity through
+ * {@link #removeBody} and {@link #setGravity} so every world is reached.
+ * <p>
+ * Contacts are reported to the collision system one at a time while worlds
+ * step concurrently, and events fired during the step are delivered after all
+ * worlds have finished, in region order. Without regions, {@link #update}
+ * simply updates the default world.
+ */
+@Singleton
+public class PhysicsRegionManager {
+  private static final Logger LOGGER = Logger.getLogger(PhysicsRegionManager.class.getName());
+
+  /**
+   * A rectangular part of the level simulated by its own world
+   */
+  public static final class Region {
+    private final String name;
+    private final float minX, minY, maxX, maxY;
+    private final PhysicsWorld world;
+
+    private Region(String name, float x, float y, float width, float height, PhysicsWorld world) {
+      this.name = name;
+      this.minX = x;
+      this.minY = y;
+      this.maxX = x + width;
+      this.maxY = y + height;
+      this.world = world;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public PhysicsWorld getWorld() {
+      return world;
+    }
+
+    /**
+     * Check whether a point in game units lies in the region
+     */
+    public boolean contains(float x, float y) {
+      return x >= minX && x < maxX && y >= minY && y < maxY;
+    }
+
+    private boolean intersects(float x0, float y0, float x1, float y1) {
+      return x0 <= maxX && x1 >= minX && y0 <= maxY && y1 >= minY;
+    }
+  }
+
+  private final PhysicsWorld defaultWorld;
+  private final Dominion ecs;
+  private final CollisionSystem collisionSystem;
+  private final EngineConfig config;
+  private final EventSystem eventSystem;
+
+  private final List<Region> regions = new ArrayList<>();
+  private final List<PhysicsListener> physicsListeners = new ArrayList<>();
+  private final ContactListener serializedContacts;
+  private ForkJoinPool pool;
+
+  // Reused per update
+  private final List<Body> createdBodies = new ArrayList<>();
+  private final List<Body> leavingBodies = new ArrayList<>();
+  private final List<PhysicsWorld> leavingFrom = new ArrayList<>();
+  private final List<Callable<List<GameEvent>>> stepTasks = new ArrayList<>();
+
+  private int migratedBodyCount = 0;
+
+  @Inject
+  public PhysicsRegionManager(PhysicsWorld defaultWorld, Dominion ecs, CollisionSystem collisionSystem,
+      EngineConfig config, EventSystem eventSystem) {
+    this.defaultWorld = defaultWorld;
+    this.ecs = ecs;
+    this.collisionSystem = collisionSystem;
+    this.config = config;
+    this.eventSystem = eventSystem;
+    this.serializedContacts = new SerializedContactListener(collisionSystem);
+  }
+
+  /**
+   * Add a region with its own world. Bodies already inside the rectangle are
+   * moved into it.
+   *
+   * @param name   Unique name of the region
+   * @param x      Left edge in game units
+   * @param y      Top edge in game units
+   * @param width  Width in game units
+   * @param height Height in game units
+   * @return The new region
+   * @throws IllegalArgumentException If the name is taken or the size is not
+   *                                  positive
+   */
+  public Region addRegion(String name, float x, float y, float width, float height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Region size must be positive: " + width + "x" + height);
+    }
+    if (getRegion(name) != null) {
+      throw new IllegalArgumentException("Physics region already exists: " + name);
+    }
+
+    if (regions.isEmpty()) {
+      // The default world now steps alongside the regions
+      defaultWorld.setContactListener(serializedContacts);
+    }
+    PhysicsWorld world = new PhysicsWorld(ecs, collisionSystem, config, eventSystem, false);
+    world.setContactListener(serializedContacts);
+    for (PhysicsListener listener : physicsListeners) {
+      world.addPhysicsListener(listener);
+    }
+    if (!world.getGravity().equals(defaultWorld.getGravity())) {
+      world.setGravity(defaultWorld.getGravity());
+    }
+    Region region = new Region(name, x, y, width, height, world);
+    regions.add(region);
+
+    // Claim the default world's bodies inside the region, static ones included
+    for (Body body = defaultWorld.getBodyList(); body != null; body = body.getNext()) {
+      if (isMovable(body) && region.contains(toGame(body.getPosition().x), toGame(body.getPosition().y))) {
+        leavingBodies.add(body);
+      }
+    }
+    for (Body body : leavingBodies) {
+      migrate(body, defaultWorld, world);
+    }
+    LOGGER.info("Added physics region '" + name + "' with " + leavingBodies.size() + " bodies");
+    leavingBodies.clear();
+    return region;
+  }
+
+  /**
+   * Remove a region, moving its bodies back to the default world. Bodies that
+   * cannot be moved are destroyed with the region's world.
+   *
+   * @param name Name of the region
+   * @return Whether a region was removed
+   */
+  public boolean removeRegion(String name) {
+    Region region = getRegion(name);
+    if (region == null) {
+      return false;
+    }
+    regions.remove(region);
+
+    for (Body body = region.world.getBodyList(); body != null; body = body.getNext()) {
+      if (isMovable(body)) {
+        leavingBodies.add(body);
+      }
+    }
+    for (Body body : leavingBodies) {
+      migrate(body, region.world, defaultWorld);
+    }
+    int dropped = region.world.getBodyCount();
+    if (dropped > 0) {
+      LOGGER.warning("Removed physics region '" + name + "' dropped " + dropped
+          + " bodies not owned by an entity or held by joints");
+    }
+    leavingBodies.clear();
+    return true;
+  }
+
+  /**
+   * Create pending bodies, step every world and move bodies that crossed a
+   * region boundary
+   *
+   * @param deltaTime Time since last update in seconds
+   */
+  public void update(double deltaTime) {
+    if (regions.isEmpty()) {
+      defaultWorld.update(deltaTime);
+      return;
+    }
+
+    // Safe point: nothing is stepping, so bodies can move between worlds
+    defaultWorld.createPendingBodies(createdBodies);
+    for (Body body : createdBodies) {
+      PhysicsWorld target = worldAt(toGame(body.getPosition().x), toGame(body.getPosition().y));
+      if (target != defaultWorld && isMovable(body)) {
+        migrate(body, defaultWorld, target);
+      }
+    }
+    createdBodies.clear();
+
+    stepAll(deltaTime);
+
+    collectLeavingBodies(defaultWorld);
+    for (Region region : regions) {
+      collectLeavingBodies(region.world);
+    }
+    for (int i = 0; i < leavingBodies.size(); i++) {
+      Body body = leavingBodies.get(i);
+      migrate(body, leavingFrom.get(i), worldAt(toGame(body.getPosition().x), toGame(body.getPosition().y)));
+    }
+    leavingBodies.clear();
+    leavingFrom.clear();
+  }
+
+  private void stepAll(double deltaTime) {
+    if (pool == null) {
+      pool = new ForkJoinPool(Math.max(1, Math.min(regions.size() + 1,
+          Runtime.getRuntime().availableProcessors())));
+    }
+
+    stepTasks.clear();
+    stepTasks.add(stepTask(defaultWorld, deltaTime));
+    for (Region region : regions) {
+      stepTasks.add(stepTask(region.world, deltaTime));
+    }
+
+    // Merge point: deliver captured events in region order
+    for (Future<List<GameEvent>> future : pool.invokeAll(stepTasks)) {
+      try {
+        for (GameEvent event : future.get()) {
+          eventSystem.fireEvent(event);
+        }
+      } catch (Exception e) {
+        LOGGER.log(Level.SEVERE, "Error stepping physics region", e);
+      }
+    }
+  }
+
+  private Callable<List<GameEvent>> stepTask(PhysicsWorld world, double deltaTime) {
+    return () -> {
+      List<GameEvent> captured;
+      eventSystem.beginDeferring();
+      try {
+        world.update(deltaTime);
+      } finally {
+        captured = eventSystem.endDeferring();
+      }
+      return captured;
+    };
+  }
+
+  private void collectLeavingBodies(PhysicsWorld world) {
+    for (Body body = world.getBodyList(); body != null; body = body.getNext()) {
+      if (body.getType() == BodyType.STATIC || !body.isAwake() || !isMovable(body)) {
+        continue;
+      }
+      Vec2 position = body.getPosition();
+      if (worldAt(toGame(position.x), toGame(position.y)) != world) {
+        leavingBodies.add(body);
+        leavingFrom.add(world);
+      }
+    }
+  }
+
+  /**
+   * Check whether a body can be recreated in another world: it must belong to
+   * an entity, whose component is repointed, and have no joints. Anything else
+   * (particles, bodies created directly by game code) would keep a reference
+   * to the destroyed original.
+   */
+  private static boolean isMovable(Body body) {
+    if (body.getJointList() != null || !(body.getUserData() instanceof Entity)) {
+      return false;
+    }
+    PhysicsBodyComponent physics = ((Entity) body.getUserData()).get(PhysicsBodyComponent.class);
+    return physics != null && physics.getBody() == body;
+  }
+
+  /**
+   * Recreate a body in another world and destroy the original. The entity's
+   * PhysicsBodyComponent is pointed at the new body.
+   */
+  private void migrate(Body body, PhysicsWorld from, PhysicsWorld to) {
+    if (from == to || !isMovable(body)) {
+      return;
+    }
+
+    BodyDef def = new BodyDef();
+    def.type = body.getType();
+    def.position.set(body.getPosition());
+    def.angle = body.getAngle();
+    def.linearVelocity.set(body.getLinearVelocity());
+    def.angularVelocity = body.getAngularVelocity();
+    def.linearDamping = body.getLinearDamping();
+    def.angularDamping = body.getAngularDamping();
+    def.allowSleep = body.isSleepingAllowed();
+    def.awake = body.isAwake();
+    def.fixedRotation = body.isFixedRotation();
+    def.bullet = body.isBullet();
+    def.active = body.isActive();
+    def.gravityScale = body.getGravityScale();
+    def.userData = body.getUserData();
+    Body copy = to.createBody(def);
+
+    for (Fixture fixture = body.getFixtureList(); fixture != null; fixture = fixture.getNext()) {
+      FixtureDef fixtureDef = new FixtureDef();
+      fixtureDef.shape = fixture.getShape(); // Cloned by createFixture
+      fixtureDef.density = fixture.getDensity();
+      fixtureDef.friction = fixture.getFriction();
+      fixtureDef.restitution = fixture.getRestitution();
+      fixtureDef.isSensor = fixture.isSensor();
+      fixtureDef.filter.set(fixture.getFilterData());
+      fixtureDef.userData = fixture.getUserData();
+      copy.createFixture(fixtureDef);
+    }
+
+    ((Entity) body.getUserData()).get(PhysicsBodyComponent.class).setBody(copy);
+
+    from.destroyBody(body);
+    migratedBodyCount++;
+  }
+
+  /**
+   * Remove a body from whichever world holds it
+   *
+   * @param body The body to remove
+   */
+  public void removeBody(Body body) {
+    if (body == null) {
+      return;
+    }
+    World world = body.getWorld();
+    if (world instanceof PhysicsWorld) {
+      ((PhysicsWorld) world).removeBody(body);
+    } else {
+      defaultWorld.removeBody(body);
+    }
+  }
+
+  /**
+   * Set the gravity of the default world and every region, including regions
+   * added later. Each world fires its own gravity change.
+   *
+   * @param gravity Gravity in meters per second squared
+   */
+  public void setGravity(Vec2 gravity) {
+    defaultWorld.setGravity(gravity);
+    for (Region region : regions) {
+      region.world.setGravity(gravity);
+    }
+  }
+
+  /**
+   * Report a frame of the engine's fixed-step loop to every world; see
+   * {@link PhysicsWorld#recordFrame}. Only the default world fires the
+   * overload event.
+   */
+  public void recordFrame(int steps, int maxSteps, int droppedSteps, float alpha) {
+    defaultWorld.recordFrame(steps, maxSteps, droppedSteps, alpha);
+    for (Region region : regions) {
+      region.world.getStepController().recordFrame(steps, maxSteps, droppedSteps, alpha);
+    }
+  }
+
+  /**
+   * Register a typed listener with the default world and every region,
+   * including regions added later. Listeners are called from the worker
+   * threads stepping the regions, concurrently for different worlds.
+   *
+   * @param listener The listener
+   */
+  public void addPhysicsListener(PhysicsListener listener) {
+    physicsListeners.add(listener);
+    defaultWorld.addPhysicsListener(listener);
+    for (Region region : regions) {
+      region.world.addPhysicsListener(listener);
+    }
+  }
+
+  /**
+   * Remove a typed listener from all worlds
+   *
+   * @param listener The listener
+   */
+  public void removePhysicsListener(PhysicsListener listener) {
+    physicsListeners.remove(listener);
+    defaultWorld.removePhysicsListener(listener);
+    for (Region region : regions) {
+      region.world.removePhysicsListener(listener);
+    }
+  }
+
+  /**
+   * Find the world that simulates a point
+   *
+   * @param x X coordinate in game units
+   * @param y Y coordinate in game units
+   * @return The world of the first region containing the point, or the
+   *         default world
+   */
+  public PhysicsWorld worldAt(float x, float y) {
+    for (int i = 0; i < regions.size(); i++) {
+      Region region = regions.get(i);
+      if (region.contains(x, y)) {
+        return region.world;
+      }
+    }
+    return defaultWorld;
+  }
+
+  /**
+   * Report the fixtures of every world whose bounding boxes overlap a box.
+   * Returning false from the callback ends the whole query.
+   *
+   * @param callback Receives the fixtures
+   * @param minX     Left edge in game units
+   * @param minY     Top edge in game units
+   * @param maxX     Right edge in game units
+   * @param maxY     Bottom edge in game units
+   */
+  public void queryAABB(QueryCallback callback, float minX, float minY, float maxX, float maxY) {
+    AABB box = new AABB(new Vec2(toPhysics(minX), toPhysics(minY)),
+        new Vec2(toPhysics(maxX), toPhysics(maxY)));
+    boolean[] stopped = { false };
+    QueryCallback query = fixture -> {
+      if (!callback.reportFixture(fixture)) {
+        stopped[0] = true;
+        return false;
+      }
+      return true;
+    };
+
+    defaultWorld.queryAABB(query, box);
+    for (int i = 0; i < regions.size() && !stopped[0]; i++) {
+      Region region = regions.get(i);
+      if (region.intersects(minX, minY, maxX, maxY)) {
+        region.world.queryAABB(query, box);
+      }
+    }
+  }
+
+  /**
+   * Cast a ray through every world it passes. The callback works as for
+   * {@link org.jbox2d.dynamics.World#raycast}; fractions are relative to the
+   * whole ray in every world, so the closest hit is the smallest fraction
+   * reported, but clipping only applies within one world.
+   *
+   * @param callback Receives the hits
+   * @param x1       Start X in game units
+   * @param y1       Start Y in game units
+   * @param x2       End X in game units
+   * @param y2       End Y in game units
+   */
+  public void raycast(RayCastCallback callback, float x1, float y1, float x2, float y2) {
+    Vec2 from = new Vec2(toPhysics(x1), toPhysics(y1));
+    Vec2 to = new Vec2(toPhysics(x2), toPhysics(y2));
+
+    defaultWorld.raycast(callback, from, to);
+    for (Region region : regions) {
+      if (region.intersects(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2))) {
+        region.world.raycast(callback, from, to);
+      }
+    }
+  }
+
+  /**
+   * Find the first fixture hit by a ray across all worlds
+   *
+   * @param x1 Start X in game units
+   * @param y1 Start Y in game units
+   * @param x2 End X in game units
+   * @param y2 End Y in game units
+   * @return The closest fixture hit, or null
+   */
+  public Fixture raycastClosest(float x1, float y1, float x2, float y2) {
+    Fixture[] closest = { null };
+    float[] closestFraction = { Float.MAX_VALUE };
+    raycast((fixture, point, normal, fraction) -> {
+      if (fraction < closestFraction[0]) {
+        closestFraction[0] = fraction;
+        closest[0] = fixture;
+      }
+      return fraction; // Clip to the hit
+    }, x1, y1, x2, y2);
+    return closest[0];
+  }
+
+  private float toGame(float physicsValue) {
+    return defaultWorld.fromPhysicsWorld(physicsValue);
+  }
+
+  private float toPhysics(float gameValue) {
+    return defaultWorld.toPhysicsWorld(gameValue);
+  }
+
+  /**
+   * Get a region by name
+   *
+   * @param name Name of the region
+   * @return The region, or null
+   */
+  public Region getRegion(String name) {
+    for (Region region : regions) {
+      if (region.name.equals(name)) {
+        return region;
+      }
+    }
+    return null;
+  }
+
+  public List<Region> getRegions() {
+    return Collections.unmodifiableList(regions);
+  }
+
+  public PhysicsWorld getDefaultWorld() {
+    return defaultWorld;
+  }
+
+  /**
+   * Get every world, the default world first and then the regions in order
+   *
+   * @return A new list of the worlds
+   */
+  public List<PhysicsWorld> getWorlds() {
+    List<PhysicsWorld> worlds = new ArrayList<>(regions.size() + 1);
+    worlds.add(defaultWorld);
+    for (Region region : regions) {
+      worlds.add(region.world);
+    }
+    return worlds;
+  }
+
+  /**
+   * Get the total number of bodies in all worlds
+   *
+   * @return Body count
+   */
+  public int getBodyCount() {
+    int count = defaultWorld.getBodyCount();
+    for (Region region : regions) {
+      count += region.world.getBodyCount();
+    }
+    return count;
+  }
+
+  /**
+   * Get the number of bodies moved between worlds so far
+   *
+   * @return Migrated body count
+   */
+  public int getMigratedBodyCount() {
+    return migratedBodyCount;
+  }
+
+  /**
+   * Stop the worker pool
+   */
+  public void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Passes contacts to the collision system one at a time, since the
+   * collision system and the game objects it notifies are not thread safe
+   */
+  private static final class SerializedContactListener implements ContactListener {
+    private final ContactListener delegate;
+
+    SerializedContactListener(ContactListener delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void beginContact(Contact contact) {
+      delegate.beginContact(contact);
+    }
+
+    @Override
+    public synchronized void endContact(Contact contact) {
+      delegate.endContact(contact);
+    }
+
+    @Override
+    public synchronized void preSolve(Contact contact, Manifold oldManifold) {
+      delegate.preSolve(contact, oldManifold);
+    }
+
+    @Override
+    public synchronized void postSolve(Contact contact, ContactImpulse impulse) {
+      delegate.postSolve(contact, impulse);
+    }
+  }
+}
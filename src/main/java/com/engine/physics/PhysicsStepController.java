@@ -0,0 +1,303 @@
+package com.engine.physics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed time step bookkeeping for a physics world.
+ * <p>
+ * Frame time is accumulated and spent in whole steps, at most
+ * {@link #getMaxSubSteps()} per update. Time that would need more steps is
+ * dropped and the update counts as overloaded, so a slow frame costs a bounded
+ * amount of physics work instead of feeding the next one. The time left over
+ * after stepping, as a fraction of a step, is the interpolation alpha for
+ * rendering between the last two physics states.
+ * <p>
+ * When an outer fixed-step loop already runs the world one step per tick,
+ * as the engine's game loop does, every update brings exactly one step and no
+ * backlog ever builds up here. The loop then reports each frame through
+ * {@link #recordFrame}, and the step count, budget, overload state and alpha
+ * are the loop's.
+ * <p>
+ * Step and transform sync durations are recorded in histograms. Not thread
+ * safe; each world owns its own controller.
+ */
+public class PhysicsStepController {
+
+  /**
+   * Histogram of durations with power-of-two microsecond buckets: bucket i
+   * counts durations in [2^i, 2^(i+1)) microseconds, the last bucket
+   * everything longer.
+   */
+  public static final class Histogram {
+    private static final int BUCKETS = 20; // Up to about one second
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Record a duration
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+      long micros = Math.max(1, nanos / 1000);
+      int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+      buckets[bucket]++;
+      count++;
+      totalNanos += nanos;
+      maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Get the mean duration
+     *
+     * @return Mean in milliseconds, 0 if nothing was recorded
+     */
+    public double getMeanMillis() {
+      return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+    }
+
+    public double getMaxMillis() {
+      return maxNanos / 1_000_000.0;
+    }
+
+    /**
+     * Get an upper bound of a percentile, at bucket resolution
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Upper edge of the bucket holding the percentile, in milliseconds
+     */
+    public double getPercentileMillis(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100.0);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += buckets[i];
+        if (seen >= rank && buckets[i] > 0) {
+          return i == BUCKETS - 1 ? getMaxMillis() : Math.min(getMaxMillis(), (1L << (i + 1)) / 1000.0);
+        }
+      }
+      return getMaxMillis();
+    }
+
+    /**
+     * Get the number of durations in a bucket
+     *
+     * @param bucket Bucket index
+     * @return Sample count
+     */
+    public long getBucketCount(int bucket) {
+      return buckets[bucket];
+    }
+
+    public int getBucketTotal() {
+      return BUCKETS;
+    }
+
+    public void reset() {
+      Arrays.fill(buckets, 0);
+      count = 0;
+      totalNanos = 0;
+      maxNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("avg %.2f ms, p95 %.2f ms, max %.2f ms",
+          getMeanMillis(), getPercentileMillis(95), getMaxMillis());
+    }
+  }
+
+  private final float timeStep;
+  private volatile int maxSubSteps;
+  private float accumulator = 0.0f;
+
+  // Statistics of the last update, or of the last frame when loop driven
+  private volatile int lastSubSteps = 0;
+  private volatile float lastDroppedTime = 0.0f;
+  private volatile boolean overloaded = false;
+  private volatile long overloadCount = 0;
+
+  // Set once an outer loop reports frames
+  private volatile boolean loopDriven = false;
+  private volatile float loopAlpha = 0.0f;
+
+  private final Histogram stepTimes = new Histogram();
+  private final Histogram syncTimes = new Histogram();
+
+  /**
+   * Create a controller
+   *
+   * @param timeStep    Fixed step length in seconds
+   * @param maxSubSteps Maximum steps per update
+   */
+  public PhysicsStepController(float timeStep, int maxSubSteps) {
+    if (timeStep <= 0) {
+      throw new IllegalArgumentException("Time step must be positive");
+    }
+    this.timeStep = timeStep;
+    setMaxSubSteps(maxSubSteps);
+  }
+
+  /**
+   * Add frame time and work out how many steps to run. Time beyond the
+   * budget is dropped.
+   *
+   * @param deltaTime Time since the last update in seconds
+   * @return Number of steps to run now
+   */
+  public int advance(double deltaTime) {
+    accumulator += (float) deltaTime;
+
+    int steps = (int) (accumulator / timeStep);
+    boolean over = steps > maxSubSteps;
+    float dropped = 0.0f;
+    if (over) {
+      dropped = (steps - maxSubSteps) * timeStep;
+      accumulator -= dropped;
+      steps = maxSubSteps;
+    }
+    accumulator -= steps * timeStep;
+    if (accumulator < 0) {
+      accumulator = 0; // Float rounding
+    }
+
+    // A driving loop reports its own frames; see recordFrame
+    if (!loopDriven) {
+      overloaded = over;
+      lastDroppedTime = dropped;
+      if (over) {
+        overloadCount++;
+      }
+      lastSubSteps = steps;
+    }
+    return steps;
+  }
+
+  /**
+   * Take a frame's statistics from the fixed-step loop that runs the world
+   * one step per tick. From then on the step count, budget, overload state and
+   * alpha describe the loop's frames instead of single updates.
+   *
+   * @param steps        Steps run for the frame
+   * @param maxSteps     Step budget of the loop's frame
+   * @param droppedSteps Steps the loop discarded after exhausting its budget
+   * @param alpha        The loop's interpolation factor for the frame
+   */
+  public void recordFrame(int steps, int maxSteps, int droppedSteps, float alpha) {
+    loopDriven = true;
+    setMaxSubSteps(maxSteps);
+    lastSubSteps = steps;
+    lastDroppedTime = droppedSteps * timeStep;
+    overloaded = droppedSteps > 0;
+    if (overloaded) {
+      overloadCount++;
+    }
+    loopAlpha = alpha;
+  }
+
+  /**
+   * Record the duration of one step
+   *
+   * @param nanos Duration in nanoseconds
+   */
+  public void recordStep(long nanos) {
+    stepTimes.record(nanos);
+  }
+
+  /**
+   * Record the duration of a transform sync
+   *
+   * @param nanos Duration in nanoseconds
+   */
+  public void recordSync(long nanos) {
+    syncTimes.record(nanos);
+  }
+
+  /**
+   * Get how far the simulation is between its last step and the next one
+   *
+   * @return Interpolation alpha in [0, 1)
+   */
+  public float getAlpha() {
+    return loopDriven ? loopAlpha : Math.min(accumulator / timeStep, 1.0f);
+  }
+
+  public float getTimeStep() {
+    return timeStep;
+  }
+
+  public int getMaxSubSteps() {
+    return maxSubSteps;
+  }
+
+  /**
+   * Set the step budget of one update
+   *
+   * @param maxSubSteps Maximum steps per update, at least 1
+   */
+  public void setMaxSubSteps(int maxSubSteps) {
+    this.maxSubSteps = Math.max(1, maxSubSteps);
+  }
+
+  public int getLastSubSteps() {
+    return lastSubSteps;
+  }
+
+  /**
+   * Get the simulation time dropped by the last update
+   *
+   * @return Dropped time in seconds
+   */
+  public float getLastDroppedTime() {
+    return lastDroppedTime;
+  }
+
+  /**
+   * Check whether an outer loop reports frames through {@link #recordFrame}
+   */
+  public boolean isLoopDriven() {
+    return loopDriven;
+  }
+
+  /**
+   * Check whether the last update exceeded the step budget
+   */
+  public boolean isOverloaded() {
+    return overloaded;
+  }
+
+  /**
+   * Get the number of updates that exceeded the step budget
+   *
+   * @return Overloaded update count
+   */
+  public long getOverloadCount() {
+    return overloadCount;
+  }
+
+  public Histogram getStepTimes() {
+    return stepTimes;
+  }
+
+  public Histogram getSyncTimes() {
+    return syncTimes;
+  }
+
+  /**
+   * Clear the histograms and the overload count
+   */
+  public void resetStatistics() {
+    stepTimes.reset();
+    syncTimes.reset();
+    overloadCount = 0;
+  }
+}
@@ -16,10 +16,17 @@ import com.engine.events.EventSystem;
 import com.engine.events.EventTypes;
 
 import dev.dominion.ecs.api.Dominion;
-import dev.dominion.ecs.api.Results.With2;
+import dev.dominion.ecs.api.Entity;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Logger;
 
 @Singleton
@@ -30,19 +37,49 @@ public class PhysicsWorld extends World implements PhysicsSystem {
   private static float worldUnitsPerMeter = 30.0f;
   private final int velocityIterations;
   private final int positionIterations;
-  private float accumulator = 0.0f;
   private final float timeStep;
 
+  // Step budget, interpolation alpha and step timings
+  private final PhysicsStepController stepController;
+
   // Event system for physics events
   private final EventSystem eventSystem;
 
+  // Typed listeners, replaced rather than modified so iteration needs no copy
+  private volatile PhysicsListener[] physicsListeners = new PhysicsListener[0];
+
+  // Entities whose PhysicsBodyComponent still needs a body
+  private final Queue<Entity> pendingBodies = new ConcurrentLinkedQueue<>();
+
+  // Bodies awake at the last and at the current transform sync, swapped
+  // after each sync
+  private Set<Body> awakeAtLastSync = Collections.newSetFromMap(new IdentityHashMap<>());
+  private Set<Body> awakeAtSync = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  // Transform sync statistics of the last update
+  private int syncedBodyCount = 0;
+  private int skippedBodyCount = 0;
+
   @Inject
   public PhysicsWorld(Dominion ecs, CollisionSystem collisionSystem, EngineConfig config, EventSystem eventSystem) {
+    this(ecs, collisionSystem, config, eventSystem, true);
+  }
+
+  /**
+   * Create a world
+   *
+   * @param scanExisting Whether to create bodies for existing entities; false
+   *                     for worlds that only receive bodies from a
+   *                     {@link PhysicsRegionManager}
+   */
+  PhysicsWorld(Dominion ecs, CollisionSystem collisionSystem, EngineConfig config, EventSystem eventSystem,
+      boolean scanExisting) {
     super(config.getGravity());
     this.ecs = ecs;
     this.velocityIterations = config.getVelocityIterations();
     this.positionIterations = config.getPositionIterations();
     this.timeStep = config.getPhysicsTimeStep();
+    this.stepController = new PhysicsStepController(timeStep, config.getPhysicsMaxSubSteps());
     this.eventSystem = eventSystem;
 
     // Enable auto-sleeping for bodies that haven't moved
@@ -59,7 +96,11 @@ public class PhysicsWorld extends World implements PhysicsSystem {
     LOGGER.info("Physics world created with optimized settings: " +
         "iterations(" + velocityIterations + "," + positionIterations + "), " +
         "timeStep=" + timeStep + ", sleeping=" + config.isEnableBodySleeping());
-    initializePhysicsBodies();
+
+    // Pick up entities that were created before the world
+    if (scanExisting) {
+      scanForNewBodies();
+    }
   }
 
   /**
@@ -73,45 +114,119 @@ public class PhysicsWorld extends World implements PhysicsSystem {
   }
 
   /**
-   * Updates physics bodies for all entities that have physics components
+   * Queue an entity for body creation. The body is created from its
+   * PhysicsBodyComponent and collider at the start of the next update, so
+   * components added in the meantime (colliders, filters) are still applied.
+   *
+   * @param entity Entity with a PhysicsBodyComponent that has no body yet
+   */
+  public void queueBody(Entity entity) {
+    if (entity != null) {
+      pendingBodies.add(entity);
+    }
+  }
+
+  /**
+   * Get the number of entities waiting for a body
+   *
+   * @return Pending body count
+   */
+  public int getPendingBodyCount() {
+    return pendingBodies.size();
+  }
+
+  /**
+   * Queue every entity with a PhysicsBodyComponent but no body yet. This
+   * visits all physics entities; it is only needed for entities whose
+   * components were added without {@link #queueBody}, e.g. after loading a
+   * saved world.
    */
-  private void initializePhysicsBodies() {
-    // Find all entities with PhysicsBodyComponent but no Body yet
+  public void scanForNewBodies() {
     ecs.findEntitiesWith(PhysicsBodyComponent.class).stream()
         .forEach(result -> {
-          PhysicsBodyComponent physics = result.comp();
-          if (physics.getBody() == null) {
-            Body body = createBody(physics.getBodyDef());
-
-            // Apply correct shape based on collider type
-            if (result.entity().has(BoxCollider.class)) {
-              BoxCollider boxCollider = result.entity().get(BoxCollider.class);
-              physics.setShape(boxCollider.getShape());
-              physics.setWidth(boxCollider.getWidth());
-              physics.setHeight(boxCollider.getHeight());
-            } else if (result.entity().has(CircleCollider.class)) {
-              CircleCollider circleCollider = result.entity().get(CircleCollider.class);
-              physics.setShape(circleCollider.getShape());
-              physics.setWidth(circleCollider.getRadius() * 2);
-              physics.setHeight(circleCollider.getRadius() * 2);
-            } else if (result.entity().has(PolygonCollider.class)) {
-              PolygonCollider polygonCollider = result.entity().get(PolygonCollider.class);
-              physics.setShape(polygonCollider.getShape());
-              // Set approximate width/height for debug rendering
-              calculatePolygonBounds(polygonCollider, physics);
-            }
-
-            // Create fixture with the shape
-            body.createFixture(physics.getFixtureDef());
-            physics.setBody(body);
-            body.setUserData(result.entity());
-
-            // Log initial position for debugging
-            System.out.println("Body created at: " + body.getPosition().x + ", " + body.getPosition().y);
+          if (result.comp().getBody() == null) {
+            pendingBodies.add(result.entity());
           }
         });
   }
 
+  /**
+   * Create the bodies of all queued entities
+   *
+   * @return Number of bodies created
+   */
+  private int createPendingBodies() {
+    return createPendingBodies(null);
+  }
+
+  /**
+   * Create the bodies of all queued entities
+   *
+   * @param createdBodies List the new bodies are added to, or null
+   * @return Number of bodies created
+   */
+  int createPendingBodies(List<Body> createdBodies) {
+    int created = 0;
+    Entity entity;
+    while ((entity = pendingBodies.poll()) != null) {
+      if (entity.isDeleted()) {
+        continue;
+      }
+      PhysicsBodyComponent physics = entity.get(PhysicsBodyComponent.class);
+      // Skip entities queued twice or whose physics was removed again
+      if (physics == null || physics.getBody() != null) {
+        continue;
+      }
+      Body body = createBodyFor(entity, physics);
+      if (createdBodies != null) {
+        createdBodies.add(body);
+      }
+      created++;
+    }
+    if (created > 0) {
+      LOGGER.fine("Created " + created + " physics bodies");
+    }
+    return created;
+  }
+
+  private Body createBodyFor(Entity entity, PhysicsBodyComponent physics) {
+    Body body = createBody(physics.getBodyDef());
+
+    // Apply correct shape based on collider type
+    BoxCollider boxCollider = entity.get(BoxCollider.class);
+    if (boxCollider != null) {
+      physics.setShape(boxCollider.getShape());
+      physics.setWidth(boxCollider.getWidth());
+      physics.setHeight(boxCollider.getHeight());
+    } else {
+      CircleCollider circleCollider = entity.get(CircleCollider.class);
+      if (circleCollider != null) {
+        physics.setShape(circleCollider.getShape());
+        physics.setWidth(circleCollider.getRadius() * 2);
+        physics.setHeight(circleCollider.getRadius() * 2);
+      } else {
+        PolygonCollider polygonCollider = entity.get(PolygonCollider.class);
+        if (polygonCollider != null) {
+          physics.setShape(polygonCollider.getShape());
+          // Set approximate width/height for debug rendering
+          calculatePolygonBounds(polygonCollider, physics);
+        }
+      }
+    }
+
+    // Create fixture with the shape
+    body.createFixture(physics.getFixtureDef());
+    physics.setBody(body);
+    body.setUserData(entity);
+
+    // Bodies that never wake up are not synced again
+    Transform transform = entity.get(Transform.class);
+    if (transform != null) {
+      syncTransform(body, transform);
+    }
+    return body;
+  }
+
   /**
    * Calculate approximate bounds of a polygon collider for debug rendering
    *
@@ -146,53 +261,161 @@ public class PhysicsWorld extends World implements PhysicsSystem {
    * Steps the physics simulation and updates entity transforms
    */
   public void update(double deltaTime) {
-    // Use fixed time steps with accumulator for stable physics
-    accumulator += (float) deltaTime;
-
-    // Prevent spiral of death if game slows down severely
-    if (accumulator > 0.2f) {
-      accumulator = 0.2f;
-    }
-
-    // Perform multiple sub-steps if needed
-    while (accumulator >= timeStep) {
-      // Fire pre-step event
-      eventSystem.fireEvent(EventTypes.PHYSICS_STEP, "deltaTime", timeStep);
+    // Create the bodies queued since the last update before stepping
+    createPendingBodies();
+
+    // Use fixed time steps, within the step budget, for stable physics
+    int steps = stepController.advance(deltaTime);
+    for (int i = 0; i < steps; i++) {
+      // Notify pre-step
+      for (PhysicsListener listener : physicsListeners) {
+        listener.onStep(timeStep);
+      }
+      if (eventSystem.hasListeners(EventTypes.PHYSICS_STEP)) {
+        eventSystem.fireEvent(EventTypes.PHYSICS_STEP, "deltaTime", timeStep);
+      }
 
       // Execute physics step
+      long stepStart = System.nanoTime();
       this.step(timeStep, velocityIterations, positionIterations);
-      accumulator -= timeStep;
+      stepController.recordStep(System.nanoTime() - stepStart);
     }
 
-    // Update transforms of all entities with physics bodies
-    ecs.findEntitiesWith(PhysicsBodyComponent.class, Transform.class)
-        .forEach(this::updateTransformFromBody);
+    // Prevent spiral of death: the backlog beyond the budget was dropped
+    if (!stepController.isLoopDriven() && stepController.isOverloaded()) {
+      fireOverload(steps, deltaTime);
+    }
 
-    // Check for new physics bodies
-    initializePhysicsBodies();
+    // Update transforms of the entities whose bodies can have moved
+    long syncStart = System.nanoTime();
+    syncAwakeBodies();
+    stepController.recordSync(System.nanoTime() - syncStart);
   }
 
-  private void updateTransformFromBody(With2<PhysicsBodyComponent, Transform> result) {
-    PhysicsBodyComponent physics = result.comp1();
-    Transform transform = result.comp2();
-    Body body = physics.getBody();
+  /**
+   * Report a frame of the fixed-step loop that calls {@link #update} with one
+   * time step per tick. The loop owns the step budget, so this is where its
+   * dropped backlog becomes a physics overload and its alpha the
+   * interpolation alpha.
+   *
+   * @param steps        Ticks run for the frame
+   * @param maxSteps     Tick budget of a frame
+   * @param droppedSteps Ticks dropped after the budget was exhausted
+   * @param alpha        Interpolation factor of the frame
+   */
+  public void recordFrame(int steps, int maxSteps, int droppedSteps, float alpha) {
+    stepController.recordFrame(steps, maxSteps, droppedSteps, alpha);
+    if (stepController.isOverloaded()) {
+      fireOverload(steps, (steps + droppedSteps) * (double) timeStep);
+    }
+  }
 
-    if (body != null) {
-      // Get position and angle from physics body
-      Vec2 position = body.getPosition();
-      float angle = body.getAngle();
+  private void fireOverload(int steps, double deltaTime) {
+    eventSystem.fireEvent(EventTypes.PHYSICS_OVERLOAD,
+        "subSteps", steps,
+        "maxSubSteps", stepController.getMaxSubSteps(),
+        "droppedTime", stepController.getLastDroppedTime(),
+        "deltaTime", deltaTime,
+        "stepMillis", stepController.getStepTimes().getMeanMillis(),
+        "overloadCount", stepController.getOverloadCount());
+  }
 
-      // Convert from physics world to render world
-      // Both Box2D and our render system now use Y+ up
-      float worldX = position.x * worldUnitsPerMeter;
-      float worldY = position.y * worldUnitsPerMeter;
+  /**
+   * Get the step budget, interpolation alpha and timing histograms. JBox2D's
+   * own smoothed per-phase timings (collide, solve, broadphase, ...) are
+   * available as text through {@code getProfile().toDebugStrings(list)}.
+   *
+   * @return The step controller
+   */
+  public PhysicsStepController getStepController() {
+    return stepController;
+  }
 
-      // Apply the transform update
-      transform.setX(worldX);
-      transform.setY(worldY);
-      transform.setRotation(angle);
+  /**
+   * Get how far the simulation is between its last step and the next one,
+   * for interpolating rendered body positions
+   *
+   * @return Interpolation alpha in [0, 1)
+   */
+  public float getInterpolationAlpha() {
+    return stepController.getAlpha();
+  }
 
+  /**
+   * Copy body positions to entity transforms. Static and sleeping bodies
+   * cannot have moved during the step, so only awake dynamic and kinematic
+   * bodies are synced, found through the world's body list rather than an
+   * ECS query. A body that fell asleep since the last sync moved before it
+   * did, so it is synced once more.
+   */
+  private void syncAwakeBodies() {
+    int synced = 0;
+    int skipped = 0;
+    for (Body body = getBodyList(); body != null; body = body.getNext()) {
+      if (body.getType() == BodyType.STATIC) {
+        skipped++;
+        continue;
+      }
+      if (body.isAwake()) {
+        awakeAtSync.add(body);
+      } else if (!awakeAtLastSync.contains(body)) {
+        skipped++;
+        continue;
+      }
+
+      // Bodies created for entities carry the entity as user data
+      Object userData = body.getUserData();
+      Transform transform = userData instanceof Entity ? ((Entity) userData).get(Transform.class) : null;
+      if (transform == null) {
+        skipped++;
+        continue;
+      }
+      syncTransform(body, transform);
+      synced++;
     }
+    syncedBodyCount = synced;
+    skippedBodyCount = skipped;
+
+    Set<Body> previous = awakeAtLastSync;
+    previous.clear();
+    awakeAtLastSync = awakeAtSync;
+    awakeAtSync = previous;
+  }
+
+  private void syncTransform(Body body, Transform transform) {
+    // Get position and angle from physics body
+    Vec2 position = body.getPosition();
+    float angle = body.getAngle();
+
+    // Convert from physics world to render world
+    // Both Box2D and our render system now use Y+ up
+    float worldX = position.x * worldUnitsPerMeter;
+    float worldY = position.y * worldUnitsPerMeter;
+
+    // Apply the transform update
+    transform.setX(worldX);
+    transform.setY(worldY);
+    transform.setRotation(angle);
+  }
+
+  /**
+   * Get the number of bodies whose transforms were synced after the last
+   * update
+   *
+   * @return Synced body count
+   */
+  public int getSyncedBodyCount() {
+    return syncedBodyCount;
+  }
+
+  /**
+   * Get the number of static, sleeping or entity-less bodies skipped by the
+   * last transform sync
+   *
+   * @return Skipped body count
+   */
+  public int getSkippedBodyCount() {
+    return skippedBodyCount;
   }
 
   // Helper methods for physics body creation
@@ -333,15 +556,54 @@ public class PhysicsWorld extends World implements PhysicsSystem {
     return body;
   }
 
+  /**
+   * Register a typed listener for steps, body lifecycle and gravity changes.
+   * Prefer this over the physics string events for per-step or per-body work;
+   * those events are only built when someone listens for them.
+   *
+   * @param listener The listener
+   */
+  public synchronized void addPhysicsListener(PhysicsListener listener) {
+    PhysicsListener[] current = physicsListeners;
+    PhysicsListener[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = listener;
+    physicsListeners = updated;
+  }
+
+  /**
+   * Remove a typed listener
+   *
+   * @param listener The listener
+   * @return Whether the listener was registered
+   */
+  public synchronized boolean removePhysicsListener(PhysicsListener listener) {
+    PhysicsListener[] current = physicsListeners;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] == listener) {
+        PhysicsListener[] updated = new PhysicsListener[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, i);
+        System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+        physicsListeners = updated;
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public Body createBody(BodyDef def) {
     Body body = super.createBody(def);
 
-    // Fire body creation event
-    eventSystem.fireEvent(EventTypes.PHYSICS_BODY_CREATED,
-        "body", body,
-        "position", body.getPosition(),
-        "type", body.getType());
+    // Notify body creation
+    for (PhysicsListener listener : physicsListeners) {
+      listener.onBodyCreated(body);
+    }
+    if (eventSystem.hasListeners(EventTypes.PHYSICS_BODY_CREATED)) {
+      eventSystem.fireEvent(EventTypes.PHYSICS_BODY_CREATED,
+          "body", body,
+          "position", body.getPosition(),
+          "type", body.getType());
+    }
 
     return body;
   }
@@ -349,10 +611,15 @@ public class PhysicsWorld extends World implements PhysicsSystem {
   @Override
   public void destroyBody(Body body) {
     if (body != null) {
-      // Fire body destruction event
-      eventSystem.fireEvent(EventTypes.PHYSICS_BODY_DESTROYED,
-          "body", body,
-          "userData", body.getUserData());
+      // Notify body destruction
+      for (PhysicsListener listener : physicsListeners) {
+        listener.onBodyDestroyed(body);
+      }
+      if (eventSystem.hasListeners(EventTypes.PHYSICS_BODY_DESTROYED)) {
+        eventSystem.fireEvent(EventTypes.PHYSICS_BODY_DESTROYED,
+            "body", body,
+            "userData", body.getUserData());
+      }
     }
     super.destroyBody(body);
   }
@@ -361,10 +628,15 @@ public class PhysicsWorld extends World implements PhysicsSystem {
   public void setGravity(Vec2 gravity) {
     super.setGravity(gravity);
 
-    // Fire gravity changed event
-    eventSystem.fireEvent(EventTypes.PHYSICS_GRAVITY_CHANGED,
-        "gravity", gravity,
-        "x", gravity.x,
-        "y", gravity.y);
+    // Notify gravity change
+    for (PhysicsListener listener : physicsListeners) {
+      listener.onGravityChanged(gravity.x, gravity.y);
+    }
+    if (eventSystem.hasListeners(EventTypes.PHYSICS_GRAVITY_CHANGED)) {
+      eventSystem.fireEvent(EventTypes.PHYSICS_GRAVITY_CHANGED,
+          "gravity", gravity,
+          "x", gravity.x,
+          "y", gravity.y);
+    }
   }
 }
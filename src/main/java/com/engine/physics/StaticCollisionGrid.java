@@ -0,0 +1,230 @@
+package com.engine.physics;
+
+import java.util.Collections;
+import java.util.logging.Logger;
+
+import org.jbox2d.collision.AABB;
+import org.jbox2d.collision.shapes.Shape;
+import org.jbox2d.collision.shapes.ShapeType;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.BodyType;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.World;
+
+/**
+ * Occupancy grid of the static fixtures in one or more physics worlds, in
+ * game units.
+ * <p>
+ * Lightweight particles collide against this grid instead of having bodies
+ * of their own: a lookup is an array read, and the grid can be read from any
+ * number of update threads at once. Solid fixtures mark the cells whose
+ * centers they contain. Fixtures thinner than a cell, which may contain no
+ * center at all, and edge and chain shapes, which have no interior, mark
+ * every cell their bounds touch instead.
+ * <p>
+ * The grid is a snapshot. Call {@link #bake} again after static geometry
+ * changes; each bake publishes a complete new snapshot, so it may run while
+ * other threads are reading the grid.
+ */
+public class StaticCollisionGrid {
+  private static final Logger LOGGER = Logger.getLogger(StaticCollisionGrid.class.getName());
+
+  private final float cellSize;
+  private final float inverseCellSize;
+
+  /**
+   * Cells of one bake; never modified once published
+   */
+  private static final class Cells {
+    final float originX;
+    final float originY;
+    final int columns;
+    final int rows;
+    final boolean[] solid;
+    final int solidCount;
+
+    Cells(float originX, float originY, int columns, int rows, boolean[] solid, int solidCount) {
+      this.originX = originX;
+      this.originY = originY;
+      this.columns = columns;
+      this.rows = rows;
+      this.solid = solid;
+      this.solidCount = solidCount;
+    }
+  }
+
+  private static final Cells EMPTY = new Cells(0, 0, 0, 0, new boolean[0], 0);
+
+  private volatile Cells cells = EMPTY;
+
+  /**
+   * Create an empty grid
+   *
+   * @param cellSize Edge length of a cell in game units
+   */
+  public StaticCollisionGrid(float cellSize) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("Cell size must be positive");
+    }
+    this.cellSize = cellSize;
+    this.inverseCellSize = 1.0f / cellSize;
+  }
+
+  /**
+   * Rebuild the grid from the static bodies of a world
+   *
+   * @param world   The physics world
+   * @param physics Converts between physics and game units
+   */
+  public void bake(World world, PhysicsSystem physics) {
+    bake(Collections.singletonList(world), physics);
+  }
+
+  /**
+   * Rebuild the grid from the static bodies of several worlds, e.g. every
+   * region of a {@link PhysicsRegionManager}
+   *
+   * @param worlds  The physics worlds
+   * @param physics Converts between physics and game units
+   */
+  public void bake(Iterable<? extends World> worlds, PhysicsSystem physics) {
+    AABB bounds = new AABB();
+    AABB childBounds = new AABB();
+
+    // First pass: extent of all static fixtures
+    float x0 = Float.POSITIVE_INFINITY;
+    float y0 = Float.POSITIVE_INFINITY;
+    float x1 = Float.NEGATIVE_INFINITY;
+    float y1 = Float.NEGATIVE_INFINITY;
+    for (World world : worlds) {
+      for (Body body = world.getBodyList(); body != null; body = body.getNext()) {
+        if (body.getType() != BodyType.STATIC) {
+          continue;
+        }
+        for (Fixture fixture = body.getFixtureList(); fixture != null; fixture = fixture.getNext()) {
+          if (fixture.isSensor()) {
+            continue;
+          }
+          Shape shape = fixture.getShape();
+          for (int child = 0; child < shape.getChildCount(); child++) {
+            shape.computeAABB(bounds, body.getTransform(), child);
+            x0 = Math.min(x0, physics.fromPhysicsWorld(bounds.lowerBound.x));
+            y0 = Math.min(y0, physics.fromPhysicsWorld(bounds.lowerBound.y));
+            x1 = Math.max(x1, physics.fromPhysicsWorld(bounds.upperBound.x));
+            y1 = Math.max(y1, physics.fromPhysicsWorld(bounds.upperBound.y));
+          }
+        }
+      }
+    }
+
+    if (x0 > x1) {
+      cells = EMPTY;
+      return;
+    }
+
+    float originX = (float) Math.floor(x0 * inverseCellSize) * cellSize;
+    float originY = (float) Math.floor(y0 * inverseCellSize) * cellSize;
+    int columns = (int) Math.ceil((x1 - originX) * inverseCellSize) + 1;
+    int rows = (int) Math.ceil((y1 - originY) * inverseCellSize) + 1;
+    boolean[] solid = new boolean[columns * rows];
+
+    // Second pass: mark the cells each fixture covers
+    Vec2 center = new Vec2();
+    int marked = 0;
+    for (World world : worlds) {
+      for (Body body = world.getBodyList(); body != null; body = body.getNext()) {
+        if (body.getType() != BodyType.STATIC) {
+          continue;
+        }
+        for (Fixture fixture = body.getFixtureList(); fixture != null; fixture = fixture.getNext()) {
+          if (fixture.isSensor()) {
+            continue;
+          }
+          Shape shape = fixture.getShape();
+          boolean hollow = shape.getType() == ShapeType.EDGE || shape.getType() == ShapeType.CHAIN;
+          for (int child = 0; child < shape.getChildCount(); child++) {
+            shape.computeAABB(childBounds, body.getTransform(), child);
+            float minX = physics.fromPhysicsWorld(childBounds.lowerBound.x);
+            float minY = physics.fromPhysicsWorld(childBounds.lowerBound.y);
+            float maxX = physics.fromPhysicsWorld(childBounds.upperBound.x);
+            float maxY = physics.fromPhysicsWorld(childBounds.upperBound.y);
+            int cx0 = cellX(minX, originX, columns);
+            int cy0 = cellY(minY, originY, rows);
+            int cx1 = cellX(maxX, originX, columns);
+            int cy1 = cellY(maxY, originY, rows);
+
+            // A fixture thinner than a cell can fall between cell centers
+            boolean coarse = hollow || maxX - minX < cellSize || maxY - minY < cellSize;
+            for (int cy = cy0; cy <= cy1; cy++) {
+              for (int cx = cx0; cx <= cx1; cx++) {
+                int cell = cy * columns + cx;
+                if (solid[cell]) {
+                  continue;
+                }
+                if (!coarse) {
+                  center.set(physics.toPhysicsWorld(originX + (cx + 0.5f) * cellSize),
+                      physics.toPhysicsWorld(originY + (cy + 0.5f) * cellSize));
+                  if (!fixture.testPoint(center)) {
+                    continue;
+                  }
+                }
+                solid[cell] = true;
+                marked++;
+              }
+            }
+          }
+        }
+      }
+    }
+
+    cells = new Cells(originX, originY, columns, rows, solid, marked);
+    LOGGER.fine("Baked static collision grid: " + columns + "x" + rows + " cells, " + marked + " solid");
+  }
+
+  private int cellX(float x, float originX, int columns) {
+    return Math.max(0, Math.min(columns - 1, (int) ((x - originX) * inverseCellSize)));
+  }
+
+  private int cellY(float y, float originY, int rows) {
+    return Math.max(0, Math.min(rows - 1, (int) ((y - originY) * inverseCellSize)));
+  }
+
+  /**
+   * Check whether a point lies in a solid cell
+   *
+   * @param x X coordinate in game units
+   * @param y Y coordinate in game units
+   * @return True if the point is inside static geometry
+   */
+  public boolean isSolid(float x, float y) {
+    Cells c = cells;
+    float fx = (x - c.originX) * inverseCellSize;
+    float fy = (y - c.originY) * inverseCellSize;
+    if (fx < 0 || fy < 0 || fx >= c.columns || fy >= c.rows) {
+      return false;
+    }
+    return c.solid[(int) fy * c.columns + (int) fx];
+  }
+
+  public float getCellSize() {
+    return cellSize;
+  }
+
+  public int getColumns() {
+    return cells.columns;
+  }
+
+  public int getRows() {
+    return cells.rows;
+  }
+
+  /**
+   * Get the number of cells marked solid by the last bake
+   *
+   * @return Solid cell count
+   */
+  public int getSolidCellCount() {
+    return cells.solidCount;
+  }
+}
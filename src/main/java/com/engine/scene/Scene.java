@@ -130,11 +130,14 @@ public abstract class Scene implements EntityRegistrar {
    * entity itself
    */
   private void cleanupEntityComponents(Entity entity) {
+    // Stop culling it; hidden components would otherwise stay indexed
+    engine.getRenderer().untrack(entity);
+
     // Clean up physics component
     try {
       PhysicsBodyComponent physicsComponent = entity.get(PhysicsBodyComponent.class);
       if (physicsComponent != null && physicsComponent.getBody() != null) {
-        engine.getPhysicsWorld().removeBody(physicsComponent.getBody());
+        engine.getPhysicsRegions().removeBody(physicsComponent.getBody());
         LOGGER.fine("Removed physics component from entity");
       }
     } catch (Exception e) {
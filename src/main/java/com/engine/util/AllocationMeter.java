@@ -0,0 +1,51 @@
+package com.engine.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Logger;
+
+/**
+ * Measures heap allocation of the current thread, for tracking garbage
+ * produced by hot paths such as frame recording and drawing.
+ * <p>
+ * Relies on the HotSpot {@code com.sun.management.ThreadMXBean} extension;
+ * on JVMs without it every measurement reports -1.
+ */
+public final class AllocationMeter {
+  private static final Logger LOGGER = Logger.getLogger(AllocationMeter.class.getName());
+  private static final com.sun.management.ThreadMXBean THREAD_BEAN = lookupBean();
+
+  private AllocationMeter() {
+  }
+
+  private static com.sun.management.ThreadMXBean lookupBean() {
+    try {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) bean;
+        if (hotspotBean.isThreadAllocatedMemorySupported()) {
+          hotspotBean.setThreadAllocatedMemoryEnabled(true);
+          return hotspotBean;
+        }
+      }
+    } catch (Exception | LinkageError e) {
+      LOGGER.fine("Thread allocation measurement unavailable: " + e);
+    }
+    return null;
+  }
+
+  /**
+   * Check if allocation measurement is available on this JVM
+   */
+  public static boolean isSupported() {
+    return THREAD_BEAN != null;
+  }
+
+  /**
+   * Get the total number of bytes allocated by the calling thread so far
+   *
+   * @return Allocated bytes, or -1 if unsupported
+   */
+  public static long currentThreadAllocatedBytes() {
+    return THREAD_BEAN != null ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : -1;
+  }
+}
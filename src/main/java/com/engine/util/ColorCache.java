@@ -0,0 +1,51 @@
+package com.engine.util;
+
+import java.awt.Color;
+
+/**
+ * Shared cache of {@link Color} objects for packed ARGB values, so code that
+ * fills shapes one particle at a time does not allocate a Color per particle.
+ * <p>
+ * Values are quantized to 64 levels per channel before lookup, which keeps
+ * fading and color-lerped particles on a small set of colors; fully opaque and
+ * fully transparent values and pure black and white are kept exact. The
+ * table is direct mapped: a colliding value replaces the slot. Colors are
+ * immutable, so any thread may read and fill the table without locking; a
+ * race costs at most an extra allocation.
+ */
+public final class ColorCache {
+  private static final int SIZE = 4096;
+  private static final Color[] COLORS = new Color[SIZE];
+
+  private ColorCache() {
+  }
+
+  /**
+   * Get a color close to a packed ARGB value
+   *
+   * @param argb Color with alpha in the high byte
+   * @return A cached color whose channels differ from the value by at most 3
+   */
+  public static Color get(int argb) {
+    int quantized = quantize(argb);
+    int slot = (quantized ^ (quantized >>> 11) ^ (quantized >>> 22)) & (SIZE - 1);
+    Color color = COLORS[slot];
+    if (color == null || color.getRGB() != quantized) {
+      color = new Color(quantized, true);
+      COLORS[slot] = color;
+    }
+    return color;
+  }
+
+  /**
+   * Round every channel of a packed ARGB value down to a multiple of 4 and
+   * copy its top bits into the freed low bits, so 0 and 255 map to themselves
+   *
+   * @param argb Color with alpha in the high byte
+   * @return The quantized value
+   */
+  public static int quantize(int argb) {
+    int high = argb & 0xFCFCFCFC;
+    return high | ((high >>> 6) & 0x03030303);
+  }
+}
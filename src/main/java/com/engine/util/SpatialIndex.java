@@ -0,0 +1,493 @@
+package com.engine.util;
+
+import java.util.Arrays;
+
+/**
+ * A persistent uniform-grid spatial index over axis-aligned boxes.
+ * <p>
+ * Entries are identified by small int ids handed out by {@link #insert}. The
+ * index is kept across frames: moving an entry only touches the grid when its
+ * box crosses into a different range of cells, so entries that stay put or
+ * move within a cell cost a few field writes. Cells are stored in an
+ * open-addressing table keyed by a packed {@code long} cell coordinate, and
+ * queries write matching ids into a caller-provided array, so steady-state
+ * use does not allocate.
+ * <p>
+ * Entries whose box would cover more than {@link #MAX_CELLS_PER_ENTRY} cells
+ * are kept in a separate list that every query scans, rather than being
+ * spread over a huge number of cells. Not thread-safe.
+ */
+public class SpatialIndex {
+  /** Boxes covering more cells than this are tracked as oversized */
+  public static final int MAX_CELLS_PER_ENTRY = 64;
+
+  private static final long EMPTY_KEY = Long.MIN_VALUE;
+  private static final int INITIAL_CELL_CAPACITY = 4;
+
+  private final float cellSize;
+  private final float inverseCellSize;
+
+  // Entry data, indexed by id
+  private float[] minX;
+  private float[] minY;
+  private float[] maxX;
+  private float[] maxY;
+  private int[] cellX0;
+  private int[] cellY0;
+  private int[] cellX1;
+  private int[] cellY1;
+  private boolean[] alive;
+  private boolean[] oversized;
+  private int[] queryStamp;
+  private int[] freeIds;
+  private int freeCount = 0;
+  private int idLimit = 0;
+  private int size = 0;
+  private int currentStamp = 0;
+
+  // Open-addressing table from packed cell coordinate to cell slot
+  private long[] tableKeys;
+  private int[] tableSlots;
+  private int tableCount = 0;
+
+  // Cell contents, indexed by cell slot
+  private int[][] cellItems;
+  private int[] cellSizes;
+  private int cellCount = 0;
+
+  // Entries too large to spread over cells
+  private int[] oversizedIds = new int[16];
+  private int oversizedCount = 0;
+
+  /**
+   * Create an index with the given cell size
+   *
+   * @param cellSize Edge length of a grid cell in world units
+   */
+  public SpatialIndex(float cellSize) {
+    this(cellSize, 256);
+  }
+
+  /**
+   * Create an index with the given cell size and initial entry capacity
+   *
+   * @param cellSize        Edge length of a grid cell in world units
+   * @param initialCapacity Number of entries to allocate room for
+   */
+  public SpatialIndex(float cellSize, int initialCapacity) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+    }
+    this.cellSize = cellSize;
+    this.inverseCellSize = 1.0f / cellSize;
+
+    int capacity = Math.max(16, initialCapacity);
+    minX = new float[capacity];
+    minY = new float[capacity];
+    maxX = new float[capacity];
+    maxY = new float[capacity];
+    cellX0 = new int[capacity];
+    cellY0 = new int[capacity];
+    cellX1 = new int[capacity];
+    cellY1 = new int[capacity];
+    alive = new boolean[capacity];
+    oversized = new boolean[capacity];
+    queryStamp = new int[capacity];
+    freeIds = new int[capacity];
+
+    tableKeys = new long[256];
+    Arrays.fill(tableKeys, EMPTY_KEY);
+    tableSlots = new int[256];
+    cellItems = new int[128][];
+    cellSizes = new int[128];
+  }
+
+  /**
+   * Add a box to the index
+   *
+   * @return The id of the new entry
+   */
+  public int insert(float minX, float minY, float maxX, float maxY) {
+    int id;
+    if (freeCount > 0) {
+      id = freeIds[--freeCount];
+    } else {
+      if (idLimit == alive.length) {
+        growEntries(alive.length * 2);
+      }
+      id = idLimit++;
+    }
+
+    alive[id] = true;
+    size++;
+    setBounds(id, minX, minY, maxX, maxY);
+    link(id);
+    return id;
+  }
+
+  /**
+   * Move an entry to a new box. Only touches the grid if the set of covered
+   * cells changes.
+   *
+   * @param id Entry id returned by {@link #insert}
+   */
+  public void update(int id, float minX, float minY, float maxX, float maxY) {
+    if (!contains(id)) {
+      return;
+    }
+
+    int x0 = toCell(minX);
+    int y0 = toCell(minY);
+    int x1 = toCell(maxX);
+    int y1 = toCell(maxY);
+
+    if (x0 == cellX0[id] && y0 == cellY0[id] && x1 == cellX1[id] && y1 == cellY1[id]) {
+      this.minX[id] = minX;
+      this.minY[id] = minY;
+      this.maxX[id] = maxX;
+      this.maxY[id] = maxY;
+      return;
+    }
+
+    unlink(id);
+    setBounds(id, minX, minY, maxX, maxY);
+    link(id);
+  }
+
+  /**
+   * Remove an entry. Its id may be handed out again by a later insert.
+   *
+   * @param id Entry id returned by {@link #insert}
+   */
+  public void remove(int id) {
+    if (!contains(id)) {
+      return;
+    }
+    unlink(id);
+    alive[id] = false;
+    size--;
+
+    if (freeCount == freeIds.length) {
+      freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+    }
+    freeIds[freeCount++] = id;
+  }
+
+  /**
+   * Remove every entry, keeping allocated storage
+   */
+  public void clear() {
+    for (int i = 0; i < cellCount; i++) {
+      cellSizes[i] = 0;
+    }
+    Arrays.fill(alive, 0, idLimit, false);
+    oversizedCount = 0;
+    freeCount = 0;
+    idLimit = 0;
+    size = 0;
+  }
+
+  /**
+   * Check if an id refers to a live entry
+   */
+  public boolean contains(int id) {
+    return id >= 0 && id < idLimit && alive[id];
+  }
+
+  /**
+   * Find all entries whose box overlaps the query box
+   *
+   * @param out Array receiving matching ids, each reported once
+   * @return The total number of matches. If it exceeds {@code out.length}
+   *         only the first {@code out.length} ids were written and the query
+   *         should be repeated with a larger array.
+   */
+  public int query(float minX, float minY, float maxX, float maxY, int[] out) {
+    int stamp = nextStamp();
+    int found = 0;
+
+    int x0 = toCell(minX);
+    int y0 = toCell(minY);
+    int x1 = toCell(maxX);
+    int y1 = toCell(maxY);
+
+    // A huge or unbounded query is cheaper as a scan over every entry
+    long cells = cellSpan(x0, y0, x1, y1);
+    if (cells <= 0 || cells > Math.max(cellCount, 1)) {
+      for (int id = 0; id < idLimit; id++) {
+        if (alive[id] && overlaps(id, minX, minY, maxX, maxY)) {
+          if (found < out.length) {
+            out[found] = id;
+          }
+          found++;
+        }
+      }
+      return found;
+    }
+
+    for (int cy = y0; cy <= y1; cy++) {
+      for (int cx = x0; cx <= x1; cx++) {
+        int slot = findSlot(cx, cy);
+        if (slot < 0) {
+          continue;
+        }
+        int[] items = cellItems[slot];
+        int count = cellSizes[slot];
+        for (int i = 0; i < count; i++) {
+          int id = items[i];
+          if (queryStamp[id] != stamp) {
+            queryStamp[id] = stamp;
+            if (overlaps(id, minX, minY, maxX, maxY)) {
+              if (found < out.length) {
+                out[found] = id;
+              }
+              found++;
+            }
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < oversizedCount; i++) {
+      int id = oversizedIds[i];
+      if (overlaps(id, minX, minY, maxX, maxY)) {
+        if (found < out.length) {
+          out[found] = id;
+        }
+        found++;
+      }
+    }
+
+    return found;
+  }
+
+  /**
+   * Get the number of live entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the number of grid cells that have been allocated
+   */
+  public int getCellCount() {
+    return cellCount;
+  }
+
+  public float getCellSize() {
+    return cellSize;
+  }
+
+  public float getMinX(int id) {
+    return minX[id];
+  }
+
+  public float getMinY(int id) {
+    return minY[id];
+  }
+
+  public float getMaxX(int id) {
+    return maxX[id];
+  }
+
+  public float getMaxY(int id) {
+    return maxY[id];
+  }
+
+  private boolean overlaps(int id, float qMinX, float qMinY, float qMaxX, float qMaxY) {
+    return maxX[id] >= qMinX && minX[id] <= qMaxX && maxY[id] >= qMinY && minY[id] <= qMaxY;
+  }
+
+  private int nextStamp() {
+    currentStamp++;
+    if (currentStamp == 0) {
+      // Wrapped around; old stamps could collide
+      Arrays.fill(queryStamp, 0);
+      currentStamp = 1;
+    }
+    return currentStamp;
+  }
+
+  private int toCell(float v) {
+    return (int) Math.floor(v * inverseCellSize);
+  }
+
+  /**
+   * Count the cells in a range without overflowing
+   *
+   * @return The cell count, or -1 if the range reaches a saturated cell
+   *         coordinate, i.e. came from an infinite or out-of-range bound
+   */
+  private static long cellSpan(int x0, int y0, int x1, int y1) {
+    if (x0 == Integer.MIN_VALUE || y0 == Integer.MIN_VALUE
+        || x1 == Integer.MAX_VALUE || y1 == Integer.MAX_VALUE) {
+      return -1;
+    }
+    return ((long) x1 - x0 + 1) * ((long) y1 - y0 + 1);
+  }
+
+  private void setBounds(int id, float minX, float minY, float maxX, float maxY) {
+    this.minX[id] = minX;
+    this.minY[id] = minY;
+    this.maxX[id] = maxX;
+    this.maxY[id] = maxY;
+    cellX0[id] = toCell(minX);
+    cellY0[id] = toCell(minY);
+    cellX1[id] = toCell(maxX);
+    cellY1[id] = toCell(maxY);
+  }
+
+  private void link(int id) {
+    // Unbounded boxes are oversized too, so the cell loops below stay finite
+    long cells = cellSpan(cellX0[id], cellY0[id], cellX1[id], cellY1[id]);
+    if (cells > MAX_CELLS_PER_ENTRY || cells <= 0) {
+      oversized[id] = true;
+      if (oversizedCount == oversizedIds.length) {
+        oversizedIds = Arrays.copyOf(oversizedIds, oversizedIds.length * 2);
+      }
+      oversizedIds[oversizedCount++] = id;
+      return;
+    }
+
+    oversized[id] = false;
+    for (int cy = cellY0[id]; cy <= cellY1[id]; cy++) {
+      for (int cx = cellX0[id]; cx <= cellX1[id]; cx++) {
+        int slot = findOrCreateSlot(cx, cy);
+        int count = cellSizes[slot];
+        int[] items = cellItems[slot];
+        if (count == items.length) {
+          items = Arrays.copyOf(items, items.length * 2);
+          cellItems[slot] = items;
+        }
+        items[count] = id;
+        cellSizes[slot] = count + 1;
+      }
+    }
+  }
+
+  private void unlink(int id) {
+    if (oversized[id]) {
+      for (int i = 0; i < oversizedCount; i++) {
+        if (oversizedIds[i] == id) {
+          oversizedIds[i] = oversizedIds[--oversizedCount];
+          break;
+        }
+      }
+      return;
+    }
+
+    for (int cy = cellY0[id]; cy <= cellY1[id]; cy++) {
+      for (int cx = cellX0[id]; cx <= cellX1[id]; cx++) {
+        int slot = findSlot(cx, cy);
+        if (slot < 0) {
+          continue;
+        }
+        int[] items = cellItems[slot];
+        int count = cellSizes[slot];
+        for (int i = 0; i < count; i++) {
+          if (items[i] == id) {
+            // Swap-remove; order within a cell does not matter
+            items[i] = items[count - 1];
+            cellSizes[slot] = count - 1;
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  private static long packKey(int cx, int cy) {
+    return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private int findSlot(int cx, int cy) {
+    long key = packKey(cx, cy);
+    int mask = tableKeys.length - 1;
+    int i = hash(key) & mask;
+    while (true) {
+      long k = tableKeys[i];
+      if (k == key) {
+        return tableSlots[i];
+      }
+      if (k == EMPTY_KEY) {
+        return -1;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  private int findOrCreateSlot(int cx, int cy) {
+    long key = packKey(cx, cy);
+    int mask = tableKeys.length - 1;
+    int i = hash(key) & mask;
+    while (true) {
+      long k = tableKeys[i];
+      if (k == key) {
+        return tableSlots[i];
+      }
+      if (k == EMPTY_KEY) {
+        break;
+      }
+      i = (i + 1) & mask;
+    }
+
+    // New cell
+    if (cellCount == cellItems.length) {
+      cellItems = Arrays.copyOf(cellItems, cellItems.length * 2);
+      cellSizes = Arrays.copyOf(cellSizes, cellSizes.length * 2);
+    }
+    int slot = cellCount++;
+    cellItems[slot] = new int[INITIAL_CELL_CAPACITY];
+    cellSizes[slot] = 0;
+
+    tableKeys[i] = key;
+    tableSlots[i] = slot;
+    tableCount++;
+    if (tableCount * 2 > tableKeys.length) {
+      rehash(tableKeys.length * 2);
+    }
+    return slot;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = tableKeys;
+    int[] oldSlots = tableSlots;
+    tableKeys = new long[capacity];
+    Arrays.fill(tableKeys, EMPTY_KEY);
+    tableSlots = new int[capacity];
+
+    int mask = capacity - 1;
+    for (int j = 0; j < oldKeys.length; j++) {
+      long key = oldKeys[j];
+      if (key == EMPTY_KEY) {
+        continue;
+      }
+      int i = hash(key) & mask;
+      while (tableKeys[i] != EMPTY_KEY) {
+        i = (i + 1) & mask;
+      }
+      tableKeys[i] = key;
+      tableSlots[i] = oldSlots[j];
+    }
+  }
+
+  private void growEntries(int capacity) {
+    minX = Arrays.copyOf(minX, capacity);
+    minY = Arrays.copyOf(minY, capacity);
+    maxX = Arrays.copyOf(maxX, capacity);
+    maxY = Arrays.copyOf(maxY, capacity);
+    cellX0 = Arrays.copyOf(cellX0, capacity);
+    cellY0 = Arrays.copyOf(cellY0, capacity);
+    cellX1 = Arrays.copyOf(cellX1, capacity);
+    cellY1 = Arrays.copyOf(cellY1, capacity);
+    alive = Arrays.copyOf(alive, capacity);
+    oversized = Arrays.copyOf(oversized, capacity);
+    queryStamp = Arrays.copyOf(queryStamp, capacity);
+  }
+}